@@ -22,19 +22,28 @@
 
 package pascal.taie;
 
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.plugin.reflection.LogItem;
+import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
 import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.StringReps;
 import pascal.taie.language.natives.DefaultNativeModel;
 import pascal.taie.language.natives.EmptyNativeModel;
 import pascal.taie.language.natives.NativeModel;
+import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.ClassNameExtractor;
 import pascal.taie.util.collection.Streams;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -51,6 +60,12 @@ public abstract class AbstractWorldBuilder implements WorldBuilder {
 
     protected static final String JREs = "java-benchmarks/JREs";
 
+    /**
+     * Path to the file which specifies the basic classes that should be
+     * loaded in advance.
+     */
+    private static final String BASIC_CLASSES = "basic-classes.yml";
+
     protected static final List<String> implicitEntries = List.of(
             "<java.lang.System: void initializeSystemClass()>",
             "<java.lang.Thread: void <init>(java.lang.ThreadGroup,java.lang.Runnable)>",
@@ -71,28 +86,37 @@ public abstract class AbstractWorldBuilder implements WorldBuilder {
         if (options.isPrependJVM()) {
             return String.join(File.pathSeparator, options.getClassPath());
         } else { // when prependJVM is not set, we manually specify JRE jars
-            // check existence of JREs
-            File jreDir = new File(JREs);
-            if (!jreDir.exists()) {
-                throw new RuntimeException("""
-                        Failed to locate Java library.
-                        Please clone submodule 'java-benchmarks' by command:
-                        'git submodule update --init --recursive' (if you are running Tai-e)
-                        or 'git clone https://github.com/pascal-lab/java-benchmarks' (if you are using Tai-e as a dependency),
-                        then put it in Tai-e's working directory.""");
-            }
-            String jrePath = String.format("%s/jre1.%d",
-                    JREs, options.getJavaVersion());
-            try (Stream<Path> paths = Files.walk(Path.of(jrePath))) {
-                return Streams.concat(
-                                paths.map(Path::toString).filter(p -> p.endsWith(".jar")),
-                                options.getAppClassPath().stream(),
-                                options.getClassPath().stream())
-                        .collect(Collectors.joining(File.pathSeparator));
-            } catch (IOException e) {
-                throw new RuntimeException("Analysis on Java " +
-                        options.getJavaVersion() + " library is not supported yet", e);
-            }
+            return Streams.concat(
+                            getJREJars(options).stream(),
+                            options.getAppClassPath().stream(),
+                            options.getClassPath().stream())
+                    .collect(Collectors.joining(File.pathSeparator));
+        }
+    }
+
+    /**
+     * @return paths of the jar files of the JRE specified by {@code options}.
+     */
+    protected static List<String> getJREJars(Options options) {
+        // check existence of JREs
+        File jreDir = new File(JREs);
+        if (!jreDir.exists()) {
+            throw new RuntimeException("""
+                    Failed to locate Java library.
+                    Please clone submodule 'java-benchmarks' by command:
+                    'git submodule update --init --recursive' (if you are running Tai-e)
+                    or 'git clone https://github.com/pascal-lab/java-benchmarks' (if you are using Tai-e as a dependency),
+                    then put it in Tai-e's working directory.""");
+        }
+        String jrePath = String.format("%s/jre1.%d",
+                JREs, options.getJavaVersion());
+        try (Stream<Path> paths = Files.walk(Path.of(jrePath))) {
+            return paths.map(Path::toString)
+                    .filter(p -> p.endsWith(".jar"))
+                    .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Analysis on Java " +
+                    options.getJavaVersion() + " library is not supported yet", e);
         }
     }
 
@@ -129,4 +153,59 @@ public abstract class AbstractWorldBuilder implements WorldBuilder {
         }
         return classes;
     }
+
+    /**
+     * Reads the basic classes specified by file {@link #BASIC_CLASSES}.
+     */
+    protected static List<String> getBasicClasses() {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        JavaType type = mapper.getTypeFactory()
+                .constructCollectionType(List.class, String.class);
+        try {
+            InputStream content = AbstractWorldBuilder.class
+                    .getClassLoader()
+                    .getResourceAsStream(BASIC_CLASSES);
+            return mapper.readValue(content, type);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read basic classes", e);
+        }
+    }
+
+    /**
+     * Obtains the target classes in the reflection log of pointer analysis.
+     * <p>
+     * TODO: this is a tentative solution. We should remove it and use other
+     *  way to load basic classes in the reflection log, so that world builder
+     *  does not depend on analyses to be executed.
+     *
+     * @param analyses the analyses to be executed
+     */
+    protected static List<String> getReflectionLogClasses(
+            List<AnalysisConfig> analyses) {
+        List<String> classes = new ArrayList<>();
+        analyses.forEach(config -> {
+            if (config.getId().equals(PointerAnalysis.ID)) {
+                String path = config.getOptions().getString("reflection-log");
+                if (path != null) {
+                    LogItem.load(path).forEach(item -> {
+                        // add target class
+                        String target = item.target;
+                        String targetClass;
+                        if (target.startsWith("<")) {
+                            targetClass = StringReps.getClassNameOf(target);
+                        } else {
+                            targetClass = target;
+                        }
+                        if (StringReps.isArrayType(targetClass)) {
+                            targetClass = StringReps.getBaseTypeNameOf(target);
+                        }
+                        if (!PrimitiveType.isPrimitiveType(targetClass)) {
+                            classes.add(targetClass);
+                        }
+                    });
+                }
+            }
+        });
+        return classes;
+    }
 }
@@ -0,0 +1,94 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.collection.IndexerBitSet;
+
+/**
+ * Provides {@link SetFact}-based implementations of the operations of
+ * {@link DataflowAnalysis} in terms of gen/kill, so that a bit-vector
+ * analysis can also be solved by the general solvers.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements in data-flow facts
+ */
+public abstract class AbstractBitVectorAnalysis<Node, E>
+        extends AbstractDataflowAnalysis<Node, SetFact<E>>
+        implements BitVectorAnalysis<Node, E> {
+
+    protected static final int[] EMPTY = {};
+
+    /**
+     * Set of all elements, used to fast create initial facts
+     * of must analyses (via copy).
+     */
+    private SetFact<E> universalSet;
+
+    protected AbstractBitVectorAnalysis(CFG<Node> cfg) {
+        super(cfg);
+    }
+
+    @Override
+    public SetFact<E> newBoundaryFact() {
+        return new SetFact<>(new IndexerBitSet<>(getFactIndexer(), false));
+    }
+
+    @Override
+    public SetFact<E> newInitialFact() {
+        if (isMay()) {
+            return newBoundaryFact();
+        }
+        if (universalSet == null) {
+            universalSet = newBoundaryFact();
+            for (int i = 0; i < getNumberOfFacts(); ++i) {
+                universalSet.add(getFactIndexer().getObject(i));
+            }
+        }
+        return universalSet.copy();
+    }
+
+    @Override
+    public void meetInto(SetFact<E> fact, SetFact<E> target) {
+        if (isMay()) {
+            target.union(fact);
+        } else {
+            target.intersect(fact);
+        }
+    }
+
+    @Override
+    public boolean transferNode(Node node, SetFact<E> in, SetFact<E> out) {
+        SetFact<E> source = isForward() ? in : out;
+        SetFact<E> target = isForward() ? out : in;
+        SetFact<E> oldTarget = target.copy();
+        target.set(source);
+        for (int i : getKill(node)) {
+            target.remove(getFactIndexer().getObject(i));
+        }
+        for (int i : getGen(node)) {
+            target.add(getFactIndexer().getObject(i));
+        }
+        return !target.equals(oldTarget);
+    }
+}
@@ -23,7 +23,8 @@
 package pascal.taie.analysis.dataflow.analysis;
 
 import pascal.taie.analysis.MethodAnalysis;
-import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.NodeResult;
+import pascal.taie.analysis.dataflow.solver.BitVectorSolver;
 import pascal.taie.analysis.dataflow.solver.Solver;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGBuilder;
@@ -32,18 +33,26 @@ import pascal.taie.ir.IR;
 
 /**
  * Driver for performing a specific kind of data-flow analysis for a method.
+ * Analyses that implement {@link BitVectorAnalysis} are solved by
+ * {@link BitVectorSolver}, and other analyses by the default solver.
  */
 public abstract class AnalysisDriver<Node, Fact>
-        extends MethodAnalysis<DataflowResult<Node, Fact>> {
+        extends MethodAnalysis<NodeResult<Node, Fact>> {
 
     protected AnalysisDriver(AnalysisConfig config) {
         super(config);
     }
 
     @Override
-    public DataflowResult<Node, Fact> analyze(IR ir) {
+    @SuppressWarnings("unchecked")
+    public NodeResult<Node, Fact> analyze(IR ir) {
         CFG<Node> cfg = ir.getResult(CFGBuilder.ID);
         DataflowAnalysis<Node, Fact> analysis = makeAnalysis(cfg);
+        if (analysis instanceof BitVectorAnalysis<?, ?> bvAnalysis) {
+            // for bit-vector analyses, Fact is SetFact<E>
+            return (NodeResult<Node, Fact>) (NodeResult<?, ?>)
+                    BitVectorSolver.solve(bvAnalysis);
+        }
         Solver<Node, Fact> solver = Solver.getSolver();
         return solver.solve(analysis);
     }
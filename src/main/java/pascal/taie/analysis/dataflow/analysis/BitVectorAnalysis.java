@@ -0,0 +1,73 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.analysis;
+
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.util.Indexer;
+
+/**
+ * Template interface for gen/kill data-flow analyses whose facts are sets
+ * drawn from a finite universe, e.g., reaching definitions, live variables
+ * and available expressions.
+ * <p>
+ * The elements of the universe are numbered by {@link #getFactIndexer()}
+ * from 0 to {@link #getNumberOfFacts()} - 1, so that such analyses can be
+ * solved by {@link pascal.taie.analysis.dataflow.solver.BitVectorSolver},
+ * which keeps all facts in flat bit vectors instead of {@link SetFact}s.
+ * Bit-vector analyses do not support edge transfer.
+ *
+ * @param <Node> type of CFG nodes
+ * @param <E>    type of elements in data-flow facts
+ */
+public interface BitVectorAnalysis<Node, E>
+        extends DataflowAnalysis<Node, SetFact<E>> {
+
+    /**
+     * @return the indexer which numbers the elements of data-flow facts.
+     */
+    Indexer<E> getFactIndexer();
+
+    /**
+     * @return the number of elements in the universe of data-flow facts.
+     * The indexes of all elements must be smaller than this number.
+     */
+    int getNumberOfFacts();
+
+    /**
+     * @return true if the meet operator is union (i.e., this is a may
+     * analysis), or false if the meet operator is intersection.
+     */
+    boolean isMay();
+
+    /**
+     * @return indexes of the elements generated by {@code node}.
+     * The returned array may be shared and must not be modified.
+     */
+    int[] getGen(Node node);
+
+    /**
+     * @return indexes of the elements killed by {@code node}.
+     * Kill is applied before gen. The returned array may be shared
+     * and must not be modified.
+     */
+    int[] getKill(Node node);
+}
@@ -43,25 +43,78 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
     }
 
     @Override
-    protected Analysis makeAnalysis(CFG<Stmt> cfg) {
-        return new Analysis(cfg, getOptions().getBoolean("strongly"));
+    protected DataflowAnalysis<Stmt, SetFact<Var>> makeAnalysis(CFG<Stmt> cfg) {
+        return getOptions().getBoolean("strongly") ?
+                new StronglyAnalysis(cfg) : new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+    /**
+     * Live variable analysis, which is a gen/kill problem
+     * and solved on bit vectors.
+     */
+    private static class Analysis extends AbstractBitVectorAnalysis<Stmt, Var> {
 
         /**
-         * Whether enable strongly live variable analysis.
+         * Indexer for variables in the IR.
          */
-        private final boolean strongly;
+        private final Indexer<Var> varIndexer;
+
+        private Analysis(CFG<Stmt> cfg) {
+            super(cfg);
+            this.varIndexer = cfg.getIR().getVarIndexer();
+        }
+
+        @Override
+        public boolean isForward() {
+            return false;
+        }
+
+        @Override
+        public boolean isMay() {
+            return true;
+        }
+
+        @Override
+        public Indexer<Var> getFactIndexer() {
+            return varIndexer;
+        }
+
+        @Override
+        public int getNumberOfFacts() {
+            return cfg.getIR().getVars().size();
+        }
+
+        @Override
+        public int[] getGen(Stmt stmt) {
+            // generate uses in stmt
+            return stmt.getUses()
+                    .stream()
+                    .filter(use -> use instanceof Var)
+                    .mapToInt(use -> varIndexer.getIndex((Var) use))
+                    .toArray();
+        }
+
+        @Override
+        public int[] getKill(Stmt stmt) {
+            // kill definition in stmt
+            return stmt.getDef().orElse(null) instanceof Var def ?
+                    new int[]{varIndexer.getIndex(def)} : EMPTY;
+        }
+    }
+
+    /**
+     * Strongly live variable analysis, whose transfer function
+     * of Copy statements is not a gen/kill function.
+     */
+    private static class StronglyAnalysis extends AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
 
         /**
          * Indexer for variables in the IR.
          */
         private final Indexer<Var> varIndexer;
 
-        private Analysis(CFG<Stmt> cfg, boolean strongly) {
+        private StronglyAnalysis(CFG<Stmt> cfg) {
             super(cfg);
-            this.strongly = strongly;
             this.varIndexer = cfg.getIR().getVarIndexer();
         }
 
@@ -95,28 +148,18 @@ public class LiveVariable extends AnalysisDriver<Stmt, SetFact<Var>> {
                     in.remove((Var) def);
                 }
             });
-            // generate uses in stmt
-            if (strongly) {
-                // only add strongly live variables
-                if (stmt instanceof Copy copy) {
-                    // for a Copy statement, say x = y, we consider y as
-                    // strongly live only when x is also strongly live
-                    Var lVar = copy.getLValue();
-                    Var rVar = copy.getRValue();
-                    if (out.contains(lVar)) {
-                        in.add(rVar);
-                    }
-                } else {
-                    // for non-Copy statements, all used variables
-                    // are considered strongly live
-                    stmt.getUses().forEach(use -> {
-                        if (use instanceof Var) {
-                            in.add((Var) use);
-                        }
-                    });
+            // generate uses in stmt, and only add strongly live variables
+            if (stmt instanceof Copy copy) {
+                // for a Copy statement, say x = y, we consider y as
+                // strongly live only when x is also strongly live
+                Var lVar = copy.getLValue();
+                Var rVar = copy.getRValue();
+                if (out.contains(lVar)) {
+                    in.add(rVar);
                 }
             } else {
-                // add all used variables
+                // for non-Copy statements, all used variables
+                // are considered strongly live
                 stmt.getUses().forEach(use -> {
                     if (use instanceof Var) {
                         in.add((Var) use);
@@ -30,10 +30,6 @@ import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.util.Indexer;
-import pascal.taie.util.collection.IndexMap;
-import pascal.taie.util.collection.IndexerBitSet;
-
-import java.util.Map;
 
 public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
 
@@ -48,7 +44,7 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         return new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<Stmt>> {
+    private static class Analysis extends AbstractBitVectorAnalysis<Stmt, Stmt> {
 
         /**
          * Indexer for stmts (nodes) in the CFG.
@@ -56,12 +52,10 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         private final Indexer<Stmt> stmtIndexer;
 
         /**
-         * Maps a variable to all statements that define it.
-         * This information can accelerate kill operation of live variable analysis.
+         * Maps index of a variable to indexes of all statements that define it.
+         * This information can accelerate kill operation of reaching definition analysis.
          */
-        private final Map<Var, SetFact<Stmt>> defs;
-
-        private static final SetFact<Stmt> EMPTY_DEFS = new SetFact<>();
+        private final int[][] defs;
 
         private Analysis(CFG<Stmt> cfg) {
             super(cfg);
@@ -72,16 +66,23 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         /**
          * Pre-computes all definitions of all variables in given ir.
          */
-        private Map<Var, SetFact<Stmt>> computeDefs(IR ir) {
-            Map<Var, SetFact<Stmt>> defs = new IndexMap<>(
-                    ir.getVarIndexer(), ir.getVars().size());
+        private int[][] computeDefs(IR ir) {
+            Indexer<Var> varIndexer = ir.getVarIndexer();
+            int[] counts = new int[ir.getVars().size()];
+            for (Stmt stmt : ir) {
+                if (stmt.getDef().orElse(null) instanceof Var defVar) {
+                    ++counts[varIndexer.getIndex(defVar)];
+                }
+            }
+            int[][] defs = new int[counts.length][];
             for (Stmt stmt : ir) {
-                stmt.getDef().ifPresent(def -> {
-                    if (def instanceof Var defVar) {
-                        defs.computeIfAbsent(defVar, __ -> newInitialFact())
-                                .add(stmt);
+                if (stmt.getDef().orElse(null) instanceof Var defVar) {
+                    int v = varIndexer.getIndex(defVar);
+                    if (defs[v] == null) {
+                        defs[v] = new int[counts[v]];
                     }
-                });
+                    defs[v][defs[v].length - counts[v]--] = stmtIndexer.getIndex(stmt);
+                }
             }
             return defs;
         }
@@ -92,33 +93,32 @@ public class ReachingDefinition extends AnalysisDriver<Stmt, SetFact<Stmt>> {
         }
 
         @Override
-        public SetFact<Stmt> newBoundaryFact() {
-            return newInitialFact();
+        public boolean isMay() {
+            return true;
         }
 
         @Override
-        public SetFact<Stmt> newInitialFact() {
-            return new SetFact<>(new IndexerBitSet<>(stmtIndexer, false));
+        public Indexer<Stmt> getFactIndexer() {
+            return stmtIndexer;
         }
 
         @Override
-        public void meetInto(SetFact<Stmt> fact, SetFact<Stmt> target) {
-            target.union(fact);
+        public int getNumberOfFacts() {
+            return cfg.getNumberOfNodes();
         }
 
         @Override
-        public boolean transferNode(Stmt stmt, SetFact<Stmt> in, SetFact<Stmt> out) {
-            SetFact<Stmt> oldOut = out.copy();
-            out.set(in);
-            stmt.getDef().ifPresent(def -> {
-                if (def instanceof Var defVar) {
-                    // kill previous definitions of defVar
-                    out.removeAll(defs.getOrDefault(defVar, EMPTY_DEFS));
-                    // generate definition of defVar
-                    out.add(stmt);
-                }
-            });
-            return !out.equals(oldOut);
+        public int[] getGen(Stmt stmt) {
+            // generate definition of defVar
+            return stmt.getDef().orElse(null) instanceof Var ?
+                    new int[]{stmtIndexer.getIndex(stmt)} : EMPTY;
+        }
+
+        @Override
+        public int[] getKill(Stmt stmt) {
+            // kill previous definitions of defVar
+            return stmt.getDef().orElse(null) instanceof Var defVar ?
+                    defs[cfg.getIR().getVarIndexer().getIndex(defVar)] : EMPTY;
         }
     }
 }
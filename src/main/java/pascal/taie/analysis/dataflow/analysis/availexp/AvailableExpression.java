@@ -22,7 +22,7 @@
 
 package pascal.taie.analysis.dataflow.analysis.availexp;
 
-import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.AbstractBitVectorAnalysis;
 import pascal.taie.analysis.dataflow.analysis.AnalysisDriver;
 import pascal.taie.analysis.dataflow.fact.SetFact;
 import pascal.taie.analysis.graph.cfg.CFG;
@@ -37,7 +37,11 @@ import pascal.taie.ir.stmt.DefinitionStmt;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.util.Indexer;
 import pascal.taie.util.SimpleIndexer;
-import pascal.taie.util.collection.IndexerBitSet;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Available expression analysis on local variables.
@@ -61,20 +65,48 @@ public class AvailableExpression extends AnalysisDriver<Stmt, SetFact<ExpWrapper
         return new Analysis(cfg);
     }
 
-    private static class Analysis extends AbstractDataflowAnalysis<Stmt, SetFact<ExpWrapper>> {
+    private static class Analysis extends AbstractBitVectorAnalysis<Stmt, ExpWrapper> {
 
         private final Indexer<ExpWrapper> expIndexer;
 
         /**
-         * Set of all expressions in cfg.
-         * Used to fast create universal set (via copy).
+         * Maps each variable to indexes of the expressions that use it,
+         * i.e., the expressions killed by definitions of the variable.
          */
-        private final SetFact<ExpWrapper> universalSet;
+        private final Map<Var, int[]> kills;
+
+        /**
+         * Number of all (relevant) expressions in cfg.
+         */
+        private final int numberOfExps;
 
         private Analysis(CFG<Stmt> cfg) {
             super(cfg);
             expIndexer = new SimpleIndexer<>();
-            universalSet = computeUniversalSet(cfg, expIndexer);
+            // index all relevant expressions, and collect the expressions
+            // killed by definition of each variable
+            Set<ExpWrapper> exps = Sets.newSet();
+            Map<Var, Set<Integer>> uses = Maps.newMap();
+            cfg.forEach(stmt -> {
+                if (stmt instanceof DefinitionStmt<?,?> defStmt
+                        && isRelevant(defStmt.getRValue())) {
+                    Exp exp = defStmt.getRValue();
+                    ExpWrapper expWrapper = new ExpWrapper(exp);
+                    exps.add(expWrapper);
+                    int index = expIndexer.getIndex(expWrapper);
+                    exp.getUses().forEach(use -> {
+                        if (use instanceof Var var) {
+                            uses.computeIfAbsent(var, __ -> Sets.newSet())
+                                    .add(index);
+                        }
+                    });
+                }
+            });
+            numberOfExps = exps.size();
+            Map<Var, int[]> kills = Maps.newMap(uses.size());
+            uses.forEach((var, indexes) -> kills.put(var,
+                    indexes.stream().mapToInt(Integer::intValue).toArray()));
+            this.kills = kills;
         }
 
         @Override
@@ -83,54 +115,39 @@ public class AvailableExpression extends AnalysisDriver<Stmt, SetFact<ExpWrapper
         }
 
         @Override
-        public SetFact<ExpWrapper> newBoundaryFact() {
-            return new SetFact<>(new IndexerBitSet<>(expIndexer, false));
+        public boolean isMay() {
+            return false;
         }
 
         @Override
-        public SetFact<ExpWrapper> newInitialFact() {
-            return universalSet.copy();
+        public Indexer<ExpWrapper> getFactIndexer() {
+            return expIndexer;
         }
 
         @Override
-        public void meetInto(SetFact<ExpWrapper> fact, SetFact<ExpWrapper> target) {
-            target.intersect(fact);
+        public int getNumberOfFacts() {
+            return numberOfExps;
         }
 
         @Override
-        public boolean transferNode(Stmt stmt, SetFact<ExpWrapper> in, SetFact<ExpWrapper> out) {
-            SetFact<ExpWrapper> oldOut = out.copy();
-            out.set(in);
-            if (stmt instanceof DefinitionStmt<?, ?> defStmt) {
-                Exp lvalue = defStmt.getLValue();
-                if (lvalue instanceof Var defVar) {
-                    // kill affected expressions
-                    out.removeIf(expWrapper ->
-                            expWrapper.get().getUses().contains(defVar));
-                }
-                Exp rvalue = defStmt.getRValue();
-                if (isRelevant(rvalue)) {
-                    // generate available expressions
-                    out.add(new ExpWrapper(rvalue));
-                }
+        public int[] getGen(Stmt stmt) {
+            // generate available expressions
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                    && isRelevant(defStmt.getRValue())) {
+                return new int[]{
+                        expIndexer.getIndex(new ExpWrapper(defStmt.getRValue()))};
             }
-            return !out.equals(oldOut);
+            return EMPTY;
         }
 
-        /**
-         * @return a set containing all (relevant) expressions in {@code cfg}.
-         */
-        private static SetFact<ExpWrapper> computeUniversalSet(
-                CFG<Stmt> cfg, Indexer<ExpWrapper> expIndexer) {
-            SetFact<ExpWrapper> set = new SetFact<>(
-                    new IndexerBitSet<>(expIndexer, false));
-            cfg.forEach(stmt -> {
-                if (stmt instanceof DefinitionStmt<?,?> defStmt
-                        && isRelevant(defStmt.getRValue())) {
-                    set.add(new ExpWrapper(defStmt.getRValue()));
-                }
-            });
-            return set;
+        @Override
+        public int[] getKill(Stmt stmt) {
+            // kill affected expressions
+            if (stmt instanceof DefinitionStmt<?, ?> defStmt
+                    && defStmt.getLValue() instanceof Var defVar) {
+                return kills.getOrDefault(defVar, EMPTY);
+            }
+            return EMPTY;
         }
 
         /**
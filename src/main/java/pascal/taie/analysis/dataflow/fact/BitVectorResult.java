@@ -0,0 +1,83 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.fact;
+
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.IndexerBitSet;
+
+/**
+ * Data-flow result whose facts are stored in two flat bit vectors,
+ * which hold the in (out) facts of all nodes, one after another in the
+ * order of {@link CFG#getIndex}. Each fact occupies {@code words} longs.
+ * <p>
+ * {@link SetFact}s are created on demand by {@link #getInFact} and
+ * {@link #getOutFact}, and the result cannot be modified.
+ *
+ * @param <Node> type of nodes
+ * @param <E>    type of elements in data-flow facts
+ */
+public class BitVectorResult<Node, E> implements NodeResult<Node, SetFact<E>> {
+
+    private final CFG<Node> cfg;
+
+    private final Indexer<E> factIndexer;
+
+    private final int words;
+
+    private final long[] inFacts;
+
+    private final long[] outFacts;
+
+    public BitVectorResult(CFG<Node> cfg, Indexer<E> factIndexer, int words,
+                           long[] inFacts, long[] outFacts) {
+        this.cfg = cfg;
+        this.factIndexer = factIndexer;
+        this.words = words;
+        this.inFacts = inFacts;
+        this.outFacts = outFacts;
+    }
+
+    @Override
+    public SetFact<E> getInFact(Node node) {
+        return toSetFact(inFacts, cfg.getIndex(node));
+    }
+
+    @Override
+    public SetFact<E> getOutFact(Node node) {
+        return toSetFact(outFacts, cfg.getIndex(node));
+    }
+
+    private SetFact<E> toSetFact(long[] facts, int nodeIndex) {
+        SetFact<E> fact = new SetFact<>(new IndexerBitSet<>(factIndexer, false));
+        int base = nodeIndex * words;
+        for (int i = 0; i < words; ++i) {
+            long word = facts[base + i];
+            while (word != 0) {
+                int bit = (i << 6) + Long.numberOfTrailingZeros(word);
+                fact.add(factIndexer.getObject(bit));
+                word &= word - 1;
+            }
+        }
+        return fact;
+    }
+}
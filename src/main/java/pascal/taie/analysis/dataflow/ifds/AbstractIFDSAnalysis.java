@@ -0,0 +1,64 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.World;
+import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+
+/**
+ * Provides common functionalities for {@link IFDSProblem} implementations
+ * on the ICFG of the program. The number of threads used by the solver
+ * is given by option {@code threads} (1 by default).
+ *
+ * @param <D> type of data-flow facts
+ */
+public abstract class AbstractIFDSAnalysis<D>
+        extends ProgramAnalysis<IFDSResult<Stmt, D>>
+        implements IFDSProblem<Stmt, D> {
+
+    protected ICFG<JMethod, Stmt> icfg;
+
+    protected AbstractIFDSAnalysis(AnalysisConfig config) {
+        super(config);
+    }
+
+    /**
+     * If the concrete analysis needs to perform some initialization before
+     * the solver starts, then it can overwrite this method.
+     */
+    protected void initialize() {
+    }
+
+    @Override
+    public IFDSResult<Stmt, D> analyze() {
+        icfg = World.get().getResult(ICFGBuilder.ID);
+        initialize();
+        int threads = getOptions().has("threads") ?
+                getOptions().getInt("threads") : 1;
+        return new IFDSSolver<>(this, icfg, threads).solve();
+    }
+}
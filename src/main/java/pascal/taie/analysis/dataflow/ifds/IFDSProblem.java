@@ -0,0 +1,71 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+
+/**
+ * Template interface for defining inter-procedural, finite, distributive,
+ * subset (IFDS) problems, which are solved by {@link IFDSSolver}.
+ * <p>
+ * The flow functions are attached to the ICFG edges, and each of them
+ * transfers the facts that hold before the source node of the edge.
+ * Flow functions may be called by multiple threads concurrently,
+ * thus they must be thread-safe.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ */
+public interface IFDSProblem<Node, D> {
+
+    /**
+     * @return the zero fact, i.e., the fact that holds at all
+     * reachable nodes. It is the seed fact at the entries of entry methods.
+     */
+    D zeroValue();
+
+    /**
+     * @return the flow function for given intra-procedural edge.
+     */
+    FlowFunction<D> getNormalFlowFunction(NormalEdge<Node> edge);
+
+    /**
+     * @return the flow function which transfers the facts
+     * that are not affected by the callees from call site to return site.
+     */
+    FlowFunction<D> getCallToReturnFlowFunction(CallToReturnEdge<Node> edge);
+
+    /**
+     * @return the flow function which maps the facts at call site
+     * to the facts at the entry of the callee.
+     */
+    FlowFunction<D> getCallFlowFunction(CallEdge<Node> edge);
+
+    /**
+     * @return the flow function which maps the facts at the exit of
+     * the callee to the facts at return site.
+     */
+    FlowFunction<D> getReturnFlowFunction(ReturnEdge<Node> edge);
+}
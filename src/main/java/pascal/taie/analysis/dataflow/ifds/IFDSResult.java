@@ -0,0 +1,68 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.ifds;
+
+import pascal.taie.util.collection.Sets;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Result of {@link IFDSSolver}, which is a view of the jump functions
+ * computed by the solver.
+ *
+ * @param <Node> type of ICFG nodes
+ * @param <D>    type of data-flow facts
+ */
+public class IFDSResult<Node, D> {
+
+    private final Map<Node, ? extends Map<D, ? extends Set<D>>> jumpFns;
+
+    private final D zero;
+
+    IFDSResult(Map<Node, ? extends Map<D, ? extends Set<D>>> jumpFns, D zero) {
+        this.jumpFns = jumpFns;
+        this.zero = zero;
+    }
+
+    /**
+     * @return true if given node is reachable through realizable paths.
+     */
+    public boolean isReachable(Node node) {
+        Map<D, ? extends Set<D>> facts = jumpFns.get(node);
+        return facts != null && facts.containsKey(zero);
+    }
+
+    /**
+     * @return the facts (except the zero fact) that hold before given node.
+     */
+    public Set<D> getFacts(Node node) {
+        Map<D, ? extends Set<D>> facts = jumpFns.get(node);
+        if (facts == null) {
+            return Set.of();
+        }
+        Set<D> result = Sets.newHybridSet(facts.keySet());
+        result.remove(zero);
+        return Collections.unmodifiableSet(result);
+    }
+}
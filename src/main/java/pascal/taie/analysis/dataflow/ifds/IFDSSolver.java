@@ -0,0 +1,354 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.ifds;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGEdge;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tabulation solver for {@link IFDSProblem}s, based on the algorithm in
+ * Reps et al., "Precise Interprocedural Dataflow Analysis via Graph
+ * Reachability", POPL 1995.
+ * <p>
+ * Instead of building the exploded supergraph, the solver only keeps
+ * the path edges reached so far, as jump functions which map each node
+ * and fact {@code <n, d2>} to the facts {@code d1} at the entry of the
+ * containing method such that {@code <entry, d1> -> <n, d2>} is realizable.
+ * When a path edge reaches the exit of a method, it is memoized as an end
+ * summary of the method, which is applied to all (current and future)
+ * call sites that enter the method with the same fact, so that the body
+ * of each method is analyzed at most once for each entry fact.
+ * <p>
+ * The solver works in rounds. In each round, it takes all pending path
+ * edges out of the work list and processes them in parallel (if there
+ * are enough of them). The jump functions, end summaries and incoming
+ * call sites are kept in concurrent maps, so the workers can update them
+ * and add new path edges to the work list directly. The result does not
+ * depend on the processing order, as the solver computes the least
+ * fixpoint of a monotone system.
+ *
+ * @param <Method> type of ICFG methods
+ * @param <Node>   type of ICFG nodes
+ * @param <D>      type of data-flow facts
+ */
+public class IFDSSolver<Method, Node, D> {
+
+    private static final Logger logger = LogManager.getLogger(IFDSSolver.class);
+
+    /**
+     * Default minimum number of path edges per thread that makes a round
+     * worth being processed in parallel.
+     */
+    private static final int DEFAULT_MIN_EDGES_PER_THREAD = 8;
+
+    /**
+     * Number of chunks per thread, more chunks lead to better
+     * load balance among the worker threads.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final IFDSProblem<Node, D> problem;
+
+    private final ICFG<Method, Node> icfg;
+
+    private final int nThreads;
+
+    /**
+     * Minimum number of path edges per thread that makes a round
+     * worth being processed in parallel.
+     */
+    private final int minEdgesPerThread;
+
+    private final D zero;
+
+    /**
+     * Jump functions, i.e., node n -> fact d2 at n -> facts d1 at the entry
+     * of the method containing n, such that {@code <entry, d1> -> <n, d2>}
+     * is a path edge.
+     */
+    private final ConcurrentMap<Node, ConcurrentMap<D, Set<D>>> jumpFns
+            = Maps.newConcurrentMap();
+
+    /**
+     * End summaries, i.e., entry of method m -> fact d1 at the entry
+     * -> facts d2 at the exit of m, such that {@code <entry, d1> -> <exit, d2>}
+     * is a path edge.
+     */
+    private final ConcurrentMap<Node, ConcurrentMap<D, Set<D>>> endSummaries
+            = Maps.newConcurrentMap();
+
+    /**
+     * Incoming call sites, i.e., entry of method m -> fact d3 at the entry
+     * -> pairs of call site c and fact d2 at c, such that d3 is generated
+     * from d2 by the call flow function of the call edge c -> m.
+     */
+    private final ConcurrentMap<Node, ConcurrentMap<D, Set<Pair<Node, D>>>> incoming
+            = Maps.newConcurrentMap();
+
+    private final Queue<PathEdge<Node, D>> workList = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param threads number of threads used by the solver.
+     *                If it is not positive, the number of available
+     *                processors is used.
+     */
+    public IFDSSolver(IFDSProblem<Node, D> problem,
+                      ICFG<Method, Node> icfg, int threads) {
+        this(problem, icfg, threads, DEFAULT_MIN_EDGES_PER_THREAD);
+    }
+
+    /**
+     * @param threads           number of threads used by the solver.
+     *                          If it is not positive, the number of
+     *                          available processors is used.
+     * @param minEdgesPerThread minimum number of path edges per thread
+     *                          that makes a round processed in parallel.
+     *                          If it is 0, every round is processed
+     *                          in parallel.
+     */
+    public IFDSSolver(IFDSProblem<Node, D> problem,
+                      ICFG<Method, Node> icfg, int threads,
+                      int minEdgesPerThread) {
+        this.problem = problem;
+        this.icfg = icfg;
+        this.nThreads = threads > 0 ? threads
+                : Runtime.getRuntime().availableProcessors();
+        this.minEdgesPerThread = minEdgesPerThread;
+        this.zero = problem.zeroValue();
+    }
+
+    /**
+     * Solves the IFDS problem.
+     *
+     * @return the facts that hold at each node
+     */
+    public IFDSResult<Node, D> solve() {
+        icfg.entryMethods().forEach(method ->
+                propagate(zero, icfg.getEntryOf(method), zero));
+        if (nThreads == 1) {
+            PathEdge<Node, D> edge;
+            while ((edge = workList.poll()) != null) {
+                process(edge);
+            }
+        } else {
+            logger.info("Solving IFDS problem with {} threads", nThreads);
+            ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+            try {
+                while (!workList.isEmpty()) {
+                    List<PathEdge<Node, D>> edges = new ArrayList<>();
+                    PathEdge<Node, D> edge;
+                    while ((edge = workList.poll()) != null) {
+                        edges.add(edge);
+                    }
+                    if (edges.size() < nThreads * minEdgesPerThread) {
+                        edges.forEach(this::process);
+                    } else {
+                        processInParallel(executor, edges);
+                    }
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        logger.info("IFDS: #path edges: {}, #end summaries: {}",
+                count(jumpFns), count(endSummaries));
+        return new IFDSResult<>(jumpFns, zero);
+    }
+
+    private void processInParallel(ExecutorService executor,
+                                   List<PathEdge<Node, D>> edges) {
+        int nChunks = Math.min(edges.size(), nThreads * CHUNKS_PER_THREAD);
+        int chunkSize = (edges.size() + nChunks - 1) / nChunks;
+        List<Callable<Void>> tasks = new ArrayList<>(nChunks);
+        for (int i = 0; i < edges.size(); i += chunkSize) {
+            List<PathEdge<Node, D>> chunk = edges.subList(
+                    i, Math.min(i + chunkSize, edges.size()));
+            tasks.add(() -> {
+                chunk.forEach(this::process);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("IFDS solver is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Failed to process path edges",
+                    e.getCause());
+        }
+    }
+
+    private void process(PathEdge<Node, D> edge) {
+        Node node = edge.node();
+        if (icfg.isCallSite(node)) {
+            processCall(edge);
+        } else if (node.equals(icfg.getExitOf(icfg.getContainingMethodOf(node)))) {
+            processExit(edge);
+        } else {
+            processNormal(edge);
+        }
+    }
+
+    private void processNormal(PathEdge<Node, D> edge) {
+        D d1 = edge.source();
+        D d2 = edge.target();
+        for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(edge.node())) {
+            if (outEdge instanceof NormalEdge<Node> normalEdge) {
+                for (D d3 : problem.getNormalFlowFunction(normalEdge).apply(d2)) {
+                    propagate(d1, normalEdge.target(), d3);
+                }
+            }
+        }
+    }
+
+    private void processCall(PathEdge<Node, D> edge) {
+        D d1 = edge.source();
+        Node callSite = edge.node();
+        D d2 = edge.target();
+        for (ICFGEdge<Node> outEdge : icfg.getOutEdgesOf(callSite)) {
+            if (outEdge instanceof CallToReturnEdge<Node> c2rEdge) {
+                for (D d3 : problem.getCallToReturnFlowFunction(c2rEdge).apply(d2)) {
+                    propagate(d1, c2rEdge.target(), d3);
+                }
+            } else if (outEdge instanceof CallEdge<Node> callEdge) {
+                Node calleeEntry = callEdge.target();
+                for (D d3 : problem.getCallFlowFunction(callEdge).apply(d2)) {
+                    // register the call site before reading the summaries,
+                    // so that the summaries added concurrently by
+                    // processExit() are applied by either side
+                    getOrCreateSet(incoming, calleeEntry, d3)
+                            .add(new Pair<>(callSite, d2));
+                    propagate(d3, calleeEntry, d3);
+                    Set<D> summaries = getSet(endSummaries, calleeEntry, d3);
+                    if (!summaries.isEmpty()) {
+                        Node exit = icfg.getExitOf(
+                                icfg.getContainingMethodOf(calleeEntry));
+                        applySummaries(d1, callSite, exit, summaries);
+                    }
+                }
+            }
+        }
+    }
+
+    private void processExit(PathEdge<Node, D> edge) {
+        D d1 = edge.source();
+        Node exit = edge.node();
+        D d2 = edge.target();
+        Node entry = icfg.getEntryOf(icfg.getContainingMethodOf(exit));
+        getOrCreateSet(endSummaries, entry, d1).add(d2);
+        for (Pair<Node, D> caller : getSet(incoming, entry, d1)) {
+            Node callSite = caller.first();
+            for (D d0 : getSet(jumpFns, callSite, caller.second())) {
+                applySummaries(d0, callSite, exit, Set.of(d2));
+            }
+        }
+    }
+
+    /**
+     * Propagates the end summaries of a callee to the return sites of
+     * a call site, i.e., for each fact d4 in {@code summaries}, adds path
+     * edges {@code <entry, d1> -> <retSite, d5>} where d5 is generated from
+     * d4 by the return flow function.
+     */
+    private void applySummaries(D d1, Node callSite, Node exit, Set<D> summaries) {
+        for (Node retSite : icfg.getReturnSitesOf(callSite)) {
+            for (ICFGEdge<Node> inEdge : icfg.getInEdgesOf(retSite)) {
+                if (inEdge instanceof ReturnEdge<Node> returnEdge
+                        && returnEdge.source().equals(exit)
+                        && returnEdge.getCallSite().equals(callSite)) {
+                    FlowFunction<D> returnFn = problem.getReturnFlowFunction(returnEdge);
+                    for (D d4 : summaries) {
+                        for (D d5 : returnFn.apply(d4)) {
+                            propagate(d1, retSite, d5);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds path edge {@code <entry, d1> -> <node, d2>} to the jump
+     * functions, and to the work list if it is new.
+     */
+    private void propagate(D d1, Node node, D d2) {
+        if (getOrCreateSet(jumpFns, node, d2).add(d1)) {
+            workList.add(new PathEdge<>(d1, node, d2));
+        }
+    }
+
+    private static <K1, K2, V> Set<V> getOrCreateSet(
+            ConcurrentMap<K1, ConcurrentMap<K2, Set<V>>> map, K1 key1, K2 key2) {
+        return map.computeIfAbsent(key1, __ -> Maps.newConcurrentMap())
+                .computeIfAbsent(key2, __ -> Sets.newConcurrentSet());
+    }
+
+    private static <K1, K2, V> Set<V> getSet(
+            Map<K1, ? extends Map<K2, Set<V>>> map, K1 key1, K2 key2) {
+        Map<K2, Set<V>> map2 = map.get(key1);
+        if (map2 == null) {
+            return Set.of();
+        }
+        return map2.getOrDefault(key2, Set.of());
+    }
+
+    private static long count(Map<?, ? extends Map<?, ? extends Set<?>>> map) {
+        return map.values()
+                .stream()
+                .flatMap(map2 -> map2.values().stream())
+                .mapToLong(Set::size)
+                .sum();
+    }
+
+    /**
+     * Path edge {@code <entry, source> -> <node, target>}, where entry is
+     * the entry of the method containing node.
+     */
+    private record PathEdge<Node, D>(D source, Node node, D target) {
+    }
+}
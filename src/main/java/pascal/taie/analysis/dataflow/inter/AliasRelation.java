@@ -0,0 +1,102 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.inter;
+
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Pair;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Relation from statements of type {@code A} to statements of type
+ * {@code B}, which relates two statements if they may access a common
+ * memory location (called key), e.g., an instance field of an object.
+ * <p>
+ * The relation is built by grouping the statements by keys, which takes
+ * time linear in the number of (key, statement) pairs, instead of
+ * enumerating all pairs of related statements. The {@code B} statements
+ * that access each key form a group, keys of equal groups share a single
+ * group, and each {@code A} statement keeps the ids of the groups of
+ * the keys it accesses.
+ *
+ * @param <A> type of statements in the domain of the relation
+ * @param <B> type of statements in the range of the relation
+ */
+class AliasRelation<A, B> {
+
+    private final List<Set<B>> groups = new ArrayList<>();
+
+    private final Map<A, int[]> groupIds;
+
+    /**
+     * @param domain (key, statement) pairs of the domain statements.
+     *               It may be a parallel stream.
+     * @param range  (key, statement) pairs of the range statements.
+     *               It may be a parallel stream.
+     * @param <K>    type of keys
+     */
+    <K> AliasRelation(Stream<Pair<K, A>> domain, Stream<Pair<K, B>> range) {
+        // group range statements by keys
+        Map<K, Set<B>> keyToStmts = range.collect(
+                Collectors.groupingByConcurrent(Pair::first,
+                        Collectors.mapping(Pair::second, Collectors.toSet())));
+        // share equal groups among keys
+        Map<Set<B>, Integer> groupToId = Maps.newMap();
+        Map<K, Integer> keyToGroupId = Maps.newMap(keyToStmts.size());
+        keyToStmts.forEach((key, stmts) ->
+                keyToGroupId.put(key, groupToId.computeIfAbsent(stmts, __ -> {
+                    groups.add(Collections.unmodifiableSet(stmts));
+                    return groups.size() - 1;
+                })));
+        // collect ids of the groups related to each domain statement
+        Map<A, Set<Integer>> stmtToGroupIds = domain
+                .filter(p -> keyToGroupId.containsKey(p.first()))
+                .collect(Collectors.groupingByConcurrent(Pair::second,
+                        Collectors.mapping(p -> keyToGroupId.get(p.first()),
+                                Collectors.toSet())));
+        groupIds = Maps.newMap(stmtToGroupIds.size());
+        stmtToGroupIds.forEach((stmt, ids) -> groupIds.put(stmt,
+                ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    /**
+     * Performs the given action for each statement related to given
+     * statement, without materializing the union of its groups.
+     * A statement in multiple groups of {@code stmt} is visited once
+     * per group, thus the action should be idempotent.
+     */
+    void forEach(A stmt, Consumer<? super B> action) {
+        int[] ids = groupIds.get(stmt);
+        if (ids != null) {
+            for (int id : ids) {
+                groups.get(id).forEach(action);
+            }
+        }
+    }
+}
@@ -38,6 +38,7 @@ import pascal.taie.ir.IR;
 import pascal.taie.ir.exp.InvokeDynamic;
 import pascal.taie.ir.exp.InvokeExp;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.FieldRef;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.LoadArray;
 import pascal.taie.ir.stmt.LoadField;
@@ -47,10 +48,12 @@ import pascal.taie.ir.stmt.StoreArray;
 import pascal.taie.ir.stmt.StoreField;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
-import pascal.taie.util.collection.Maps;
-import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static pascal.taie.ir.exp.Exps.holdsInt;
 
@@ -78,20 +81,20 @@ public class InterConstantPropagation extends
     private final boolean aliasAware;
 
     /**
-     * Map from store statements to the corresponding load statements,
+     * Relation from store statements to the corresponding load statements,
      * including both static and instance field stores and loads.
      * For static fields, if the store and load statements operate on
      * the same field, e.g., T.f = x; ... y = T.f;, then they should
-     * be recorded in this map.
+     * be recorded in this relation.
      * For instance fields, if the base variables of both store and
      * load statements may be aliases, e.g., [a.f = b;] -> [x = y.f;],
-     * where a and y are aliases, then they should be recorded in this map.
+     * where a and y are aliases, then they should be recorded in this relation.
      */
-    private MultiMap<StoreField, LoadField> fieldStoreToLoads;
+    private AliasRelation<StoreField, LoadField> fieldStoreToLoads;
 
-    private MultiMap<StoreArray, LoadArray> arrayStoreToLoads;
+    private AliasRelation<StoreArray, LoadArray> arrayStoreToLoads;
 
-    private MultiMap<LoadArray, StoreArray> arrayLoadToStores;
+    private AliasRelation<LoadArray, StoreArray> arrayLoadToStores;
 
     public InterConstantPropagation(AnalysisConfig config) {
         super(config);
@@ -105,71 +108,91 @@ public class InterConstantPropagation extends
         if (!aliasAware) {
             return;
         }
-        fieldStoreToLoads = Maps.newMultiMap();
-        // collect related static field stores and loads
-        MultiMap<JField, StoreField> staticStores = Maps.newMultiMap();
-        MultiMap<JField, LoadField> staticLoads = Maps.newMultiMap();
+        // collect related field stores and loads as well as related
+        // array stores and loads via alias information derived from
+        // pointer analysis. The stores and loads are grouped by the
+        // locations they may access: static fields are keyed by fields,
+        // instance fields by (base object, field) pairs, and array
+        // elements by array objects.
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        List<StoreField> staticStores = new ArrayList<>();
+        List<LoadField> staticLoads = new ArrayList<>();
         for (Stmt s : icfg) {
             if (s instanceof StoreField store) {
                 if (store.isStatic() && holdsInt(store.getRValue())) {
-                    staticStores.put(store.getFieldRef().resolve(), store);
+                    staticStores.add(store);
                 }
             }
             if (s instanceof LoadField load) {
                 if (load.isStatic() && holdsInt(load.getLValue())) {
-                    staticLoads.put(load.getFieldRef().resolve(), load);
+                    staticLoads.add(load);
                 }
             }
         }
-        staticStores.forEach((field, store) -> {
-            for (LoadField load : staticLoads.get(field)) {
-                fieldStoreToLoads.put(store, load);
-            }
-        });
-        // collect related instance field stores and loads as well as
-        // related array stores and loads via alias information
-        // derived from pointer analysis
-        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
-        MultiMap<Obj, Var> pointedBy = Maps.newMultiMap();
-        pta.getVars()
+        List<Var> vars = pta.getVars()
                 .stream()
                 .filter(v -> !v.getStoreFields().isEmpty() ||
                         !v.getLoadFields().isEmpty() ||
                         !v.getStoreArrays().isEmpty() ||
                         !v.getLoadArrays().isEmpty())
-                .forEach(v ->
-                        pta.getPointsToSet(v).forEach(obj ->
-                                pointedBy.put(obj, v)));
-        arrayStoreToLoads = Maps.newMultiMap();
-        arrayLoadToStores = Maps.newMultiMap();
-        pointedBy.forEachSet((__, aliases) -> {
-            for (Var v : aliases) {
-                for (StoreField store : v.getStoreFields()) {
-                    if (!store.isStatic() && holdsInt(store.getRValue())) {
-                        JField storedField = store.getFieldRef().resolve();
-                        aliases.forEach(u ->
-                                u.getLoadFields().forEach(load -> {
-                                    JField loadedField = load
-                                            .getFieldRef().resolve();
-                                    if (storedField.equals(loadedField)) {
-                                        fieldStoreToLoads.put(store, load);
-                                    }
-                                })
-                        );
-                    }
-                }
-                for (StoreArray store : v.getStoreArrays()) {
-                    if (holdsInt(store.getRValue())) {
-                        for (Var u : aliases) {
-                            for (LoadArray load : u.getLoadArrays()) {
-                                arrayStoreToLoads.put(store, load);
-                                arrayLoadToStores.put(load, store);
-                            }
-                        }
-                    }
-                }
-            }
+                .toList();
+        // resolve fields in advance, as the keys are computed in parallel
+        // and resolution of (phantom) fields is not thread-safe
+        staticStores.forEach(store -> store.getFieldRef().resolve());
+        staticLoads.forEach(load -> load.getFieldRef().resolve());
+        vars.forEach(v -> {
+            v.getStoreFields().forEach(store -> store.getFieldRef().resolveNullable());
+            v.getLoadFields().forEach(load -> load.getFieldRef().resolveNullable());
         });
+        fieldStoreToLoads = new AliasRelation<>(
+                Stream.concat(
+                        staticStores.parallelStream().map(store ->
+                                new Pair<>(store.getFieldRef().resolve(), store)),
+                        vars.parallelStream().flatMap(v -> v.getStoreFields()
+                                .stream()
+                                .filter(store -> !store.isStatic() &&
+                                        holdsInt(store.getRValue()))
+                                .flatMap(store -> instanceFieldKeys(
+                                        pta, v, store.getFieldRef(), store)))),
+                Stream.concat(
+                        staticLoads.parallelStream().map(load ->
+                                new Pair<>(load.getFieldRef().resolve(), load)),
+                        vars.parallelStream().flatMap(v -> v.getLoadFields()
+                                .stream()
+                                .filter(load -> !load.isStatic())
+                                .flatMap(load -> instanceFieldKeys(
+                                        pta, v, load.getFieldRef(), load)))));
+        Supplier<Stream<Pair<Obj, StoreArray>>> arrayStores = () ->
+                vars.parallelStream().flatMap(v -> v.getStoreArrays()
+                        .stream()
+                        .filter(store -> holdsInt(store.getRValue()))
+                        .flatMap(store -> pta.getPointsToSet(v)
+                                .stream()
+                                .map(obj -> new Pair<>(obj, store))));
+        Supplier<Stream<Pair<Obj, LoadArray>>> arrayLoads = () ->
+                vars.parallelStream().flatMap(v -> v.getLoadArrays()
+                        .stream()
+                        .flatMap(load -> pta.getPointsToSet(v)
+                                .stream()
+                                .map(obj -> new Pair<>(obj, load))));
+        arrayStoreToLoads = new AliasRelation<>(arrayStores.get(), arrayLoads.get());
+        arrayLoadToStores = new AliasRelation<>(arrayLoads.get(), arrayStores.get());
+    }
+
+    /**
+     * @return (key, stmt) pairs for a statement that accesses instance
+     * field {@code base.field}, where the keys are (object, field) pairs
+     * for the objects pointed to by {@code base}.
+     */
+    private static <S extends Stmt> Stream<Pair<Object, S>> instanceFieldKeys(
+            PointerAnalysisResult pta, Var base, FieldRef fieldRef, S stmt) {
+        JField field = fieldRef.resolveNullable();
+        if (field == null) {
+            return Stream.of();
+        }
+        return pta.getPointsToSet(base)
+                .stream()
+                .map(obj -> new Pair<>(new Pair<>(obj, field), stmt));
     }
 
     @Override
@@ -218,28 +241,27 @@ public class InterConstantPropagation extends
 
             @Override
             public Boolean visit(LoadArray load) {
-                boolean changed = false;
+                boolean[] changed = {false};
                 Var lhs = load.getLValue();
                 // do not propagate lhs
                 for (Var inVar : in.keySet()) {
                     if (!inVar.equals(lhs)) {
-                        changed |= out.update(inVar, in.get(inVar));
+                        changed[0] |= out.update(inVar, in.get(inVar));
                     }
                 }
-                for (StoreArray store : arrayLoadToStores.get(load)) {
-                    changed |= transferLoadArray(store, load);
-                }
-                return changed;
+                arrayLoadToStores.forEach(load, store ->
+                        changed[0] |= transferLoadArray(store, load));
+                return changed[0];
             }
 
             @Override
             public Boolean visit(StoreArray store) {
                 boolean changed = cp.transferNode(store, in, out);
-                for (LoadArray load : arrayStoreToLoads.get(store)) {
+                arrayStoreToLoads.forEach(store, load -> {
                     if (transferLoadArray(store, load)) {
                         solver.propagate(load);
                     }
-                }
+                });
                 return changed;
             }
 
@@ -284,7 +306,7 @@ public class InterConstantPropagation extends
             public Boolean visit(StoreField store) {
                 Var var = store.getRValue();
                 Value value = in.get(var);
-                fieldStoreToLoads.get(store).forEach(load -> {
+                fieldStoreToLoads.forEach(store, load -> {
                     // propagate stored value to aliased loads
                     Var lhs = load.getLValue();
                     CPFact loadOut = solver.getOutFact(load);
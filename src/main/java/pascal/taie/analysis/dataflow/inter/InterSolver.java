@@ -22,28 +22,34 @@
 
 package pascal.taie.analysis.dataflow.inter;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.icfg.ICFG;
-import pascal.taie.util.collection.SetQueue;
+import pascal.taie.util.SimpleIndexer;
+import pascal.taie.util.graph.SCCWorkList;
 
-import java.util.Queue;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
  * Solver for inter-procedural data-flow analysis.
  * The workload of inter-procedural analysis is heavy, thus we always
- * adopt work-list algorithm for efficiency.
+ * adopt work-list algorithm for efficiency. The nodes are processed in
+ * the order given by {@link SCCWorkList}, so that each cycle of the ICFG
+ * is iterated to stability before the nodes after it are processed.
  */
 class InterSolver<Method, Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(InterSolver.class);
+
     private final InterDataflowAnalysis<Node, Fact> analysis;
 
     private final ICFG<Method, Node> icfg;
 
     private DataflowResult<Node, Fact> result;
 
-    private Queue<Node> workList;
+    private SCCWorkList<Node> workList;
 
     InterSolver(InterDataflowAnalysis<Node, Fact> analysis,
                 ICFG<Method, Node> icfg) {
@@ -76,7 +82,8 @@ class InterSolver<Method, Node, Fact> {
     }
 
     private void doSolve() {
-        workList = new SetQueue<>();
+        workList = new SCCWorkList<>(
+                icfg, new SimpleIndexer<>(icfg.getNodes()), false);
         icfg.forEach(workList::add);
         while (!workList.isEmpty()) {
             Node node = workList.poll();
@@ -92,6 +99,7 @@ class InterSolver<Method, Node, Fact> {
                 propagate(node);
             }
         }
+        logger.info("{} iterations", workList.getNumberOfPolls());
     }
 
     void propagate(Node node) {
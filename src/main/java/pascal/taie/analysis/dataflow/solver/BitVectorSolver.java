@@ -0,0 +1,161 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.dataflow.analysis.BitVectorAnalysis;
+import pascal.taie.analysis.dataflow.fact.BitVectorResult;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
+import pascal.taie.util.graph.SCCWorkList;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Solver for {@link BitVectorAnalysis}.
+ * <p>
+ * Nodes are numbered by {@link CFG#getIndex} and facts are numbered by
+ * the fact indexer of the analysis. The in and out facts of all nodes
+ * are stored in two flat {@code long[]}s, so that meet, copy and
+ * comparison of facts are performed word by word, and no node or
+ * element is hashed during the solving. The nodes are processed in the
+ * order given by {@link SCCWorkList}, and the number of iterations
+ * is logged at debug level for each CFG.
+ */
+public class BitVectorSolver {
+
+    private static final Logger logger = LogManager.getLogger(BitVectorSolver.class);
+
+    private BitVectorSolver() {
+    }
+
+    /**
+     * Solves the given bit-vector analysis problem.
+     *
+     * @return the data-flow analysis result
+     */
+    public static <Node, E> BitVectorResult<Node, E> solve(
+            BitVectorAnalysis<Node, E> analysis) {
+        CFG<Node> cfg = analysis.getCFG();
+        boolean isForward = analysis.isForward();
+        boolean isMay = analysis.isMay();
+        int nodes = cfg.getNumberOfNodes();
+        int facts = analysis.getNumberOfFacts();
+        int words = (int) (((long) facts + 63) >>> 6);
+        int size = Math.multiplyExact(nodes, words);
+        // facts before and after each node in the direction of the analysis,
+        // i.e., in and out facts for forward analysis, and vice versa
+        long[] before = new long[size];
+        long[] after = new long[size];
+        // predecessors and successors in the direction of the analysis
+        int[][] preds = new int[nodes][];
+        int[][] succs = new int[nodes][];
+        int[][] gens = new int[nodes][];
+        int[][] kills = new int[nodes][];
+        for (int i = 0; i < nodes; ++i) {
+            Node node = cfg.getNode(i);
+            Set<Node> predNodes = isForward ? cfg.getPredsOf(node) : cfg.getSuccsOf(node);
+            Set<Node> succNodes = isForward ? cfg.getSuccsOf(node) : cfg.getPredsOf(node);
+            preds[i] = toIndexes(cfg, predNodes);
+            succs[i] = toIndexes(cfg, succNodes);
+            gens[i] = analysis.getGen(node);
+            kills[i] = analysis.getKill(node);
+        }
+        int boundary = cfg.getIndex(isForward ? cfg.getEntry() : cfg.getExit());
+        // initialize facts; boundary facts are empty for both may and
+        // must analyses, and initial facts of must analyses are universal
+        if (!isMay && words > 0) {
+            long[] universe = new long[words];
+            Arrays.fill(universe, -1L);
+            if ((facts & 63) != 0) {
+                universe[words - 1] = (1L << facts) - 1;
+            }
+            for (int i = 0; i < nodes; ++i) {
+                if (i != boundary) {
+                    System.arraycopy(universe, 0, before, i * words, words);
+                    System.arraycopy(universe, 0, after, i * words, words);
+                }
+            }
+        }
+        SCCWorkList<Node> workList = new SCCWorkList<>(
+                cfg, new CFGNodeIndexer<>(cfg), !isForward);
+        for (int i = 0; i < nodes; ++i) {
+            if (i != boundary) {
+                workList.add(cfg.getNode(i));
+            }
+        }
+        long[] temp = new long[words];
+        while (!workList.isEmpty()) {
+            int i = cfg.getIndex(workList.poll());
+            int base = i * words;
+            // meet facts from predecessors
+            int[] ps = preds[i];
+            if (ps.length > 0) {
+                System.arraycopy(after, ps[0] * words, before, base, words);
+                for (int k = 1; k < ps.length; ++k) {
+                    int predBase = ps[k] * words;
+                    if (isMay) {
+                        for (int w = 0; w < words; ++w) {
+                            before[base + w] |= after[predBase + w];
+                        }
+                    } else {
+                        for (int w = 0; w < words; ++w) {
+                            before[base + w] &= after[predBase + w];
+                        }
+                    }
+                }
+            }
+            // apply gen/kill
+            System.arraycopy(before, base, temp, 0, words);
+            for (int f : kills[i]) {
+                temp[f >>> 6] &= ~(1L << f);
+            }
+            for (int f : gens[i]) {
+                temp[f >>> 6] |= 1L << f;
+            }
+            if (!Arrays.equals(temp, 0, words, after, base, base + words)) {
+                System.arraycopy(temp, 0, after, base, words);
+                for (int succ : succs[i]) {
+                    if (succ != boundary) {
+                        workList.add(cfg.getNode(succ));
+                    }
+                }
+            }
+        }
+        logger.debug("{} iterations for {}",
+                workList.getNumberOfPolls(), cfg.getMethod());
+        return isForward ?
+                new BitVectorResult<>(cfg, analysis.getFactIndexer(), words, before, after) :
+                new BitVectorResult<>(cfg, analysis.getFactIndexer(), words, after, before);
+    }
+
+    private static <Node> int[] toIndexes(CFG<Node> cfg, Set<Node> nodes) {
+        int[] indexes = new int[nodes.size()];
+        int i = 0;
+        for (Node node : nodes) {
+            indexes[i++] = cfg.getIndex(node);
+        }
+        return indexes;
+    }
+}
@@ -22,21 +22,80 @@
 
 package pascal.taie.analysis.dataflow.solver;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.dataflow.analysis.DataflowAnalysis;
 import pascal.taie.analysis.dataflow.fact.DataflowResult;
 import pascal.taie.analysis.graph.cfg.CFG;
 import pascal.taie.analysis.graph.cfg.CFGEdge;
+import pascal.taie.analysis.graph.cfg.CFGNodeIndexer;
 import pascal.taie.util.collection.CollectionUtils;
-import pascal.taie.util.collection.Sets;
+import pascal.taie.util.graph.SCCWorkList;
 
-import java.util.Comparator;
-import java.util.NavigableSet;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
 
 /**
- * Work-list solver with optimization.
+ * Work-list solver with optimization. The nodes are processed in the order
+ * given by {@link SCCWorkList}, so that each loop is iterated to
+ * stability before the nodes after it are processed.
+ * <p>
+ * The solver counts its iterations, i.e., the nodes polled from
+ * the work lists, which are logged at debug level for each CFG.
  */
 class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
 
+    private static final Logger logger = LogManager.getLogger(WorkListSolver.class);
+
+    /**
+     * Whether to process the nodes in the order given by {@link SCCWorkList}.
+     * If not, the nodes are processed in the order of {@link CFG#getIndex}
+     * for forward analyses, and in the reverse order for backward analyses.
+     */
+    private final boolean sccOrder;
+
+    /**
+     * Total number of iterations of this solver.
+     */
+    private final LongAdder iterations = new LongAdder();
+
+    WorkListSolver() {
+        this(true);
+    }
+
+    WorkListSolver(boolean sccOrder) {
+        this.sccOrder = sccOrder;
+    }
+
+    /**
+     * @return the total number of iterations of this solver, i.e.,
+     * the number of nodes processed over all solved analyses.
+     */
+    long getIterations() {
+        return iterations.sum();
+    }
+
+    private SCCWorkList<Node> newWorkList(CFG<Node> cfg, boolean reverse) {
+        CFGNodeIndexer<Node> indexer = new CFGNodeIndexer<>(cfg);
+        if (sccOrder) {
+            return new SCCWorkList<>(cfg, indexer, reverse);
+        } else {
+            int n = cfg.getNumberOfNodes();
+            List<Node> schedule = IntStream.range(0, n)
+                    .map(i -> reverse ? n - 1 - i : i)
+                    .mapToObj(cfg::getNode)
+                    .toList();
+            return new SCCWorkList<>(schedule, indexer);
+        }
+    }
+
+    private void countIterations(CFG<Node> cfg, SCCWorkList<Node> workList) {
+        int polls = workList.getNumberOfPolls();
+        iterations.add(polls);
+        logger.debug("{} iterations for {}", polls, cfg.getMethod());
+    }
+
     @Override
     protected void initializeForward(DataflowAnalysis<Node, Fact> analysis,
                                      DataflowResult<Node, Fact> result) {
@@ -82,15 +141,14 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
     protected void doSolveForward(DataflowAnalysis<Node, Fact> analysis,
                                   DataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
-        NavigableSet<Node> workList = Sets.newOrderedSet(
-                Comparator.comparingInt(cfg::getIndex));
+        SCCWorkList<Node> workList = newWorkList(cfg, false);
         cfg.forEach(node -> {
             if (!cfg.isEntry(node)) {
                 workList.add(node);
             }
         });
         while (!workList.isEmpty()) {
-            Node node = workList.pollFirst();
+            Node node = workList.poll();
             // meet incoming facts
             Fact in;
             int inDegree = cfg.getInDegreeOf(node);
@@ -122,6 +180,7 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
                 workList.addAll(cfg.getSuccsOf(node));
             }
         }
+        countIterations(cfg, workList);
     }
 
     @Override
@@ -169,15 +228,14 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
     protected void doSolveBackward(DataflowAnalysis<Node, Fact> analysis,
                                    DataflowResult<Node, Fact> result) {
         CFG<Node> cfg = analysis.getCFG();
-        NavigableSet<Node> workList = Sets.newOrderedSet(
-                Comparator.comparingInt(n -> -cfg.getIndex(n)));
+        SCCWorkList<Node> workList = newWorkList(cfg, true);
         cfg.forEach(node -> {
             if (!cfg.isExit(node)) {
                 workList.add(node);
             }
         });
         while (!workList.isEmpty()) {
-            Node node = workList.pollFirst();
+            Node node = workList.poll();
             // meet incoming facts
             Fact out;
             int outDegree = cfg.getOutDegreeOf(node);
@@ -209,5 +267,6 @@ class WorkListSolver<Node, Fact> extends AbstractSolver<Node, Fact> {
                 workList.addAll(cfg.getPredsOf(node));
             }
         }
+        countIterations(cfg, workList);
     }
 }
@@ -25,66 +25,141 @@ package pascal.taie.analysis.graph.callgraph;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
-import pascal.taie.ir.proginfo.MemberRef;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.config.ConfigException;
 import pascal.taie.ir.proginfo.MethodRef;
 import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Subsignature;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.TwoKeyMap;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
-import java.util.Queue;
 import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
  * Builds call graph via class hierarchy analysis.
+ * <p>
+ * The call graph is built in bulk-synchronous rounds. In each round,
+ * the IR of the methods newly reached in the previous round (i.e.,
+ * the frontier) is built and their call sites are resolved in parallel,
+ * then the resulting call edges are added to the call graph on the
+ * current thread, which determines the frontier of the next round.
  */
 class CHABuilder implements CGBuilder<Invoke, JMethod> {
 
     private static final Logger logger = LogManager.getLogger(CHABuilder.class);
 
+    private final boolean implicitEntries;
+
+    private final List<String> entryMethods;
+
     private ClassHierarchy hierarchy;
 
     /**
      * Cache resolve results for interface/virtual invocations.
+     * As call sites are resolved by multiple threads,
+     * this table is backed by concurrent maps.
      */
-    private TwoKeyMap<JClass, MemberRef, Set<JMethod>> resolveTable;
+    private TwoKeyMap<JClass, Subsignature, Set<JMethod>> resolveTable;
+
+    CHABuilder(AnalysisOptions options) {
+        implicitEntries = options.getBoolean("implicit-entries");
+        // noinspection unchecked
+        entryMethods = (List<String>) options.get("entry-methods");
+    }
 
     @Override
     public CallGraph<Invoke, JMethod> build() {
-        return buildCallGraph(World.get().getMainMethod());
+        return buildCallGraph(getEntries());
+    }
+
+    /**
+     * @return the entry methods of the call graph, i.e., the main method,
+     * the implicit entries (if enabled) and the specified entry methods.
+     */
+    private Collection<JMethod> getEntries() {
+        Set<JMethod> entries = Sets.newLinkedSet();
+        JMethod main = World.get().getMainMethod();
+        if (main != null) {
+            entries.add(main);
+        }
+        if (implicitEntries) {
+            entries.addAll(World.get().getImplicitEntries());
+        }
+        for (String sig : entryMethods) {
+            JMethod method = World.get().getClassHierarchy().getMethod(sig);
+            if (method == null) {
+                throw new ConfigException("Entry method " + sig + " is not found");
+            }
+            entries.add(method);
+        }
+        if (entries.isEmpty()) {
+            throw new ConfigException("No entry methods for call graph construction," +
+                    " please specify main class or option entry-methods");
+        }
+        return entries;
     }
 
-    private CallGraph<Invoke, JMethod> buildCallGraph(JMethod entry) {
+    private CallGraph<Invoke, JMethod> buildCallGraph(Collection<JMethod> entries) {
         hierarchy = World.get().getClassHierarchy();
-        resolveTable = Maps.newTwoKeyMap();
+        resolveTable = Maps.newTwoKeyMap(
+                Maps.newConcurrentMap(), Maps::newConcurrentMap);
         DefaultCallGraph callGraph = new DefaultCallGraph();
-        callGraph.addEntryMethod(entry);
-        Queue<JMethod> workList = new ArrayDeque<>();
-        workList.add(entry);
-        while (!workList.isEmpty()) {
-            JMethod method = workList.poll();
-            callGraph.addReachableMethod(method);
-            callGraph.callSitesIn(method).forEach(invoke -> {
-                Set<JMethod> callees = resolveCalleesOf(invoke);
-                callees.forEach(callee -> {
-                    if (!callGraph.contains(callee)) {
-                        workList.add(callee);
-                    }
-                    callGraph.addEdge(new Edge<>(
-                            CallGraphs.getCallKind(invoke), invoke, callee));
-                });
-            });
+        entries.forEach(callGraph::addEntryMethod);
+        List<JMethod> frontier = List.copyOf(entries);
+        int rounds = 0;
+        while (!frontier.isEmpty()) {
+            ++rounds;
+            // build IR and resolve call edges of the frontier in parallel
+            List<List<Edge<Invoke, JMethod>>> edges = frontier.parallelStream()
+                    .map(this::resolveCallEdgesOf)
+                    .toList();
+            // update call graph and compute next frontier
+            frontier.forEach(callGraph::addReachableMethod);
+            Set<JMethod> next = Sets.newLinkedSet();
+            edges.forEach(es -> es.forEach(edge -> {
+                JMethod callee = edge.getCallee();
+                if (!callGraph.contains(callee)) {
+                    next.add(callee);
+                }
+                callGraph.addEdge(edge);
+            }));
+            frontier = List.copyOf(next);
         }
+        logger.info("Built call graph in {} rounds", rounds);
         return callGraph;
     }
 
+    /**
+     * Resolves the call edges from the call sites in given method.
+     * This method may be invoked by multiple threads simultaneously.
+     */
+    private List<Edge<Invoke, JMethod>> resolveCallEdgesOf(JMethod method) {
+        if (method.isAbstract()) {
+            return List.of();
+        }
+        List<Edge<Invoke, JMethod>> edges = new ArrayList<>();
+        for (Stmt stmt : method.getIR()) {
+            if (stmt instanceof Invoke invoke) {
+                CallKind kind = CallGraphs.getCallKind(invoke);
+                resolveCalleesOf(invoke).forEach(callee ->
+                        edges.add(new Edge<>(kind, invoke, callee)));
+            }
+        }
+        return edges;
+    }
+
     /**
      * Resolves callees of a call site via class hierarchy analysis.
      */
@@ -94,17 +169,16 @@ class CHABuilder implements CGBuilder<Invoke, JMethod> {
             case INTERFACE, VIRTUAL -> {
                 MethodRef methodRef = callSite.getMethodRef();
                 JClass cls = methodRef.getDeclaringClass();
-                Set<JMethod> callees = resolveTable.get(cls, methodRef);
-                if (callees == null) {
-                    callees = hierarchy.getAllSubclassesOf(cls)
-                            .stream()
-                            .filter(Predicate.not(JClass::isAbstract))
-                            .map(c -> hierarchy.dispatch(c, methodRef))
-                            .filter(Objects::nonNull) // filter out null callees
-                            .collect(Collectors.toUnmodifiableSet());
-                    resolveTable.put(cls, methodRef, callees);
-                }
-                yield callees;
+                // the targets are determined by the declaring class
+                // and subsignature of the method reference, thus they
+                // are shared by the call sites with the same ones
+                yield resolveTable.computeIfAbsent(cls, methodRef.getSubsignature(),
+                        (c, subsig) -> hierarchy.getAllSubclassesOf(c)
+                                .stream()
+                                .filter(Predicate.not(JClass::isAbstract))
+                                .map(sub -> hierarchy.dispatch(sub, methodRef))
+                                .filter(Objects::nonNull) // filter out null callees
+                                .collect(Collectors.toUnmodifiableSet()));
             }
             case SPECIAL, STATIC -> Set.of(callSite.getMethodRef().resolve());
             case DYNAMIC -> {
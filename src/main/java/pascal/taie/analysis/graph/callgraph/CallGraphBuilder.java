@@ -57,7 +57,7 @@ public class CallGraphBuilder extends ProgramAnalysis<CallGraph<Invoke, JMethod>
     public CallGraph<Invoke, JMethod> analyze() {
         CGBuilder<Invoke, JMethod> builder = switch (algorithm) {
             case "pta" -> new PTABasedBuilder();
-            case "cha" -> new CHABuilder();
+            case "cha" -> new CHABuilder(getOptions());
             default -> throw new ConfigException(
                     "Unknown call graph building algorithm: " + algorithm);
         };
@@ -25,12 +25,15 @@ package pascal.taie.analysis.pta;
 import org.apache.logging.log4j.Level;
 import pascal.taie.World;
 import pascal.taie.analysis.ProgramAnalysis;
+import pascal.taie.analysis.pta.core.cs.element.ArrayBasedCSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.MapBasedCSManager;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
 import pascal.taie.analysis.pta.core.cs.selector.ContextSelectorFactory;
 import pascal.taie.analysis.pta.core.heap.AllocationSiteBasedModel;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.solver.DefaultSolver;
+import pascal.taie.analysis.pta.core.solver.ParallelSolver;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.AnalysisTimer;
 import pascal.taie.analysis.pta.plugin.ClassInitializer;
@@ -41,12 +44,14 @@ import pascal.taie.analysis.pta.plugin.ReferenceHandler;
 import pascal.taie.analysis.pta.plugin.ResultProcessor;
 import pascal.taie.analysis.pta.plugin.ThreadHandler;
 import pascal.taie.analysis.pta.plugin.exception.ExceptionAnalysis;
+import pascal.taie.analysis.pta.plugin.incremental.IncrementalAnalysis;
 import pascal.taie.analysis.pta.plugin.invokedynamic.InvokeDynamicAnalysis;
 import pascal.taie.analysis.pta.plugin.invokedynamic.Java9StringConcatHandler;
 import pascal.taie.analysis.pta.plugin.invokedynamic.LambdaAnalysis;
 import pascal.taie.analysis.pta.plugin.natives.NativeModeller;
 import pascal.taie.analysis.pta.plugin.reflection.ReflectionAnalysis;
 import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlowListener;
 import pascal.taie.analysis.pta.toolkit.CollectionMethods;
 import pascal.taie.analysis.pta.toolkit.mahjong.Mahjong;
 import pascal.taie.analysis.pta.toolkit.scaler.Scaler;
@@ -54,12 +59,17 @@ import pascal.taie.analysis.pta.toolkit.zipper.Zipper;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.config.ConfigException;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.AnalysisException;
 import pascal.taie.util.Timer;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
 
@@ -80,47 +90,106 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
             if (advanced.equals("collection")) {
                 selector = ContextSelectorFactory.makeSelectiveSelector(cs,
                         new CollectionMethods(World.get().getClassHierarchy()).get());
-            } else {
-                // run context-insensitive analysis as pre-analysis
-                PointerAnalysisResult preResult = runAnalysis(heapModel,
-                        ContextSelectorFactory.makeCISelector());
-                if (advanced.startsWith("scaler")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeGuidedSelector(Scaler.run(preResult, advanced)),
+            } else if (advanced.startsWith("scaler")) {
+                PreAnalysisCache cache = new PreAnalysisCache(options, "scaler");
+                Map<JMethod, String> csMap = reusePreAnalysis(options) ?
+                        cache.loadMethodMap() : null;
+                if (csMap == null) {
+                    PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+                    csMap = Timer.runAndCount(() -> Scaler.run(preResult, advanced),
                             "Scaler", Level.INFO);
-                } else if (advanced.startsWith("zipper")) {
-                    selector = Timer.runAndCount(() -> ContextSelectorFactory
-                                    .makeSelectiveSelector(cs, Zipper.run(preResult, advanced)),
+                    cache.saveMethodMap(csMap);
+                }
+                selector = ContextSelectorFactory.makeGuidedSelector(csMap);
+            } else if (advanced.startsWith("zipper")) {
+                PreAnalysisCache cache = new PreAnalysisCache(options, "zipper");
+                Set<JMethod> csMethods = reusePreAnalysis(options) ?
+                        cache.loadMethods() : null;
+                if (csMethods == null) {
+                    PointerAnalysisResult preResult = runPreAnalysis(heapModel);
+                    csMethods = Timer.runAndCount(() -> Zipper.run(preResult, advanced),
                             "Zipper", Level.INFO);
-                } else if (advanced.equals("mahjong")) {
+                    cache.saveMethods(csMethods);
+                }
+                selector = ContextSelectorFactory.makeSelectiveSelector(cs, csMethods);
+            } else if (advanced.equals("mahjong")) {
+                PreAnalysisCache cache = new PreAnalysisCache(options, "mahjong");
+                List<List<New>> mergedSites = reusePreAnalysis(options) ?
+                        cache.loadAllocationSites() : null;
+                if (mergedSites == null) {
+                    PointerAnalysisResult preResult = runPreAnalysis(heapModel);
                     heapModel = Timer.runAndCount(() -> Mahjong.run(preResult, options),
                             "Mahjong", Level.INFO);
+                    cache.saveAllocationSites(Mahjong.getMergedSites(heapModel));
                 } else {
-                    throw new IllegalArgumentException(
-                            "Illegal advanced analysis argument: " + advanced);
+                    heapModel = Mahjong.makeHeapModel(options, mergedSites);
                 }
+            } else {
+                throw new IllegalArgumentException(
+                        "Illegal advanced analysis argument: " + advanced);
             }
         }
         if (selector == null) {
             selector = ContextSelectorFactory.makePlainSelector(cs);
         }
-        return runAnalysis(heapModel, selector);
+        return runAnalysis(heapModel, selector, false);
+    }
+
+    private static boolean reusePreAnalysis(AnalysisOptions options) {
+        return options.getBoolean("reuse-pre-analysis");
+    }
+
+    /**
+     * Runs context-insensitive analysis as pre-analysis.
+     */
+    private PointerAnalysisResult runPreAnalysis(HeapModel heapModel) {
+        return runAnalysis(heapModel, ContextSelectorFactory.makeCISelector(), true);
     }
 
     private PointerAnalysisResult runAnalysis(HeapModel heapModel,
-                                              ContextSelector selector) {
+                                              ContextSelector selector,
+                                              boolean isPreAnalysis) {
         AnalysisOptions options = getOptions();
-        Solver solver = new DefaultSolver(options,
-                heapModel, selector, new MapBasedCSManager());
+        Solver solver = makeSolver(options, heapModel, selector);
         // The initialization of some Plugins may read the fields in solver,
         // e.g., contextSelector or csManager, thus we initialize Plugins
         // after setting all other fields of solver.
-        setPlugin(solver, options);
+        setPlugin(solver, options, isPreAnalysis);
         solver.solve();
         return solver.getResult();
     }
 
-    private static void setPlugin(Solver solver, AnalysisOptions options) {
+    private static Solver makeSolver(AnalysisOptions options,
+                                     HeapModel heapModel,
+                                     ContextSelector selector) {
+        String solver = options.getString("solver");
+        return switch (solver) {
+            case "default" -> new DefaultSolver(options,
+                    heapModel, selector, makeCSManager(options));
+            case "parallel" -> new ParallelSolver(options,
+                    heapModel, selector, makeCSManager(options));
+            default -> throw new IllegalArgumentException(
+                    "Illegal solver argument: " + solver);
+        };
+    }
+
+    private static CSManager makeCSManager(AnalysisOptions options) {
+        String csManager = options.getString("cs-manager");
+        return switch (csManager) {
+            case "map" -> new MapBasedCSManager();
+            case "array" -> new ArrayBasedCSManager();
+            default -> throw new IllegalArgumentException(
+                    "Illegal cs-manager argument: " + csManager);
+        };
+    }
+
+    /**
+     * @param isPreAnalysis whether the solver runs a pre-analysis, whose
+     *                      taint flows are not streamed nor reported to
+     *                      the listeners.
+     */
+    private static void setPlugin(Solver solver, AnalysisOptions options,
+                                  boolean isPreAnalysis) {
         CompositePlugin plugin = new CompositePlugin();
         // add builtin plugins
         // To record elapsed time precisely, AnalysisTimer should be added at first.
@@ -151,26 +220,47 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                 InvokeDynamicAnalysis.useMethodHandle()) {
             plugin.addPlugin(new InvokeDynamicAnalysis());
         }
+        TaintAnalysis taintAnalysis = null;
         if (options.getString("taint-config") != null) {
-            plugin.addPlugin(new TaintAnalysis());
+            taintAnalysis = new TaintAnalysis(!isPreAnalysis);
+            plugin.addPlugin(taintAnalysis);
+        }
+        if (options.getBoolean("incremental")) {
+            plugin.addPlugin(new IncrementalAnalysis());
         }
         plugin.addPlugin(new ResultProcessor());
         // add plugins specified in options
         // noinspection unchecked
-        addPlugins(plugin, (List<String>) options.get("plugins"));
+        List<Plugin> customPlugins = addPlugins(plugin,
+                (List<String>) options.get("plugins"));
+        if (taintAnalysis != null) {
+            // register custom plugins that listen to taint flows
+            for (Plugin customPlugin : customPlugins) {
+                if (customPlugin instanceof TaintFlowListener listener) {
+                    taintAnalysis.addTaintFlowListener(listener);
+                }
+            }
+        }
         // connects plugins and solver
         plugin.setSolver(solver);
         solver.setPlugin(plugin);
     }
 
-    private static void addPlugins(CompositePlugin plugin,
-                                   List<String> pluginClasses) {
+    /**
+     * Creates the plugins of given classes and adds them to {@code plugin}.
+     *
+     * @return the created plugins.
+     */
+    private static List<Plugin> addPlugins(CompositePlugin plugin,
+                                           List<String> pluginClasses) {
+        List<Plugin> newPlugins = new ArrayList<>();
         for (String pluginClass : pluginClasses) {
             try {
                 Class<?> clazz = Class.forName(pluginClass);
                 Constructor<?> ctor = clazz.getConstructor();
                 Plugin newPlugin = (Plugin) ctor.newInstance();
                 plugin.addPlugin(newPlugin);
+                newPlugins.add(newPlugin);
             } catch (ClassNotFoundException e) {
                 throw new ConfigException(
                         "Plugin class " + pluginClass + " is not found");
@@ -183,5 +273,6 @@ public class PointerAnalysis extends ProgramAnalysis<PointerAnalysisResult> {
                         "Failed to create plugin instance for " + pluginClass, e);
             }
         }
+        return newPlugins;
     }
 }
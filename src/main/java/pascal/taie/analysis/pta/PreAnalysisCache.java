@@ -0,0 +1,274 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.frontend.cache.Fingerprints;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Saves the results of pre-analyses (i.e., the methods selected by Zipper,
+ * the context choices of Scaler and the merged allocation sites of Mahjong)
+ * to the output directory, and reloads them in later runs on the same
+ * program, so that the context-insensitive pre-analysis can be skipped.
+ * <p>
+ * Each file begins with a key (lines starting with {@code #}), which covers
+ * the fingerprint of the program and the options affecting the pre-analysis.
+ * A saved result is reloaded only when its key matches the current one.
+ */
+class PreAnalysisCache {
+
+    private static final Logger logger = LogManager.getLogger(PreAnalysisCache.class);
+
+    /**
+     * Options that affect the results of pre-analyses.
+     */
+    private static final List<String> KEY_OPTIONS = List.of(
+            "advanced", "cs", "only-app", "implicit-entries",
+            "distinguish-string-constants", "merge-string-objects",
+            "merge-string-builders", "merge-exception-objects",
+            "handle-invokedynamic", "propagate-types",
+            "reflection-inference", "reflection-log",
+            "taint-config", "plugins");
+
+    private static final String KEY_PREFIX = "#";
+
+    private static final String SEP = "\t";
+
+    private final File file;
+
+    private final List<String> key;
+
+    private final ClassHierarchy hierarchy = World.get().getClassHierarchy();
+
+    PreAnalysisCache(AnalysisOptions options, String name) {
+        file = new File(World.get().getOptions().getOutputDir(),
+                "pre-analysis-" + name + ".txt");
+        key = new ArrayList<>();
+        Fingerprints.ofProgram(World.get().getOptions())
+                .lines()
+                .forEach(line -> key.add(KEY_PREFIX + line));
+        for (String option : KEY_OPTIONS) {
+            if (options.has(option)) {
+                key.add(KEY_PREFIX + option + "=" + options.get(option));
+            }
+        }
+    }
+
+    /**
+     * @return the methods saved by {@link #saveMethods(Collection)},
+     * or {@code null} if they are absent or stale.
+     */
+    @Nullable
+    Set<JMethod> loadMethods() {
+        List<String> lines = load();
+        if (lines == null) {
+            return null;
+        }
+        Set<JMethod> methods = Sets.newSet(lines.size());
+        for (String line : lines) {
+            JMethod method = hierarchy.getMethod(line);
+            if (method == null) {
+                return invalid(line);
+            }
+            methods.add(method);
+        }
+        return methods;
+    }
+
+    void saveMethods(Collection<JMethod> methods) {
+        save(methods.stream().map(JMethod::getSignature).toList());
+    }
+
+    /**
+     * @return the map saved by {@link #saveMethodMap(Map)},
+     * or {@code null} if it is absent or stale.
+     */
+    @Nullable
+    Map<JMethod, String> loadMethodMap() {
+        List<String> lines = load();
+        if (lines == null) {
+            return null;
+        }
+        Map<JMethod, String> map = Maps.newMap(lines.size());
+        for (String line : lines) {
+            String[] parts = line.split(SEP);
+            JMethod method = parts.length == 2 ?
+                    hierarchy.getMethod(parts[0]) : null;
+            if (method == null) {
+                return invalid(line);
+            }
+            map.put(method, parts[1]);
+        }
+        return map;
+    }
+
+    void saveMethodMap(Map<JMethod, String> map) {
+        save(map.entrySet()
+                .stream()
+                .map(e -> e.getKey().getSignature() + SEP + e.getValue())
+                .toList());
+    }
+
+    /**
+     * @return the groups of allocation sites saved by
+     * {@link #saveAllocationSites(Collection)}, or {@code null}
+     * if they are absent or stale.
+     */
+    @Nullable
+    List<List<New>> loadAllocationSites() {
+        List<String> lines = load();
+        if (lines == null) {
+            return null;
+        }
+        List<List<New>> groups = new ArrayList<>();
+        for (String line : lines) {
+            // each line is a group of allocation sites, and each
+            // allocation site is represented by its container method
+            // and its index in the IR of the method
+            String[] parts = line.split(SEP);
+            List<New> group = new ArrayList<>(parts.length / 2);
+            for (int i = 0; i + 1 < parts.length; i += 2) {
+                New allocSite = getAllocationSite(parts[i], parts[i + 1]);
+                if (allocSite == null) {
+                    return invalid(line);
+                }
+                group.add(allocSite);
+            }
+            // Mahjong only merges the objects of the same type, and
+            // the types of the sites may differ after the program changes
+            if (group.isEmpty() || group.stream()
+                    .map(site -> site.getRValue().getType())
+                    .distinct()
+                    .count() > 1) {
+                return invalid(line);
+            }
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    void saveAllocationSites(Collection<? extends Collection<New>> groups) {
+        save(groups.stream()
+                .map(group -> {
+                    StringBuilder sb = new StringBuilder();
+                    for (New allocSite : group) {
+                        if (!sb.isEmpty()) {
+                            sb.append(SEP);
+                        }
+                        sb.append(allocSite.getContainer().getSignature())
+                                .append(SEP)
+                                .append(allocSite.getIndex());
+                    }
+                    return sb.toString();
+                })
+                .toList());
+    }
+
+    @Nullable
+    private New getAllocationSite(String methodSig, String index) {
+        JMethod method = hierarchy.getMethod(methodSig);
+        if (method == null || method.isAbstract()) {
+            return null;
+        }
+        IR ir = method.getIR();
+        int i;
+        try {
+            i = Integer.parseInt(index);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (0 <= i && i < ir.getStmts().size()) {
+            Stmt stmt = ir.getStmt(i);
+            if (stmt instanceof New allocSite) {
+                return allocSite;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the data lines of the saved file, or {@code null} if the file
+     * does not exist or its key does not match the current one.
+     */
+    @Nullable
+    private List<String> load() {
+        if (!file.exists()) {
+            logger.info("Pre-analysis result not found in {}", file);
+            return null;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file.toPath());
+        } catch (IOException e) {
+            logger.error("Failed to load pre-analysis result from {} due to {}",
+                    file, e);
+            return null;
+        }
+        int n = key.size();
+        if (lines.size() < n || !lines.subList(0, n).equals(key)) {
+            logger.info("Pre-analysis result in {} is stale", file);
+            return null;
+        }
+        logger.info("Loading pre-analysis result from {}", file);
+        return lines.subList(n, lines.size());
+    }
+
+    private void save(List<String> data) {
+        List<String> lines = new ArrayList<>(key.size() + data.size());
+        lines.addAll(key);
+        lines.addAll(data);
+        try {
+            Files.write(file.toPath(), lines);
+            logger.info("Pre-analysis result is saved to {}", file);
+        } catch (IOException e) {
+            logger.error("Failed to save pre-analysis result to {} due to {}",
+                    file, e);
+        }
+    }
+
+    private <T> T invalid(String line) {
+        logger.info("Pre-analysis result in {} does not match the program" +
+                " (at '{}')", file, line);
+        return null;
+    }
+}
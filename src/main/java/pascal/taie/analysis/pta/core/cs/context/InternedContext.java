@@ -0,0 +1,305 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.context;
+
+import pascal.taie.util.Indexable;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An implementation of {@link Context}, which interns each context as
+ * a dense integer id of a compact context table.
+ * <p>
+ * Compared to {@link TrieContext}, the table stores the parent, the last
+ * element and the length of every context in primitive arrays, and finds
+ * the child contexts by a single open-addressing table whose keys are
+ * the pairs of (parent id, element id) packed into longs, thus it does not
+ * need a map of children for each context. The id of each context is
+ * unique within the factory that creates it, and it can be used by
+ * clients to store context-sensitive data in arrays.
+ */
+public class InternedContext implements Context, Indexable {
+
+    private final Factory<?> factory;
+
+    private final int id;
+
+    private InternedContext(Factory<?> factory, int id) {
+        this.factory = factory;
+        this.id = id;
+    }
+
+    @Override
+    public int getLength() {
+        return factory.lengths[id];
+    }
+
+    @Override
+    public Object getElementAt(int i) {
+        int length = getLength();
+        assert 0 <= i && i < length;
+        int c = id;
+        for (int j = length - 1; j > i; --j) {
+            c = factory.parents[c];
+        }
+        return factory.elements[factory.elems[c]];
+    }
+
+    @Override
+    public int getIndex() {
+        return id;
+    }
+
+    InternedContext getParent() {
+        return id == Factory.ROOT ? null : factory.contexts[factory.parents[id]];
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        Object[] elems = new Object[getLength()];
+        for (int i = 0; i < elems.length; ++i) {
+            elems[i] = getElementAt(i);
+        }
+        return Arrays.toString(elems);
+    }
+
+    public static class Factory<T> implements ContextFactory<T> {
+
+        /**
+         * Id of the empty context, i.e., the root of all contexts.
+         */
+        private static final int ROOT = 0;
+
+        private static final long EMPTY_KEY = -1L;
+
+        /**
+         * Number of contexts created by this factory.
+         */
+        private int size;
+
+        private InternedContext[] contexts = new InternedContext[1024];
+
+        /**
+         * Id of the parent of each context.
+         */
+        private int[] parents = new int[1024];
+
+        /**
+         * Id of the last element of each context.
+         */
+        private int[] elems = new int[1024];
+
+        /**
+         * Length of each context.
+         */
+        private int[] lengths = new int[1024];
+
+        /**
+         * Maps each context element to its id.
+         */
+        private final Map<Object, Integer> elemIds = Maps.newMap();
+
+        /**
+         * Context elements, indexed by their ids.
+         */
+        private Object[] elements = new Object[1024];
+
+        /**
+         * Keys of the child table, i.e., (parent id, element id) packed
+         * into longs, or {@link #EMPTY_KEY} for the empty slots.
+         */
+        private long[] childKeys;
+
+        /**
+         * Ids of the child contexts, in the same slots as their keys.
+         */
+        private int[] childIds;
+
+        private int mask;
+
+        public Factory() {
+            allocateChildTable(1024);
+            contexts[ROOT] = new InternedContext(this, ROOT);
+            parents[ROOT] = ROOT;
+            elems[ROOT] = -1;
+            size = 1;
+        }
+
+        @Override
+        public InternedContext getEmptyContext() {
+            return contexts[ROOT];
+        }
+
+        @Override
+        public InternedContext make(T elem) {
+            int c = getChild(ROOT, elem);
+            return contexts[c];
+        }
+
+        @Override
+        public InternedContext make(T... elems) {
+            int c = ROOT;
+            for (T elem : elems) {
+                c = getChild(c, elem);
+            }
+            return contexts[c];
+        }
+
+        @Override
+        public InternedContext makeLastK(Context context, int k) {
+            int c = lastK(getId(context), k);
+            return contexts[c];
+        }
+
+        @Override
+        public InternedContext append(Context parent, T elem, int limit) {
+            int p = getId(parent);
+            if (lengths[p] >= limit) {
+                p = lastK(p, limit - 1);
+            }
+            int c = getChild(p, elem);
+            return contexts[c];
+        }
+
+        /**
+         * @return the number of contexts created by this factory.
+         */
+        public int getContextCount() {
+            return size;
+        }
+
+        private int getId(Context context) {
+            InternedContext c = (InternedContext) context;
+            assert c.factory == this : "context of another factory: " + c;
+            return c.id;
+        }
+
+        /**
+         * @return id of the context which consists of the last k elements
+         * of the given context.
+         */
+        private int lastK(int c, int k) {
+            if (k <= 0) {
+                return ROOT;
+            }
+            int length = lengths[c];
+            if (length <= k) {
+                return c;
+            }
+            int[] es = new int[k];
+            for (int i = k - 1; i >= 0; --i) {
+                es[i] = elems[c];
+                c = parents[c];
+            }
+            int result = ROOT;
+            for (int e : es) {
+                result = getChild(result, e);
+            }
+            return result;
+        }
+
+        private int getChild(int parent, T elem) {
+            Integer e = elemIds.get(elem);
+            if (e == null) {
+                e = elemIds.size();
+                elemIds.put(elem, e);
+                if (e == elements.length) {
+                    elements = Arrays.copyOf(elements, e * 2);
+                }
+                elements[e] = elem;
+            }
+            return getChild(parent, e.intValue());
+        }
+
+        private int getChild(int parent, int elem) {
+            long key = ((long) parent << 32) | elem;
+            int slot = slotOf(key);
+            while (childKeys[slot] != EMPTY_KEY) {
+                if (childKeys[slot] == key) {
+                    return childIds[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            int child = newContext(parent, elem);
+            childKeys[slot] = key;
+            childIds[slot] = child;
+            // keep load factor of child table below 1/2
+            if (size * 2 > childKeys.length) {
+                rehash();
+            }
+            return child;
+        }
+
+        private int newContext(int parent, int elem) {
+            int id = size++;
+            if (id == contexts.length) {
+                int length = id * 2;
+                contexts = Arrays.copyOf(contexts, length);
+                parents = Arrays.copyOf(parents, length);
+                elems = Arrays.copyOf(elems, length);
+                lengths = Arrays.copyOf(lengths, length);
+            }
+            contexts[id] = new InternedContext(this, id);
+            parents[id] = parent;
+            elems[id] = elem;
+            lengths[id] = lengths[parent] + 1;
+            return id;
+        }
+
+        private int slotOf(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+
+        private void allocateChildTable(int capacity) {
+            childKeys = new long[capacity];
+            Arrays.fill(childKeys, EMPTY_KEY);
+            childIds = new int[capacity];
+            mask = capacity - 1;
+        }
+
+        private void rehash() {
+            long[] oldKeys = childKeys;
+            int[] oldIds = childIds;
+            allocateChildTable(oldKeys.length * 2);
+            for (int i = 0; i < oldKeys.length; ++i) {
+                long key = oldKeys[i];
+                if (key != EMPTY_KEY) {
+                    int slot = slotOf(key);
+                    while (childKeys[slot] != EMPTY_KEY) {
+                        slot = (slot + 1) & mask;
+                    }
+                    childKeys[slot] = key;
+                    childIds[slot] = oldIds[i];
+                }
+            }
+        }
+    }
+}
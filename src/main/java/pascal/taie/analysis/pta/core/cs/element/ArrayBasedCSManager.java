@@ -0,0 +1,397 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.cs.element;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Streams;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Manages data by maintaining the data and their context-sensitive
+ * counterparts in arrays and small open-addressing tables.
+ * <p>
+ * Compared to {@link MapBasedCSManager}, which looks up the CS elements
+ * through two levels of hash maps, this manager keeps, for each element
+ * (e.g., {@link Var}), a slot that holds its only CS element, or a small
+ * open-addressing table of its CS elements keyed by contexts. The instance
+ * fields and array indexes are stored in arrays indexed by the indexes of
+ * their base {@link CSObj}s, and the CS objects in arrays indexed by the
+ * indexes of their {@link Obj}s, thus looking up them does not involve
+ * hash maps at all.
+ */
+public class ArrayBasedCSManager implements CSManager {
+
+    /**
+     * Looks up the CS elements by their contexts.
+     */
+    private static final Slots<Context, CSElement> BY_CONTEXT = new Slots<>() {
+        @Override
+        Context keyOf(CSElement e) {
+            return e.getContext();
+        }
+    };
+
+    /**
+     * Looks up the instance fields by their fields.
+     */
+    private static final Slots<JField, InstanceField> BY_FIELD = new Slots<>() {
+        @Override
+        JField keyOf(InstanceField e) {
+            return e.getField();
+        }
+    };
+
+    private final Map<Var, Object> vars = Maps.newMap();
+
+    private final List<CSVar> csVars = new ArrayList<>();
+
+    private final Map<JField, StaticField> staticFields = Maps.newMap();
+
+    /**
+     * Slots of instance fields, indexed by the indexes of base objects.
+     */
+    private Object[] instanceFieldSlots = new Object[1024];
+
+    private final List<InstanceField> instanceFields = new ArrayList<>();
+
+    /**
+     * Array indexes, indexed by the indexes of array objects.
+     */
+    private ArrayIndex[] arrayIndexSlots = new ArrayIndex[1024];
+
+    private final List<ArrayIndex> arrayIndexes = new ArrayList<>();
+
+    /**
+     * Counter for assigning unique indexes to Pointers.
+     */
+    private int counter = 0;
+
+    /**
+     * Slots of CS objects, indexed by the indexes of objects.
+     */
+    private Object[] objSlots = new Object[1024];
+
+    private final List<CSObj> csObjs = new ArrayList<>();
+
+    private final CSObjIndexer objIndexer = new CSObjIndexer();
+
+    private final Map<Invoke, Object> callSites = Maps.newMap();
+
+    private final Map<JMethod, Object> methods = Maps.newMap();
+
+    @Override
+    public CSVar getCSVar(Context context, Var var) {
+        Object slot = vars.get(var);
+        CSVar csVar = (CSVar) BY_CONTEXT.get(slot, context);
+        if (csVar == null) {
+            csVar = new CSVar(var, context, counter++);
+            vars.put(var, BY_CONTEXT.add(slot, csVar));
+            csVars.add(csVar);
+        }
+        return csVar;
+    }
+
+    @Override
+    public StaticField getStaticField(JField field) {
+        return staticFields.computeIfAbsent(field,
+                f -> new StaticField(f, counter++));
+    }
+
+    @Override
+    public InstanceField getInstanceField(CSObj base, JField field) {
+        int index = base.getIndex();
+        if (index >= instanceFieldSlots.length) {
+            instanceFieldSlots = Arrays.copyOf(instanceFieldSlots,
+                    newLength(instanceFieldSlots.length, index));
+        }
+        Object slot = instanceFieldSlots[index];
+        InstanceField instanceField = BY_FIELD.get(slot, field);
+        if (instanceField == null) {
+            instanceField = new InstanceField(base, field, counter++);
+            instanceFieldSlots[index] = BY_FIELD.add(slot, instanceField);
+            instanceFields.add(instanceField);
+        }
+        return instanceField;
+    }
+
+    @Override
+    public ArrayIndex getArrayIndex(CSObj array) {
+        int index = array.getIndex();
+        if (index >= arrayIndexSlots.length) {
+            arrayIndexSlots = Arrays.copyOf(arrayIndexSlots,
+                    newLength(arrayIndexSlots.length, index));
+        }
+        ArrayIndex arrayIndex = arrayIndexSlots[index];
+        if (arrayIndex == null) {
+            arrayIndex = new ArrayIndex(array, counter++);
+            arrayIndexSlots[index] = arrayIndex;
+            arrayIndexes.add(arrayIndex);
+        }
+        return arrayIndex;
+    }
+
+    @Override
+    public Collection<Var> getVars() {
+        return Collections.unmodifiableCollection(vars.keySet());
+    }
+
+    @Override
+    public Collection<CSVar> getCSVars() {
+        return Collections.unmodifiableList(csVars);
+    }
+
+    @Override
+    public Collection<CSVar> getCSVarsOf(Var var) {
+        return BY_CONTEXT.elementsOf(vars.get(var));
+    }
+
+    @Override
+    public Collection<StaticField> getStaticFields() {
+        return Collections.unmodifiableCollection(staticFields.values());
+    }
+
+    @Override
+    public Collection<InstanceField> getInstanceFields() {
+        return Collections.unmodifiableList(instanceFields);
+    }
+
+    @Override
+    public Collection<ArrayIndex> getArrayIndexes() {
+        return Collections.unmodifiableList(arrayIndexes);
+    }
+
+    @Override
+    public Stream<Pointer> pointers() {
+        return Streams.concat(
+                getCSVars().stream(),
+                getInstanceFields().stream(),
+                getArrayIndexes().stream(),
+                getStaticFields().stream());
+    }
+
+    @Override
+    public CSObj getCSObj(Context heapContext, Obj obj) {
+        int index = obj.getIndex();
+        if (index >= objSlots.length) {
+            objSlots = Arrays.copyOf(objSlots,
+                    newLength(objSlots.length, index));
+        }
+        Object slot = objSlots[index];
+        CSObj csObj = (CSObj) BY_CONTEXT.get(slot, heapContext);
+        if (csObj == null) {
+            csObj = objIndexer.newCSObj(heapContext, obj);
+            objSlots[index] = BY_CONTEXT.add(slot, csObj);
+            csObjs.add(csObj);
+        }
+        return csObj;
+    }
+
+    @Override
+    public Collection<CSObj> getObjects() {
+        return Collections.unmodifiableList(csObjs);
+    }
+
+    @Override
+    public Collection<CSObj> getCSObjsOf(Obj obj) {
+        int index = obj.getIndex();
+        return index < objSlots.length ?
+                BY_CONTEXT.elementsOf(objSlots[index]) : List.of();
+    }
+
+    @Override
+    public Indexer<CSObj> getObjectIndexer() {
+        return objIndexer;
+    }
+
+    @Override
+    public CSCallSite getCSCallSite(Context context, Invoke callSite) {
+        Object slot = callSites.get(callSite);
+        CSCallSite csCallSite = (CSCallSite) BY_CONTEXT.get(slot, context);
+        if (csCallSite == null) {
+            CSMethod container = getCSMethod(context, callSite.getContainer());
+            csCallSite = new CSCallSite(callSite, context, container);
+            callSites.put(callSite, BY_CONTEXT.add(slot, csCallSite));
+        }
+        return csCallSite;
+    }
+
+    @Override
+    public CSMethod getCSMethod(Context context, JMethod method) {
+        Object slot = methods.get(method);
+        CSMethod csMethod = (CSMethod) BY_CONTEXT.get(slot, context);
+        if (csMethod == null) {
+            csMethod = new CSMethod(method, context);
+            methods.put(method, BY_CONTEXT.add(slot, csMethod));
+        }
+        return csMethod;
+    }
+
+    private static int newLength(int length, int index) {
+        return Math.max(index + 1, length + (length >> 1));
+    }
+
+    /**
+     * Operations on slots. A slot is {@code null} (no element),
+     * a single element, or a {@link Table} of multiple elements.
+     *
+     * @param <K> type of keys
+     * @param <E> type of elements
+     */
+    private abstract static class Slots<K, E> {
+
+        abstract K keyOf(E e);
+
+        /**
+         * @return the element of given key in the slot,
+         * or {@code null} if the slot does not contain such element.
+         */
+        E get(Object slot, K key) {
+            if (slot == null) {
+                return null;
+            } else if (slot instanceof Table table) {
+                Object[] elems = table.elems;
+                int mask = elems.length - 1;
+                for (int i = indexOf(key, mask); ; i = (i + 1) & mask) {
+                    Object o = elems[i];
+                    if (o == null) {
+                        return null;
+                    }
+                    @SuppressWarnings("unchecked")
+                    E e = (E) o;
+                    if (matches(keyOf(e), key)) {
+                        return e;
+                    }
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                E e = (E) slot;
+                return matches(keyOf(e), key) ? e : null;
+            }
+        }
+
+        /**
+         * Adds an element, whose key is absent in the slot, to the slot.
+         *
+         * @return the resulting slot.
+         */
+        Object add(Object slot, E elem) {
+            if (slot == null) {
+                return elem;
+            }
+            Table table;
+            if (slot instanceof Table t) {
+                table = t;
+            } else {
+                table = new Table(4);
+                @SuppressWarnings("unchecked")
+                E e = (E) slot;
+                insert(table.elems, e);
+                table.size = 1;
+            }
+            if ((table.size + 1) * 2 > table.elems.length) {
+                Object[] oldElems = table.elems;
+                table.elems = new Object[oldElems.length * 2];
+                for (Object o : oldElems) {
+                    if (o != null) {
+                        @SuppressWarnings("unchecked")
+                        E e = (E) o;
+                        insert(table.elems, e);
+                    }
+                }
+            }
+            insert(table.elems, elem);
+            ++table.size;
+            return table;
+        }
+
+        /**
+         * @return an unmodifiable view of the elements in the slot,
+         * cast to the type expected by the caller.
+         */
+        <T extends E> Collection<T> elementsOf(Object slot) {
+            if (slot == null) {
+                return List.of();
+            } else if (slot instanceof Table table) {
+                List<T> result = new ArrayList<>(table.size);
+                for (Object o : table.elems) {
+                    if (o != null) {
+                        @SuppressWarnings("unchecked")
+                        T t = (T) o;
+                        result.add(t);
+                    }
+                }
+                return Collections.unmodifiableList(result);
+            } else {
+                @SuppressWarnings("unchecked")
+                T t = (T) slot;
+                return List.of(t);
+            }
+        }
+
+        private void insert(Object[] elems, E elem) {
+            int mask = elems.length - 1;
+            int i = indexOf(keyOf(elem), mask);
+            while (elems[i] != null) {
+                i = (i + 1) & mask;
+            }
+            elems[i] = elem;
+        }
+
+        private static int indexOf(Object key, int mask) {
+            int h = key.hashCode() * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static boolean matches(Object k1, Object k2) {
+            return k1 == k2 || k1.equals(k2);
+        }
+    }
+
+    /**
+     * Open-addressing table of elements.
+     */
+    private static class Table {
+
+        private Object[] elems;
+
+        private int size;
+
+        private Table(int capacity) {
+            elems = new Object[capacity];
+        }
+    }
+}
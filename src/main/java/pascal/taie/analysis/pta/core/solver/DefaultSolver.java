@@ -48,6 +48,7 @@ import pascal.taie.analysis.pta.core.heap.HeapModel;
 import pascal.taie.analysis.pta.core.heap.MockObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.pts.ObjectFilter;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.analysis.pta.pts.PointsToSetFactory;
 import pascal.taie.config.AnalysisOptions;
@@ -83,8 +84,10 @@ import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.Sets;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -122,8 +125,40 @@ public class DefaultSolver implements Solver {
 
     private final PointsToSetFactory ptsFactory;
 
+    /**
+     * Object filters of {@link TypeFilter}s, which are shared by the
+     * filters of the same type.
+     */
+    private final Map<Type, ObjectFilter> typeFilters = Maps.newMap();
+
     private final PropagateTypes propTypes;
 
+    /**
+     * Whether collapses cycles in pointer flow graph.
+     */
+    private final boolean collapseCycles;
+
+    /**
+     * When the pointers with equal points-to sets share one set instance:
+     * {@code none}, {@code after-solving} or {@code periodic}.
+     */
+    private final String sharePts;
+
+    /**
+     * Number of processed pointer entries that triggers the first
+     * sharing of points-to sets during solving (with option
+     * {@code share-pts:periodic}). The following checkpoints are
+     * triggered whenever the number doubles, thus the total cost of
+     * sharing is proportional to the cost of solving.
+     */
+    private final long firstShareCheckpoint;
+
+    /**
+     * Number of processed pointer entries that triggers next sharing
+     * of points-to sets during solving.
+     */
+    private long nextShareCheckpoint;
+
     /**
      * Whether only analyzes application code.
      */
@@ -143,6 +178,26 @@ public class DefaultSolver implements Solver {
 
     private Plugin plugin;
 
+    /**
+     * Plugins that are only interested in the variables they register.
+     * The i-th plugin corresponds to the i-th bit of the masks
+     * in {@link #interestedPlugins}.
+     */
+    private final List<Plugin> selectivePlugins = new ArrayList<>();
+
+    /**
+     * Plugins that are only interested in the variables they register,
+     * but exceed the bits of the masks. They are notified of new
+     * points-to sets of all variables.
+     */
+    private final List<Plugin> overflowPlugins = new ArrayList<>();
+
+    /**
+     * Map from a variable to the bit mask of the selective plugins
+     * that are interested in the variable.
+     */
+    private final Map<Var, Long> interestedPlugins = Maps.newMap();
+
     private WorkList workList;
 
     private CSCallGraph callGraph;
@@ -161,6 +216,21 @@ public class DefaultSolver implements Solver {
      */
     private Set<JMethod> ignoredMethods;
 
+    /**
+     * Edges that have been checked by lazy cycle detection.
+     */
+    private Set<PointerFlowEdge> checkedEdges;
+
+    /**
+     * Edges whose targets are to be checked by lazy cycle detection.
+     */
+    private List<PointerFlowEdge> cycleCandidates;
+
+    /**
+     * Number of pointers merged into other pointers.
+     */
+    private int collapsedPointers;
+
     private StmtProcessor stmtProcessor;
 
     private PointerAnalysisResult result;
@@ -177,6 +247,17 @@ public class DefaultSolver implements Solver {
         ptsFactory = new PointsToSetFactory(csManager.getObjectIndexer());
         propTypes = new PropagateTypes((List<String>) options.get("propagate-types"));
         onlyApp = options.getBoolean("only-app");
+        collapseCycles = options.getBoolean("collapse-cycles");
+        sharePts = options.getString("share-pts");
+        if (!List.of("none", "after-solving", "periodic").contains(sharePts)) {
+            throw new IllegalArgumentException(
+                    "Illegal share-pts argument: " + sharePts);
+        }
+        firstShareCheckpoint = options.getInt("share-pts-checkpoint");
+        if (firstShareCheckpoint <= 0) {
+            throw new IllegalArgumentException(
+                    "Illegal share-pts-checkpoint argument: " + firstShareCheckpoint);
+        }
         timeLimit = options.getInt("time-limit");
     }
 
@@ -215,6 +296,13 @@ public class DefaultSolver implements Solver {
         return callGraph;
     }
 
+    /**
+     * @return the number of pointer entries processed by this solver.
+     */
+    public long getPointerEntryCount() {
+        return workList.getPointerEntryCount();
+    }
+
     @Override
     public PointsToSet getPointsToSetOf(Pointer pointer) {
         PointsToSet pts = pointer.getPointsToSet();
@@ -230,6 +318,15 @@ public class DefaultSolver implements Solver {
         return ptsFactory.make();
     }
 
+    /**
+     * @return the object filter shared by the {@link TypeFilter}s
+     * of given type.
+     */
+    ObjectFilter getTypeFilter(Type type) {
+        return typeFilters.computeIfAbsent(type,
+                t -> TypeFilter.makeFilter(t, this));
+    }
+
     @Override
     public void setPlugin(Plugin plugin) {
         this.plugin = plugin;
@@ -252,10 +349,15 @@ public class DefaultSolver implements Solver {
     private void initialize() {
         callGraph = new CSCallGraph(csManager);
         pointerFlowGraph = new PointerFlowGraph(csManager);
-        workList = new WorkList();
+        workList = new WorkList(SchedulingPolicy.get(
+                options.getString("scheduling"), pointerFlowGraph));
         reachableMethods = Sets.newSet();
         initializedClasses = Sets.newSet();
         ignoredMethods = Sets.newSet();
+        checkedEdges = Sets.newSet();
+        cycleCandidates = new ArrayList<>();
+        collapsedPointers = 0;
+        nextShareCheckpoint = firstShareCheckpoint;
         stmtProcessor = new StmtProcessor();
         isTimeout = false;
         if (timeLimit != UNLIMITED) {
@@ -303,23 +405,16 @@ public class DefaultSolver implements Solver {
      * Processes work list entries until the work list is empty.
      */
     private void analyze() {
-        while (!workList.isEmpty() && !isTimeout) {
-            WorkList.Entry entry = workList.pollEntry();
-            if (entry instanceof WorkList.PointerEntry pEntry) {
-                Pointer p = pEntry.pointer();
-                PointsToSet pts = pEntry.pointsToSet();
-                PointsToSet diff = propagate(p, pts);
-                if (!diff.isEmpty() && p instanceof CSVar v) {
-                    processInstanceStore(v, diff);
-                    processInstanceLoad(v, diff);
-                    processArrayStore(v, diff);
-                    processArrayLoad(v, diff);
-                    processCall(v, diff);
-                    plugin.onNewPointsToSet(v, diff);
-                }
-            } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
-                processCallEdge(eEntry.edge());
-            }
+        processWorkList();
+        logger.info("Processed {} pointer entries and {} call edges" +
+                        " (scheduling: {})", workList.getPointerEntryCount(),
+                workList.getCallEdgeCount(), options.getString("scheduling"));
+        if (collapseCycles) {
+            logger.info("Collapsed {} pointers in pointer flow graph",
+                    collapsedPointers);
+        }
+        if (!sharePts.equals("none")) {
+            sharePointsToSets();
         }
         if (!workList.isEmpty() && isTimeout) {
             logger.warn("Pointer analysis stops early as it reaches time limit ({} seconds)," +
@@ -330,12 +425,255 @@ public class DefaultSolver implements Solver {
         plugin.onFinish();
     }
 
+    /**
+     * Drains the work list until it is empty or the analysis times out.
+     * Subclasses may override this method to change how the entries
+     * are scheduled, e.g., processing them in parallel.
+     */
+    void processWorkList() {
+        while (!workList.isEmpty() && !isTimeout) {
+            processEntry(workList.pollEntry());
+            checkpoint();
+        }
+    }
+
+    /**
+     * Shares points-to sets if the solver reaches a checkpoint.
+     * This method must be invoked on the solver thread.
+     */
+    void checkpoint() {
+        if (sharePts.equals("periodic")
+                && workList.getPointerEntryCount() >= nextShareCheckpoint) {
+            nextShareCheckpoint = workList.getPointerEntryCount() * 2;
+            sharePointsToSets();
+        }
+    }
+
+    /**
+     * Hash-conses the points-to sets of all pointers, so that the pointers
+     * with equal points-to sets share the same (canonical) set instance.
+     * Canonical sets are copied before being modified,
+     * see {@link #getMutablePointsToSetOf(Pointer)}.
+     */
+    private void sharePointsToSets() {
+        ptsFactory.clearCanonicalSets();
+        Set<PointsToSet> oldSets = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<PointsToSet> newSets = Collections.newSetFromMap(new IdentityHashMap<>());
+        long[] counts = new long[3]; // #pointers, #objects before, #objects after
+        csManager.pointers().forEach(p -> {
+            PointsToSet pts = p.getPointsToSet();
+            if (pts != null) {
+                PointsToSet canonical = ptsFactory.canonicalize(pts);
+                p.setPointsToSet(canonical);
+                ++counts[0];
+                if (oldSets.add(pts)) {
+                    counts[1] += pts.size();
+                }
+                if (newSets.add(canonical)) {
+                    counts[2] += canonical.size();
+                }
+            }
+        });
+        logger.info("Shared points-to sets of {} pointers:" +
+                        " {} -> {} sets, {} -> {} objects in sets",
+                counts[0], oldSets.size(), newSets.size(), counts[1], counts[2]);
+    }
+
+    /**
+     * Processes a single work list entry.
+     */
+    void processEntry(WorkList.Entry entry) {
+        if (entry instanceof WorkList.PointerEntry pEntry) {
+            Pointer p = pointerFlowGraph.getRepresentative(pEntry.pointer());
+            PointsToSet pts = pEntry.pointsToSet();
+            PointsToSet diff = propagate(p, pts);
+            if (!diff.isEmpty()) {
+                for (Pointer member : pointerFlowGraph.getGroup(p)) {
+                    if (member instanceof CSVar v) {
+                        processNewPointsToSet(v, diff);
+                    }
+                }
+            }
+            if (!cycleCandidates.isEmpty()) {
+                collapseCycles();
+            }
+        } else if (entry instanceof WorkList.CallEdgeEntry eEntry) {
+            processCallEdge(eEntry.edge());
+        }
+    }
+
+    /**
+     * Processes the statements and plugins that are related to
+     * a variable whose points-to set has changed.
+     *
+     * @param v    the variable whose points-to set has changed
+     * @param diff set of new discovered objects pointed by the variable.
+     */
+    void processNewPointsToSet(CSVar v, PointsToSet diff) {
+        processInstanceStore(v, diff);
+        processInstanceLoad(v, diff);
+        processArrayStore(v, diff);
+        processArrayLoad(v, diff);
+        processCall(v, diff);
+        plugin.onNewPointsToSet(v, diff);
+        if (!interestedPlugins.isEmpty()) {
+            Long mask = interestedPlugins.get(v.getVar());
+            if (mask != null) {
+                // only notify the selective plugins interested in v
+                for (long m = mask; m != 0; m &= m - 1) {
+                    selectivePlugins.get(Long.numberOfTrailingZeros(m))
+                            .onNewPointsToSet(v, diff);
+                }
+            }
+        }
+        if (!overflowPlugins.isEmpty()) {
+            overflowPlugins.forEach(p -> p.onNewPointsToSet(v, diff));
+        }
+    }
+
     /**
      * Propagates pointsToSet to pt(pointer) and its PFG successors,
      * returns the difference set of pointsToSet and pt(pointer).
      */
     private PointsToSet propagate(Pointer pointer, PointsToSet pointsToSet) {
         logger.trace("Propagate {} to {}", pointsToSet, pointer);
+        PointsToSet diff = addAllDiff(pointer, pointsToSet);
+        if (!diff.isEmpty()) {
+            propagateToSuccessors(pointer,
+                    pointerFlowGraph.getGroup(pointer), diff);
+        }
+        return diff;
+    }
+
+    /**
+     * Propagates diff along the out edges of {@code sources}, which are
+     * in the group represented by {@code rep}. The collapsible edges
+     * inside the group are skipped, as the pointers in the group share
+     * the same points-to set.
+     */
+    private void propagateToSuccessors(Pointer rep, Collection<Pointer> sources,
+                                       PointsToSet diff) {
+        for (Pointer source : sources) {
+            for (PointerFlowEdge edge : pointerFlowGraph.getOutEdgesOf(source)) {
+                Pointer target = edge.target();
+                if (collapseCycles && pointerFlowGraph.isCollapsible(edge)) {
+                    Pointer targetRep = pointerFlowGraph.getRepresentative(target);
+                    if (targetRep == rep) {
+                        continue;
+                    }
+                    // lazy cycle detection: if source and target point to
+                    // the same objects, then they are probably in a cycle
+                    if (!checkedEdges.contains(edge)
+                            && hasSameObjects(rep, targetRep)) {
+                        checkedEdges.add(edge);
+                        cycleCandidates.add(edge);
+                    }
+                }
+                for (Transfer transfer : edge.getTransfers()) {
+                    PointsToSet pts = transfer.apply(edge, diff);
+                    if (isBuiltin(transfer)) {
+                        // results of builtin transfers are never modified,
+                        // so they can be shared by the work list entries
+                        // (e.g., the same diff is propagated along all
+                        // the identity edges) without being copied
+                        if (!pts.isEmpty()) {
+                            workList.addSharedEntry(target, pts);
+                        }
+                    } else {
+                        addPointsTo(target, pts);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code transfer} is provided by the solver,
+     * i.e., {@link Identity} or {@link TypeFilter}, whose results are
+     * either the input set or newly-created sets.
+     */
+    static boolean isBuiltin(Transfer transfer) {
+        return transfer instanceof Identity || transfer instanceof TypeFilter;
+    }
+
+    private static boolean hasSameObjects(Pointer p1, Pointer p2) {
+        PointsToSet s1 = p1.getPointsToSet();
+        PointsToSet s2 = p2.getPointsToSet();
+        return s1 != null && s2 != null && s1.size() == s2.size()
+                && s1.objects().allMatch(s2::contains);
+    }
+
+    /**
+     * Detects the cycles from the targets of the candidate edges,
+     * and collapses them.
+     */
+    private void collapseCycles() {
+        while (!cycleCandidates.isEmpty()) {
+            PointerFlowEdge edge = cycleCandidates.remove(cycleCandidates.size() - 1);
+            Pointer start = pointerFlowGraph.getRepresentative(edge.target());
+            pointerFlowGraph.findCycles(start).forEach(this::collapse);
+        }
+    }
+
+    /**
+     * Merges the groups in a cycle into one group, which shares
+     * a single points-to set.
+     *
+     * @param cycle representatives of the groups in the cycle.
+     */
+    private void collapse(List<Pointer> cycle) {
+        // select the pointer with the largest points-to set as
+        // representative, so that its set is reused
+        Pointer rep = cycle.get(0);
+        for (Pointer p : cycle) {
+            if (getPointsToSetOf(p).size() > getPointsToSetOf(rep).size()) {
+                rep = p;
+            }
+        }
+        PointsToSet union = makePointsToSet();
+        cycle.forEach(p -> union.addAll(getPointsToSetOf(p)));
+        // compute the objects that are new to each group before merging
+        List<GroupDiff> diffs = new ArrayList<>();
+        for (Pointer p : cycle) {
+            PointsToSet diff = getMutablePointsToSetOf(p).addAllDiff(union);
+            if (!diff.isEmpty()) {
+                diffs.add(new GroupDiff(
+                        List.copyOf(pointerFlowGraph.getGroup(p)), diff));
+            }
+        }
+        PointsToSet repSet = getPointsToSetOf(rep);
+        for (Pointer p : cycle) {
+            if (p != rep) {
+                pointerFlowGraph.getGroup(p).forEach(
+                        member -> member.setPointsToSet(repSet));
+                pointerFlowGraph.merge(rep, p);
+            }
+        }
+        collapsedPointers += cycle.size() - 1;
+        for (GroupDiff groupDiff : diffs) {
+            propagateToSuccessors(rep, groupDiff.group(), groupDiff.diff());
+            for (Pointer member : groupDiff.group()) {
+                if (member instanceof CSVar v) {
+                    processNewPointsToSet(v, groupDiff.diff());
+                }
+            }
+        }
+    }
+
+    private record GroupDiff(List<Pointer> group, PointsToSet diff) {
+    }
+
+    /**
+     * Applies the filters of {@code pointer} on {@code pointsToSet},
+     * adds the remaining objects to pt(pointer), and returns
+     * the difference set of them and pt(pointer).
+     * <p>
+     * This method only touches the points-to set of {@code pointer}
+     * (which may be shared by the pointers in its group), thus it can be
+     * safely invoked by different threads as long as they handle
+     * different groups of pointers.
+     */
+    PointsToSet addAllDiff(Pointer pointer, PointsToSet pointsToSet) {
         Set<Predicate<CSObj>> filters = pointer.getFilters();
         if (!filters.isEmpty()) {
             // apply filters (of the pointer) on pointsToSet
@@ -343,15 +681,45 @@ public class DefaultSolver implements Solver {
                     .filter(o -> filters.stream().allMatch(f -> f.test(o)))
                     .collect(ptsFactory::make, PointsToSet::addObject, PointsToSet::addAll);
         }
-        PointsToSet diff = getPointsToSetOf(pointer).addAllDiff(pointsToSet);
-        if (!diff.isEmpty()) {
-            pointerFlowGraph.getOutEdgesOf(pointer).forEach(edge -> {
-                Pointer target = edge.target();
-                edge.getTransfers().forEach(transfer ->
-                        addPointsTo(target, transfer.apply(edge, diff)));
-            });
+        return getMutablePointsToSetOf(pointer).addAllDiff(pointsToSet);
+    }
+
+    /**
+     * @return the points-to set of {@code pointer} (a representative),
+     * which can be modified. If the set is shared (i.e., canonical),
+     * it is replaced by a copy for all pointers in the group of
+     * {@code pointer}.
+     */
+    private PointsToSet getMutablePointsToSetOf(Pointer pointer) {
+        PointsToSet pts = getPointsToSetOf(pointer);
+        if (ptsFactory.isCanonical(pts)) {
+            pts = pts.copy();
+            for (Pointer member : pointerFlowGraph.getGroup(pointer)) {
+                member.setPointsToSet(pts);
+            }
         }
-        return diff;
+        return pts;
+    }
+
+    /**
+     * @return the pointer flow graph of this solver.
+     */
+    PointerFlowGraph getPointerFlowGraph() {
+        return pointerFlowGraph;
+    }
+
+    /**
+     * @return the work list of this solver.
+     */
+    WorkList getWorkList() {
+        return workList;
+    }
+
+    /**
+     * @return {@code true} if the analysis has reached time limit.
+     */
+    boolean isTimeout() {
+        return isTimeout;
     }
 
     /**
@@ -763,9 +1131,33 @@ public class DefaultSolver implements Solver {
 
     @Override
     public void addPointerFilter(Pointer pointer, Predicate<CSObj> filter) {
+        Pointer rep = pointerFlowGraph.getRepresentative(pointer);
+        if (pointerFlowGraph.getGroup(rep).size() > 1) {
+            // the pointers in a group share the same points-to set,
+            // thus we cannot filter the objects of a single pointer
+            dissolve(rep);
+        }
         pointer.addFilter(filter);
     }
 
+    /**
+     * Dissolves the group represented by {@code rep}, so that each pointer
+     * in the group has its own points-to set again. The pointers in the
+     * group point to the same objects so far, thus each of them starts
+     * with a copy of the shared set. Afterwards, the objects are propagated
+     * along the edges inside the group as usual.
+     */
+    private void dissolve(Pointer rep) {
+        PointsToSet pts = getPointsToSetOf(rep);
+        List<Pointer> group = pointerFlowGraph.dissolve(rep);
+        for (Pointer member : group) {
+            if (member != rep) {
+                member.setPointsToSet(pts.copy());
+            }
+        }
+        collapsedPointers -= group.size() - 1;
+    }
+
     @Override
     public void addPFGEdge(Pointer source, Pointer target, FlowKind kind,
                            Transfer transfer) {
@@ -845,6 +1237,36 @@ public class DefaultSolver implements Solver {
         ignoredMethods.add(method);
     }
 
+    @Override
+    public void addInterestedVar(Plugin plugin, Var var) {
+        if (!plugin.isInterestedInRegisteredVarsOnly()) {
+            throw new IllegalArgumentException(plugin +
+                    " is not interested in registered variables only");
+        }
+        int i = selectivePlugins.indexOf(plugin);
+        if (i == -1) {
+            if (selectivePlugins.size() == Long.SIZE) {
+                // no bit is left for the plugin, so it falls back to
+                // be notified of all variables
+                if (!overflowPlugins.contains(plugin)) {
+                    logger.warn("More than {} plugins are interested in" +
+                            " registered variables, {} is notified of all variables",
+                            Long.SIZE, plugin);
+                    overflowPlugins.add(plugin);
+                }
+                return;
+            }
+            i = selectivePlugins.size();
+            selectivePlugins.add(plugin);
+        }
+        interestedPlugins.merge(var, 1L << i, (m1, m2) -> m1 | m2);
+    }
+
+    @Override
+    public boolean dispatchesInterestedVars() {
+        return true;
+    }
+
     @Override
     public void initializeClass(JClass cls) {
         if (cls == null || initializedClasses.contains(cls)) {
@@ -0,0 +1,299 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.selector.ContextSelector;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.config.AnalysisOptions;
+import pascal.taie.util.AnalysisException;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Pointer analysis solver which propagates points-to sets in parallel.
+ * <p>
+ * The solver works in rounds. In each round, it first processes all
+ * pending call edges, and then takes all pending pointer entries out of
+ * the work list and splits them into chunks. As the work list merges
+ * the entries of the same pointer, each pointer is handled by exactly
+ * one worker thread, which updates the points-to set of the pointer and
+ * propagates the new objects along the out edges whose transfers are
+ * thread-safe (i.e., {@link Identity} and {@link TypeFilter}). The
+ * propagated objects are buffered in thread-local maps.
+ * <p>
+ * After the workers finish, the solver thread merges the buffered
+ * objects into the work list, applies the remaining transfers (which
+ * are typically provided by plugins), and processes the statements and
+ * plugins relevant to the changed variables. These steps modify the
+ * pointer flow graph, the call graph and the states of plugins, which
+ * are not thread-safe, so they stay on the solver thread.
+ * <p>
+ * Since inclusion-based pointer analysis is monotone, the order in which
+ * the entries are processed does not affect the result, and this solver
+ * reaches the same fixpoint as {@link DefaultSolver}.
+ */
+public class ParallelSolver extends DefaultSolver {
+
+    private static final Logger logger = LogManager.getLogger(ParallelSolver.class);
+
+    /**
+     * Number of chunks per thread, more chunks lead to better
+     * load balance among the worker threads.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final int nThreads;
+
+    /**
+     * Minimum number of pointer entries per thread that makes a round
+     * worth being processed in parallel. Smaller rounds are processed on
+     * the solver thread, as the cost of dispatching them to the workers
+     * outweighs the benefit of parallelism.
+     */
+    private final int minEntriesPerThread;
+
+    public ParallelSolver(AnalysisOptions options, HeapModel heapModel,
+                          ContextSelector contextSelector, CSManager csManager) {
+        super(options, heapModel, contextSelector, csManager);
+        int threads = options.getInt("threads");
+        nThreads = threads > 0 ? threads
+                : Runtime.getRuntime().availableProcessors();
+        minEntriesPerThread = options.getInt("min-entries-per-thread");
+    }
+
+    @Override
+    void processWorkList() {
+        logger.info("Solving pointer analysis with {} threads", nThreads);
+        WorkList workList = getWorkList();
+        ExecutorService executor = Executors.newFixedThreadPool(nThreads);
+        try {
+            while (!workList.isEmpty() && !isTimeout()) {
+                processCallEdges();
+                List<WorkList.PointerEntry> entries = workList.pollPointerEntries();
+                if (entries.isEmpty() ||
+                        entries.size() < nThreads * minEntriesPerThread) {
+                    for (WorkList.PointerEntry entry : entries) {
+                        processEntry(entry);
+                        processCallEdges();
+                    }
+                } else {
+                    processInParallel(executor, entries);
+                }
+                checkpoint();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Processes all pending call edges. As in {@link WorkList#pollEntry()},
+     * we ensure that call edges are processed prior to pointer entries.
+     */
+    private void processCallEdges() {
+        WorkList workList = getWorkList();
+        while (workList.hasCallEdges()) {
+            processEntry(workList.pollEntry());
+        }
+    }
+
+    private void processInParallel(ExecutorService executor,
+                                   List<WorkList.PointerEntry> entries) {
+        if (getPointerFlowGraph().hasGroups()) {
+            entries = mergeEntriesOfGroups(entries);
+        }
+        // split entries into chunks and propagate them in parallel
+        int nChunks = Math.min(entries.size(), nThreads * CHUNKS_PER_THREAD);
+        int chunkSize = (entries.size() + nChunks - 1) / nChunks;
+        List<Callable<Round>> tasks = new ArrayList<>(nChunks);
+        for (int i = 0; i < entries.size(); i += chunkSize) {
+            List<WorkList.PointerEntry> chunk = entries.subList(
+                    i, Math.min(i + chunkSize, entries.size()));
+            tasks.add(() -> propagate(chunk));
+        }
+        List<Round> rounds = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Round> future : executor.invokeAll(tasks)) {
+                rounds.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AnalysisException("Parallel solver is interrupted", e);
+        } catch (ExecutionException e) {
+            throw new AnalysisException("Failed to propagate points-to sets",
+                    e.getCause());
+        }
+        // merge results of the workers on the solver thread
+        WorkList workList = getWorkList();
+        for (Round round : rounds) {
+            round.targets.forEach(workList::addSharedEntry);
+            round.deferred.forEach(d -> addPointsTo(
+                    d.edge().target(), d.transfer().apply(d.edge(), d.diff())));
+        }
+        for (Round round : rounds) {
+            for (VarDiff varDiff : round.changedVars) {
+                processNewPointsToSet(varDiff.var(), varDiff.diff());
+                processCallEdges();
+            }
+        }
+    }
+
+    /**
+     * Redirects the entries to the representatives of the pointers,
+     * so that the pointers which share the same points-to set (due to
+     * cycle collapsing) are handled by the same worker thread.
+     */
+    private List<WorkList.PointerEntry> mergeEntriesOfGroups(
+            List<WorkList.PointerEntry> entries) {
+        PointerFlowGraph pfg = getPointerFlowGraph();
+        Map<Pointer, PointsToSet> merged = Maps.newLinkedHashMap();
+        // the sets of the entries may be shared, so they are copied
+        // before being modified
+        Set<Pointer> copied = Sets.newSet();
+        for (WorkList.PointerEntry entry : entries) {
+            Pointer rep = pfg.getRepresentative(entry.pointer());
+            PointsToSet pts = merged.get(rep);
+            if (pts != null) {
+                if (copied.add(rep)) {
+                    pts = pts.copy();
+                    merged.put(rep, pts);
+                }
+                pts.addAll(entry.pointsToSet());
+            } else {
+                merged.put(rep, entry.pointsToSet());
+            }
+        }
+        List<WorkList.PointerEntry> result = new ArrayList<>(merged.size());
+        merged.forEach((p, pts) -> result.add(new WorkList.PointerEntry(p, pts)));
+        return result;
+    }
+
+    /**
+     * Propagates the given entries. This method runs on worker threads.
+     * <p>
+     * Lazy cycle detection is not performed here, as it modifies
+     * the pointer flow graph. Cycles are still detected and collapsed
+     * when the rounds are processed on the solver thread.
+     */
+    private Round propagate(List<WorkList.PointerEntry> entries) {
+        PointerFlowGraph pfg = getPointerFlowGraph();
+        Round round = new Round();
+        for (WorkList.PointerEntry entry : entries) {
+            Pointer pointer = entry.pointer();
+            PointsToSet diff = addAllDiff(pointer, entry.pointsToSet());
+            if (diff.isEmpty()) {
+                continue;
+            }
+            List<Pointer> group = pfg.getGroup(pointer);
+            for (Pointer member : group) {
+                for (PointerFlowEdge edge : member.getOutEdges()) {
+                    if (group.size() > 1 && pfg.isCollapsible(edge)
+                            && pfg.getRepresentative(edge.target()) == pointer) {
+                        // skip the edges inside the group
+                        continue;
+                    }
+                    for (Transfer transfer : edge.getTransfers()) {
+                        // builtin transfers are thread-safe, while the ones
+                        // provided by plugins may create new objects or
+                        // modify states of the plugins
+                        if (isBuiltin(transfer)) {
+                            round.addPointsTo(edge.target(), transfer.apply(edge, diff));
+                        } else {
+                            round.deferred.add(new DeferredTransfer(edge, transfer, diff));
+                        }
+                    }
+                }
+                if (member instanceof CSVar v) {
+                    round.changedVars.add(new VarDiff(v, diff));
+                }
+            }
+        }
+        return round;
+    }
+
+    /**
+     * Results of a chunk of pointer entries, produced by a worker thread.
+     */
+    private static class Round {
+
+        /**
+         * Objects propagated to the PFG successors. The sets may be
+         * shared with other rounds and work list entries.
+         */
+        private final Map<Pointer, PointsToSet> targets = Maps.newMap();
+
+        /**
+         * Pointers whose sets in {@link #targets} are owned by this round,
+         * i.e., can be modified in place.
+         */
+        private final Set<Pointer> ownedTargets = Sets.newSet();
+
+        /**
+         * Transfers that must be applied on the solver thread.
+         */
+        private final List<DeferredTransfer> deferred = new ArrayList<>();
+
+        /**
+         * Variables whose points-to sets changed in this round.
+         */
+        private final List<VarDiff> changedVars = new ArrayList<>();
+
+        private void addPointsTo(Pointer pointer, PointsToSet pts) {
+            if (!pts.isEmpty()) {
+                PointsToSet set = targets.get(pointer);
+                if (set == null) {
+                    targets.put(pointer, pts);
+                } else if (set != pts) {
+                    if (ownedTargets.add(pointer)) {
+                        set = set.copy();
+                        targets.put(pointer, set);
+                    }
+                    set.addAll(pts);
+                }
+            }
+        }
+    }
+
+    private record DeferredTransfer(
+            PointerFlowEdge edge, Transfer transfer, PointsToSet diff) {
+    }
+
+    private record VarDiff(CSVar var, PointsToSet diff) {
+    }
+}
@@ -25,21 +25,48 @@ package pascal.taie.analysis.pta.core.solver;
 import pascal.taie.analysis.graph.flowgraph.FlowKind;
 import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 import pascal.taie.util.collection.Views;
 import pascal.taie.util.graph.Edge;
 import pascal.taie.util.graph.Graph;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
  * Represents pointer flow graph in context-sensitive pointer analysis.
+ * <p>
+ * The pointers in a cycle that consists of {@link #isCollapsible(PointerFlowEdge)
+ * collapsible edges} always point to the same objects, so the solver may
+ * merge them into a group, which is represented by one of the pointers
+ * (the representative). The pointers in a group share the same points-to
+ * set, while their edges in this graph remain unchanged.
  */
 public class PointerFlowGraph implements Graph<Pointer> {
 
     private final CSManager csManager;
 
+    /**
+     * Maps each pointer that has been merged into a group to
+     * the representative of the group.
+     */
+    private final Map<Pointer, Pointer> representatives = Maps.newMap();
+
+    /**
+     * Maps each representative to all pointers in its group
+     * (including itself). Only groups with more than one pointer
+     * are stored in this map.
+     */
+    private final Map<Pointer, List<Pointer>> groups = Maps.newMap();
+
     PointerFlowGraph(CSManager csManager) {
         this.csManager = csManager;
     }
@@ -53,6 +80,161 @@ public class PointerFlowGraph implements Graph<Pointer> {
         return source.getOrAddEdge(kind, source, target);
     }
 
+    /**
+     * @return {@code true} if the objects propagated along {@code edge}
+     * are not changed, and neither the source nor the target of the edge
+     * has filters. The pointers in a cycle of such edges must point to
+     * the same objects.
+     */
+    boolean isCollapsible(PointerFlowEdge edge) {
+        Set<Transfer> transfers = edge.getTransfers();
+        return transfers.size() == 1 && transfers.contains(Identity.get())
+                && edge.source().getFilters().isEmpty()
+                && edge.target().getFilters().isEmpty();
+    }
+
+    /**
+     * @return the representative of the group which {@code pointer}
+     * belongs to. If {@code pointer} has not been merged with other
+     * pointers, returns itself.
+     */
+    Pointer getRepresentative(Pointer pointer) {
+        if (representatives.isEmpty()) {
+            return pointer;
+        }
+        return representatives.getOrDefault(pointer, pointer);
+    }
+
+    /**
+     * @return all pointers in the group represented by {@code rep}.
+     */
+    List<Pointer> getGroup(Pointer rep) {
+        List<Pointer> group = groups.get(rep);
+        return group != null ? group : List.of(rep);
+    }
+
+    /**
+     * @return {@code true} if any pointers have been merged.
+     */
+    boolean hasGroups() {
+        return !groups.isEmpty();
+    }
+
+    /**
+     * Merges the group represented by {@code other} into the group
+     * represented by {@code rep}.
+     */
+    void merge(Pointer rep, Pointer other) {
+        List<Pointer> group = groups.computeIfAbsent(rep, r -> {
+            List<Pointer> list = new ArrayList<>();
+            list.add(r);
+            return list;
+        });
+        List<Pointer> otherGroup = getGroup(other);
+        groups.remove(other);
+        // the representatives are updated eagerly, so that looking up
+        // the representative is a single read of the map
+        for (Pointer p : otherGroup) {
+            representatives.put(p, rep);
+            group.add(p);
+        }
+    }
+
+    /**
+     * Dissolves the group represented by {@code rep}, i.e., each pointer
+     * in the group becomes the representative of itself.
+     *
+     * @return all pointers in the dissolved group.
+     */
+    List<Pointer> dissolve(Pointer rep) {
+        List<Pointer> group = getGroup(rep);
+        groups.remove(rep);
+        group.forEach(representatives::remove);
+        return group;
+    }
+
+    /**
+     * Finds the cycles of collapsible edges that are reachable from
+     * the group represented by {@code start}, where each group is
+     * regarded as a single node. This method uses iterative Tarjan's
+     * algorithm to avoid stack overflow.
+     *
+     * @return the representatives of the groups in each cycle.
+     */
+    List<List<Pointer>> findCycles(Pointer start) {
+        List<List<Pointer>> cycles = new ArrayList<>();
+        Map<Pointer, Integer> indexes = Maps.newMap();
+        Map<Pointer, Integer> lows = Maps.newMap();
+        Deque<Pointer> stack = new ArrayDeque<>();
+        Set<Pointer> inStack = Sets.newSet();
+        Deque<Frame> workStack = new ArrayDeque<>();
+        workStack.push(visit(start, indexes, lows, stack, inStack));
+        while (!workStack.isEmpty()) {
+            Frame frame = workStack.peek();
+            Pointer node = frame.node();
+            if (frame.succs().hasNext()) {
+                Pointer succ = frame.succs().next();
+                if (!indexes.containsKey(succ)) {
+                    workStack.push(visit(succ, indexes, lows, stack, inStack));
+                } else if (inStack.contains(succ)) {
+                    lows.put(node, Math.min(lows.get(node), indexes.get(succ)));
+                }
+            } else {
+                workStack.pop();
+                if (!workStack.isEmpty()) {
+                    Pointer pred = workStack.peek().node();
+                    lows.put(pred, Math.min(lows.get(pred), lows.get(node)));
+                }
+                if (lows.get(node).equals(indexes.get(node))) {
+                    List<Pointer> scc = new ArrayList<>();
+                    Pointer p;
+                    do {
+                        p = stack.pop();
+                        inStack.remove(p);
+                        scc.add(p);
+                    } while (p != node);
+                    if (scc.size() > 1) {
+                        cycles.add(scc);
+                    }
+                }
+            }
+        }
+        return cycles;
+    }
+
+    private Frame visit(Pointer node, Map<Pointer, Integer> indexes,
+                        Map<Pointer, Integer> lows,
+                        Deque<Pointer> stack, Set<Pointer> inStack) {
+        int index = indexes.size();
+        indexes.put(node, index);
+        lows.put(node, index);
+        stack.push(node);
+        inStack.add(node);
+        return new Frame(node, getCollapsibleSuccsOf(node).iterator());
+    }
+
+    /**
+     * @return representatives of the successors of the group represented
+     * by {@code rep} via collapsible edges.
+     */
+    private Set<Pointer> getCollapsibleSuccsOf(Pointer rep) {
+        Set<Pointer> succs = Sets.newHybridSet();
+        for (Pointer p : getGroup(rep)) {
+            for (PointerFlowEdge edge : p.getOutEdges()) {
+                if (isCollapsible(edge)) {
+                    Pointer succ = getRepresentative(edge.target());
+                    if (succ != rep) {
+                        succs.add(succ);
+                    }
+                }
+            }
+        }
+        return succs;
+    }
+
+    private record Frame(Pointer node, Iterator<Pointer> succs) {
+    }
+
     @Override
     public Set<? extends Edge<Pointer>> getInEdgesOf(Pointer node) {
         throw new UnsupportedOperationException();
@@ -0,0 +1,206 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.core.solver;
+
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.util.graph.SCC;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decides the order in which {@link WorkList} processes pointer entries.
+ * Each pointer entry is assigned a priority when it is added to the
+ * work list, and the entries with smaller priorities are processed first.
+ */
+abstract class SchedulingPolicy {
+
+    /**
+     * Name of the policy that processes pointer entries in insertion order.
+     */
+    static final String FIFO = "fifo";
+
+    /**
+     * @return the scheduling policy for given name, or {@code null} if
+     * the name is {@link #FIFO}, which does not require priorities.
+     */
+    static SchedulingPolicy get(String name, PointerFlowGraph pfg) {
+        return switch (name) {
+            case FIFO -> null;
+            case "topo" -> new Topological(pfg);
+            case "lrf" -> new LeastRecentlyFired();
+            case "smallest-delta" -> new SmallestDelta();
+            default -> throw new IllegalArgumentException(
+                    "Illegal scheduling argument: " + name);
+        };
+    }
+
+    /**
+     * @param pointer the pointer of the entry
+     * @param pending the points-to set of the entry
+     * @return the priority of the entry. Smaller value means higher priority.
+     */
+    abstract long getPriority(Pointer pointer, PointsToSet pending);
+
+    /**
+     * @return {@code true} if the priority of an entry changes when
+     * new objects are merged into it.
+     */
+    boolean isUpdatedOnMerge() {
+        return false;
+    }
+
+    /**
+     * Invoked when the entry of {@code pointer} is removed from the work list.
+     *
+     * @return {@code true} if the priorities of all pending entries
+     * become outdated, and they should be recomputed.
+     */
+    boolean onPoll(Pointer pointer) {
+        return false;
+    }
+
+    /**
+     * Stores a value for a pointer, indexed by {@link Pointer#getIndex()}.
+     * If the array is enlarged, the new slots are filled with
+     * {@code defaultValue}.
+     *
+     * @return the array that contains the value.
+     */
+    private static long[] setValue(long[] values, int index,
+                                   long value, long defaultValue) {
+        if (index >= values.length) {
+            int oldLength = values.length;
+            int newLength = Math.max(index + 1, (int) (oldLength * 1.5));
+            values = Arrays.copyOf(values, newLength);
+            Arrays.fill(values, oldLength, newLength, defaultValue);
+        }
+        values[index] = value;
+        return values;
+    }
+
+    private static long getValue(long[] values, int index, long defaultValue) {
+        return index < values.length ? values[index] : defaultValue;
+    }
+
+    /**
+     * Processes pointers in topological order of the strongly connected
+     * components of pointer flow graph, so that the objects propagated to
+     * a pointer are accumulated before the pointer is processed.
+     * <p>
+     * As the pointer flow graph keeps growing during the analysis,
+     * the order is recomputed periodically. To amortize the cost of
+     * the recomputation, the number of processed entries between two
+     * recomputations is no less than the number of pointers.
+     * Pointers that are created after the last recomputation are
+     * processed after all ranked pointers.
+     */
+    private static class Topological extends SchedulingPolicy {
+
+        private static final int INITIAL_PERIOD = 1024;
+
+        private final PointerFlowGraph pfg;
+
+        private long[] ranks = new long[INITIAL_PERIOD];
+
+        private int period = INITIAL_PERIOD;
+
+        private int polls = 0;
+
+        private Topological(PointerFlowGraph pfg) {
+            this.pfg = pfg;
+            Arrays.fill(ranks, Long.MAX_VALUE);
+        }
+
+        @Override
+        long getPriority(Pointer pointer, PointsToSet pending) {
+            return getValue(ranks, pointer.getIndex(), Long.MAX_VALUE);
+        }
+
+        @Override
+        boolean onPoll(Pointer pointer) {
+            if (++polls >= period) {
+                computeRanks();
+                return true;
+            }
+            return false;
+        }
+
+        private void computeRanks() {
+            // Tarjan's algorithm finds components in reverse topological order
+            List<List<Pointer>> components = new SCC<>(pfg).getComponents();
+            int nPointers = 0;
+            long[] newRanks = new long[ranks.length];
+            Arrays.fill(newRanks, Long.MAX_VALUE);
+            for (int i = 0; i < components.size(); ++i) {
+                long rank = components.size() - i;
+                for (Pointer p : components.get(i)) {
+                    newRanks = setValue(newRanks, p.getIndex(), rank, Long.MAX_VALUE);
+                    ++nPointers;
+                }
+            }
+            ranks = newRanks;
+            period = Math.max(INITIAL_PERIOD, nPointers);
+            polls = 0;
+        }
+    }
+
+    /**
+     * Processes the pointer that has not been processed for
+     * the longest time first.
+     */
+    private static class LeastRecentlyFired extends SchedulingPolicy {
+
+        private long[] lastFired = new long[1024];
+
+        private long clock = 0;
+
+        @Override
+        long getPriority(Pointer pointer, PointsToSet pending) {
+            return getValue(lastFired, pointer.getIndex(), 0);
+        }
+
+        @Override
+        boolean onPoll(Pointer pointer) {
+            lastFired = setValue(lastFired, pointer.getIndex(), ++clock, 0);
+            return false;
+        }
+    }
+
+    /**
+     * Processes the entry with the fewest pending objects first.
+     */
+    private static class SmallestDelta extends SchedulingPolicy {
+
+        @Override
+        long getPriority(Pointer pointer, PointsToSet pending) {
+            return pending.size();
+        }
+
+        @Override
+        boolean isUpdatedOnMerge() {
+            return true;
+        }
+    }
+}
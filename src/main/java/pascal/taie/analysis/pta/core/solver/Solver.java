@@ -191,6 +191,35 @@ public interface Solver {
      */
     void addIgnoredMethod(JMethod method);
 
+    /**
+     * Registers a variable that given plugin is interested in.
+     * For a plugin that is only interested in the registered variables
+     * (see {@link Plugin#isInterestedInRegisteredVarsOnly()}),
+     * this solver invokes {@link Plugin#onNewPointsToSet} of the plugin
+     * only for the variables registered by the plugin, in all contexts.
+     * <p>
+     * The default implementation does nothing, and such plugins are
+     * notified of the new points-to sets of all variables unless
+     * {@link #dispatchesInterestedVars()} returns {@code true}.
+     *
+     * @param plugin the plugin that is interested in {@code var}.
+     * @param var    the variable to be registered.
+     */
+    default void addInterestedVar(Plugin plugin, Var var) {
+    }
+
+    /**
+     * @return {@code true} if this solver notifies the plugins that are
+     * only interested in the registered variables by itself
+     * (see {@link #addInterestedVar(Plugin, Var)}), so that
+     * {@link pascal.taie.analysis.pta.plugin.CompositePlugin} stops
+     * forwarding {@link Plugin#onNewPointsToSet} to them.
+     * The default implementation returns {@code false}.
+     */
+    default boolean dispatchesInterestedVars() {
+        return false;
+    }
+
     /**
      * Analyzes the static initializer (i.e., &lt;clinit&gt;) of given class.
      *
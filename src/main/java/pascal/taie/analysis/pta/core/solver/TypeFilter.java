@@ -22,17 +22,24 @@
 
 package pascal.taie.analysis.pta.core.solver;
 
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.pts.ObjectFilter;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.language.type.NullType;
 import pascal.taie.language.type.ReferenceType;
 import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
 
-import java.util.function.Supplier;
+import java.util.function.Predicate;
 
 /**
  * Transfer function that filters out the objects whose types are NOT
  * subtypes of specific type.
+ * <p>
+ * The filters of the same type share an {@link ObjectFilter} (provided
+ * by {@link DefaultSolver}), which caches the objects that are assignable
+ * to the type in a bit set, so that filtering a points-to set does not
+ * need to check subtyping for each object.
  */
 public class TypeFilter implements Transfer {
 
@@ -41,29 +48,34 @@ public class TypeFilter implements Transfer {
      */
     private final Type type;
 
-    private final TypeSystem typeSystem;
-
-    private final Supplier<PointsToSet> ptsFactory;
+    private final ObjectFilter filter;
 
     public TypeFilter(Type type, Solver solver) {
         this.type = type;
-        this.typeSystem = solver.getTypeSystem();
-        this.ptsFactory = solver::makePointsToSet;
+        this.filter = solver instanceof DefaultSolver defaultSolver
+                ? defaultSolver.getTypeFilter(type)
+                : makeFilter(type, solver);
     }
 
     @Override
     public PointsToSet apply(PointerFlowEdge edge, PointsToSet input) {
-        PointsToSet result = ptsFactory.get();
-        input.objects()
-                .filter(o -> isAssignable(o.getObject().getType(), type))
-                .forEach(result::addObject);
-        return result;
+        return filter.apply(input);
     }
 
-    private boolean isAssignable(Type from, Type to) {
-        return (from instanceof NullType)
-                ? to instanceof ReferenceType
-                : typeSystem.isSubtype(to, from);
+    /**
+     * @return a filter that selects the objects whose types
+     * are subtypes of {@code type}.
+     */
+    static ObjectFilter makeFilter(Type type, Solver solver) {
+        TypeSystem typeSystem = solver.getTypeSystem();
+        Predicate<CSObj> isAssignable = o -> {
+            Type from = o.getObject().getType();
+            return (from instanceof NullType)
+                    ? type instanceof ReferenceType
+                    : typeSystem.isSubtype(type, from);
+        };
+        return new ObjectFilter(
+                solver.getCSManager().getObjectIndexer(), isAssignable);
     }
 
     @Override
@@ -28,11 +28,18 @@ import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.Pointer;
 import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
 
+import javax.annotation.Nullable;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.Set;
 
 /**
  * Represents work list in pointer analysis.
@@ -42,22 +49,119 @@ final class WorkList {
     /**
      * Pointer entries to be processed.
      */
-    private final Map<Pointer, PointsToSet> pointerEntries = Maps.newLinkedHashMap();
+    private final Map<Pointer, PointsToSet> pointerEntries;
+
+    /**
+     * Pointers whose pending points-to sets are shared, i.e., the sets
+     * are referenced (but never modified) by other entries or the solver.
+     * Such sets are copied before new objects are merged into them.
+     */
+    private final Set<Pointer> sharedEntries = Sets.newSet();
 
     /**
      * Call edges to be processed.
      */
     private final Queue<Edge<CSCallSite, CSMethod>> callEdges = new ArrayDeque<>();
 
+    /**
+     * Scheduling policy of pointer entries. If it is {@code null},
+     * pointer entries are processed in insertion order.
+     */
+    @Nullable
+    private final SchedulingPolicy policy;
+
+    /**
+     * Pointers ordered by their priorities. This queue may contain
+     * outdated elements, which are skipped when being polled.
+     */
+    private final Queue<PrioritizedPointer> queue;
+
+    /**
+     * Number of polled pointer entries.
+     */
+    private long pointerEntryCount = 0;
+
+    /**
+     * Number of polled call edges.
+     */
+    private long callEdgeCount = 0;
+
+    /**
+     * Creates a work list which processes pointer entries in the order
+     * decided by given policy.
+     */
+    WorkList(@Nullable SchedulingPolicy policy) {
+        this.policy = policy;
+        if (policy == null) {
+            pointerEntries = Maps.newLinkedHashMap();
+            queue = null;
+        } else {
+            pointerEntries = Maps.newMap();
+            queue = new PriorityQueue<>(Comparator.comparingLong(
+                    PrioritizedPointer::priority));
+        }
+    }
+
+    /**
+     * Adds a pointer entry. The work list does not keep {@code pointsToSet},
+     * so the caller may modify it afterwards.
+     */
     void addEntry(Pointer pointer, PointsToSet pointsToSet) {
+        if (!merge(pointer, pointsToSet)) {
+            put(pointer, pointsToSet.copy());
+        }
+    }
+
+    /**
+     * Adds a pointer entry whose points-to set will never be modified,
+     * e.g., the difference set being propagated to the PFG successors.
+     * The set is shared by the entries (and the caller) instead of
+     * being copied, until other objects are merged into the entry.
+     */
+    void addSharedEntry(Pointer pointer, PointsToSet pointsToSet) {
+        if (!merge(pointer, pointsToSet)) {
+            put(pointer, pointsToSet);
+            sharedEntries.add(pointer);
+        }
+    }
+
+    /**
+     * Merges {@code pointsToSet} into the pending entry of {@code pointer}.
+     *
+     * @return {@code false} if {@code pointer} has no pending entry.
+     */
+    private boolean merge(Pointer pointer, PointsToSet pointsToSet) {
         PointsToSet set = pointerEntries.get(pointer);
-        if (set != null) {
-            set.addAll(pointsToSet);
-        } else {
-            pointerEntries.put(pointer, pointsToSet.copy());
+        if (set == null) {
+            return false;
+        }
+        if (sharedEntries.contains(pointer)) {
+            if (set == pointsToSet) {
+                return true;
+            }
+            sharedEntries.remove(pointer);
+            set = set.copy();
+            pointerEntries.put(pointer, set);
+        }
+        if (set.addAll(pointsToSet)
+                && policy != null && policy.isUpdatedOnMerge()) {
+            enqueue(pointer, set);
+        }
+        return true;
+    }
+
+    private void put(Pointer pointer, PointsToSet pointsToSet) {
+        pointerEntries.put(pointer, pointsToSet);
+        if (policy != null) {
+            enqueue(pointer, pointsToSet);
         }
     }
 
+    private void enqueue(Pointer pointer, PointsToSet pending) {
+        queue.add(new PrioritizedPointer(pointer,
+                policy.getPriority(pointer, pending)));
+    }
+
     void addEntry(Edge<CSCallSite, CSMethod> edge) {
         callEdges.add(edge);
     }
@@ -66,24 +170,96 @@ final class WorkList {
         if (!callEdges.isEmpty()) {
             // for correctness, we need to ensure that any call edges in
             // the work list must be processed prior to the pointer entries
+            ++callEdgeCount;
             return new CallEdgeEntry(callEdges.poll());
         } else if (!pointerEntries.isEmpty()) {
-            var it = pointerEntries.entrySet().iterator();
-            var e = it.next();
-            it.remove();
-            return new PointerEntry(e.getKey(), e.getValue());
+            ++pointerEntryCount;
+            return policy == null ? pollFirstEntry() : pollPrioritizedEntry();
         } else {
             throw new NoSuchElementException();
         }
     }
 
+    private PointerEntry pollFirstEntry() {
+        var it = pointerEntries.entrySet().iterator();
+        var e = it.next();
+        it.remove();
+        sharedEntries.remove(e.getKey());
+        return new PointerEntry(e.getKey(), e.getValue());
+    }
+
+    private PointerEntry pollPrioritizedEntry() {
+        while (true) {
+            PrioritizedPointer p = queue.poll();
+            assert p != null;
+            Pointer pointer = p.pointer();
+            PointsToSet pts = pointerEntries.get(pointer);
+            if (pts == null || (policy.isUpdatedOnMerge()
+                    && p.priority() != policy.getPriority(pointer, pts))) {
+                // outdated element
+                continue;
+            }
+            pointerEntries.remove(pointer);
+            sharedEntries.remove(pointer);
+            if (policy.onPoll(pointer)) {
+                // rebuild the queue with updated priorities
+                queue.clear();
+                pointerEntries.forEach(this::enqueue);
+            }
+            return new PointerEntry(pointer, pts);
+        }
+    }
+
+    /**
+     * @return {@code true} if there are call edges to be processed.
+     */
+    boolean hasCallEdges() {
+        return !callEdges.isEmpty();
+    }
+
+    /**
+     * Retrieves and removes all pointer entries in this work list.
+     * Each pointer appears in at most one of the returned entries.
+     */
+    List<PointerEntry> pollPointerEntries() {
+        List<PointerEntry> entries = new ArrayList<>(pointerEntries.size());
+        pointerEntries.forEach((p, pts) -> entries.add(new PointerEntry(p, pts)));
+        pointerEntries.clear();
+        sharedEntries.clear();
+        if (queue != null) {
+            queue.clear();
+        }
+        pointerEntryCount += entries.size();
+        return entries;
+    }
+
     boolean isEmpty() {
         return pointerEntries.isEmpty() && callEdges.isEmpty();
     }
 
+    /**
+     * @return the number of pointer entries that have been polled
+     * from this work list.
+     */
+    long getPointerEntryCount() {
+        return pointerEntryCount;
+    }
+
+    /**
+     * @return the number of call edges that have been polled
+     * from this work list.
+     */
+    long getCallEdgeCount() {
+        return callEdgeCount;
+    }
+
     interface Entry {
     }
 
+    /**
+     * Pointer entry. As {@code pointsToSet} may be shared by other
+     * entries, it must not be modified.
+     */
     record PointerEntry(Pointer pointer, PointsToSet pointsToSet)
             implements Entry {
     }
@@ -91,4 +267,7 @@ final class WorkList {
     record CallEdgeEntry(Edge<CSCallSite, CSMethod> edge)
             implements Entry {
     }
+
+    private record PrioritizedPointer(Pointer pointer, long priority) {
+    }
 }
@@ -61,11 +61,20 @@ public class CompositePlugin implements Plugin {
 
     private final List<Plugin> onUnresolvedCallPlugins = new ArrayList<>();
 
+    /**
+     * Whether the solver notifies the plugins that are interested in
+     * registered variables only by itself.
+     */
+    private boolean solverDispatchesInterestedVars = false;
+
     public void addPlugin(Plugin... plugins) {
         for (Plugin plugin : plugins) {
             allPlugins.add(plugin);
-            addPlugin(plugin, onNewPointsToSetPlugins,
-                    "onNewPointsToSet", CSVar.class, PointsToSet.class);
+            if (!(solverDispatchesInterestedVars &&
+                    plugin.isInterestedInRegisteredVarsOnly())) {
+                addPlugin(plugin, onNewPointsToSetPlugins,
+                        "onNewPointsToSet", CSVar.class, PointsToSet.class);
+            }
             addPlugin(plugin, onNewCallEdgePlugins, "onNewCallEdge", Edge.class);
             addPlugin(plugin, onNewMethodPlugins, "onNewMethod", JMethod.class);
             addPlugin(plugin, onNewStmtPlugins, "onNewStmt", Stmt.class, JMethod.class);
@@ -91,6 +100,13 @@ public class CompositePlugin implements Plugin {
 
     @Override
     public void setSolver(Solver solver) {
+        if (solver.dispatchesInterestedVars()) {
+            // plugins interested in registered variables only are
+            // notified of new points-to sets by the solver directly
+            solverDispatchesInterestedVars = true;
+            onNewPointsToSetPlugins.removeIf(
+                    Plugin::isInterestedInRegisteredVarsOnly);
+        }
         allPlugins.forEach(p -> p.setSolver(solver));
     }
 
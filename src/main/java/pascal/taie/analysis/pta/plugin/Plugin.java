@@ -30,6 +30,7 @@ import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
 import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
@@ -73,6 +74,26 @@ public interface Plugin {
     default void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
     }
 
+    /**
+     * Declares whether this plugin is only interested in the variables
+     * it registers via {@link Solver#addInterestedVar(Plugin, Var)}.
+     * If so, and the solver confirms it via
+     * {@link Solver#dispatchesInterestedVars()}, the solver invokes
+     * {@link #onNewPointsToSet(CSVar, PointsToSet)} of this plugin directly
+     * and only for the registered variables, and {@link CompositePlugin}
+     * does not forward the callback to it. Otherwise, the plugin is
+     * notified of the new points-to sets of all variables.
+     * The changes of a variable before its registration are not notified,
+     * thus the plugin should handle the existing points-to sets
+     * of the variable when registering it.
+     *
+     * @return {@code true} if this plugin is only interested in
+     * the registered variables, otherwise {@code false} (default).
+     */
+    default boolean isInterestedInRegisteredVarsOnly() {
+        return false;
+    }
+
     /**
      * Invoked when a new call graph edge is discovered.
      *
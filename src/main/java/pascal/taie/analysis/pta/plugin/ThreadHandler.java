@@ -95,6 +95,12 @@ public class ThreadHandler implements Plugin {
         currentThreadReturn = getOne(requireNonNull(currentThread)
                 .getIR()
                 .getReturnVars());
+        solver.addInterestedVar(this, threadStartThis);
+    }
+
+    @Override
+    public boolean isInterestedInRegisteredVarsOnly() {
+        return true;
     }
 
     @Override
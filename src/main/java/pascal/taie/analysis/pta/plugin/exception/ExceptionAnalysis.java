@@ -31,7 +31,6 @@ import pascal.taie.analysis.pta.core.cs.element.CSManager;
 import pascal.taie.analysis.pta.core.cs.element.CSMethod;
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
 import pascal.taie.analysis.pta.core.cs.element.CSVar;
-import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.core.solver.Solver;
 import pascal.taie.analysis.pta.plugin.Plugin;
 import pascal.taie.analysis.pta.pts.PointsToSet;
@@ -42,18 +41,19 @@ import pascal.taie.ir.stmt.Invoke;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.ir.stmt.Throw;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.Type;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.util.collection.IndexerBitSet;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Pair;
 import pascal.taie.util.collection.SetEx;
-import pascal.taie.util.collection.Sets;
+import pascal.taie.util.collection.TwoKeyMap;
 
-import java.util.ArrayDeque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
 import java.util.function.Supplier;
 
@@ -79,15 +79,23 @@ public class ExceptionAnalysis implements Plugin {
             Maps.newMap(1024);
 
     /**
-     * Work-list of exception entries to be propagated.
+     * Summaries of catch analysis. For each statement that may throw
+     * exceptions, maps an exception type to the handler which catches
+     * the exceptions of the type, or to {@link Optional#empty()} if the
+     * exceptions of the type are not caught by the containing method.
+     * The summaries are independent of contexts, thus they are shared by
+     * all {@link CSMethod}s of the same method.
      */
-    private Queue<Entry> workList = new ArrayDeque<>();
+    private TwoKeyMap<Stmt, Type, Optional<Catch>> catchSummaries =
+            Maps.newTwoKeyMap();
 
     /**
-     * Work-list entries.
+     * Work-list of exceptions to be propagated. The exceptions thrown by
+     * the same statement in the same {@link CSMethod} are merged into one
+     * entry, so that they are propagated in a batch.
      */
-    private record Entry(CSMethod csMethod, Stmt stmt, Set<CSObj> exceptions) {
-    }
+    private Map<Pair<CSMethod, Stmt>, Set<CSObj>> workList =
+            Maps.newLinkedHashMap();
 
     @Override
     public void setSolver(Solver solver) {
@@ -120,10 +128,17 @@ public class ExceptionAnalysis implements Plugin {
     public void onNewStmt(Stmt stmt, JMethod container) {
         if (stmt instanceof Throw throwStmt) {
             Var exceptionRef = throwStmt.getExceptionRef();
-            var2Throws.put(exceptionRef, throwStmt);
+            if (var2Throws.put(exceptionRef, throwStmt)) {
+                solver.addInterestedVar(this, exceptionRef);
+            }
         }
     }
 
+    @Override
+    public boolean isInterestedInRegisteredVarsOnly() {
+        return true;
+    }
+
     /**
      * If the csVar is an exception reference, propagate all the exception
      * it newly throws.
@@ -139,8 +154,8 @@ public class ExceptionAnalysis implements Plugin {
             Context ctx = csVar.getContext();
             JMethod currentMethod = exceptionRef.getMethod();
             CSMethod currentCSMethod = csManager.getCSMethod(ctx, currentMethod);
-            throwStmts.forEach(throwStmt -> workList.add(
-                    new Entry(currentCSMethod, throwStmt, pts.getObjects())));
+            throwStmts.forEach(throwStmt -> addEntry(
+                    currentCSMethod, throwStmt, pts.getObjects()));
             propagateExceptions();
         }
     }
@@ -163,8 +178,10 @@ public class ExceptionAnalysis implements Plugin {
                 CSMethod caller = edge.getCallSite().getContainer();
                 Invoke invoke = edge.getCallSite().getCallSite();
                 Set<CSObj> exceptions = result.mayThrowUncaught();
-                workList.add(new Entry(caller, invoke, exceptions));
-                propagateExceptions();
+                if (!exceptions.isEmpty()) {
+                    addEntry(caller, invoke, exceptions);
+                    propagateExceptions();
+                }
             });
         }
     }
@@ -178,10 +195,13 @@ public class ExceptionAnalysis implements Plugin {
      */
     private void propagateExceptions() {
         while (!workList.isEmpty()) {
-            Entry entry = workList.poll();
-            CSMethod csMethod = entry.csMethod();
-            Stmt stmt = entry.stmt();
-            Set<CSObj> exceptions = entry.exceptions();
+            Iterator<Map.Entry<Pair<CSMethod, Stmt>, Set<CSObj>>> it =
+                    workList.entrySet().iterator();
+            Map.Entry<Pair<CSMethod, Stmt>, Set<CSObj>> entry = it.next();
+            it.remove();
+            CSMethod csMethod = entry.getKey().first();
+            Stmt stmt = entry.getKey().second();
+            Set<CSObj> exceptions = entry.getValue();
             CSMethodThrowResult result = csMethod.getResult(getClass().getName(),
                     () -> new CSMethodThrowResult(setFactory));
             Set<CSObj> diff = result.propagate(stmt, exceptions);
@@ -198,7 +218,7 @@ public class ExceptionAnalysis implements Plugin {
                                 CSCallSite callSite = edge.getCallSite();
                                 CSMethod caller = callSite.getContainer();
                                 Invoke invoke = callSite.getCallSite();
-                                workList.add(new Entry(caller, invoke, uncaught));
+                                addEntry(caller, invoke, uncaught);
                             });
                 }
             }
@@ -220,24 +240,48 @@ public class ExceptionAnalysis implements Plugin {
             CSMethod csMethod) {
         List<ExceptionEntry> entries = catchers.get(csMethod.getMethod())
                 .get(currentStmt);
-        if (entries != null) {
-            Context ctx = csMethod.getContext();
-            for (ExceptionEntry entry : entries) {
-                Set<CSObj> uncaughtExceptions = Sets.newHybridSet();
-                newExceptions.forEach(newException -> {
-                    Obj exObj = newException.getObject();
-                    if (typeSystem.isSubtype(entry.catchType(), exObj.getType())) {
-                        Catch catchStmt = entry.handler();
-                        Var exceptionRef = catchStmt.getExceptionRef();
-                        solver.addVarPointsTo(ctx, exceptionRef, newException);
-                    } else {
-                        uncaughtExceptions.add(newException);
-                    }
-                });
-                newExceptions = uncaughtExceptions;
+        if (entries == null) {
+            return newExceptions;
+        }
+        Set<CSObj> uncaughtExceptions = setFactory.get();
+        // group the caught exceptions by their handlers,
+        // and add them to the handlers in a batch
+        Map<Catch, PointsToSet> caughtExceptions = Maps.newHybridMap();
+        newExceptions.forEach(newException -> {
+            Type type = newException.getObject().getType();
+            Optional<Catch> handler = catchSummaries.computeIfAbsent(
+                    currentStmt, type, (s, t) -> findHandler(entries, t));
+            if (handler.isPresent()) {
+                caughtExceptions.computeIfAbsent(handler.get(),
+                                __ -> solver.makePointsToSet())
+                        .addObject(newException);
+            } else {
+                uncaughtExceptions.add(newException);
+            }
+        });
+        Context ctx = csMethod.getContext();
+        caughtExceptions.forEach((catchStmt, pts) ->
+                solver.addVarPointsTo(ctx, catchStmt.getExceptionRef(), pts));
+        return uncaughtExceptions;
+    }
+
+    /**
+     * @return the handler which catches the exceptions of given type,
+     * i.e., the handler of the first entry whose catch type is a supertype
+     * of given type, or {@link Optional#empty()} if no such handler exists.
+     */
+    private Optional<Catch> findHandler(List<ExceptionEntry> entries, Type type) {
+        for (ExceptionEntry entry : entries) {
+            if (typeSystem.isSubtype(entry.catchType(), type)) {
+                return Optional.of(entry.handler());
             }
         }
-        return newExceptions;
+        return Optional.empty();
+    }
+
+    private void addEntry(CSMethod csMethod, Stmt stmt, Set<CSObj> exceptions) {
+        workList.computeIfAbsent(new Pair<>(csMethod, stmt), __ -> setFactory.get())
+                .addAll(exceptions);
     }
 
     @Override
@@ -259,6 +303,7 @@ public class ExceptionAnalysis implements Plugin {
     private void clear() {
         var2Throws = null;
         catchers = null;
+        catchSummaries = null;
         workList = null;
     }
 }
@@ -0,0 +1,225 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import pascal.taie.analysis.pta.plugin.incremental.Snapshot.CallEdgeRecord;
+import pascal.taie.analysis.pta.plugin.incremental.Snapshot.ClassFingerprint;
+import pascal.taie.analysis.pta.plugin.incremental.Snapshot.PointerRecord;
+import pascal.taie.frontend.cache.Fingerprints;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes the pointers in a snapshot whose points-to sets may be
+ * affected by the changes of the program.
+ * <p>
+ * The analysis over-approximates the dependencies among the facts
+ * in the snapshot. A pointer is affected if
+ * <ul>
+ *     <li>it is a variable of an affected context-sensitive method;</li>
+ *     <li>some objects of it are added by plugins;</li>
+ *     <li>it is a successor of an affected pointer in pointer flow graph;</li>
+ *     <li>it is loaded from, or it is a field (or array index) of an object
+ *     pointed to by, an affected variable which is the base of loads
+ *     (or stores); or</li>
+ *     <li>it receives the results of an affected call edge.</li>
+ * </ul>
+ * A context-sensitive method is affected if its method is changed,
+ * or it is the callee of an affected call edge. A call edge is affected if
+ * its caller is affected, the base or some arguments of its call site are
+ * affected, or its callee may be overridden by the changed classes.
+ * The points-to sets of unaffected pointers are subsets of the ones
+ * of the modified program.
+ */
+class ImpactAnalysis {
+
+    private final Snapshot snapshot;
+
+    private final Set<String> changedMethods = Sets.newSet();
+
+    private final Set<String> changedSubsigs = Sets.newSet();
+
+    private boolean isHierarchyChanged = false;
+
+    private final boolean[] affected;
+
+    private int nAffected = 0;
+
+    private final Set<String> affectedMethods = Sets.newSet();
+
+    private final Deque<Integer> pointerQueue = new ArrayDeque<>();
+
+    private final Deque<String> methodQueue = new ArrayDeque<>();
+
+    ImpactAnalysis(Snapshot snapshot, ClassHierarchy hierarchy) {
+        this.snapshot = snapshot;
+        this.affected = new boolean[snapshot.pointers.size()];
+        detectChanges(hierarchy);
+        if (!isHierarchyChanged) {
+            propagate();
+        }
+    }
+
+    /**
+     * @return signatures of the reachable methods in the snapshot
+     * which are changed or removed.
+     */
+    Set<String> getChangedMethods() {
+        return changedMethods;
+    }
+
+    /**
+     * @return {@code true} if the super types of some classes
+     * are changed or some classes are removed. In such cases,
+     * the dispatch of any call site may change and no facts in
+     * the snapshot can be reused.
+     */
+    boolean isHierarchyChanged() {
+        return isHierarchyChanged;
+    }
+
+    boolean isAffected(int pointerIndex) {
+        return isHierarchyChanged || affected[pointerIndex];
+    }
+
+    int getAffectedCount() {
+        return isHierarchyChanged ? affected.length : nAffected;
+    }
+
+    private void detectChanges(ClassHierarchy hierarchy) {
+        snapshot.methods.forEach((sig, fingerprint) -> {
+            JMethod method = hierarchy.getMethod(sig);
+            if (method == null || Fingerprints.ofMethod(method) != fingerprint) {
+                changedMethods.add(sig);
+            }
+        });
+        snapshot.classes.forEach((name, fingerprint) -> {
+            JClass jclass = hierarchy.getClass(name);
+            if (jclass == null ||
+                    Fingerprints.ofSupertypes(jclass) != fingerprint.supertypes()) {
+                isHierarchyChanged = true;
+            } else {
+                ClassFingerprint current = ClassFingerprint.of(jclass);
+                if (!current.subsigs().equals(fingerprint.subsigs())) {
+                    changedSubsigs.addAll(current.subsigs());
+                    changedSubsigs.addAll(fingerprint.subsigs());
+                }
+            }
+        });
+        hierarchy.allClasses()
+                .filter(c -> !snapshot.classes.containsKey(c.getName()))
+                .forEach(c -> changedSubsigs.addAll(
+                        ClassFingerprint.of(c).subsigs()));
+    }
+
+    private void propagate() {
+        List<PointerRecord> pointers = snapshot.pointers;
+        Map<String, Integer> indexes = Maps.newMap(pointers.size());
+        MultiMap<String, Integer> varsOfMethods = Maps.newMultiMap();
+        MultiMap<String, Integer> membersOfObjs = Maps.newMultiMap();
+        for (int i = 0; i < pointers.size(); ++i) {
+            PointerRecord pointer = pointers.get(i);
+            indexes.put(pointer.key(), i);
+            switch (pointer.kind()) {
+                case VAR -> varsOfMethods.put(pointer.owner(), i);
+                case INSTANCE_FIELD, ARRAY_INDEX -> membersOfObjs.put(pointer.owner(), i);
+            }
+            if (pointer.isRoot()) {
+                markPointer(i);
+            }
+        }
+        MultiMap<String, CallEdgeRecord> edgesOfCallers = Maps.newMultiMap();
+        MultiMap<String, CallEdgeRecord> edgesOfInputs = Maps.newMultiMap();
+        for (CallEdgeRecord edge : snapshot.callEdges) {
+            edgesOfCallers.put(edge.caller(), edge);
+            edge.inputs().forEach(input -> edgesOfInputs.put(input, edge));
+        }
+        snapshot.csMethods.forEach((csMethod, sig) -> {
+            if (changedMethods.contains(sig)) {
+                markMethod(csMethod);
+            }
+        });
+        snapshot.callEdges.stream()
+                .filter(edge -> changedSubsigs.contains(edge.calleeSubsig()))
+                .forEach(edge -> markCallEdge(edge, indexes));
+        while (!pointerQueue.isEmpty() || !methodQueue.isEmpty()) {
+            while (!methodQueue.isEmpty()) {
+                String csMethod = methodQueue.poll();
+                varsOfMethods.get(csMethod).forEach(this::markPointer);
+                edgesOfCallers.get(csMethod)
+                        .forEach(edge -> markCallEdge(edge, indexes));
+            }
+            while (!pointerQueue.isEmpty()) {
+                PointerRecord pointer = pointers.get(pointerQueue.poll());
+                for (int succ : pointer.successors()) {
+                    markPointer(succ);
+                }
+                pointer.loadTargets().forEach(target -> markPointer(target, indexes));
+                if (pointer.isStoreBase()) {
+                    pointer.objects().forEach(obj ->
+                            membersOfObjs.get(obj).forEach(this::markPointer));
+                }
+                edgesOfInputs.get(pointer.key())
+                        .forEach(edge -> markCallEdge(edge, indexes));
+            }
+        }
+    }
+
+    private void markCallEdge(CallEdgeRecord edge, Map<String, Integer> indexes) {
+        markMethod(edge.callee());
+        if (edge.lhs() != null) {
+            markPointer(edge.lhs(), indexes);
+        }
+    }
+
+    private void markMethod(String csMethod) {
+        if (affectedMethods.add(csMethod)) {
+            methodQueue.add(csMethod);
+        }
+    }
+
+    private void markPointer(String key, Map<String, Integer> indexes) {
+        Integer index = indexes.get(key);
+        if (index != null) {
+            markPointer(index);
+        }
+    }
+
+    private void markPointer(int index) {
+        if (!affected[index]) {
+            affected[index] = true;
+            ++nAffected;
+            pointerQueue.add(index);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.plugin.Plugin;
+import pascal.taie.analysis.pta.plugin.incremental.Snapshot.PointerRecord;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.frontend.cache.Fingerprints;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JField;
+import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental pointer analysis, which reuses the fixpoint of
+ * a previous run on the (possibly modified) program.
+ * <p>
+ * At the end of each run, this plugin saves a {@link Snapshot} of
+ * the solver state to the cache directory. In the next run, it compares
+ * the fingerprints of the program with the ones in the snapshot,
+ * invalidates the facts that may be affected by the changes
+ * (see {@link ImpactAnalysis}), and seeds the solver with the remaining
+ * facts as soon as the corresponding pointers and objects are created.
+ * Variables and objects are discovered when the context-sensitive methods
+ * declaring them become reachable, so that this plugin does not inspect
+ * any propagated points-to sets. The objects that are not allocated by
+ * {@link New} statements (e.g., the ones created by other plugins)
+ * are not discovered, and the facts waiting for them are not reused.
+ * The seeded facts are subsets of the fixpoint of the modified program,
+ * thus the solver still reaches the same fixpoint as a full run, but
+ * each pointer receives most of its objects in a single propagation.
+ * If the class hierarchy is changed, the analysis falls back to a full run.
+ */
+public class IncrementalAnalysis implements Plugin {
+
+    private static final Logger logger = LogManager.getLogger(IncrementalAnalysis.class);
+
+    private Solver solver;
+
+    private ClassHierarchy hierarchy;
+
+    private CSManager csManager;
+
+    private HeapModel heapModel;
+
+    private File snapshotFile;
+
+    /**
+     * Map from keys of variables to their reusable facts.
+     */
+    private final Map<String, PointerRecord> varSeeds = Maps.newMap();
+
+    /**
+     * Map from keys of objects to the reusable facts of their
+     * instance fields and array indexes.
+     */
+    private final MultiMap<String, PointerRecord> memberSeeds = Maps.newMultiMap();
+
+    /**
+     * Map from keys of objects which have not been created
+     * to the pointers waiting for them.
+     */
+    private final MultiMap<String, Pointer> waitingPointers = Maps.newMultiMap();
+
+    private final Map<String, CSObj> createdObjs = Maps.newMap();
+
+    private final Set<CSObj> visitedObjs = Sets.newSet();
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+        this.hierarchy = solver.getHierarchy();
+        this.csManager = solver.getCSManager();
+        this.heapModel = solver.getHeapModel();
+    }
+
+    @Override
+    public void onStart() {
+        snapshotFile = getSnapshotFile(solver);
+        if (!snapshotFile.exists()) {
+            logger.info("Pointer analysis snapshot not found in {}," +
+                    " run full analysis", snapshotFile);
+            return;
+        }
+        Snapshot snapshot;
+        try {
+            snapshot = Snapshot.load(snapshotFile);
+        } catch (IOException e) {
+            logger.error("Failed to load pointer analysis snapshot from {} due to {}",
+                    snapshotFile, e);
+            return;
+        }
+        if (snapshot == null) {
+            logger.info("Pointer analysis snapshot in {} is stale or incompatible," +
+                    " run full analysis", snapshotFile);
+            return;
+        }
+        ImpactAnalysis impact = new ImpactAnalysis(snapshot, hierarchy);
+        if (impact.isHierarchyChanged()) {
+            logger.info("Class hierarchy is changed, run full analysis");
+            return;
+        }
+        List<PointerRecord> pointers = snapshot.pointers;
+        for (int i = 0; i < pointers.size(); ++i) {
+            PointerRecord pointer = pointers.get(i);
+            if (impact.isAffected(i) || pointer.objects().isEmpty()) {
+                continue;
+            }
+            switch (pointer.kind()) {
+                case VAR -> varSeeds.put(pointer.key(), pointer);
+                case INSTANCE_FIELD, ARRAY_INDEX -> memberSeeds.put(pointer.owner(), pointer);
+                case STATIC_FIELD -> {
+                    JField field = hierarchy.getField(pointer.field());
+                    if (field != null) {
+                        seed(csManager.getStaticField(field), pointer.objects());
+                    }
+                }
+            }
+        }
+        logger.info("{} changed methods, reuse facts of {}/{} pointers",
+                impact.getChangedMethods().size(),
+                pointers.size() - impact.getAffectedCount(), pointers.size());
+    }
+
+    @Override
+    public void onNewCSMethod(CSMethod csMethod) {
+        if (varSeeds.isEmpty() && memberSeeds.isEmpty()
+                && waitingPointers.isEmpty()) {
+            return;
+        }
+        Context context = csMethod.getContext();
+        IR ir = csMethod.getMethod().getIR();
+        if (!varSeeds.isEmpty()) {
+            for (Var var : ir.getVars()) {
+                PointerRecord seed = varSeeds.remove(Snapshot.keyOf(context, var));
+                if (seed != null) {
+                    seed(csManager.getCSVar(context, var), seed.objects());
+                }
+            }
+        }
+        // the solver has processed the allocations of csMethod,
+        // thus their objects have been created
+        for (Stmt stmt : ir) {
+            if (stmt instanceof New newStmt) {
+                for (CSObj obj : csManager.getCSObjsOf(heapModel.getObj(newStmt))) {
+                    if (visitedObjs.add(obj)) {
+                        onNewObj(obj);
+                    }
+                }
+            }
+        }
+    }
+
+    private void onNewObj(CSObj obj) {
+        String key = Snapshot.keyOf(obj);
+        createdObjs.put(key, obj);
+        if (waitingPointers.containsKey(key)) {
+            waitingPointers.get(key).forEach(p -> solver.addPointsTo(p, obj));
+            waitingPointers.removeAll(key);
+        }
+        if (memberSeeds.containsKey(key)) {
+            for (PointerRecord seed : memberSeeds.get(key)) {
+                if (seed.kind() == Snapshot.Kind.ARRAY_INDEX) {
+                    seed(csManager.getArrayIndex(obj), seed.objects());
+                } else {
+                    JField field = hierarchy.getField(seed.field());
+                    if (field != null) {
+                        seed(csManager.getInstanceField(obj, field), seed.objects());
+                    }
+                }
+            }
+            memberSeeds.removeAll(key);
+        }
+    }
+
+    private void seed(Pointer pointer, List<String> objs) {
+        PointsToSet pts = solver.makePointsToSet();
+        for (String key : objs) {
+            CSObj obj = createdObjs.get(key);
+            if (obj != null) {
+                pts.addObject(obj);
+            } else {
+                waitingPointers.put(key, pointer);
+            }
+        }
+        if (!pts.isEmpty()) {
+            solver.addPointsTo(pointer, pts);
+        }
+    }
+
+    @Override
+    public void onFinish() {
+        logger.info("Saving pointer analysis snapshot to {}", snapshotFile);
+        Timer timer = new Timer("Save pointer analysis snapshot");
+        timer.start();
+        try {
+            Snapshot.take(solver).save(snapshotFile);
+        } catch (Exception e) {
+            logger.error("Failed to save pointer analysis snapshot to {} due to {}",
+                    snapshotFile, e);
+        } finally {
+            timer.stop();
+            logger.info(timer);
+        }
+    }
+
+    /**
+     * @return the file of snapshot for given solver. The file is identified by
+     * the analyzed program (regardless of its modifications), the options
+     * of pointer analysis, the context selector and the heap model.
+     */
+    private static File getSnapshotFile(Solver solver) {
+        int hash = Fingerprints.ofProgramOptions(World.get().getOptions());
+        hash = 31 * hash + solver.getOptions().toString().hashCode();
+        hash = 31 * hash + solver.getContextSelector().getClass().getName().hashCode();
+        hash = 31 * hash + solver.getHeapModel().getClass().getName().hashCode();
+        return CachedWorldBuilder.getCacheFile(
+                "pta-snapshot-" + Integer.toHexString(hash) + ".bin");
+    }
+}
@@ -0,0 +1,393 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.incremental;
+
+import pascal.taie.analysis.pta.core.cs.context.Context;
+import pascal.taie.analysis.pta.core.cs.element.ArrayIndex;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.cs.element.InstanceField;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.core.cs.element.StaticField;
+import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.analysis.pta.core.solver.PointerFlowEdge;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.frontend.cache.Fingerprints;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInstanceExp;
+import pascal.taie.ir.exp.ReferenceLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Snapshot of the solver state at the end of pointer analysis, i.e.,
+ * the points-to sets of all pointers, the edges of pointer flow graph
+ * and context-sensitive call graph, and the fingerprints of the analyzed
+ * program. All elements are recorded by their textual keys, so that
+ * a snapshot can be matched against the elements of a later run
+ * on a modified program.
+ */
+class Snapshot implements Serializable {
+
+    private static final int MAGIC = 0x54414950; // "TAIP"
+
+    /**
+     * Version of the snapshot file format. Increase it when the format
+     * (including the serial form of this class and its records) is changed.
+     */
+    private static final int VERSION = 1;
+
+    enum Kind {
+        VAR, INSTANCE_FIELD, ARRAY_INDEX, STATIC_FIELD
+    }
+
+    /**
+     * @param key         key of the pointer
+     * @param kind        kind of the pointer
+     * @param owner       for variables, key of the context-sensitive method
+     *                    declaring the variable; for instance fields and
+     *                    array indexes, key of the base object;
+     *                    for static fields, {@code null}
+     * @param field       signature of the field for (instance or static)
+     *                    field pointers; otherwise {@code null}
+     * @param objects     keys of the objects pointed to by the pointer
+     * @param successors  indexes of successors of the pointer
+     *                    in pointer flow graph
+     * @param isRoot      whether some objects of the pointer are not derived
+     *                    from its predecessors or the allocation sites
+     *                    in its method, i.e., they are added by plugins
+     * @param isStoreBase whether the pointer is a variable which is the base
+     *                    of some field or array stores
+     * @param loadTargets keys of variables which are assigned by field or
+     *                    array loads on the pointer
+     */
+    record PointerRecord(String key, Kind kind,
+                         @Nullable String owner, @Nullable String field,
+                         List<String> objects, int[] successors,
+                         boolean isRoot, boolean isStoreBase,
+                         List<String> loadTargets) implements Serializable {
+    }
+
+    /**
+     * @param caller       key of the caller context-sensitive method
+     * @param callee       key of the callee context-sensitive method
+     * @param calleeSubsig subsignature of the callee
+     * @param inputs       keys of base and arguments of the call site
+     * @param lhs          key of the variable receiving the result
+     *                     of the call site, or {@code null} if absent
+     */
+    record CallEdgeRecord(String caller, String callee, String calleeSubsig,
+                          List<String> inputs, @Nullable String lhs)
+            implements Serializable {
+    }
+
+    /**
+     * Map from signatures of reachable methods to their fingerprints.
+     */
+    final Map<String, Long> methods;
+
+    /**
+     * Map from keys of reachable context-sensitive methods
+     * to signatures of their methods.
+     */
+    final Map<String, String> csMethods;
+
+    /**
+     * Map from names of classes to their fingerprints.
+     */
+    final Map<String, ClassFingerprint> classes;
+
+    final List<PointerRecord> pointers;
+
+    final List<CallEdgeRecord> callEdges;
+
+    private Snapshot(Map<String, Long> methods,
+                     Map<String, String> csMethods,
+                     Map<String, ClassFingerprint> classes,
+                     List<PointerRecord> pointers,
+                     List<CallEdgeRecord> callEdges) {
+        this.methods = methods;
+        this.csMethods = csMethods;
+        this.classes = classes;
+        this.pointers = pointers;
+        this.callEdges = callEdges;
+    }
+
+    /**
+     * Takes the snapshot of the state of given solver.
+     * This method does not modify the state of the solver.
+     */
+    static Snapshot take(Solver solver) {
+        Map<String, Long> methods = Maps.newMap();
+        Map<String, String> csMethods = Maps.newMap();
+        solver.getCallGraph().reachableMethods().forEach(csMethod -> {
+            JMethod method = csMethod.getMethod();
+            methods.computeIfAbsent(method.getSignature(),
+                    __ -> Fingerprints.ofMethod(method));
+            csMethods.put(keyOf(csMethod), method.getSignature());
+        });
+        Map<String, ClassFingerprint> classes = Maps.newMap();
+        solver.getHierarchy().allClasses().forEach(c ->
+                classes.put(c.getName(), ClassFingerprint.of(c)));
+        return new Snapshot(methods, csMethods, classes,
+                takePointers(solver), takeCallEdges(solver));
+    }
+
+    private static List<PointerRecord> takePointers(Solver solver) {
+        List<Pointer> pointers = solver.getCSManager().pointers().toList();
+        Map<Pointer, Integer> indexes = Maps.newMap(pointers.size());
+        MultiMap<Pointer, Pointer> preds = Maps.newMultiMap();
+        for (Pointer pointer : pointers) {
+            indexes.put(pointer, indexes.size());
+            for (PointerFlowEdge edge : pointer.getOutEdges()) {
+                preds.put(edge.target(), pointer);
+            }
+        }
+        AllocatedObjects allocated = new AllocatedObjects(solver.getHeapModel());
+        List<PointerRecord> records = new ArrayList<>(pointers.size());
+        for (Pointer pointer : pointers) {
+            PointsToSet pts = pointer.getPointsToSet();
+            List<String> objects = new ArrayList<>();
+            boolean isRoot = false;
+            if (pts != null) {
+                for (CSObj obj : pts) {
+                    objects.add(keyOf(obj));
+                    if (!isRoot) {
+                        isRoot = preds.get(pointer).stream().noneMatch(p ->
+                                p.getPointsToSet() != null
+                                        && p.getPointsToSet().contains(obj))
+                                && !allocated.isAllocatedTo(pointer, obj);
+                    }
+                }
+            }
+            int[] successors = pointer.getOutEdges()
+                    .stream()
+                    .map(PointerFlowEdge::target)
+                    .mapToInt(indexes::get)
+                    .distinct()
+                    .toArray();
+            PointerRecord record;
+            if (pointer instanceof CSVar csVar) {
+                Var var = csVar.getVar();
+                Context ctx = csVar.getContext();
+                List<String> loadTargets = new ArrayList<>();
+                var.getLoadFields().forEach(load ->
+                        loadTargets.add(keyOf(ctx, load.getLValue())));
+                var.getLoadArrays().forEach(load ->
+                        loadTargets.add(keyOf(ctx, load.getLValue())));
+                boolean isStoreBase = !var.getStoreFields().isEmpty()
+                        || !var.getStoreArrays().isEmpty();
+                record = new PointerRecord(keyOf(csVar), Kind.VAR,
+                        keyOf(ctx, var.getMethod()), null,
+                        objects, successors, isRoot, isStoreBase, loadTargets);
+            } else if (pointer instanceof InstanceField iField) {
+                record = new PointerRecord(keyOf(iField), Kind.INSTANCE_FIELD,
+                        keyOf(iField.getBase()), iField.getField().getSignature(),
+                        objects, successors, isRoot, false, List.of());
+            } else if (pointer instanceof ArrayIndex arrayIndex) {
+                record = new PointerRecord(keyOf(arrayIndex), Kind.ARRAY_INDEX,
+                        keyOf(arrayIndex.getArray()), null,
+                        objects, successors, isRoot, false, List.of());
+            } else if (pointer instanceof StaticField sField) {
+                record = new PointerRecord(keyOf(sField), Kind.STATIC_FIELD,
+                        null, sField.getField().getSignature(),
+                        objects, successors, isRoot, false, List.of());
+            } else {
+                throw new IllegalArgumentException("Illegal pointer: " + pointer);
+            }
+            records.add(record);
+        }
+        return records;
+    }
+
+    private static List<CallEdgeRecord> takeCallEdges(Solver solver) {
+        List<CallEdgeRecord> records = new ArrayList<>();
+        solver.getCallGraph().edges().forEach(edge -> {
+            CSCallSite csCallSite = edge.getCallSite();
+            Context ctx = csCallSite.getContext();
+            Invoke invoke = csCallSite.getCallSite();
+            InvokeExp invokeExp = invoke.getInvokeExp();
+            List<String> inputs = new ArrayList<>();
+            if (invokeExp instanceof InvokeInstanceExp instanceExp) {
+                inputs.add(keyOf(ctx, instanceExp.getBase()));
+            }
+            invokeExp.getArgs().forEach(arg -> inputs.add(keyOf(ctx, arg)));
+            Var lhs = invoke.getLValue();
+            CSMethod callee = edge.getCallee();
+            records.add(new CallEdgeRecord(
+                    keyOf(csCallSite.getContainer()), keyOf(callee),
+                    callee.getMethod().getSubsignature().toString(),
+                    inputs, lhs != null ? keyOf(ctx, lhs) : null));
+        });
+        return records;
+    }
+
+    // ---------- keys of elements ----------
+    // The keys are consistent with the textual representations of
+    // the corresponding elements, except for instance fields, whose keys
+    // contain field signatures to distinguish the fields with the same name.
+
+    static String keyOf(CSVar csVar) {
+        return keyOf(csVar.getContext(), csVar.getVar());
+    }
+
+    static String keyOf(Context context, Var var) {
+        return keyOf(context, var.getMethod()) + "/" + var.getName();
+    }
+
+    static String keyOf(CSMethod csMethod) {
+        return keyOf(csMethod.getContext(), csMethod.getMethod());
+    }
+
+    static String keyOf(Context context, JMethod method) {
+        return context + ":" + method;
+    }
+
+    static String keyOf(CSObj csObj) {
+        return csObj.toString();
+    }
+
+    static String keyOf(InstanceField iField) {
+        return keyOf(iField.getBase()) + "." + iField.getField().getSignature();
+    }
+
+    static String keyOf(ArrayIndex arrayIndex) {
+        return keyOf(arrayIndex.getArray()) + "[*]";
+    }
+
+    static String keyOf(StaticField sField) {
+        return sField.getField().getSignature();
+    }
+
+    // ---------- persistence ----------
+
+    void save(File file) throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file)))) {
+            oos.writeInt(MAGIC);
+            oos.writeInt(VERSION);
+            oos.writeObject(this);
+        }
+    }
+
+    /**
+     * @return the snapshot stored in given file, or {@code null} if
+     * the file is not a (complete) snapshot of the current format,
+     * e.g., it was written by another version of Tai-e or truncated.
+     * @throws IOException if the file cannot be read
+     */
+    @Nullable
+    static Snapshot load(File file) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (ois.readInt() != MAGIC || ois.readInt() != VERSION) {
+                return null;
+            }
+            return (Snapshot) ois.readObject();
+        } catch (ObjectStreamException | EOFException
+                 | ClassNotFoundException | ClassCastException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fingerprint of a class.
+     *
+     * @param supertypes hash of the super class and interfaces of the class
+     * @param subsigs    subsignatures of the methods declared in the class
+     */
+    record ClassFingerprint(int supertypes, Set<String> subsigs)
+            implements Serializable {
+
+        static ClassFingerprint of(JClass jclass) {
+            Set<String> subsigs = Sets.newSet();
+            jclass.getDeclaredMethods().forEach(m ->
+                    subsigs.add(m.getSubsignature().toString()));
+            return new ClassFingerprint(Fingerprints.ofSupertypes(jclass), subsigs);
+        }
+    }
+
+    /**
+     * Computes the objects allocated to each variable by the allocation
+     * sites in its declaring method.
+     */
+    private static class AllocatedObjects {
+
+        private final HeapModel heapModel;
+
+        private final Map<JMethod, MultiMap<Var, Obj>> allocated = Maps.newMap();
+
+        private AllocatedObjects(HeapModel heapModel) {
+            this.heapModel = heapModel;
+        }
+
+        private boolean isAllocatedTo(Pointer pointer, CSObj csObj) {
+            return pointer instanceof CSVar csVar &&
+                    allocated.computeIfAbsent(csVar.getVar().getMethod(),
+                                    this::computeAllocated)
+                            .contains(csVar.getVar(), csObj.getObject());
+        }
+
+        private MultiMap<Var, Obj> computeAllocated(JMethod method) {
+            MultiMap<Var, Obj> result = Maps.newMultiMap();
+            for (Stmt stmt : method.getIR()) {
+                if (stmt instanceof New newStmt) {
+                    result.put(newStmt.getLValue(), heapModel.getObj(newStmt));
+                } else if (stmt instanceof AssignLiteral assign &&
+                        assign.getRValue() instanceof ReferenceLiteral literal) {
+                    result.put(assign.getLValue(), heapModel.getConstantObj(literal));
+                }
+            }
+            return result;
+        }
+    }
+}
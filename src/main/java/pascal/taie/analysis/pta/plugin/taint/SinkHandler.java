@@ -25,9 +25,18 @@ package pascal.taie.analysis.pta.plugin.taint;
 import pascal.taie.analysis.graph.callgraph.CallKind;
 import pascal.taie.analysis.graph.callgraph.Edge;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSCallSite;
+import pascal.taie.analysis.pta.core.cs.element.CSManager;
+import pascal.taie.analysis.pta.core.cs.element.CSMethod;
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.MultiMap;
 import pascal.taie.util.collection.MultiMapCollector;
 import pascal.taie.util.collection.Sets;
@@ -39,16 +48,107 @@ import java.util.stream.Collectors;
 
 /**
  * Handles sinks in taint analysis.
+ * <p>
+ * This handler detects taint flows on-the-fly: it records the variables
+ * passed to sinks once the sink calls become reachable, and checks the
+ * new points-to sets of these variables, so that each taint flow is
+ * reported to {@link #listener} as soon as it is detected.
  */
-class SinkHandler extends Handler {
+class SinkHandler extends OnFlyHandler {
 
     private final List<Sink> sinks;
 
-    SinkHandler(HandlerContext context) {
+    /**
+     * Map from a sink method to its sinks.
+     */
+    private final MultiMap<JMethod, Sink> sinkMap;
+
+    /**
+     * Map from a variable to the sink points where it is passed to sinks.
+     */
+    private final MultiMap<Var, SinkPoint> sinkVars = Maps.newMultiMap();
+
+    private final CSManager csManager;
+
+    private final TaintFlowListener listener;
+
+    SinkHandler(HandlerContext context, TaintFlowListener listener) {
         super(context);
         sinks = context.config().sinks();
+        sinkMap = sinks.stream()
+                .collect(MultiMapCollector.get(Sink::method, s -> s));
+        csManager = solver.getCSManager();
+        this.listener = listener;
+    }
+
+    @Override
+    public void onNewCallEdge(Edge<CSCallSite, CSMethod> edge) {
+        // TODO: handle other call edges
+        if (edge.getKind() == CallKind.OTHER) {
+            return;
+        }
+        Invoke callSite = edge.getCallSite().getCallSite();
+        sinkMap.get(edge.getCallee().getMethod()).forEach(sink ->
+                addSinkPoint(new SinkPoint(callSite, sink.index())));
+    }
+
+    @Override
+    public void onNewStmt(Stmt stmt, JMethod container) {
+        if (callSiteMode &&
+                stmt instanceof Invoke invoke &&
+                !invoke.isDynamic()) {
+            JMethod callee = invoke.getMethodRef().resolveNullable();
+            if (callee != null) {
+                sinkMap.get(callee).forEach(sink ->
+                        addSinkPoint(new SinkPoint(invoke, sink.index())));
+            }
+        }
+    }
+
+    /**
+     * Records the variable of given sink point, and checks
+     * the taint objects that have already reached the variable.
+     */
+    private void addSinkPoint(SinkPoint sinkPoint) {
+        Var arg = InvokeUtils.getVar(sinkPoint.sinkCall(), sinkPoint.index());
+        if (sinkVars.put(arg, sinkPoint)) {
+            solver.addInterestedVar(this, arg);
+            for (CSVar csArg : csManager.getCSVarsOf(arg)) {
+                PointsToSet pts = csArg.getPointsToSet();
+                if (pts != null) {
+                    checkTaints(pts, sinkPoint);
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isInterestedInRegisteredVarsOnly() {
+        return true;
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        Set<SinkPoint> sinkPoints = sinkVars.get(csVar.getVar());
+        if (!sinkPoints.isEmpty()) {
+            sinkPoints.forEach(sinkPoint -> checkTaints(pts, sinkPoint));
+        }
+    }
+
+    private void checkTaints(PointsToSet pts, SinkPoint sinkPoint) {
+        pts.objects()
+                .map(CSObj::getObject)
+                .filter(manager::isTaint)
+                .map(manager::getSourcePoint)
+                .map(sourcePoint -> new TaintFlow(sourcePoint, sinkPoint))
+                .forEach(listener::onNewTaintFlow);
     }
 
+    /**
+     * Collects all taint flows from the points-to results of sink arguments.
+     * As the taint flows are detected on-the-fly, this method is used to
+     * obtain the final results after pointer analysis finishes.
+     */
     Set<TaintFlow> collectTaintFlows() {
         PointerAnalysisResult result = solver.getResult();
         Set<TaintFlow> taintFlows = Sets.newOrderedSet();
@@ -71,8 +171,6 @@ class SinkHandler extends Handler {
                     });
         });
         if (callSiteMode) {
-            MultiMap<JMethod, Sink> sinkMap = sinks.stream()
-                    .collect(MultiMapCollector.get(Sink::method, s -> s));
             // scan all reachable call sites to search sink calls
             result.getCallGraph()
                     .reachableMethods()
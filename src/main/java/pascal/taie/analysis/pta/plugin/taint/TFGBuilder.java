@@ -36,9 +36,11 @@ import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
 import pascal.taie.ir.exp.Var;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.IBitSet;
 import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.MultiMap;
+import pascal.taie.util.collection.RegularBitSet;
 import pascal.taie.util.collection.Sets;
-import pascal.taie.util.graph.Reachability;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -46,9 +48,20 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import static java.util.function.Predicate.not;
 
 /**
  * Taint flow graph builder.
+ * <p>
+ * The builder first searches forward from the source nodes in the object
+ * flow graph, and records the edges along which taint objects may flow.
+ * The nodes of each search level are processed in parallel. Then it
+ * searches backward from the sink nodes over the recorded edges, and
+ * the resulting taint flow graph consists of the recorded edges where
+ * the forward and backward searches meet, i.e., the edges on the paths
+ * from sources to sinks.
  */
 class TFGBuilder {
 
@@ -72,10 +85,28 @@ class TFGBuilder {
      */
     private final boolean onlyReachSink = true;
 
+    /**
+     * Map from a taint object to its index in taint sets.
+     */
+    private final Map<Obj, Integer> taintIndexes;
+
     /**
      * Map from a node to set of taint objects pointed to by the node.
+     * Each taint set is a bit set over the indexes of taint objects.
      */
-    private Map<Node, Set<Obj>> node2TaintSet;
+    private final ConcurrentMap<Node, IBitSet> node2TaintSet = Maps.newConcurrentMap();
+
+    /**
+     * Map from a node to its out edges along which taint objects may flow.
+     */
+    private final ConcurrentMap<Node, List<FlowEdge>> node2OutEdges = Maps.newConcurrentMap();
+
+    /**
+     * Lock for querying points-to sets of instance fields and array indexes,
+     * as such queries may create context-sensitive pointers in CSManager,
+     * which is not thread-safe.
+     */
+    private final Object ptaLock = new Object();
 
     TFGBuilder(PointerAnalysisResult pta,
                Set<TaintFlow> taintFlows,
@@ -84,12 +115,12 @@ class TFGBuilder {
         this.ofg = pta.getObjectFlowGraph();
         this.taintFlows = taintFlows;
         this.taintManager = taintManager;
+        this.taintIndexes = Maps.newMap(taintManager.getTaintObjs().size());
+        taintManager.getTaintObjs().forEach(taint ->
+                taintIndexes.put(taint, taintIndexes.size()));
     }
 
-    /**
-     * Builds a complete taint flow graph.
-     */
-    private TaintFlowGraph buildComplete() {
+    TaintFlowGraph build() {
         // collect source nodes
         Set<Node> sourceNodes = Sets.newHybridSet();
         taintManager.getTaintObjs()
@@ -121,34 +152,86 @@ class TFGBuilder {
         });
         logger.info("Sink nodes:");
         sinkNodes.forEach(logger::info);
-        // builds taint flow graph
-        node2TaintSet = Maps.newMap();
+        searchForward(sourceNodes);
+        Set<Node> nodesReachSink = onlyReachSink ?
+                searchBackward(sinkNodes) : null;
+        // build taint flow graph from the recorded edges
         TaintFlowGraph tfg = new TaintFlowGraph(sourceNodes, sinkNodes);
         Set<Node> visitedNodes = Sets.newSet();
         Deque<Node> workList = new ArrayDeque<>(sourceNodes);
         while (!workList.isEmpty()) {
             Node node = workList.poll();
             if (visitedNodes.add(node)) {
-                getOutEdges(node).forEach(edge -> {
+                for (FlowEdge edge : getOutEdges(node)) {
                     Node target = edge.target();
-                    if (!onlyApp || isApp(target)) {
+                    if (!onlyReachSink || nodesReachSink.contains(target)) {
                         tfg.addEdge(edge);
                         if (!visitedNodes.contains(target)) {
                             workList.add(target);
                         }
                     }
-                });
+                }
             }
         }
-        node2TaintSet = null;
         return tfg;
     }
 
+    /**
+     * Searches the nodes reachable from source nodes level by level,
+     * and records the out edges of the reached nodes.
+     */
+    private void searchForward(Set<Node> sourceNodes) {
+        Set<Node> visitedNodes = Sets.newConcurrentSet();
+        visitedNodes.addAll(sourceNodes);
+        List<Node> frontier = List.copyOf(sourceNodes);
+        while (!frontier.isEmpty()) {
+            frontier = frontier.parallelStream()
+                    .flatMap(node -> {
+                        List<FlowEdge> edges = computeOutEdges(node);
+                        node2OutEdges.put(node, edges);
+                        return edges.stream().map(FlowEdge::target);
+                    })
+                    .filter(visitedNodes::add)
+                    .toList();
+        }
+    }
+
+    /**
+     * Searches backward from sink nodes over the edges recorded
+     * by {@link #searchForward(Set)}.
+     *
+     * @return the nodes that can reach any sink node.
+     */
+    private Set<Node> searchBackward(Set<Node> sinkNodes) {
+        MultiMap<Node, Node> preds = Maps.newMultiMap();
+        node2OutEdges.values().forEach(edges -> edges.forEach(edge ->
+                preds.put(edge.target(), edge.source())));
+        Set<Node> visitedNodes = Sets.newHybridSet();
+        Deque<Node> stack = new ArrayDeque<>();
+        sinkNodes.forEach(stack::push);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            if (visitedNodes.add(node)) {
+                preds.get(node)
+                        .stream()
+                        .filter(not(visitedNodes::contains))
+                        .forEach(stack::push);
+            }
+        }
+        return visitedNodes;
+    }
+
     private List<FlowEdge> getOutEdges(Node source) {
-        Set<Obj> sourceTaintSet = getTaintSet(source);
+        return node2OutEdges.getOrDefault(source, List.of());
+    }
+
+    private List<FlowEdge> computeOutEdges(Node source) {
         List<FlowEdge> edges = new ArrayList<>();
         // collect OFG edges
         ofg.getOutEdgesOf(source).forEach(edge -> {
+            if (onlyApp && !isApp(edge.target())) {
+                return;
+            }
             switch (edge.kind()) {
                 case LOCAL_ASSIGN, INSTANCE_STORE, ARRAY_STORE,
                         THIS_PASSING, PARAMETER_PASSING, OTHER -> {
@@ -157,8 +240,9 @@ class TFGBuilder {
                 case CAST, INSTANCE_LOAD, ARRAY_LOAD, RETURN -> {
                     // check whether target node also contains the same
                     // taint objects as source node to filter spurious edges
-                    Set<Obj> targetTaintSet = getTaintSet(edge.target());
-                    if (Sets.haveOverlap(sourceTaintSet, targetTaintSet)) {
+                    IBitSet sourceTaintSet = getTaintSet(source);
+                    IBitSet targetTaintSet = getTaintSet(edge.target());
+                    if (sourceTaintSet.intersects(targetTaintSet)) {
                         edges.add(edge);
                     }
                 }
@@ -167,65 +251,35 @@ class TFGBuilder {
         return edges;
     }
 
-    private Set<Obj> getTaintSet(Node node) {
-        Set<Obj> taintSet = node2TaintSet.get(node);
-        if (taintSet == null) {
-            taintSet = getPointsToSet(node)
-                    .stream()
-                    .filter(taintManager::isTaint)
-                    .collect(Sets::newHybridSet, Set::add, Set::addAll);
-            if (taintSet.isEmpty()) {
-                taintSet = Set.of();
+    private IBitSet getTaintSet(Node node) {
+        return node2TaintSet.computeIfAbsent(node, n -> {
+            IBitSet taintSet = new RegularBitSet(taintIndexes.size());
+            for (Obj obj : getPointsToSet(n)) {
+                Integer index = taintIndexes.get(obj);
+                if (index != null) {
+                    taintSet.set(index);
+                }
             }
-            node2TaintSet.put(node, taintSet);
-        }
-        return taintSet;
+            return taintSet;
+        });
     }
 
     private Set<Obj> getPointsToSet(Node node) {
         if (node instanceof VarNode varNode) {
             return pta.getPointsToSet(varNode.getVar());
         } else if (node instanceof InstanceFieldNode ifNode) {
-            return pta.getPointsToSet(ifNode.getBase(), ifNode.getField());
+            synchronized (ptaLock) {
+                return pta.getPointsToSet(ifNode.getBase(), ifNode.getField());
+            }
         } else if (node instanceof ArrayIndexNode aiNode) {
-            return pta.getPointsToSet(aiNode.getBase());
+            synchronized (ptaLock) {
+                return pta.getPointsToSet(aiNode.getBase());
+            }
         } else {
             return Set.of();
         }
     }
 
-    TaintFlowGraph build() {
-        TaintFlowGraph complete = buildComplete();
-        Set<Node> sourceNodes = complete.getSourceNodes();
-        Set<Node> sinkNodes = complete.getSinkNodes();
-        TaintFlowGraph tfg = new TaintFlowGraph(sourceNodes, sinkNodes);
-        Set<Node> nodesReachSink = null;
-        if (onlyReachSink) {
-            nodesReachSink = Sets.newHybridSet();
-            Reachability<Node> reachability = new Reachability<>(complete);
-            for (Node sink : sinkNodes) {
-                nodesReachSink.addAll(reachability.nodesCanReach(sink));
-            }
-        }
-        Set<Node> visitedNodes = Sets.newSet();
-        Deque<Node> workList = new ArrayDeque<>(complete.getSourceNodes());
-        while (!workList.isEmpty()) {
-            Node node = workList.poll();
-            if (visitedNodes.add(node)) {
-                for (FlowEdge edge : complete.getOutEdgesOf(node)) {
-                    Node target = edge.target();
-                    if (!onlyReachSink || nodesReachSink.contains(target)) {
-                        tfg.addEdge(edge);
-                        if (!visitedNodes.contains(target)) {
-                            workList.add(target);
-                        }
-                    }
-                }
-            }
-        }
-        return tfg;
-    }
-
     private static boolean isApp(Node node) {
         if (node instanceof VarNode varNode) {
             return varNode.getVar().getMethod().isApplication();
@@ -22,6 +22,7 @@
 
 package pascal.taie.analysis.pta.plugin.taint;
 
+import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.World;
@@ -36,8 +37,11 @@ import pascal.taie.analysis.pta.pts.PointsToSet;
 import pascal.taie.ir.stmt.Stmt;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.Timer;
+import pascal.taie.util.collection.Sets;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
 public class TaintAnalysis implements Plugin {
@@ -46,6 +50,8 @@ public class TaintAnalysis implements Plugin {
 
     private static final String TAINT_FLOW_GRAPH_FILE = "taint-flow-graph.dot";
 
+    private static final String TAINT_FLOWS_FILE = "taint-flows.jsonl";
+
     private Solver solver;
 
     private TaintManager manager;
@@ -54,6 +60,44 @@ public class TaintAnalysis implements Plugin {
 
     private SinkHandler sinkHandler;
 
+    /**
+     * Taint flows that have been reported to the listeners.
+     */
+    private final Set<TaintFlow> reportedFlows = Sets.newSet();
+
+    private final List<TaintFlowListener> listeners = new ArrayList<>();
+
+    /**
+     * Whether the taint flows are streamed to {@link #TAINT_FLOWS_FILE}
+     * and reported to the listeners as soon as they are detected.
+     */
+    private final boolean reportsOnTheFly;
+
+    public TaintAnalysis() {
+        this(true);
+    }
+
+    /**
+     * @param reportsOnTheFly whether the taint flows are streamed and
+     *                        reported to the listeners as soon as they are
+     *                        detected. It should be {@code false} for
+     *                        pre-analyses, whose taint flows are not
+     *                        final results.
+     */
+    public TaintAnalysis(boolean reportsOnTheFly) {
+        this.reportsOnTheFly = reportsOnTheFly;
+    }
+
+    /**
+     * Adds a listener which is notified of each taint flow
+     * as soon as it is detected.
+     */
+    public void addTaintFlowListener(TaintFlowListener listener) {
+        if (reportsOnTheFly) {
+            listeners.add(listener);
+        }
+    }
+
     @Override
     public void setSolver(Solver solver) {
         this.solver = solver;
@@ -69,8 +113,20 @@ public class TaintAnalysis implements Plugin {
                 new SourceHandler(context),
                 new TransferHandler(context),
                 new SanitizerHandler(context));
+        sinkHandler = new SinkHandler(context, this::reportTaintFlow);
+        onFlyHandler.addPlugin(sinkHandler);
         this.onFlyHandler = onFlyHandler;
-        sinkHandler = new SinkHandler(context);
+        if (reportsOnTheFly) {
+            listeners.add(new TaintFlowWriter(new File(
+                    World.get().getOptions().getOutputDir(), TAINT_FLOWS_FILE)));
+        }
+    }
+
+    private void reportTaintFlow(TaintFlow taintFlow) {
+        if (reportedFlows.add(taintFlow)) {
+            logger.info("Detected {}", taintFlow);
+            listeners.forEach(l -> l.onNewTaintFlow(taintFlow));
+        }
     }
 
     @Override
@@ -96,11 +152,17 @@ public class TaintAnalysis implements Plugin {
     @Override
     public void onFinish() {
         Set<TaintFlow> taintFlows = sinkHandler.collectTaintFlows();
+        // report the taint flows missed on-the-fly, e.g., when
+        // pointer analysis is stopped due to time limit
+        taintFlows.forEach(this::reportTaintFlow);
         solver.getResult().storeResult(getClass().getName(), taintFlows);
         logger.info("Detected {} taint flow(s):", taintFlows.size());
         taintFlows.forEach(logger::info);
-        Timer.runAndCount(() -> new TFGDumper().dump(
-                        new TFGBuilder(solver.getResult(), taintFlows, manager).build(),
+        TaintFlowGraph tfg = Timer.runAndCount(
+                () -> new TFGBuilder(solver.getResult(), taintFlows, manager).build(),
+                "TFGBuilder", Level.INFO);
+        solver.getResult().storeResult(TaintFlowGraph.class.getName(), tfg);
+        Timer.runAndCount(() -> new TFGDumper().dump(tfg,
                         new File(World.get().getOptions().getOutputDir(), TAINT_FLOW_GRAPH_FILE)),
                 "TFGDumper");
     }
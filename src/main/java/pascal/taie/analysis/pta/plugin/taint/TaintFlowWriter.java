@@ -0,0 +1,104 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes taint flows to a file in JSON Lines format as they are detected,
+ * so that the results are available before taint analysis finishes.
+ * <p>
+ * The file is created when the first taint flow is detected, and it is
+ * opened only while writing each taint flow, so that no file is left
+ * open if pointer analysis is aborted, e.g., by an exception.
+ */
+class TaintFlowWriter implements TaintFlowListener {
+
+    private static final Logger logger = LogManager.getLogger(TaintFlowWriter.class);
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final File output;
+
+    /**
+     * Whether {@link #output} has been created by this writer.
+     */
+    private boolean created = false;
+
+    /**
+     * Whether this writer fails to write {@link #output}.
+     */
+    private boolean failed = false;
+
+    TaintFlowWriter(File output) {
+        this.output = output;
+        // remove the taint flows of previous run
+        if (output.exists() && !output.delete()) {
+            logger.warn("Failed to delete {}", output.getAbsolutePath());
+        }
+    }
+
+    @Override
+    public void onNewTaintFlow(TaintFlow taintFlow) {
+        if (failed) {
+            return;
+        }
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("source", taintFlow.sourcePoint().toString());
+        data.put("sourceMethod", taintFlow.sourcePoint().getContainer().toString());
+        data.put("sink", taintFlow.sinkPoint().toString());
+        data.put("sinkMethod", taintFlow.sinkPoint().sinkCall().getContainer().toString());
+        String line;
+        try {
+            line = mapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            logger.warn("Failed to write {} to {}", taintFlow, output, e);
+            return;
+        }
+        // appends each line and closes the file, so that the taint flows
+        // can be consumed by other tools during the analysis
+        try (PrintStream out = new PrintStream(
+                new FileOutputStream(output, created))) {
+            out.println(line);
+        } catch (FileNotFoundException e) {
+            logger.warn("Failed to open {}, taint flows will not be streamed",
+                    output.getAbsolutePath(), e);
+            failed = true;
+            return;
+        }
+        if (!created) {
+            created = true;
+            logger.info("Streaming taint flows to {}", output.getAbsolutePath());
+        }
+    }
+}
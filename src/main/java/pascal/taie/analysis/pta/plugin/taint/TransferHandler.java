@@ -140,6 +140,7 @@ class TransferHandler extends OnFlyHandler {
             if (kind != null) {
                 TransferInfo info = new TransferInfo(kind, fromVar, transfer);
                 transferInfos.put(toVar, info);
+                solver.addInterestedVar(this, toVar);
                 transferTaint(solver.getPointsToSetOf(csTo), context, info);
             }
         } else if (to.kind() == TransferPoint.Kind.VAR) { // Array/Field -> Var
@@ -150,6 +151,7 @@ class TransferHandler extends OnFlyHandler {
             };
             TransferInfo info = new TransferInfo(kind, toVar, transfer);
             transferInfos.put(fromVar, info);
+            solver.addInterestedVar(this, fromVar);
             transferTaint(solver.getPointsToSetOf(csFrom), context, info);
         } else { // ignore other cases
             logger.warn("TaintTransfer {} -> {} (in {}) is not supported",
@@ -285,6 +287,11 @@ class TransferHandler extends OnFlyHandler {
         }
     }
 
+    @Override
+    public boolean isInterestedInRegisteredVarsOnly() {
+        return true;
+    }
+
     @Override
     public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
         Context ctx = csVar.getContext();
@@ -0,0 +1,154 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.pts;
+
+import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.HybridBitSet;
+import pascal.taie.util.collection.SetEx;
+
+import java.util.function.Predicate;
+
+/**
+ * Selects the objects that satisfy a predicate from points-to sets.
+ * <p>
+ * The predicate is evaluated at most once for each object, and the
+ * results are cached in bit sets indexed by the objects. Then selecting
+ * the objects from a (large) points-to set is a bitwise AND of the bit
+ * set of the points-to set and the bit set of accepted objects. The
+ * caches grow on demand, i.e., the predicate is evaluated on the objects
+ * that are seen for the first time, so this filter is always up to date
+ * with the object indexer.
+ * <p>
+ * This class is thread-safe. The caches are grown in place under the
+ * lock of this filter, and their copies are published as immutable
+ * snapshots, so that the points-to sets covered by the snapshot are
+ * filtered without locking. A new snapshot is published only after
+ * the work done under the lock since the last publication exceeds
+ * the cost of copying the caches, thus the copying is amortized over
+ * the updates, instead of being repeated on each update.
+ */
+public class ObjectFilter {
+
+    /**
+     * Snapshot of the caches, which is never modified after publication.
+     *
+     * @param checked  objects on which the predicate has been evaluated
+     * @param accepted objects that satisfy the predicate
+     */
+    private record Cache(SetEx<CSObj> checked, SetEx<CSObj> accepted) {
+    }
+
+    private final Indexer<CSObj> objIndexer;
+
+    private final Predicate<CSObj> predicate;
+
+    /**
+     * Objects on which the predicate has been evaluated.
+     * Guarded by this filter.
+     */
+    private final SetEx<CSObj> checked;
+
+    /**
+     * Objects that satisfy the predicate. Guarded by this filter.
+     */
+    private final SetEx<CSObj> accepted;
+
+    /**
+     * Number of objects in {@link #checked}. Guarded by this filter.
+     */
+    private int checkedCount = 0;
+
+    /**
+     * Work done under the lock (i.e., the number of newly checked objects
+     * and locked applications) since the last publication.
+     * Guarded by this filter.
+     */
+    private int pendingWork = 0;
+
+    private volatile Cache cache;
+
+    public ObjectFilter(Indexer<CSObj> objIndexer, Predicate<CSObj> predicate) {
+        this.objIndexer = objIndexer;
+        this.predicate = predicate;
+        this.checked = new HybridBitSet<>(objIndexer, true);
+        this.accepted = new HybridBitSet<>(objIndexer, true);
+        this.cache = new Cache(checked.copy(), accepted.copy());
+    }
+
+    /**
+     * @return a new points-to set that contains the objects in {@code pts}
+     * which satisfy the predicate.
+     */
+    public PointsToSet apply(PointsToSet pts) {
+        Cache c = cache;
+        if (c.checked().containsAll(pts.getObjects())) {
+            return select(pts, c.accepted());
+        }
+        return update(pts);
+    }
+
+    /**
+     * Evaluates the predicate on the unseen objects in {@code pts},
+     * and selects the accepted objects from {@code pts} under the lock.
+     * Publishes a new snapshot of the caches if enough work has been
+     * done since the last publication.
+     */
+    private synchronized PointsToSet update(PointsToSet pts) {
+        for (CSObj obj : pts.getObjects()) {
+            if (checked.add(obj)) {
+                ++checkedCount;
+                ++pendingWork;
+                if (predicate.test(obj)) {
+                    accepted.add(obj);
+                }
+            }
+        }
+        PointsToSet result = select(pts, accepted);
+        // copying the caches costs about checkedCount / 64 word operations
+        if (++pendingWork > checkedCount / Long.SIZE) {
+            cache = new Cache(checked.copy(), accepted.copy());
+            pendingWork = 0;
+        }
+        return result;
+    }
+
+    /**
+     * @return a new points-to set that contains the objects in {@code pts}
+     * which are in {@code accepted}.
+     */
+    private PointsToSet select(PointsToSet pts, SetEx<CSObj> accepted) {
+        if (pts instanceof DelegatePointsToSet delegate
+                && delegate.set instanceof HybridBitSet<CSObj> set) {
+            SetEx<CSObj> result = set.copy();
+            result.retainAll(accepted);
+            return delegate.newSet(result);
+        } else {
+            PointsToSet result = new HybridBitPointsToSet(objIndexer, true);
+            pts.objects()
+                    .filter(accepted::contains)
+                    .forEach(result::addObject);
+            return result;
+        }
+    }
+}
@@ -23,17 +23,41 @@
 package pascal.taie.analysis.pta.pts;
 
 import pascal.taie.analysis.pta.core.cs.element.CSObj;
+import pascal.taie.util.Canonicalizer;
 import pascal.taie.util.Indexer;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
 import java.util.function.Supplier;
 
 /**
  * Provides static factory methods for {@link PointsToSet}.
+ * <p>
+ * This factory can also hash-cons points-to sets, i.e., map equal sets
+ * to the same canonical instance (see {@link #canonicalize(PointsToSet)}),
+ * so that the pointers with equal points-to sets can share one instance.
+ * Canonical sets are frozen: they must not be modified, and the owner
+ * of a canonical set should replace it by a copy before adding objects
+ * to it (copy-on-write).
+ * <p>
+ * Points-to sets are mutable, thus they keep identity equality,
+ * and they are compared by contents only when being canonicalized.
  */
 public class PointsToSetFactory {
 
     private final Supplier<PointsToSet> factory;
 
+    /**
+     * Maps each points-to set to its canonical instance.
+     */
+    private Canonicalizer<Key> canonicalizer = new Canonicalizer<>();
+
+    /**
+     * Canonical instances returned by {@link #canonicalize(PointsToSet)}.
+     */
+    private Set<PointsToSet> canonicalSets = newIdentitySet();
+
     public PointsToSetFactory(Indexer<CSObj> objIndexer) {
         factory = () -> new HybridBitPointsToSet(objIndexer, true);
     }
@@ -50,4 +74,66 @@ public class PointsToSetFactory {
         set.addObject(obj);
         return set;
     }
+
+    /**
+     * @return the canonical instance of the points-to sets that are equal
+     * to {@code pts}. After this call, {@code pts} should not be modified.
+     */
+    public PointsToSet canonicalize(PointsToSet pts) {
+        PointsToSet result = canonicalizer.get(new Key(pts)).pts();
+        if (result == pts) {
+            canonicalSets.add(pts);
+        }
+        return result;
+    }
+
+    /**
+     * @return {@code true} if {@code pts} is a canonical instance,
+     * which must not be modified.
+     */
+    public boolean isCanonical(PointsToSet pts) {
+        return !canonicalSets.isEmpty() && canonicalSets.contains(pts);
+    }
+
+    /**
+     * Forgets all canonical instances, so that the sets that are not
+     * used anymore can be garbage-collected. The sets canonicalized
+     * before this call are still frozen, thus the callers should
+     * canonicalize all sets in use again after this call.
+     */
+    public void clearCanonicalSets() {
+        canonicalizer = new Canonicalizer<>();
+        canonicalSets = newIdentitySet();
+    }
+
+    /**
+     * Wrapper of a frozen points-to set, which compares the set by contents.
+     * The hash code is computed once, as the set is not modified anymore.
+     */
+    private record Key(PointsToSet pts, int hash) {
+
+        private Key(PointsToSet pts) {
+            this(pts, pts.getObjects().hashCode());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            return o instanceof Key that
+                    && hash == that.hash
+                    && pts.size() == that.pts.size()
+                    && pts.getObjects().equals(that.pts.getObjects());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static Set<PointsToSet> newIdentitySet() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
 }
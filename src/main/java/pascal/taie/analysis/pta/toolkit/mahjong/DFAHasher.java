@@ -0,0 +1,188 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import pascal.taie.util.collection.Maps;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Computes structural hashes of DFA states. The hash of a state is derived
+ * from the outputs of the states reachable from it and the fields along
+ * the paths, thus equivalent states (in the sense of
+ * {@link DFAEquivChecker}) always have the same hash. This allows to
+ * partition the objects by the hashes of their DFAs before performing
+ * exact equivalence checks.
+ * <p>
+ * The hashes are computed by iterative refinement, i.e., Moore's
+ * minimization algorithm where each block of states is identified
+ * by a hash value instead of an explicit partition. In each round,
+ * the hash of a state is combined with the hashes of its successors,
+ * until the number of distinct hashes does not grow any more.
+ */
+class DFAHasher {
+
+    /**
+     * All states of the DFAs.
+     */
+    private final List<DFAState> states;
+
+    private final Map<DFAState, Integer> stateIndexes;
+
+    /**
+     * Indexes of successors of each state, and the hashes of the
+     * fields on the corresponding transitions.
+     */
+    private final int[][] succs, fieldHashes;
+
+    private int[] hashes;
+
+    /**
+     * Number of refinement rounds performed.
+     */
+    private int rounds;
+
+    DFAHasher(DFAFactory dfaFactory) {
+        states = new ArrayList<>(dfaFactory.getStates());
+        int n = states.size();
+        stateIndexes = Maps.newMap(n);
+        for (int i = 0; i < n; ++i) {
+            stateIndexes.put(states.get(i), i);
+        }
+        boolean[] deadLike = computeDeadLikeStates();
+        succs = new int[n][];
+        fieldHashes = new int[n][];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            // transitions to dead-like states are ignored, as they
+            // are equivalent to the missing transitions (i.e.,
+            // the transitions to dead state of DFA)
+            List<Map.Entry<Field, DFAState>> trans = states.get(i)
+                    .getNextMap()
+                    .entrySet()
+                    .stream()
+                    .filter(e -> !deadLike[stateIndexes.get(e.getValue())])
+                    .toList();
+            int[] ss = new int[trans.size()];
+            int[] fs = new int[trans.size()];
+            for (int j = 0; j < trans.size(); ++j) {
+                ss[j] = stateIndexes.get(trans.get(j).getValue());
+                fs[j] = trans.get(j).getKey().hashCode();
+            }
+            succs[i] = ss;
+            fieldHashes[i] = fs;
+        });
+        computeHashes(deadLike);
+    }
+
+    /**
+     * @return the states that are equivalent to the dead state of DFA,
+     * i.e., the states from which only states without output are reachable.
+     */
+    private boolean[] computeDeadLikeStates() {
+        int n = states.size();
+        boolean[] deadLike = new boolean[n];
+        for (int i = 0; i < n; ++i) {
+            deadLike[i] = states.get(i).getOutput().isEmpty();
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int i = 0; i < n; ++i) {
+                if (deadLike[i]) {
+                    for (DFAState next : states.get(i).getNextMap().values()) {
+                        if (!deadLike[stateIndexes.get(next)]) {
+                            deadLike[i] = false;
+                            changed = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return deadLike;
+    }
+
+    private void computeHashes(boolean[] deadLike) {
+        int n = states.size();
+        hashes = new int[n];
+        for (int i = 0; i < n; ++i) {
+            hashes[i] = deadLike[i] ? 0 : states.get(i).getOutput().hashCode();
+        }
+        long nBlocks = countDistinct(hashes);
+        rounds = 0;
+        while (true) {
+            ++rounds;
+            int[] oldHashes = hashes;
+            int[] newHashes = new int[n];
+            IntStream.range(0, n).parallel().forEach(i -> {
+                // combine the hashes of successors in an order-independent
+                // way, as the transitions of a state are unordered
+                int succHash = 0;
+                int[] ss = succs[i];
+                int[] fs = fieldHashes[i];
+                for (int j = 0; j < ss.length; ++j) {
+                    succHash += mix(fs[j] * 31 + oldHashes[ss[j]]);
+                }
+                newHashes[i] = mix(oldHashes[i] * 31 + succHash);
+            });
+            hashes = newHashes;
+            long newNBlocks = countDistinct(hashes);
+            if (newNBlocks <= nBlocks) {
+                break;
+            }
+            nBlocks = newNBlocks;
+        }
+    }
+
+    private static long countDistinct(int[] hashes) {
+        return Arrays.stream(hashes).parallel().distinct().count();
+    }
+
+    /**
+     * Scrambles the bits of given value, so that the sums of hashes
+     * of successors are less likely to collide.
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * @return the structural hash of given DFA.
+     */
+    int hashOf(DFA dfa) {
+        return hashes[stateIndexes.get(dfa.getStartState())];
+    }
+
+    int getRounds() {
+        return rounds;
+    }
+}
@@ -23,26 +23,41 @@
 package pascal.taie.analysis.pta.toolkit.mahjong;
 
 import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import pascal.taie.analysis.pta.PointerAnalysisResult;
 import pascal.taie.analysis.pta.core.heap.HeapModel;
+import pascal.taie.analysis.pta.core.heap.NewObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.AnalysisOptions;
+import pascal.taie.ir.stmt.New;
 import pascal.taie.language.type.Type;
 import pascal.taie.util.Timer;
 import pascal.taie.util.collection.Maps;
 import pascal.taie.util.collection.UnionFindSet;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 public class Mahjong {
 
+    private static final Logger logger = LogManager.getLogger(Mahjong.class);
+
     private static final DFAEquivChecker dfaEqChecker = new DFAEquivChecker();
 
     private DFAFactory dfaFactory;
 
+    private ToIntFunction<DFA> dfaHash;
+
     /**
      * This map may be manipulated by multiple threads simultaneously.
      */
@@ -53,18 +68,71 @@ public class Mahjong {
         return new Mahjong().buildHeapModel(pta, options);
     }
 
+    /**
+     * Builds Mahjong heap model from the groups of allocation sites
+     * whose objects are merged, e.g., the ones obtained by
+     * {@link #getMergedSites(HeapModel)} in previous run.
+     */
+    public static HeapModel makeHeapModel(
+            AnalysisOptions options, Collection<? extends Collection<New>> mergedSites) {
+        return new MahjongHeapModel(options, mergedSites);
+    }
+
+    /**
+     * @return the groups of allocation sites whose objects are merged
+     * by given Mahjong heap model.
+     */
+    public static List<List<New>> getMergedSites(HeapModel heapModel) {
+        return ((MahjongHeapModel) heapModel).getMergedSites();
+    }
+
     HeapModel buildHeapModel(PointerAnalysisResult pta,
                              AnalysisOptions options) {
+        UnionFindSet<Obj> uf = mergeObjects(pta, null);
+        // build resulting heap model based on merge map
+        List<List<New>> mergedSites = new ArrayList<>();
+        for (Set<Obj> objs : uf.getDisjointSets()) {
+            if (objs.size() > 1) {
+                List<New> allocSites = new ArrayList<>();
+                objs.forEach(obj -> {
+                    if (obj instanceof NewObj newObj) {
+                        allocSites.add(newObj.getAllocation());
+                    }
+                });
+                if (!allocSites.isEmpty()) {
+                    mergedSites.add(allocSites);
+                }
+            }
+        }
+        return new MahjongHeapModel(options, mergedSites);
+    }
+
+    /**
+     * Merges the type-consistent objects in given pointer analysis result.
+     *
+     * @param dfaHash hash function of DFAs which partitions the objects
+     *                before equivalence checking, or {@code null} to use
+     *                {@link DFAHasher}. Any function that maps equivalent
+     *                DFAs to the same hash gives the same result.
+     * @return the union-find set of the merged objects.
+     */
+    UnionFindSet<Obj> mergeObjects(PointerAnalysisResult pta,
+                                   @Nullable ToIntFunction<DFA> dfaHash) {
         FieldPointsToGraph fpg = Timer.runAndCount(
                 () -> new FieldPointsToGraph(pta),
                 "Building field points-to graph", Level.INFO);
         dfaFactory = Timer.runAndCount(() -> new DFAFactory(fpg),
                 "Building DFA", Level.INFO);
-        UnionFindSet<Obj> uf = Timer.runAndCount(
-                () -> mergeTypeConsistentObjects(fpg),
+        if (dfaHash == null) {
+            DFAHasher dfaHasher = Timer.runAndCount(() -> new DFAHasher(dfaFactory),
+                    "Hashing DFA", Level.INFO);
+            logger.info("#DFA states: {}, #hashing rounds: {}",
+                    dfaFactory.getStates().size(), dfaHasher.getRounds());
+            dfaHash = dfaHasher::hashOf;
+        }
+        this.dfaHash = dfaHash;
+        return Timer.runAndCount(() -> mergeTypeConsistentObjects(fpg),
                 "Merging type-consistent objects", Level.INFO);
-        // build resulting heap model based on merge map
-        return new MahjongHeapModel(options, uf.getDisjointSets());
     }
 
     private UnionFindSet<Obj> mergeTypeConsistentObjects(FieldPointsToGraph fpg) {
@@ -75,26 +143,58 @@ public class Mahjong {
         Map<Type, Set<Obj>> groupedObjs = allObjs.stream()
                 .collect(Collectors.groupingBy(
                         Obj::getType, Collectors.toSet()));
+        // statistics
+        LongAdder nBuckets = new LongAdder();
+        LongAdder nChecks = new LongAdder();
+        LongAdder nPairwiseChecks = new LongAdder();
+        AtomicInteger maxBucketSize = new AtomicInteger();
         // compute object merging, and store results in a union-find set
         groupedObjs.entrySet()
                 .parallelStream()
                 .forEach(entry -> {
-                    Set<Obj> objs = entry.getValue();
                     DFAMap dfaMap = new DFAMap();
-                    for (Obj o1 : objs) {
-                        if (canBeMerged(o1, dfaMap)) {
-                            for (Obj o2 : objs) {
-                                if (canBeMerged(o2, dfaMap)) {
-                                    if (o1.getIndex() < o2.getIndex()
-                                            && !uf.isConnected(o1, o2)
-                                            && canBeMerged(o1, o2, dfaMap)) {
-                                        uf.union(o1, o2);
-                                    }
+                    // partition mergeable objects by the hashes of their DFAs,
+                    // as only the objects in the same bucket can be equivalent
+                    Map<Integer, List<Obj>> buckets = Maps.newMap();
+                    for (Obj o : entry.getValue()) {
+                        if (canBeMerged(o, dfaMap)) {
+                            int hash = dfaHash.applyAsInt(dfaMap.getDFA(o));
+                            buckets.computeIfAbsent(hash, unused -> new ArrayList<>())
+                                    .add(o);
+                        }
+                    }
+                    long n = buckets.values().stream().mapToLong(List::size).sum();
+                    nPairwiseChecks.add(n * (n - 1) / 2);
+                    nBuckets.add(buckets.size());
+                    // DFA equivalence is an equivalence relation, thus it is
+                    // sufficient to compare each object with a representative
+                    // of every equivalence class found so far in the bucket.
+                    // Due to the hashing, a bucket usually contains only one
+                    // equivalence class.
+                    buckets.values().forEach(bucket -> {
+                        maxBucketSize.accumulateAndGet(bucket.size(), Math::max);
+                        List<Obj> reps = new ArrayList<>();
+                        for (Obj o : bucket) {
+                            boolean merged = false;
+                            for (Obj rep : reps) {
+                                nChecks.increment();
+                                if (canBeMerged(rep, o, dfaMap)) {
+                                    uf.union(rep, o);
+                                    merged = true;
+                                    break;
                                 }
                             }
+                            if (!merged) {
+                                reps.add(o);
+                            }
                         }
-                    }
+                    });
                 });
+        logger.info("#type groups: {}", groupedObjs.size());
+        logger.info("#hash buckets: {}", nBuckets.sum());
+        logger.info("#max. bucket size: {}", maxBucketSize.get());
+        logger.info("#DFA equivalence checks: {} (pairwise: {})",
+                nChecks.sum(), nPairwiseChecks.sum());
         return uf;
     }
 
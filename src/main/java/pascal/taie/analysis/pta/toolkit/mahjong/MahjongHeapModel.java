@@ -24,46 +24,48 @@ package pascal.taie.analysis.pta.toolkit.mahjong;
 
 import pascal.taie.analysis.pta.core.heap.AbstractHeapModel;
 import pascal.taie.analysis.pta.core.heap.MergedObj;
-import pascal.taie.analysis.pta.core.heap.NewObj;
 import pascal.taie.analysis.pta.core.heap.Obj;
 import pascal.taie.config.AnalysisOptions;
 import pascal.taie.ir.stmt.New;
 import pascal.taie.language.type.Type;
-import pascal.taie.util.collection.CollectionUtils;
 import pascal.taie.util.collection.Maps;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.Set;
 
 class MahjongHeapModel extends AbstractHeapModel {
 
     // currently, perform merging for only NewObj
-    private final Map<New, MergedObj> mergeMap;
+    private final Map<New, MergedObj> mergeMap = Maps.newMap();
 
-    MahjongHeapModel(AnalysisOptions options, Collection<Set<Obj>> objGroups) {
+    /**
+     * Groups of allocation sites whose objects are merged.
+     */
+    private final List<List<New>> mergedSites = new ArrayList<>();
+
+    MahjongHeapModel(AnalysisOptions options,
+                     Collection<? extends Collection<New>> mergedSites) {
         super(options);
-        mergeMap = buildMergeMap(objGroups);
+        mergedSites.forEach(this::merge);
+    }
+
+    private void merge(Collection<New> allocSites) {
+        Type type = allocSites.iterator().next().getRValue().getType();
+        MergedObj mergedObj = add(new MergedObj(type,
+                "<Mahjong-merged " + type + ">"));
+        allocSites.forEach(allocSite -> {
+            mergeMap.put(allocSite, mergedObj);
+            mergedObj.addRepresentedObj(getNewObj(allocSite));
+        });
+        mergedSites.add(List.copyOf(allocSites));
     }
 
-    private Map<New, MergedObj> buildMergeMap(Collection<Set<Obj>> objGroups) {
-        Map<New, MergedObj> mergeMap = Maps.newMap();
-        objGroups.stream()
-                .filter(objs -> objs.size() > 1)
-                .forEach(objs -> {
-                    Type type = CollectionUtils.getOne(objs).getType();
-                    MergedObj mergedObj = add(new MergedObj(type,
-                            "<Mahjong-merged " + type + ">"));
-                    objs.forEach(obj -> {
-                        if (obj instanceof NewObj newObj) {
-                            New allocSite = newObj.getAllocation();
-                            mergeMap.put(allocSite, mergedObj);
-                            mergedObj.addRepresentedObj(getNewObj(allocSite));
-                        }
-                    });
-                });
-        return mergeMap;
+    List<List<New>> getMergedSites() {
+        return Collections.unmodifiableList(mergedSites);
     }
 
     @Override
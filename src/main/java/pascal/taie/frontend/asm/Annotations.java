@@ -0,0 +1,162 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import pascal.taie.language.annotation.Annotation;
+import pascal.taie.language.annotation.AnnotationElement;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.annotation.ArrayElement;
+import pascal.taie.language.annotation.BooleanElement;
+import pascal.taie.language.annotation.ClassElement;
+import pascal.taie.language.annotation.DoubleElement;
+import pascal.taie.language.annotation.Element;
+import pascal.taie.language.annotation.EnumElement;
+import pascal.taie.language.annotation.FloatElement;
+import pascal.taie.language.annotation.IntElement;
+import pascal.taie.language.annotation.LongElement;
+import pascal.taie.language.annotation.StringElement;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.util.collection.Maps;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Converts the annotations visited by ASM to Tai-e's representation.
+ */
+final class Annotations {
+
+    private Annotations() {
+    }
+
+    /**
+     * @return an annotation holder that contains given annotations.
+     */
+    static AnnotationHolder toHolder(List<Annotation> annotations) {
+        return annotations.isEmpty() ?
+                AnnotationHolder.emptyHolder() :
+                AnnotationHolder.make(annotations);
+    }
+
+    /**
+     * @param descriptor descriptor of the annotation type
+     * @param consumer   consumer of the converted annotation, which is
+     *                   invoked after all elements have been visited
+     * @return a visitor which converts the visited annotation.
+     */
+    static AnnotationVisitor visit(String descriptor, Consumer<Annotation> consumer) {
+        Map<String, Element> elements = Maps.newHybridMap();
+        return new ElementVisitor(elements::put, () -> consumer.accept(
+                new Annotation(StringReps.toTaieTypeDesc(descriptor), elements)));
+    }
+
+    /**
+     * Visits annotation elements (or values of an array element),
+     * and passes the converted elements to {@code sink}.
+     */
+    private static class ElementVisitor extends AnnotationVisitor {
+
+        private final BiConsumer<String, Element> sink;
+
+        private final Runnable onEnd;
+
+        private ElementVisitor(BiConsumer<String, Element> sink, Runnable onEnd) {
+            super(Opcodes.ASM9);
+            this.sink = sink;
+            this.onEnd = onEnd;
+        }
+
+        @Override
+        public void visit(String name, Object value) {
+            sink.accept(name, convertValue(value));
+        }
+
+        @Override
+        public void visitEnum(String name, String descriptor, String value) {
+            sink.accept(name, new EnumElement(
+                    StringReps.toTaieTypeDesc(descriptor), value));
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String name, String descriptor) {
+            return Annotations.visit(descriptor,
+                    a -> sink.accept(name, new AnnotationElement(a)));
+        }
+
+        @Override
+        public AnnotationVisitor visitArray(String name) {
+            List<Element> values = new ArrayList<>();
+            return new ElementVisitor((n, e) -> values.add(e),
+                    () -> sink.accept(name, new ArrayElement(values)));
+        }
+
+        @Override
+        public void visitEnd() {
+            onEnd.run();
+        }
+    }
+
+    private static Element convertValue(Object value) {
+        if (value instanceof String s) {
+            return new StringElement(s);
+        } else if (value instanceof Boolean b) {
+            return new BooleanElement(b);
+        } else if (value instanceof Integer i) {
+            return new IntElement(i);
+        } else if (value instanceof Byte b) {
+            return new IntElement(b);
+        } else if (value instanceof Short s) {
+            return new IntElement(s);
+        } else if (value instanceof Character c) {
+            return new IntElement(c);
+        } else if (value instanceof Long l) {
+            return new LongElement(l);
+        } else if (value instanceof Float f) {
+            return new FloatElement(f);
+        } else if (value instanceof Double d) {
+            return new DoubleElement(d);
+        } else if (value instanceof Type t) {
+            String desc = t.getDescriptor();
+            return new ClassElement(desc.equals("V") ?
+                    "void" : StringReps.toTaieTypeDesc(desc));
+        } else if (value.getClass().isArray()) {
+            // ASM visits arrays of primitive values as a whole
+            int length = Array.getLength(value);
+            List<Element> values = new ArrayList<>(length);
+            for (int i = 0; i < length; ++i) {
+                values.add(convertValue(Array.get(value, i)));
+            }
+            return new ArrayElement(values);
+        } else {
+            throw new AsmFrontendException(
+                    "Unable to handle annotation element: " + value);
+        }
+    }
+}
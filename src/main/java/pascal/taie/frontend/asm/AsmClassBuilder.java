@@ -0,0 +1,295 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import pascal.taie.language.annotation.Annotation;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassBuilder;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.Modifier;
+import pascal.taie.language.generics.ClassGSignature;
+import pascal.taie.language.generics.GSignatures;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.collection.Lists;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds {@link JClass} from a class file. The method bodies are skipped
+ * when building the class, and they are converted to IR on demand
+ * by {@link IRBuilder}.
+ */
+class AsmClassBuilder extends ClassVisitor implements JClassBuilder {
+
+    private final Converter converter;
+
+    private final ClassLocator.ClassFile classFile;
+
+    /**
+     * Code of the class file, which is shared by the sources of its methods.
+     */
+    private final ClassCode classCode;
+
+    private JClass jclass;
+
+    private int access;
+
+    private String internalName;
+
+    @Nullable
+    private String superName;
+
+    private String[] interfaces;
+
+    @Nullable
+    private String signature;
+
+    /**
+     * Internal name of the outer class (for member classes) or
+     * enclosing class (for local and anonymous classes).
+     */
+    @Nullable
+    private String outerName;
+
+    private final List<Annotation> annotations = new ArrayList<>();
+
+    private final List<JField> fields = new ArrayList<>();
+
+    private final List<JMethod> methods = new ArrayList<>();
+
+    AsmClassBuilder(Converter converter, ClassLocator.ClassFile classFile) {
+        super(Opcodes.ASM9);
+        this.converter = converter;
+        this.classFile = classFile;
+        this.classCode = new ClassCode(classFile.bytes());
+    }
+
+    @Override
+    public void build(JClass jclass) {
+        this.jclass = jclass;
+        new ClassReader(classFile.bytes()).accept(this,
+                ClassReader.SKIP_CODE | ClassReader.SKIP_FRAMES);
+        jclass.build(this);
+    }
+
+    @Override
+    public void visit(int version, int access, String name, String signature,
+                      String superName, String[] interfaces) {
+        this.access = access;
+        this.internalName = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.signature = signature;
+    }
+
+    @Override
+    public void visitOuterClass(String owner, String name, String descriptor) {
+        if (outerName == null) {
+            outerName = owner;
+        }
+    }
+
+    @Override
+    public void visitInnerClass(String name, String outerName,
+                                String innerName, int access) {
+        if (name.equals(internalName) && outerName != null) {
+            this.outerName = outerName;
+        }
+    }
+
+    @Override
+    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+        return Annotations.visit(descriptor, annotations::add);
+    }
+
+    @Override
+    public FieldVisitor visitField(int access, String name, String descriptor,
+                                   String signature, Object value) {
+        List<Annotation> fieldAnnotations = new ArrayList<>();
+        return new FieldVisitor(Opcodes.ASM9) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                return Annotations.visit(desc, fieldAnnotations::add);
+            }
+
+            @Override
+            public void visitEnd() {
+                fields.add(new JField(jclass, name,
+                        Modifiers.convertFieldModifiers(access),
+                        converter.convertType(descriptor),
+                        signature == null ? null : GSignatures.toTypeSig(signature),
+                        Annotations.toHolder(fieldAnnotations)));
+            }
+        };
+    }
+
+    @Override
+    public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                     String signature, String[] exceptions) {
+        List<Type> paramTypes = converter.convertParamTypes(descriptor);
+        List<Annotation> methodAnnotations = new ArrayList<>();
+        return new MethodVisitor(Opcodes.ASM9) {
+
+            private List<Annotation>[] paramAnnotations;
+
+            private List<String> paramNames;
+
+            @Override
+            public void visitParameter(String name, int access) {
+                if (paramNames == null) {
+                    paramNames = new ArrayList<>(paramTypes.size());
+                }
+                paramNames.add(name);
+            }
+
+            @Override
+            public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                return Annotations.visit(desc, methodAnnotations::add);
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public AnnotationVisitor visitParameterAnnotation(
+                    int parameter, String desc, boolean visible) {
+                if (parameter >= paramTypes.size()) {
+                    return null;
+                }
+                if (paramAnnotations == null) {
+                    paramAnnotations = new List[paramTypes.size()];
+                }
+                if (paramAnnotations[parameter] == null) {
+                    paramAnnotations[parameter] = new ArrayList<>();
+                }
+                return Annotations.visit(desc, paramAnnotations[parameter]::add);
+            }
+
+            @Override
+            public void visitEnd() {
+                methods.add(new JMethod(jclass, name,
+                        Modifiers.convertMethodModifiers(access),
+                        paramTypes, converter.convertReturnType(descriptor),
+                        exceptions == null ? List.of() : Lists.map(
+                                Arrays.asList(exceptions),
+                                e -> (ClassType) converter.convertInternalName(e)),
+                        signature == null ? null : GSignatures.toMethodSig(signature),
+                        Annotations.toHolder(methodAnnotations),
+                        getParamAnnotations(),
+                        paramNames != null && paramNames.size() == paramTypes.size() ?
+                                paramNames : null,
+                        new MethodSource(classCode, name, descriptor)));
+            }
+
+            @Nullable
+            private List<AnnotationHolder> getParamAnnotations() {
+                return paramAnnotations == null ? null :
+                        Arrays.stream(paramAnnotations)
+                                .map(as -> as == null ?
+                                        AnnotationHolder.emptyHolder() :
+                                        Annotations.toHolder(as))
+                                .toList();
+            }
+        };
+    }
+
+    @Override
+    public Set<Modifier> getModifiers() {
+        return Modifiers.convertClassModifiers(access);
+    }
+
+    @Override
+    public String getSimpleName() {
+        String name = jclass.getName();
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    @Override
+    public ClassType getClassType() {
+        return (ClassType) converter.convertInternalName(internalName);
+    }
+
+    @Override
+    public JClass getSuperClass() {
+        if (superName == null || jclass.getName().equals(ClassNames.OBJECT)) {
+            return null;
+        } else {
+            return converter.convertClass(superName);
+        }
+    }
+
+    @Override
+    public Collection<JClass> getInterfaces() {
+        return Lists.map(Arrays.asList(interfaces), converter::convertClass);
+    }
+
+    @Override
+    public JClass getOuterClass() {
+        return outerName == null ? null : converter.convertClass(outerName);
+    }
+
+    @Override
+    public Collection<JField> getDeclaredFields() {
+        return fields;
+    }
+
+    @Override
+    public Collection<JMethod> getDeclaredMethods() {
+        return methods;
+    }
+
+    @Override
+    public AnnotationHolder getAnnotationHolder() {
+        return Annotations.toHolder(annotations);
+    }
+
+    @Override
+    public boolean isApplication() {
+        return classFile.isApplication();
+    }
+
+    @Override
+    public boolean isPhantom() {
+        return false;
+    }
+
+    @Nullable
+    @Override
+    public ClassGSignature getGSignature() {
+        return signature == null ? null : GSignatures.toClassSig(
+                (access & Opcodes.ACC_INTERFACE) != 0, signature);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.objectweb.asm.ClassReader;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JClassBuilder;
+import pascal.taie.language.classes.JClassLoader;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Loads classes from the class files found by {@link ClassLocator}.
+ * Different from the class loader of Soot frontend, which can only
+ * load the classes in Soot's scene, this class loader can load
+ * any class in the class path on demand.
+ */
+class AsmClassLoader implements JClassLoader {
+
+    private static final Logger logger = LogManager.getLogger(AsmClassLoader.class);
+
+    private final transient ClassLocator locator;
+
+    private final ClassHierarchy hierarchy;
+
+    private final boolean allowPhantom;
+
+    private transient Converter converter;
+
+    /**
+     * Classes which are fully built. This map may be concurrently
+     * read and written when building IR, thus we use concurrent map
+     * to ensure its thread-safety.
+     */
+    private final ConcurrentMap<String, JClass> classes = Maps.newConcurrentMap(1024);
+
+    /**
+     * Classes which are being built, i.e., the class being defined by
+     * the outermost {@link #define(String, JClassBuilder)} and the classes
+     * loaded when building it. They are visible only to the thread
+     * building them, and are published to {@link #classes} after
+     * all of them are built. Guarded by this loader.
+     */
+    private final transient Map<String, JClass> building = Maps.newMap();
+
+    /**
+     * Classes in {@link #building} in the order in which they are built.
+     */
+    private final transient List<JClass> built = new ArrayList<>();
+
+    /**
+     * Class files which have been read by {@link #loadClasses(List)}
+     * but not loaded yet.
+     */
+    private transient Map<String, ClassLocator.ClassFile> pendingFiles = Map.of();
+
+    AsmClassLoader(ClassLocator locator, ClassHierarchy hierarchy,
+                   boolean allowPhantom) {
+        this.locator = locator;
+        this.hierarchy = hierarchy;
+        this.allowPhantom = allowPhantom;
+    }
+
+    @Override
+    public JClass loadClass(String name) {
+        JClass jclass = classes.get(name);
+        if (jclass == null && locator != null) {
+            jclass = loadNewClass(name, false);
+        }
+        return jclass;
+    }
+
+    /**
+     * Loads the class referenced in class files. If the class cannot be
+     * found and phantom references are allowed, then creates
+     * a phantom class for it.
+     */
+    @Nullable
+    JClass loadClassOrPhantom(String name) {
+        JClass jclass = classes.get(name);
+        if (jclass == null && locator != null) {
+            jclass = loadNewClass(name, allowPhantom);
+        }
+        return jclass;
+    }
+
+    /**
+     * Loads the class which has not been published. It is synchronized
+     * as classes may be loaded on demand by the threads building IR.
+     */
+    @Nullable
+    private synchronized JClass loadNewClass(String name, boolean orPhantom) {
+        JClass jclass = classes.get(name);
+        if (jclass == null) {
+            jclass = building.get(name);
+        }
+        if (jclass == null) {
+            ClassLocator.ClassFile file = pendingFiles.get(name);
+            if (file == null) {
+                file = locator.find(name);
+            }
+            if (file != null) {
+                jclass = define(name, new AsmClassBuilder(converter, file));
+            } else if (orPhantom) {
+                jclass = define(name, new PhantomClassBuilder(converter, name));
+            }
+        }
+        return jclass;
+    }
+
+    private JClass define(String name, JClassBuilder builder) {
+        JClass jclass = new JClass(this, name);
+        // New class must be put into building map at first,
+        // at build(jclass) may also trigger the loading of
+        // the new created class. Not putting the class into the map
+        // may cause infinite recursion.
+        boolean outermost = building.isEmpty();
+        building.put(name, jclass);
+        builder.build(jclass);
+        built.add(jclass);
+        if (outermost) {
+            // all classes loaded when building jclass have been built,
+            // and now they can be published to other threads
+            built.forEach(c -> {
+                classes.put(c.getName(), c);
+                hierarchy.addClass(c);
+            });
+            building.clear();
+            built.clear();
+        }
+        return jclass;
+    }
+
+    /**
+     * Loads given classes and all classes referenced by them
+     * (transitively), i.e., the closed world of the program.
+     * The class files are read and scanned in parallel, level by level,
+     * and the classes are loaded in the order of breadth-first search
+     * from given classes, so that the order is deterministic.
+     */
+    void loadClasses(List<String> rootClasses) {
+        Map<String, ClassLocator.ClassFile> files = Maps.newConcurrentMap(4096);
+        List<String> order = new ArrayList<>();
+        Set<String> visited = Sets.newSet(4096);
+        List<String> level = new ArrayList<>();
+        rootClasses.forEach(name -> {
+            if (visited.add(name)) {
+                level.add(name);
+            }
+        });
+        while (!level.isEmpty()) {
+            List<List<String>> refs = level.parallelStream()
+                    .map(name -> {
+                        ClassLocator.ClassFile file = locator.find(name);
+                        if (file == null) {
+                            return List.<String>of();
+                        }
+                        files.put(name, file);
+                        return ClassDependencies.get(new ClassReader(file.bytes()));
+                    })
+                    .toList();
+            order.addAll(level);
+            level.clear();
+            refs.forEach(names -> names.forEach(name -> {
+                if (visited.add(name)) {
+                    level.add(name);
+                }
+            }));
+        }
+        logger.info("{} classes are found in the closed world", files.size());
+        pendingFiles = files;
+        order.forEach(name -> {
+            if (files.containsKey(name)) {
+                loadClass(name);
+            }
+        });
+        pendingFiles = Map.of();
+    }
+
+    @Override
+    public Collection<JClass> getLoadedClasses() {
+        return classes.values();
+    }
+
+    void setConverter(Converter converter) {
+        this.converter = converter;
+    }
+}
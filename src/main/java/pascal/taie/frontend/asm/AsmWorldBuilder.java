@@ -0,0 +1,158 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.AbstractWorldBuilder;
+import pascal.taie.World;
+import pascal.taie.config.AnalysisConfig;
+import pascal.taie.config.Options;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.classes.ClassHierarchyImpl;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.classes.StringReps;
+import pascal.taie.language.classes.Subsignature;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.language.type.TypeSystemImpl;
+import pascal.taie.util.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * World builder based on ASM. Different from {@link
+ * pascal.taie.frontend.soot.SootWorldBuilder}, this builder reads class files
+ * and converts bytecode to Tai-e IR directly, without Soot's Jimple
+ * as the intermediate representation.
+ * <p>
+ * This builder loads the classes which are transitively referenced by
+ * the input classes (i.e., the closed world of the program),
+ * and builds the IR of each method on demand.
+ */
+public class AsmWorldBuilder extends AbstractWorldBuilder {
+
+    private static final Logger logger = LogManager.getLogger(AsmWorldBuilder.class);
+
+    private static final Subsignature MAIN = Subsignature.get(
+            "void main(java.lang.String[])");
+
+    @Override
+    public void build(Options options, List<AnalysisConfig> analyses) {
+        World.reset();
+        World world = new World();
+        World.set(world);
+
+        // options will be used during World building, thus it should be
+        // set at first.
+        world.setOptions(options);
+        // initialize class hierarchy
+        ClassHierarchy hierarchy = new ClassHierarchyImpl();
+        AsmClassLoader loader = new AsmClassLoader(
+                getClassLocator(options), hierarchy, options.isAllowPhantom());
+        hierarchy.setDefaultClassLoader(loader);
+        hierarchy.setBootstrapClassLoader(loader);
+        world.setClassHierarchy(hierarchy);
+        // initialize type manager
+        TypeSystem typeSystem = new TypeSystemImpl(hierarchy);
+        world.setTypeSystem(typeSystem);
+        // initialize converter
+        Converter converter = new Converter(loader, typeSystem);
+        loader.setConverter(converter);
+        // initialize IR builder
+        IRBuilder irBuilder = new IRBuilder(converter);
+        world.setIRBuilder(irBuilder);
+        // build classes in hierarchy
+        List<String> inputClasses = new ArrayList<>();
+        String mainClass = options.getMainClass();
+        if (mainClass != null) {
+            inputClasses.add(mainClass);
+        }
+        inputClasses.addAll(getInputClasses(options));
+        buildClasses(loader, inputClasses, analyses);
+        for (String inputClass : inputClasses) {
+            if (hierarchy.getClass(inputClass) == null) {
+                throw new RuntimeException("Failed to find input class '" +
+                        inputClass + "', are your class path and class name" +
+                        " given properly?");
+            }
+        }
+        // set main method
+        if (mainClass != null) {
+            JMethod mainMethod = hierarchy.getClass(mainClass)
+                    .getDeclaredMethod(MAIN);
+            if (mainMethod != null && mainMethod.isStatic()) {
+                world.setMainMethod(mainMethod);
+            } else {
+                logger.warn("Warning: main class '{}'" +
+                                " does not have main(String[]) method!",
+                        options.getMainClass());
+            }
+        } else {
+            logger.warn("Warning: main class was not given!");
+        }
+        // set implicit entries
+        world.setImplicitEntries(implicitEntries.stream()
+                .map(hierarchy::getJREMethod)
+                // some implicit entries may not exist in certain JDK version,
+                // thus we filter out null
+                .filter(Objects::nonNull)
+                .toList());
+        world.setNativeModel(getNativeModel(typeSystem, hierarchy, options));
+        if (options.isPreBuildIR()) {
+            irBuilder.buildAll(hierarchy);
+        }
+    }
+
+    private static ClassLocator getClassLocator(Options options) {
+        ClassLocator locator = new ClassLocator();
+        if (options.isPrependJVM()) {
+            locator.addJVM();
+        } else {
+            getJREJars(options).forEach(jar -> locator.addPath(jar, false));
+        }
+        options.getAppClassPath().forEach(path -> locator.addPath(path, true));
+        options.getClassPath().forEach(path -> locator.addPath(path, true));
+        return locator;
+    }
+
+    /**
+     * Loads the input classes, basic classes and the classes required by
+     * analyses, together with all classes referenced by them.
+     */
+    private static void buildClasses(AsmClassLoader loader,
+                                     List<String> inputClasses,
+                                     List<AnalysisConfig> analyses) {
+        Timer timer = new Timer("Build classes");
+        timer.start();
+        List<String> rootClasses = new ArrayList<>(inputClasses);
+        rootClasses.addAll(getBasicClasses());
+        rootClasses.addAll(getReflectionLogClasses(analyses));
+        implicitEntries.forEach(entry ->
+                rootClasses.add(StringReps.getClassNameOf(entry)));
+        loader.loadClasses(rootClasses);
+        timer.stop();
+        logger.info(timer);
+    }
+}
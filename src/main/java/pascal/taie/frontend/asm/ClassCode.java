@@ -0,0 +1,67 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Code of the methods in a class file, which is shared by the
+ * {@link MethodSource}s of the class. The class file is parsed only once,
+ * when the code of any method in the class is requested for the first time,
+ * and then the code of each method is kept until it is taken.
+ */
+final class ClassCode {
+
+    /**
+     * Content of the class file, which is released after it is parsed.
+     */
+    private byte[] classFile;
+
+    /**
+     * Map from name + descriptor of methods to their code.
+     */
+    private Map<String, MethodCode> codes;
+
+    ClassCode(byte[] classFile) {
+        this.classFile = classFile;
+    }
+
+    /**
+     * Takes the code of given method. As the IR of each method is built
+     * only once, the code is removed after it is taken.
+     * This method may be called by multiple threads which build IRs
+     * in parallel, thus it is synchronized.
+     *
+     * @return the code of the method, or {@code null} if the method
+     * has no code or its code has been taken.
+     */
+    @Nullable
+    synchronized MethodCode take(String name, String descriptor) {
+        if (codes == null) {
+            codes = MethodCode.readAll(classFile);
+            classFile = null;
+        }
+        return codes.remove(name + descriptor);
+    }
+}
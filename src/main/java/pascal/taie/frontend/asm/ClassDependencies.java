@@ -0,0 +1,116 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Collects the classes referenced by a class file, including the classes
+ * in its constant pool and the classes in the descriptors of
+ * its members and the members it references.
+ */
+final class ClassDependencies {
+
+    // tags of constant pool entries, see JVM Spec. 4.4
+    private static final int CONSTANT_CLASS = 7;
+
+    private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+    private static final int CONSTANT_METHOD_TYPE = 16;
+
+    private ClassDependencies() {
+    }
+
+    /**
+     * @return names of the classes referenced by given class,
+     * in the order of their first occurrences in the class file.
+     */
+    static List<String> get(ClassReader reader) {
+        Set<String> result = Sets.newLinkedSet();
+        char[] buffer = new char[reader.getMaxStringLength()];
+        for (int i = 1; i < reader.getItemCount(); ++i) {
+            int offset = reader.getItem(i);
+            if (offset == 0) { // the second slot of long/double constants
+                continue;
+            }
+            switch (reader.readByte(offset - 1)) {
+                case CONSTANT_CLASS -> addType(
+                        Type.getObjectType(reader.readUTF8(offset, buffer)), result);
+                case CONSTANT_NAME_AND_TYPE -> addDescriptor(
+                        reader.readUTF8(offset + 2, buffer), result);
+                case CONSTANT_METHOD_TYPE -> addDescriptor(
+                        reader.readUTF8(offset, buffer), result);
+                default -> {
+                }
+            }
+        }
+        // the descriptors of declared members are not referred by
+        // the entries in constant pool, thus we visit the members
+        reader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public FieldVisitor visitField(int access, String name, String descriptor,
+                                           String signature, Object value) {
+                addDescriptor(descriptor, result);
+                return null;
+            }
+
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor,
+                                             String signature, String[] exceptions) {
+                addDescriptor(descriptor, result);
+                return null;
+            }
+        }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        result.remove(Converter.toClassName(reader.getClassName()));
+        return List.copyOf(result);
+    }
+
+    private static void addDescriptor(String descriptor, Set<String> result) {
+        if (descriptor.startsWith("(")) {
+            for (Type type : Type.getArgumentTypes(descriptor)) {
+                addType(type, result);
+            }
+            addType(Type.getReturnType(descriptor), result);
+        } else {
+            addType(Type.getType(descriptor), result);
+        }
+    }
+
+    private static void addType(Type type, Set<String> result) {
+        if (type.getSort() == Type.ARRAY) {
+            type = type.getElementType();
+        }
+        if (type.getSort() == Type.OBJECT) {
+            result.add(Converter.toClassName(type.getInternalName()));
+        }
+    }
+}
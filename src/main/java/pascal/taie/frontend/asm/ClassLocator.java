@@ -0,0 +1,197 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+
+/**
+ * Locates class files in the class path. The class path consists of
+ * directories, jar files and (optionally) the runtime image of the JVM
+ * which runs Tai-e. The entries are searched in the order they are added.
+ * <p>
+ * This class is thread-safe, so that class files can be read in parallel.
+ */
+class ClassLocator {
+
+    private static final Logger logger = LogManager.getLogger(ClassLocator.class);
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    /**
+     * A class file found in the class path.
+     *
+     * @param bytes         content of the class file
+     * @param isApplication whether the class file is found in
+     *                      application class path
+     */
+    record ClassFile(byte[] bytes, boolean isApplication) {
+    }
+
+    private final List<Entry> entries = new ArrayList<>();
+
+    /**
+     * Adds the runtime image of the JVM which runs Tai-e to the class path.
+     */
+    void addJVM() {
+        entries.add(new JrtEntry());
+    }
+
+    /**
+     * Adds a path (either a directory or a jar file) to the class path.
+     */
+    void addPath(String path, boolean isApplication) {
+        File file = new File(path);
+        if (file.isDirectory()) {
+            entries.add(new DirEntry(file.toPath(), isApplication));
+        } else if (file.isFile() && (path.endsWith(".jar") || path.endsWith(".zip"))) {
+            try {
+                entries.add(new JarEntry(new JarFile(file), isApplication));
+            } catch (IOException e) {
+                logger.warn("Failed to open {}: {}", path, e.getMessage());
+            }
+        } else {
+            logger.warn("Ignored invalid class path: {}", path);
+        }
+    }
+
+    /**
+     * @return the class file for given class name, or {@code null}
+     * if the class cannot be found in the class path.
+     */
+    @Nullable
+    ClassFile find(String className) {
+        String path = className.replace('.', '/') + CLASS_SUFFIX;
+        for (Entry entry : entries) {
+            try {
+                byte[] bytes = entry.read(path);
+                if (bytes != null) {
+                    return new ClassFile(bytes, entry.isApplication());
+                }
+            } catch (IOException e) {
+                throw new AsmFrontendException("Failed to read " + path, e);
+            }
+        }
+        return null;
+    }
+
+    private interface Entry {
+
+        /**
+         * @return content of the file at given relative path,
+         * or {@code null} if the file does not exist in this entry.
+         */
+        @Nullable
+        byte[] read(String path) throws IOException;
+
+        boolean isApplication();
+    }
+
+    private record DirEntry(Path dir, boolean isApplication) implements Entry {
+
+        @Override
+        public byte[] read(String path) throws IOException {
+            Path file = dir.resolve(path);
+            return Files.isRegularFile(file) ? Files.readAllBytes(file) : null;
+        }
+    }
+
+    private record JarEntry(JarFile jar, boolean isApplication) implements Entry {
+
+        @Override
+        public byte[] read(String path) throws IOException {
+            ZipEntry entry = jar.getEntry(path);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = jar.getInputStream(entry)) {
+                return in.readAllBytes();
+            }
+        }
+    }
+
+    /**
+     * Entry for the runtime image (jrt file system) of the running JVM.
+     * Classes are located through the {@code /packages} directory
+     * of the image, which maps each package to the modules containing it.
+     */
+    private static class JrtEntry implements Entry {
+
+        private final FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+
+        private final ConcurrentMap<String, List<Path>> pkg2Modules
+                = Maps.newConcurrentMap();
+
+        @Override
+        public byte[] read(String path) throws IOException {
+            int i = path.lastIndexOf('/');
+            if (i < 0) { // classes in unnamed package are not in the image
+                return null;
+            }
+            String pkg = path.substring(0, i).replace('/', '.');
+            for (Path module : pkg2Modules.computeIfAbsent(pkg, this::getModules)) {
+                Path file = module.resolve(path);
+                if (Files.isRegularFile(file)) {
+                    return Files.readAllBytes(file);
+                }
+            }
+            return null;
+        }
+
+        private List<Path> getModules(String pkg) {
+            Path dir = jrt.getPath("/packages", pkg);
+            if (!Files.isDirectory(dir)) {
+                return List.of();
+            }
+            try (Stream<Path> links = Files.list(dir)) {
+                return links.map(link -> jrt.getPath("/modules",
+                                link.getFileName().toString()))
+                        .toList();
+            } catch (IOException e) {
+                throw new AsmFrontendException("Failed to list " + dir, e);
+            }
+        }
+
+        @Override
+        public boolean isApplication() {
+            return false;
+        }
+    }
+}
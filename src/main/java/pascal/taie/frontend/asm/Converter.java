@@ -0,0 +1,198 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Opcodes;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.DoubleLiteral;
+import pascal.taie.ir.exp.FloatLiteral;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.LongLiteral;
+import pascal.taie.ir.exp.MethodHandle;
+import pascal.taie.ir.exp.MethodType;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MemberRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Lists;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static pascal.taie.language.type.VoidType.VOID;
+
+/**
+ * Converts the types, member references and constants in class files
+ * to Tai-e's representation.
+ */
+class Converter {
+
+    private final AsmClassLoader loader;
+
+    private final TypeSystem typeSystem;
+
+    Converter(AsmClassLoader loader, TypeSystem typeSystem) {
+        this.loader = loader;
+        this.typeSystem = typeSystem;
+    }
+
+    TypeSystem getTypeSystem() {
+        return typeSystem;
+    }
+
+    Type convertType(org.objectweb.asm.Type type) {
+        return switch (type.getSort()) {
+            case org.objectweb.asm.Type.VOID -> VOID;
+            case org.objectweb.asm.Type.BOOLEAN -> PrimitiveType.BOOLEAN;
+            case org.objectweb.asm.Type.CHAR -> PrimitiveType.CHAR;
+            case org.objectweb.asm.Type.BYTE -> PrimitiveType.BYTE;
+            case org.objectweb.asm.Type.SHORT -> PrimitiveType.SHORT;
+            case org.objectweb.asm.Type.INT -> PrimitiveType.INT;
+            case org.objectweb.asm.Type.FLOAT -> PrimitiveType.FLOAT;
+            case org.objectweb.asm.Type.LONG -> PrimitiveType.LONG;
+            case org.objectweb.asm.Type.DOUBLE -> PrimitiveType.DOUBLE;
+            case org.objectweb.asm.Type.ARRAY -> typeSystem.getArrayType(
+                    convertType(type.getElementType()), type.getDimensions());
+            case org.objectweb.asm.Type.OBJECT -> typeSystem.getClassType(
+                    loader, toClassName(type.getInternalName()));
+            default -> throw new AsmFrontendException(
+                    "Cannot convert ASM Type: " + type);
+        };
+    }
+
+    /**
+     * Converts a field descriptor, e.g., {@code [Ljava/lang/String;}.
+     */
+    Type convertType(String descriptor) {
+        return convertType(org.objectweb.asm.Type.getType(descriptor));
+    }
+
+    /**
+     * Converts the operand of type instructions (e.g., NEW and CHECKCAST),
+     * which is either an internal class name or an array descriptor.
+     */
+    Type convertInternalName(String internalName) {
+        return convertType(org.objectweb.asm.Type.getObjectType(internalName));
+    }
+
+    List<Type> convertParamTypes(String methodDescriptor) {
+        return Lists.map(Arrays.asList(
+                        org.objectweb.asm.Type.getArgumentTypes(methodDescriptor)),
+                this::convertType);
+    }
+
+    Type convertReturnType(String methodDescriptor) {
+        return convertType(
+                org.objectweb.asm.Type.getReturnType(methodDescriptor));
+    }
+
+    /**
+     * Converts the owner of a member reference. The methods invoked on
+     * arrays (e.g., {@code clone()}) are declared in {@link Object}.
+     *
+     * @throws AsmFrontendException if the class cannot be found
+     */
+    JClass convertClass(String internalName) {
+        String className = internalName.startsWith("[") ?
+                ClassNames.OBJECT : toClassName(internalName);
+        JClass jclass = loader.loadClassOrPhantom(className);
+        if (jclass == null) {
+            throw new AsmFrontendException("Cannot find class " + className);
+        }
+        return jclass;
+    }
+
+    FieldRef convertFieldRef(String owner, String name,
+                             String descriptor, boolean isStatic) {
+        return FieldRef.get(convertClass(owner), name,
+                convertType(descriptor), isStatic);
+    }
+
+    MethodRef convertMethodRef(String owner, String name,
+                               String descriptor, boolean isStatic) {
+        return MethodRef.get(convertClass(owner), name,
+                convertParamTypes(descriptor), convertReturnType(descriptor),
+                isStatic);
+    }
+
+    MethodRef convertMethodRef(Handle handle) {
+        return convertMethodRef(handle.getOwner(), handle.getName(),
+                handle.getDesc(), handle.getTag() == Opcodes.H_INVOKESTATIC);
+    }
+
+    MethodHandle convertMethodHandle(Handle handle) {
+        int tag = handle.getTag();
+        MemberRef memberRef = tag <= Opcodes.H_PUTSTATIC ?
+                convertFieldRef(handle.getOwner(), handle.getName(),
+                        handle.getDesc(), tag == Opcodes.H_GETSTATIC ||
+                                tag == Opcodes.H_PUTSTATIC) :
+                convertMethodRef(handle);
+        return MethodHandle.get(MethodHandle.Kind.get(tag), memberRef);
+    }
+
+    /**
+     * Converts the constants loaded by LDC instructions
+     * and the bootstrap method arguments of invokedynamic.
+     */
+    Literal convertConstant(Object value) {
+        if (value instanceof Integer i) {
+            return IntLiteral.get(i);
+        } else if (value instanceof Long l) {
+            return LongLiteral.get(l);
+        } else if (value instanceof Float f) {
+            return FloatLiteral.get(f);
+        } else if (value instanceof Double d) {
+            return DoubleLiteral.get(d);
+        } else if (value instanceof String s) {
+            return StringLiteral.get(s);
+        } else if (value instanceof org.objectweb.asm.Type t) {
+            return t.getSort() == org.objectweb.asm.Type.METHOD ?
+                    MethodType.get(convertParamTypes(t.getDescriptor()),
+                            convertReturnType(t.getDescriptor())) :
+                    ClassLiteral.get(convertType(t));
+        } else if (value instanceof Handle h) {
+            return convertMethodHandle(h);
+        } else if (value instanceof ConstantDynamic) {
+            throw new AsmFrontendException(
+                    "Dynamically-computed constant is not supported yet: " + value);
+        } else {
+            throw new AsmFrontendException("Cannot convert constant: " + value);
+        }
+    }
+
+    /**
+     * Converts internal name (e.g., {@code java/lang/String})
+     * to class name (e.g., {@code java.lang.String}).
+     */
+    static String toClassName(String internalName) {
+        return internalName.replace('/', '.');
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ConstantDynamic;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import pascal.taie.util.collection.Maps;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Code of a method in class file. This class records the instructions,
+ * exception table, line numbers and local variable table of the method,
+ * and resolves the labels in them to the positions of instructions.
+ * The recorded code is then converted to Tai-e IR by {@link MethodIRBuilder}.
+ */
+class MethodCode extends MethodVisitor {
+
+    // ---------- instructions ----------
+
+    sealed interface Insn {
+
+        int opcode();
+    }
+
+    /**
+     * Instruction without operand, e.g., IADD and ARETURN.
+     */
+    record SimpleInsn(int opcode) implements Insn {
+    }
+
+    /**
+     * BIPUSH, SIPUSH and NEWARRAY.
+     */
+    record IntInsn(int opcode, int operand) implements Insn {
+    }
+
+    /**
+     * Load/store of local variables.
+     */
+    record VarInsn(int opcode, int slot) implements Insn {
+    }
+
+    /**
+     * NEW, ANEWARRAY, CHECKCAST and INSTANCEOF.
+     */
+    record TypeInsn(int opcode, String type) implements Insn {
+    }
+
+    record FieldInsn(int opcode, String owner, String name, String descriptor)
+            implements Insn {
+    }
+
+    record MethodInsn(int opcode, String owner, String name, String descriptor)
+            implements Insn {
+    }
+
+    record InvokeDynamicInsn(String name, String descriptor,
+                             Handle bootstrapMethod, Object[] bootstrapArgs)
+            implements Insn {
+
+        @Override
+        public int opcode() {
+            return Opcodes.INVOKEDYNAMIC;
+        }
+    }
+
+    record JumpInsn(int opcode, int target) implements Insn {
+    }
+
+    record LdcInsn(Object value) implements Insn {
+
+        @Override
+        public int opcode() {
+            return Opcodes.LDC;
+        }
+    }
+
+    record IincInsn(int slot, int increment) implements Insn {
+
+        @Override
+        public int opcode() {
+            return Opcodes.IINC;
+        }
+    }
+
+    record TableSwitchInsn(int min, int max, int defaultTarget, int[] targets)
+            implements Insn {
+
+        @Override
+        public int opcode() {
+            return Opcodes.TABLESWITCH;
+        }
+    }
+
+    record LookupSwitchInsn(int defaultTarget, int[] keys, int[] targets)
+            implements Insn {
+
+        @Override
+        public int opcode() {
+            return Opcodes.LOOKUPSWITCH;
+        }
+    }
+
+    record MultiANewArrayInsn(String descriptor, int dimensions) implements Insn {
+
+        @Override
+        public int opcode() {
+            return Opcodes.MULTIANEWARRAY;
+        }
+    }
+
+    // ---------- other information of code ----------
+
+    /**
+     * Entry of exception table. The range [start, end) and handler
+     * are positions of instructions.
+     *
+     * @param type internal name of the caught exception type,
+     *             or {@code null} if the handler catches any exception.
+     */
+    record TryCatch(int start, int end, int handler, @Nullable String type) {
+    }
+
+    /**
+     * Entry of local variable table. The range [start, end) are positions
+     * of instructions.
+     */
+    record LocalVariable(String name, String descriptor,
+                         int start, int end, int slot) {
+    }
+
+    /**
+     * Instructions in the code. Since the labels are resolved
+     * after visiting the code, the instructions with label operands
+     * are created in {@link #visitEnd()}.
+     */
+    private final List<Object> rawInsns = new ArrayList<>();
+
+    private final Map<Label, Integer> labelPositions = Maps.newMap();
+
+    private final List<Label> lineLabels = new ArrayList<>();
+
+    private final List<Integer> lineNumbers = new ArrayList<>();
+
+    private final List<Object[]> rawTryCatches = new ArrayList<>();
+
+    private final List<Object[]> rawLocalVariables = new ArrayList<>();
+
+    private List<Insn> insns;
+
+    private int[] lines;
+
+    private List<TryCatch> tryCatches;
+
+    private List<LocalVariable> localVariables;
+
+    private MethodCode() {
+        super(Opcodes.ASM9);
+    }
+
+    /**
+     * Reads the code of the method in given source.
+     *
+     * @return the code of the method, or {@code null} if the method
+     * has no code (i.e., it is abstract or native).
+     */
+    @Nullable
+    static MethodCode read(MethodSource source) {
+        MethodCode code = source.classCode().take(source.name(), source.descriptor());
+        return code == null || code.insns.isEmpty() ? null : code;
+    }
+
+    /**
+     * Reads the code of all methods in given class file in a single pass.
+     *
+     * @return map from name + descriptor of the methods to their code.
+     */
+    static Map<String, MethodCode> readAll(byte[] classFile) {
+        Map<String, MethodCode> codes = Maps.newMap();
+        new ClassReader(classFile).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name,
+                                             String descriptor, String signature,
+                                             String[] exceptions) {
+                if ((access & (Opcodes.ACC_ABSTRACT | Opcodes.ACC_NATIVE)) != 0
+                        || codes.containsKey(name + descriptor)) {
+                    return null;
+                }
+                MethodCode code = new MethodCode();
+                codes.put(name + descriptor, code);
+                return code;
+            }
+        }, ClassReader.SKIP_FRAMES);
+        return codes;
+    }
+
+    List<Insn> getInsns() {
+        return insns;
+    }
+
+    /**
+     * @return the line number of the instruction at given position,
+     * or -1 if the line number is absent.
+     */
+    int getLine(int pos) {
+        return lines[pos];
+    }
+
+    List<TryCatch> getTryCatches() {
+        return tryCatches;
+    }
+
+    List<LocalVariable> getLocalVariables() {
+        return localVariables;
+    }
+
+    // ---------- visiting code ----------
+
+    @Override
+    public void visitInsn(int opcode) {
+        rawInsns.add(new SimpleInsn(opcode));
+    }
+
+    @Override
+    public void visitIntInsn(int opcode, int operand) {
+        rawInsns.add(new IntInsn(opcode, operand));
+    }
+
+    @Override
+    public void visitVarInsn(int opcode, int varIndex) {
+        rawInsns.add(new VarInsn(opcode, varIndex));
+    }
+
+    @Override
+    public void visitTypeInsn(int opcode, String type) {
+        rawInsns.add(new TypeInsn(opcode, type));
+    }
+
+    @Override
+    public void visitFieldInsn(int opcode, String owner, String name,
+                               String descriptor) {
+        rawInsns.add(new FieldInsn(opcode, owner, name, descriptor));
+    }
+
+    @Override
+    public void visitMethodInsn(int opcode, String owner, String name,
+                                String descriptor, boolean isInterface) {
+        rawInsns.add(new MethodInsn(opcode, owner, name, descriptor));
+    }
+
+    @Override
+    public void visitInvokeDynamicInsn(String name, String descriptor,
+                                       Handle bootstrapMethodHandle,
+                                       Object... bootstrapMethodArguments) {
+        rawInsns.add(new InvokeDynamicInsn(name, descriptor,
+                bootstrapMethodHandle, bootstrapMethodArguments));
+    }
+
+    @Override
+    public void visitJumpInsn(int opcode, Label label) {
+        rawInsns.add(new Object[]{ opcode, label });
+    }
+
+    @Override
+    public void visitLabel(Label label) {
+        labelPositions.put(label, rawInsns.size());
+    }
+
+    @Override
+    public void visitLdcInsn(Object value) {
+        if (value instanceof ConstantDynamic) {
+            throw new AsmFrontendException(
+                    "Dynamically-computed constant is not supported yet: " + value);
+        }
+        rawInsns.add(new LdcInsn(value));
+    }
+
+    @Override
+    public void visitIincInsn(int varIndex, int increment) {
+        rawInsns.add(new IincInsn(varIndex, increment));
+    }
+
+    @Override
+    public void visitTableSwitchInsn(int min, int max, Label dflt,
+                                     Label... labels) {
+        rawInsns.add(new Object[]{ Opcodes.TABLESWITCH, dflt, labels, min, max });
+    }
+
+    @Override
+    public void visitLookupSwitchInsn(Label dflt, int[] keys, Label[] labels) {
+        rawInsns.add(new Object[]{ Opcodes.LOOKUPSWITCH, dflt, labels, keys });
+    }
+
+    @Override
+    public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+        rawInsns.add(new MultiANewArrayInsn(descriptor, numDimensions));
+    }
+
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler,
+                                   String type) {
+        rawTryCatches.add(new Object[]{ start, end, handler, type });
+    }
+
+    @Override
+    public void visitLocalVariable(String name, String descriptor,
+                                   String signature, Label start, Label end,
+                                   int index) {
+        rawLocalVariables.add(new Object[]{ name, descriptor, start, end, index });
+    }
+
+    @Override
+    public void visitLineNumber(int line, Label start) {
+        lineLabels.add(start);
+        lineNumbers.add(line);
+    }
+
+    @Override
+    public void visitEnd() {
+        // resolve labels
+        insns = new ArrayList<>(rawInsns.size());
+        for (Object raw : rawInsns) {
+            if (raw instanceof Insn insn) {
+                insns.add(insn);
+            } else {
+                Object[] a = (Object[]) raw;
+                int opcode = (Integer) a[0];
+                if (opcode == Opcodes.TABLESWITCH) {
+                    insns.add(new TableSwitchInsn((Integer) a[3], (Integer) a[4],
+                            pos((Label) a[1]), positions((Label[]) a[2])));
+                } else if (opcode == Opcodes.LOOKUPSWITCH) {
+                    insns.add(new LookupSwitchInsn(pos((Label) a[1]),
+                            (int[]) a[3], positions((Label[]) a[2])));
+                } else {
+                    insns.add(new JumpInsn(opcode, pos((Label) a[1])));
+                }
+            }
+        }
+        // resolve line numbers
+        lines = new int[insns.size()];
+        Arrays.fill(lines, -1);
+        for (int i = 0; i < lineLabels.size(); ++i) {
+            int start = pos(lineLabels.get(i));
+            if (start < lines.length) {
+                lines[start] = lineNumbers.get(i);
+            }
+        }
+        for (int i = 1; i < lines.length; ++i) {
+            if (lines[i] == -1) {
+                lines[i] = lines[i - 1];
+            }
+        }
+        // resolve exception table and local variable table
+        tryCatches = new ArrayList<>(rawTryCatches.size());
+        for (Object[] a : rawTryCatches) {
+            int start = pos((Label) a[0]);
+            int end = pos((Label) a[1]);
+            if (start < end) {
+                tryCatches.add(new TryCatch(start, end,
+                        pos((Label) a[2]), (String) a[3]));
+            }
+        }
+        localVariables = new ArrayList<>(rawLocalVariables.size());
+        for (Object[] a : rawLocalVariables) {
+            localVariables.add(new LocalVariable((String) a[0], (String) a[1],
+                    pos((Label) a[2]), pos((Label) a[3]), (Integer) a[4]));
+        }
+    }
+
+    private int pos(Label label) {
+        Integer pos = labelPositions.get(label);
+        if (pos == null) {
+            throw new AsmFrontendException("Unresolved label: " + label);
+        }
+        return pos;
+    }
+
+    private int[] positions(Label[] labels) {
+        int[] positions = new int[labels.length];
+        for (int i = 0; i < labels.length; ++i) {
+            positions[i] = pos(labels[i]);
+        }
+        return positions;
+    }
+}
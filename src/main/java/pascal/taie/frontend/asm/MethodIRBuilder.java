@@ -0,0 +1,1778 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.Opcodes;
+import pascal.taie.frontend.asm.MethodCode.FieldInsn;
+import pascal.taie.frontend.asm.MethodCode.IincInsn;
+import pascal.taie.frontend.asm.MethodCode.Insn;
+import pascal.taie.frontend.asm.MethodCode.IntInsn;
+import pascal.taie.frontend.asm.MethodCode.InvokeDynamicInsn;
+import pascal.taie.frontend.asm.MethodCode.JumpInsn;
+import pascal.taie.frontend.asm.MethodCode.LdcInsn;
+import pascal.taie.frontend.asm.MethodCode.LocalVariable;
+import pascal.taie.frontend.asm.MethodCode.LookupSwitchInsn;
+import pascal.taie.frontend.asm.MethodCode.MethodInsn;
+import pascal.taie.frontend.asm.MethodCode.MultiANewArrayInsn;
+import pascal.taie.frontend.asm.MethodCode.TableSwitchInsn;
+import pascal.taie.frontend.asm.MethodCode.TryCatch;
+import pascal.taie.frontend.asm.MethodCode.TypeInsn;
+import pascal.taie.frontend.asm.MethodCode.VarInsn;
+import pascal.taie.ir.DefaultIR;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.ArithmeticExp;
+import pascal.taie.ir.exp.ArrayAccess;
+import pascal.taie.ir.exp.ArrayLengthExp;
+import pascal.taie.ir.exp.BinaryExp;
+import pascal.taie.ir.exp.BitwiseExp;
+import pascal.taie.ir.exp.CastExp;
+import pascal.taie.ir.exp.ClassLiteral;
+import pascal.taie.ir.exp.ComparisonExp;
+import pascal.taie.ir.exp.ConditionExp;
+import pascal.taie.ir.exp.DoubleLiteral;
+import pascal.taie.ir.exp.FloatLiteral;
+import pascal.taie.ir.exp.InstanceFieldAccess;
+import pascal.taie.ir.exp.InstanceOfExp;
+import pascal.taie.ir.exp.IntLiteral;
+import pascal.taie.ir.exp.InvokeDynamic;
+import pascal.taie.ir.exp.InvokeExp;
+import pascal.taie.ir.exp.InvokeInterface;
+import pascal.taie.ir.exp.InvokeSpecial;
+import pascal.taie.ir.exp.InvokeStatic;
+import pascal.taie.ir.exp.InvokeVirtual;
+import pascal.taie.ir.exp.Literal;
+import pascal.taie.ir.exp.LongLiteral;
+import pascal.taie.ir.exp.MethodType;
+import pascal.taie.ir.exp.NegExp;
+import pascal.taie.ir.exp.NewArray;
+import pascal.taie.ir.exp.NewInstance;
+import pascal.taie.ir.exp.NewMultiArray;
+import pascal.taie.ir.exp.NullLiteral;
+import pascal.taie.ir.exp.ShiftExp;
+import pascal.taie.ir.exp.StaticFieldAccess;
+import pascal.taie.ir.exp.StringLiteral;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.proginfo.ExceptionEntry;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Binary;
+import pascal.taie.ir.stmt.Cast;
+import pascal.taie.ir.stmt.Catch;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Goto;
+import pascal.taie.ir.stmt.If;
+import pascal.taie.ir.stmt.InstanceOf;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.LoadArray;
+import pascal.taie.ir.stmt.LoadField;
+import pascal.taie.ir.stmt.LookupSwitch;
+import pascal.taie.ir.stmt.Monitor;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.ir.stmt.Nop;
+import pascal.taie.ir.stmt.Return;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.ir.stmt.StoreArray;
+import pascal.taie.ir.stmt.StoreField;
+import pascal.taie.ir.stmt.SwitchStmt;
+import pascal.taie.ir.stmt.TableSwitch;
+import pascal.taie.ir.stmt.Throw;
+import pascal.taie.ir.stmt.Unary;
+import pascal.taie.language.classes.ClassNames;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.NullType;
+import pascal.taie.language.type.PrimitiveType;
+import pascal.taie.language.type.ReferenceType;
+import pascal.taie.language.type.Type;
+import pascal.taie.language.type.TypeSystem;
+import pascal.taie.util.collection.Lists;
+import pascal.taie.util.collection.Maps;
+import pascal.taie.util.collection.Sets;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+import static pascal.taie.language.type.VoidType.VOID;
+
+/**
+ * Converts bytecode of a method to Tai-e IR.
+ * <p>
+ * The conversion consists of following steps:
+ * <ol>
+ *     <li>Splits the instructions into basic blocks, and translates each
+ *     reachable block by simulating the operand stack, so that the values
+ *     on the stack are converted to variables. A temporary variable which
+ *     is immediately stored to a local variable is coalesced with
+ *     the local variable, e.g., {@code iload 1; iload 2; iadd; istore 3}
+ *     is converted to {@code i3 = i1 + i2}. The values on the stack
+ *     at the boundaries of blocks are passed by the stack variables of
+ *     the successor blocks.</li>
+ *     <li>Splits the local variable slots into variables by webs of
+ *     definitions and uses, so that a slot reused by different variables
+ *     in the source code is converted to different variables.</li>
+ *     <li>Infers the types of variables. Local variable table is used
+ *     to obtain the names and types of variables if it is present.</li>
+ *     <li>Builds the statements, variables and exception entries.</li>
+ * </ol>
+ * The statements are created after the variables are determined, thus
+ * the translation of the instructions produces {@link ProtoStmt}s, which
+ * can build the statements when the variables are available.
+ */
+class MethodIRBuilder {
+
+    private static final String THIS = "%this";
+
+    private static final String STRING_CONSTANT = "%stringconst";
+
+    private static final String CLASS_CONSTANT = "%classconst";
+
+    private static final String NULL_CONSTANT = "%nullconst";
+
+    /**
+     * Maximum number of rounds of type inference.
+     */
+    private static final int MAX_TYPE_INFERENCE_ROUNDS = 10;
+
+    private final JMethod method;
+
+    private final Converter converter;
+
+    private final TypeSystem typeSystem;
+
+    private final ClassType objectType;
+
+    private List<Insn> insns;
+
+    private MethodCode code;
+
+    MethodIRBuilder(JMethod method, Converter converter) {
+        this.method = method;
+        this.converter = converter;
+        this.typeSystem = converter.getTypeSystem();
+        this.objectType = typeSystem.getClassType(ClassNames.OBJECT);
+    }
+
+    /**
+     * @return the IR of the method, or {@code null} if the method
+     * has no code.
+     */
+    @Nullable
+    IR build() {
+        code = MethodCode.read((MethodSource) method.getMethodSource());
+        if (code == null) {
+            return null;
+        }
+        insns = code.getInsns();
+        buildBlocks();
+        translateBlocks();
+        splitLocals();
+        inferTypes();
+        return buildIR();
+    }
+
+    // ---------- proto representation ----------
+
+    /**
+     * Sorts of values in JVM. The values of boolean, byte, char and short
+     * are represented by int.
+     */
+    private enum Sort {
+
+        INT("i", PrimitiveType.INT),
+        LONG("l", PrimitiveType.LONG),
+        FLOAT("f", PrimitiveType.FLOAT),
+        DOUBLE("d", PrimitiveType.DOUBLE),
+        REF("r", null),
+        ;
+
+        private final String prefix;
+
+        @Nullable
+        private final PrimitiveType type;
+
+        Sort(String prefix, @Nullable PrimitiveType type) {
+            this.prefix = prefix;
+            this.type = type;
+        }
+
+        private int size() {
+            return this == LONG || this == DOUBLE ? 2 : 1;
+        }
+    }
+
+    private static Sort sortOf(Type type) {
+        if (type instanceof PrimitiveType t) {
+            return switch (t) {
+                case LONG -> Sort.LONG;
+                case FLOAT -> Sort.FLOAT;
+                case DOUBLE -> Sort.DOUBLE;
+                default -> Sort.INT;
+            };
+        }
+        return Sort.REF;
+    }
+
+    private static Sort sortOf(Literal literal) {
+        return sortOf(literal.getType());
+    }
+
+    /**
+     * Values on operand stack.
+     */
+    private sealed interface Operand permits PVar, Const {
+
+        Sort sort();
+    }
+
+    private record Const(Literal literal) implements Operand {
+
+        @Override
+        public Sort sort() {
+            return sortOf(literal);
+        }
+    }
+
+    private enum Kind {
+        THIS, PARAM, LOCAL, STACK
+    }
+
+    /**
+     * Type of array element, used as the type source of the values
+     * loaded from arrays.
+     *
+     * @param fallback the type used if the type of the array is unknown.
+     */
+    private record ElementOf(PVar array, Type fallback) {
+    }
+
+    /**
+     * Proto variable. Each occurrence (i.e., load or store) of local
+     * variable slots is represented by a proto variable, and then
+     * the proto variables in the same web are merged
+     * (by union-find) and converted to the same {@link Var}.
+     */
+    private static final class PVar implements Operand {
+
+        private final Kind kind;
+
+        private final Sort sort;
+
+        /**
+         * Slot of this variable, or -1 for stack variables.
+         */
+        private final int slot;
+
+        /**
+         * Position of the instruction where this variable occurs.
+         */
+        private final int pos;
+
+        private final boolean isDef;
+
+        private PVar parent = this;
+
+        /**
+         * Index in all definitions of local variable slots, or -1 if
+         * this variable is not such a definition.
+         */
+        private int defId = -1;
+
+        /**
+         * The statement which defines this (stack) variable.
+         */
+        private ProtoStmt def;
+
+        /**
+         * The sources of the values of this variable, which are used to
+         * infer its type. Each source is {@link Type}, {@link PVar} or
+         * {@link ElementOf}.
+         */
+        private final List<Object> sources = new ArrayList<>(1);
+
+        private boolean used;
+
+        // the following fields are only valid for the roots of union-find
+
+        private List<PVar> members;
+
+        private Type type;
+
+        private boolean fixedType;
+
+        private String name;
+
+        private Var var;
+
+        private PVar(Kind kind, Sort sort, int slot, int pos, boolean isDef) {
+            this.kind = kind;
+            this.sort = sort;
+            this.slot = slot;
+            this.pos = pos;
+            this.isDef = isDef;
+        }
+
+        @Override
+        public Sort sort() {
+            return sort;
+        }
+
+        private PVar find() {
+            PVar root = this;
+            while (root.parent != root) {
+                root = root.parent;
+            }
+            PVar v = this;
+            while (v.parent != root) {
+                PVar next = v.parent;
+                v.parent = root;
+                v = next;
+            }
+            return root;
+        }
+    }
+
+    private static void union(PVar v1, PVar v2) {
+        PVar r1 = v1.find(), r2 = v2.find();
+        if (r1 != r2) {
+            // this variable and parameters are always roots
+            if (r2.kind == Kind.THIS || r2.kind == Kind.PARAM) {
+                r1.parent = r2;
+            } else {
+                r2.parent = r1;
+            }
+        }
+    }
+
+    /**
+     * Statement whose variables have not been determined.
+     */
+    private static final class ProtoStmt {
+
+        /**
+         * The variable defined by this statement. This field may be changed
+         * when a temporary variable is coalesced with a local variable.
+         */
+        @Nullable
+        private PVar def;
+
+        private final Function<Var, Stmt> builder;
+
+        private final int line;
+
+        /**
+         * Positions of jump targets, for jump statements.
+         */
+        private int[] targets;
+
+        private int defaultTarget;
+
+        /**
+         * Whether this statement is an invocation whose result
+         * may be discarded.
+         */
+        private boolean isInvoke;
+
+        private Stmt stmt;
+
+        private ProtoStmt(@Nullable PVar def, Function<Var, Stmt> builder,
+                          int line) {
+            this.def = def;
+            this.builder = builder;
+            this.line = line;
+        }
+    }
+
+    private record LocalOp(PVar var, boolean isDef) {
+    }
+
+    private static final class Block {
+
+        private final int start;
+
+        private int end;
+
+        /**
+         * Stack variables which hold the values on the operand stack
+         * at the entry of this block, or {@code null} if this block
+         * has not been reached.
+         */
+        private List<PVar> entryStack;
+
+        /**
+         * Exception variable of exception handler.
+         */
+        private PVar catchVar;
+
+        private final List<ProtoStmt> stmts = new ArrayList<>();
+
+        private final List<LocalOp> localOps = new ArrayList<>();
+
+        private final Set<Block> succs = Sets.newLinkedSet();
+
+        private final Set<Block> handlers = Sets.newLinkedSet();
+
+        /**
+         * Definitions of local variables which reach the entry of this block.
+         */
+        private final BitSet in = new BitSet();
+
+        /**
+         * Index of the first statement built for this block.
+         */
+        private int firstIndex;
+
+        private Block(int start) {
+            this.start = start;
+        }
+
+        private boolean isHandler() {
+            return catchVar != null;
+        }
+    }
+
+    // ---------- building blocks ----------
+
+    private List<Block> blocks;
+
+    /**
+     * Blocks indexed by their start positions.
+     */
+    private Block[] blockAt;
+
+    private void buildBlocks() {
+        int n = insns.size();
+        BitSet leaders = new BitSet(n + 1);
+        leaders.set(0);
+        for (int i = 0; i < n; ++i) {
+            Insn insn = insns.get(i);
+            if (insn instanceof JumpInsn jump) {
+                leaders.set(jump.target());
+                leaders.set(i + 1);
+            } else if (insn instanceof TableSwitchInsn s) {
+                leaders.set(s.defaultTarget());
+                for (int t : s.targets()) {
+                    leaders.set(t);
+                }
+                leaders.set(i + 1);
+            } else if (insn instanceof LookupSwitchInsn s) {
+                leaders.set(s.defaultTarget());
+                for (int t : s.targets()) {
+                    leaders.set(t);
+                }
+                leaders.set(i + 1);
+            } else if (isTerminator(insn.opcode())) {
+                leaders.set(i + 1);
+            }
+        }
+        for (TryCatch tc : code.getTryCatches()) {
+            leaders.set(tc.start());
+            leaders.set(tc.end());
+            leaders.set(tc.handler());
+        }
+        blocks = new ArrayList<>();
+        blockAt = new Block[n + 1];
+        for (int i = leaders.nextSetBit(0); i >= 0 && i < n;
+             i = leaders.nextSetBit(i + 1)) {
+            Block block = new Block(i);
+            if (!blocks.isEmpty()) {
+                blocks.get(blocks.size() - 1).end = i;
+            }
+            blocks.add(block);
+            blockAt[i] = block;
+        }
+        blocks.get(blocks.size() - 1).end = n;
+        // exception handlers
+        Map<Block, List<Type>> catchTypes = Maps.newLinkedHashMap();
+        for (TryCatch tc : code.getTryCatches()) {
+            Block handler = blockAt[tc.handler()];
+            catchTypes.computeIfAbsent(handler, h -> new ArrayList<>())
+                    .add(getCatchType(tc));
+            for (Block block : blocks) {
+                if (tc.start() <= block.start && block.start < tc.end()) {
+                    block.handlers.add(handler);
+                }
+            }
+        }
+        if (catchTypes.containsKey(blocks.get(0))) {
+            throw new AsmFrontendException(
+                    "Exception handler at the entry of " + method);
+        }
+        catchTypes.forEach((handler, types) -> {
+            PVar catchVar = newStackVar(Sort.REF);
+            catchVar.sources.addAll(types);
+            handler.catchVar = catchVar;
+            handler.entryStack = List.of(catchVar);
+        });
+    }
+
+    private ClassType getCatchType(TryCatch tc) {
+        return tc.type() == null ?
+                typeSystem.getClassType(ClassNames.THROWABLE) :
+                (ClassType) converter.convertInternalName(tc.type());
+    }
+
+    private static boolean isTerminator(int opcode) {
+        return switch (opcode) {
+            case Opcodes.GOTO, Opcodes.ATHROW, Opcodes.RETURN,
+                    Opcodes.IRETURN, Opcodes.LRETURN, Opcodes.FRETURN,
+                    Opcodes.DRETURN, Opcodes.ARETURN,
+                    Opcodes.TABLESWITCH, Opcodes.LOOKUPSWITCH -> true;
+            default -> false;
+        };
+    }
+
+    // ---------- translating blocks ----------
+
+    /**
+     * All proto variables in creation order.
+     */
+    private final List<PVar> pvars = new ArrayList<>();
+
+    /**
+     * All definitions of local variable slots.
+     */
+    private final List<PVar> localDefs = new ArrayList<>();
+
+    private PVar thisVar;
+
+    private final List<PVar> params = new ArrayList<>();
+
+    private int maxSlot;
+
+    /**
+     * The block being translated.
+     */
+    private Block current;
+
+    /**
+     * Position of the instruction being translated.
+     */
+    private int pos;
+
+    private List<Operand> stack;
+
+    /**
+     * Blocks to be translated. Each reachable block is added to
+     * the work list when it is reached for the first time.
+     */
+    private Deque<Block> workList;
+
+    private void translateBlocks() {
+        Block entry = blocks.get(0);
+        // this variable and parameters are the definitions of
+        // local variable slots at method entry
+        int slot = 0;
+        if (!method.isStatic()) {
+            thisVar = newLocalDef(Kind.THIS, Sort.REF, slot++, -1);
+            thisVar.fixedType = true;
+            thisVar.type = method.getDeclaringClass().getType();
+            entry.in.set(thisVar.defId);
+        }
+        for (Type paramType : method.getParamTypes()) {
+            PVar param = newLocalDef(Kind.PARAM, sortOf(paramType), slot, -1);
+            param.fixedType = true;
+            param.type = paramType;
+            params.add(param);
+            entry.in.set(param.defId);
+            slot += param.sort.size();
+        }
+        maxSlot = slot;
+        workList = new ArrayDeque<>();
+        entry.entryStack = List.of();
+        workList.add(entry);
+        blocks.stream()
+                .filter(Block::isHandler)
+                .forEach(workList::add);
+        while (!workList.isEmpty()) {
+            translateBlock(workList.poll());
+        }
+    }
+
+    private void translateBlock(Block block) {
+        current = block;
+        stack = new ArrayList<>(block.entryStack);
+        if (block.isHandler()) {
+            pos = block.start;
+            PVar catchVar = block.catchVar;
+            catchVar.def = emit(catchVar, Catch::new);
+        }
+        for (pos = block.start; pos < block.end; ++pos) {
+            translateInsn(insns.get(pos));
+        }
+        Insn last = insns.get(block.end - 1);
+        if (!isTerminator(last.opcode()) && !(last instanceof JumpInsn)) {
+            // falls through to the next block
+            if (block.end >= insns.size()) {
+                throw new AsmFrontendException(
+                        "Control flow falls off the code of " + method);
+            }
+            pos = block.end - 1;
+            prepareExit(List.of(blockAt[block.end]), List.of());
+        }
+    }
+
+    /**
+     * Passes the values on the stack to the successors of current block.
+     *
+     * @param succs    the successors of current block
+     * @param operands the operands of the jump statement at the end of
+     *                 current block
+     * @return the operands of the jump statement, which may be replaced by
+     * temporary variables if they are overwritten by the passing.
+     */
+    private List<Operand> prepareExit(List<Block> succs, List<Operand> operands) {
+        for (Block succ : succs) {
+            if (succ.isHandler()) {
+                throw new AsmFrontendException(
+                        "Normal control flow reaches exception handler in " + method);
+            }
+            if (succ.entryStack == null) {
+                succ.entryStack = Lists.map(stack, v -> newStackVar(v.sort()));
+                workList.add(succ);
+            } else if (succ.entryStack.size() != stack.size()) {
+                throw new AsmFrontendException(
+                        "Inconsistent stack heights in " + method);
+            }
+            current.succs.add(succ);
+        }
+        if (stack.isEmpty()) {
+            return operands;
+        }
+        // the stack variables of successors will be overwritten, thus
+        // the values held by them must be saved to temporary variables
+        Set<PVar> overwritten = Sets.newHybridSet();
+        for (Block succ : succs) {
+            for (int i = 0; i < stack.size(); ++i) {
+                if (stack.get(i) != succ.entryStack.get(i)) {
+                    overwritten.add(succ.entryStack.get(i));
+                }
+            }
+        }
+        Map<PVar, PVar> spilled = Maps.newHybridMap();
+        Function<Operand, Operand> spill = v ->
+                v instanceof PVar p && overwritten.contains(p) ?
+                        spilled.computeIfAbsent(p, this::copyToTemp) : v;
+        stack.replaceAll(spill::apply);
+        List<Operand> result = Lists.map(operands, spill);
+        for (Block succ : succs) {
+            for (int i = 0; i < stack.size(); ++i) {
+                assign(succ.entryStack.get(i), stack.get(i));
+            }
+        }
+        return result;
+    }
+
+    private PVar copyToTemp(PVar v) {
+        PVar temp = newStackVar(v.sort);
+        assign(temp, v);
+        return temp;
+    }
+
+    private void assign(PVar target, Operand value) {
+        if (target == value) {
+            return;
+        }
+        if (value instanceof Const c) {
+            target.sources.add(c.literal().getType());
+            target.def = emit(target, lhs -> new AssignLiteral(lhs, c.literal()));
+        } else {
+            PVar v = use(value);
+            target.sources.add(v);
+            target.def = emit(target, lhs -> new Copy(lhs, toVar(v)));
+        }
+    }
+
+    private ProtoStmt emit(@Nullable PVar def, Function<Var, Stmt> builder) {
+        ProtoStmt stmt = new ProtoStmt(def, builder, code.getLine(pos));
+        current.stmts.add(stmt);
+        return stmt;
+    }
+
+    private ProtoStmt emitJump(Function<Var, Stmt> builder, int... targets) {
+        ProtoStmt stmt = emit(null, builder);
+        stmt.targets = targets;
+        return stmt;
+    }
+
+    // ---------- proto variables ----------
+
+    private PVar newStackVar(Sort sort) {
+        PVar v = new PVar(Kind.STACK, sort, -1, pos, true);
+        pvars.add(v);
+        return v;
+    }
+
+    /**
+     * Creates a temporary variable for the result of an instruction.
+     */
+    private PVar newTemp(Sort sort, Object source) {
+        PVar v = newStackVar(sort);
+        v.sources.add(source);
+        return v;
+    }
+
+    private PVar newLocalDef(Kind kind, Sort sort, int slot, int pos) {
+        PVar v = new PVar(kind, sort, slot, pos, true);
+        v.defId = localDefs.size();
+        localDefs.add(v);
+        pvars.add(v);
+        maxSlot = Math.max(maxSlot, slot + sort.size());
+        return v;
+    }
+
+    private PVar loadLocal(Sort sort, int slot) {
+        PVar v = new PVar(Kind.LOCAL, sort, slot, pos, false);
+        pvars.add(v);
+        current.localOps.add(new LocalOp(v, false));
+        maxSlot = Math.max(maxSlot, slot + sort.size());
+        return v;
+    }
+
+    private PVar storeLocal(Sort sort, int slot) {
+        PVar v = newLocalDef(Kind.LOCAL, sort, slot, pos);
+        current.localOps.add(new LocalOp(v, true));
+        return v;
+    }
+
+    /**
+     * Marks the given operand used.
+     */
+    private static PVar use(Operand v) {
+        PVar p = (PVar) v;
+        p.used = true;
+        return p;
+    }
+
+    // ---------- operand stack ----------
+
+    private void push(Operand v) {
+        stack.add(v);
+    }
+
+    /**
+     * Pops a value which is used by current instruction.
+     */
+    private Operand pop() {
+        Operand v = popRaw();
+        if (v instanceof PVar p) {
+            p.used = true;
+        }
+        return v;
+    }
+
+    private Operand popRaw() {
+        if (stack.isEmpty()) {
+            throw new AsmFrontendException("Stack underflow in " + method);
+        }
+        return stack.remove(stack.size() - 1);
+    }
+
+    /**
+     * Pops n values from the stack.
+     *
+     * @return the values in the order they were pushed.
+     */
+    private List<Operand> pop(int n) {
+        Operand[] values = new Operand[n];
+        for (int i = n - 1; i >= 0; --i) {
+            values[i] = pop();
+        }
+        return List.of(values);
+    }
+
+    /**
+     * Pops values of given number of words from the stack.
+     */
+    private List<Operand> popWords(int words) {
+        List<Operand> values = new ArrayList<>(2);
+        while (words > 0) {
+            Operand v = popRaw();
+            words -= v.sort().size();
+            values.add(0, v);
+        }
+        if (words < 0) {
+            throw new AsmFrontendException("Splitting a two-word value in " + method);
+        }
+        return values;
+    }
+
+    /**
+     * Duplicates the top n words of the stack and inserts them
+     * beneath the next m words.
+     */
+    private void dup(int n, int m) {
+        List<Operand> top = popWords(n);
+        List<Operand> below = popWords(m);
+        stack.addAll(top);
+        stack.addAll(below);
+        stack.addAll(top);
+    }
+
+    /**
+     * Before storing to a local variable slot, saves the values loaded from
+     * the slot (and are still on the stack) to temporary variables.
+     *
+     * @param beforeLast whether to emit the copies before the last statement
+     */
+    private void spillLocal(Sort sort, int slot, boolean beforeLast) {
+        Map<PVar, PVar> spilled = null;
+        for (int i = 0; i < stack.size(); ++i) {
+            if (stack.get(i) instanceof PVar v && v.kind == Kind.LOCAL
+                    && !v.isDef && v.slot == slot && v.sort == sort) {
+                if (spilled == null) {
+                    spilled = Maps.newHybridMap();
+                }
+                stack.set(i, spilled.computeIfAbsent(v, this::copyToTemp));
+            }
+        }
+        if (spilled != null && beforeLast) {
+            List<ProtoStmt> stmts = current.stmts;
+            ProtoStmt last = stmts.remove(stmts.size() - 1 - spilled.size());
+            stmts.add(last);
+        }
+    }
+
+    // ---------- translating instructions ----------
+
+    private void translateInsn(Insn insn) {
+        int opcode = insn.opcode();
+        if (insn instanceof VarInsn varInsn) {
+            translateVarInsn(opcode, varInsn.slot());
+        } else if (insn instanceof IincInsn iinc) {
+            translateIinc(iinc);
+        } else if (insn instanceof IntInsn intInsn) {
+            translateIntInsn(intInsn);
+        } else if (insn instanceof LdcInsn ldc) {
+            push(new Const(converter.convertConstant(ldc.value())));
+        } else if (insn instanceof TypeInsn typeInsn) {
+            translateTypeInsn(typeInsn);
+        } else if (insn instanceof FieldInsn fieldInsn) {
+            translateFieldInsn(fieldInsn);
+        } else if (insn instanceof MethodInsn methodInsn) {
+            translateMethodInsn(methodInsn);
+        } else if (insn instanceof InvokeDynamicInsn indy) {
+            translateInvokeDynamic(indy);
+        } else if (insn instanceof JumpInsn jump) {
+            translateJumpInsn(jump);
+        } else if (insn instanceof TableSwitchInsn s) {
+            Operand key = pop();
+            Operand k = translateSwitch(key, s.defaultTarget(), s.targets());
+            emitJump(lhs -> new TableSwitch(toVar(k), s.min(), s.max()),
+                    s.targets()).defaultTarget = s.defaultTarget();
+        } else if (insn instanceof LookupSwitchInsn s) {
+            Operand key = pop();
+            Operand k = translateSwitch(key, s.defaultTarget(), s.targets());
+            List<Integer> caseValues = new ArrayList<>(s.keys().length);
+            for (int value : s.keys()) {
+                caseValues.add(value);
+            }
+            emitJump(lhs -> new LookupSwitch(toVar(k), caseValues),
+                    s.targets()).defaultTarget = s.defaultTarget();
+        } else if (insn instanceof MultiANewArrayInsn multi) {
+            List<Operand> lengths = pop(multi.dimensions());
+            ArrayType type = (ArrayType) converter.convertType(multi.descriptor());
+            PVar result = newTemp(Sort.REF, type);
+            result.def = emit(result, lhs -> new New(method, lhs,
+                    new NewMultiArray(type, Lists.map(lengths, this::toVar))));
+            push(result);
+        } else {
+            translateSimpleInsn(opcode);
+        }
+    }
+
+    private void translateVarInsn(int opcode, int slot) {
+        switch (opcode) {
+            case Opcodes.ILOAD -> push(loadLocal(Sort.INT, slot));
+            case Opcodes.LLOAD -> push(loadLocal(Sort.LONG, slot));
+            case Opcodes.FLOAD -> push(loadLocal(Sort.FLOAT, slot));
+            case Opcodes.DLOAD -> push(loadLocal(Sort.DOUBLE, slot));
+            case Opcodes.ALOAD -> push(loadLocal(Sort.REF, slot));
+            case Opcodes.ISTORE -> translateStore(Sort.INT, slot);
+            case Opcodes.LSTORE -> translateStore(Sort.LONG, slot);
+            case Opcodes.FSTORE -> translateStore(Sort.FLOAT, slot);
+            case Opcodes.DSTORE -> translateStore(Sort.DOUBLE, slot);
+            case Opcodes.ASTORE -> translateStore(Sort.REF, slot);
+            default -> throw new AsmFrontendException(
+                    "Subroutine (jsr/ret) is not supported: " + method);
+        }
+    }
+
+    private void translateStore(Sort sort, int slot) {
+        Operand value = popRaw();
+        List<ProtoStmt> stmts = current.stmts;
+        // coalesces the temporary variable with the local variable if
+        // the temporary variable is defined by the last statement
+        // and never used elsewhere
+        boolean coalesce = value instanceof PVar t && t.kind == Kind.STACK
+                && !t.used && t.def != null && !stmts.isEmpty()
+                && stmts.get(stmts.size() - 1) == t.def
+                && !stack.contains(t);
+        spillLocal(sort, slot, coalesce);
+        PVar local = storeLocal(sort, slot);
+        if (coalesce) {
+            PVar t = (PVar) value;
+            local.sources.addAll(t.sources);
+            local.def = t.def;
+            t.def.def = local;
+            t.def = null;
+        } else {
+            assign(local, value);
+        }
+    }
+
+    private void translateIinc(IincInsn iinc) {
+        spillLocal(Sort.INT, iinc.slot(), false);
+        PVar v = loadLocal(Sort.INT, iinc.slot());
+        PVar local = storeLocal(Sort.INT, iinc.slot());
+        Const increment = new Const(IntLiteral.get(iinc.increment()));
+        local.sources.add(PrimitiveType.INT);
+        local.def = emit(local, lhs -> new Binary(lhs,
+                new ArithmeticExp(ArithmeticExp.Op.ADD, toVar(v), toVar(increment))));
+    }
+
+    private void translateIntInsn(IntInsn insn) {
+        switch (insn.opcode()) {
+            case Opcodes.BIPUSH, Opcodes.SIPUSH ->
+                    push(new Const(IntLiteral.get(insn.operand())));
+            case Opcodes.NEWARRAY -> {
+                PrimitiveType elemType = switch (insn.operand()) {
+                    case Opcodes.T_BOOLEAN -> PrimitiveType.BOOLEAN;
+                    case Opcodes.T_CHAR -> PrimitiveType.CHAR;
+                    case Opcodes.T_FLOAT -> PrimitiveType.FLOAT;
+                    case Opcodes.T_DOUBLE -> PrimitiveType.DOUBLE;
+                    case Opcodes.T_BYTE -> PrimitiveType.BYTE;
+                    case Opcodes.T_SHORT -> PrimitiveType.SHORT;
+                    case Opcodes.T_INT -> PrimitiveType.INT;
+                    case Opcodes.T_LONG -> PrimitiveType.LONG;
+                    default -> throw new AsmFrontendException(
+                            "Invalid array type: " + insn.operand());
+                };
+                newArray(typeSystem.getArrayType(elemType, 1));
+            }
+            default -> throw new AsmFrontendException("Invalid opcode: " + insn);
+        }
+    }
+
+    private void newArray(ArrayType type) {
+        Operand length = pop();
+        PVar result = newTemp(Sort.REF, type);
+        result.def = emit(result, lhs -> new New(method, lhs,
+                new NewArray(type, toVar(length))));
+        push(result);
+    }
+
+    private void translateTypeInsn(TypeInsn insn) {
+        switch (insn.opcode()) {
+            case Opcodes.NEW -> {
+                ClassType type = (ClassType) converter.convertInternalName(insn.type());
+                PVar result = newTemp(Sort.REF, type);
+                result.def = emit(result, lhs -> new New(method, lhs,
+                        new NewInstance(type)));
+                push(result);
+            }
+            case Opcodes.ANEWARRAY -> newArray((ArrayType) converter.convertType(
+                    "[" + org.objectweb.asm.Type.getObjectType(insn.type())
+                            .getDescriptor()));
+            case Opcodes.CHECKCAST -> {
+                Type type = converter.convertInternalName(insn.type());
+                Operand value = pop();
+                PVar result = newTemp(Sort.REF, type);
+                result.def = emit(result, lhs -> new Cast(lhs,
+                        new CastExp(toVar(value), type)));
+                push(result);
+            }
+            case Opcodes.INSTANCEOF -> {
+                ReferenceType type = (ReferenceType)
+                        converter.convertInternalName(insn.type());
+                Operand value = pop();
+                PVar result = newTemp(Sort.INT, PrimitiveType.BOOLEAN);
+                result.def = emit(result, lhs -> new InstanceOf(lhs,
+                        new InstanceOfExp(toVar(value), type)));
+                push(result);
+            }
+            default -> throw new AsmFrontendException("Invalid opcode: " + insn);
+        }
+    }
+
+    private void translateFieldInsn(FieldInsn insn) {
+        int opcode = insn.opcode();
+        boolean isStatic = opcode == Opcodes.GETSTATIC
+                || opcode == Opcodes.PUTSTATIC;
+        FieldRef fieldRef = converter.convertFieldRef(insn.owner(),
+                insn.name(), insn.descriptor(), isStatic);
+        switch (opcode) {
+            case Opcodes.GETSTATIC -> {
+                PVar result = newTemp(sortOf(fieldRef.getType()), fieldRef.getType());
+                result.def = emit(result, lhs -> new LoadField(lhs,
+                        new StaticFieldAccess(fieldRef)));
+                push(result);
+            }
+            case Opcodes.GETFIELD -> {
+                Operand base = pop();
+                PVar result = newTemp(sortOf(fieldRef.getType()), fieldRef.getType());
+                result.def = emit(result, lhs -> new LoadField(lhs,
+                        new InstanceFieldAccess(fieldRef, toVar(base))));
+                push(result);
+            }
+            case Opcodes.PUTSTATIC -> {
+                Operand value = pop();
+                emit(null, lhs -> new StoreField(
+                        new StaticFieldAccess(fieldRef), toVar(value)));
+            }
+            default -> {
+                Operand value = pop();
+                Operand base = pop();
+                emit(null, lhs -> new StoreField(
+                        new InstanceFieldAccess(fieldRef, toVar(base)), toVar(value)));
+            }
+        }
+    }
+
+    private void translateMethodInsn(MethodInsn insn) {
+        int opcode = insn.opcode();
+        boolean isStatic = opcode == Opcodes.INVOKESTATIC;
+        MethodRef methodRef = converter.convertMethodRef(insn.owner(),
+                insn.name(), insn.descriptor(), isStatic);
+        List<Operand> args = pop(methodRef.getParameterTypes().size());
+        Operand base = isStatic ? null : pop();
+        Function<Var, InvokeExp> invokeExp = switch (opcode) {
+            case Opcodes.INVOKESTATIC -> lhs -> new InvokeStatic(methodRef,
+                    Lists.map(args, this::toVar));
+            case Opcodes.INVOKESPECIAL -> lhs -> {
+                List<Var> argVars = Lists.map(args, this::toVar);
+                return new InvokeSpecial(methodRef, toVar(base), argVars);
+            };
+            case Opcodes.INVOKEINTERFACE -> lhs -> {
+                List<Var> argVars = Lists.map(args, this::toVar);
+                return new InvokeInterface(methodRef, toVar(base), argVars);
+            };
+            default -> lhs -> {
+                List<Var> argVars = Lists.map(args, this::toVar);
+                return new InvokeVirtual(methodRef, toVar(base), argVars);
+            };
+        };
+        emitInvoke(methodRef.getReturnType(), invokeExp);
+    }
+
+    private void translateInvokeDynamic(InvokeDynamicInsn insn) {
+        MethodRef bootstrapMethodRef = converter.convertMethodRef(
+                insn.bootstrapMethod());
+        List<Type> paramTypes = converter.convertParamTypes(insn.descriptor());
+        Type returnType = converter.convertReturnType(insn.descriptor());
+        MethodType methodType = MethodType.get(paramTypes, returnType);
+        List<Literal> bootstrapArgs = new ArrayList<>(insn.bootstrapArgs().length);
+        for (Object arg : insn.bootstrapArgs()) {
+            bootstrapArgs.add(converter.convertConstant(arg));
+        }
+        List<Operand> args = pop(paramTypes.size());
+        emitInvoke(returnType, lhs -> new InvokeDynamic(bootstrapMethodRef,
+                insn.name(), methodType, bootstrapArgs, Lists.map(args, this::toVar)));
+    }
+
+    private void emitInvoke(Type returnType, Function<Var, InvokeExp> invokeExp) {
+        PVar result = returnType.equals(VOID) ? null :
+                newTemp(sortOf(returnType), returnType);
+        ProtoStmt stmt = emit(result, lhs ->
+                new Invoke(method, invokeExp.apply(lhs), lhs));
+        stmt.isInvoke = true;
+        if (result != null) {
+            result.def = stmt;
+            push(result);
+        }
+    }
+
+    private void translateJumpInsn(JumpInsn insn) {
+        int opcode = insn.opcode();
+        Block target = blockAt[insn.target()];
+        if (opcode == Opcodes.GOTO) {
+            prepareExit(List.of(target), List.of());
+            emitJump(lhs -> new Goto(), insn.target());
+            return;
+        }
+        if (opcode == Opcodes.JSR) {
+            throw new AsmFrontendException(
+                    "Subroutine (jsr/ret) is not supported: " + method);
+        }
+        Operand v2 = switch (opcode) {
+            case Opcodes.IFEQ, Opcodes.IFNE, Opcodes.IFLT,
+                    Opcodes.IFGE, Opcodes.IFGT, Opcodes.IFLE ->
+                    new Const(IntLiteral.get(0));
+            case Opcodes.IFNULL, Opcodes.IFNONNULL -> new Const(NullLiteral.get());
+            default -> pop();
+        };
+        Operand v1 = pop();
+        ConditionExp.Op op = switch (opcode) {
+            case Opcodes.IFEQ, Opcodes.IF_ICMPEQ, Opcodes.IF_ACMPEQ,
+                    Opcodes.IFNULL -> ConditionExp.Op.EQ;
+            case Opcodes.IFNE, Opcodes.IF_ICMPNE, Opcodes.IF_ACMPNE,
+                    Opcodes.IFNONNULL -> ConditionExp.Op.NE;
+            case Opcodes.IFLT, Opcodes.IF_ICMPLT -> ConditionExp.Op.LT;
+            case Opcodes.IFGE, Opcodes.IF_ICMPGE -> ConditionExp.Op.GE;
+            case Opcodes.IFGT, Opcodes.IF_ICMPGT -> ConditionExp.Op.GT;
+            case Opcodes.IFLE, Opcodes.IF_ICMPLE -> ConditionExp.Op.LE;
+            default -> throw new AsmFrontendException("Invalid opcode: " + insn);
+        };
+        Block next = blockAt[pos + 1];
+        if (next == null) {
+            throw new AsmFrontendException(
+                    "Control flow falls off the code of " + method);
+        }
+        List<Operand> operands = prepareExit(
+                target == next ? List.of(target) : List.of(target, next),
+                List.of(v1, v2));
+        Operand o1 = operands.get(0), o2 = operands.get(1);
+        emitJump(lhs -> new If(new ConditionExp(op, toVar(o1), toVar(o2))),
+                insn.target());
+    }
+
+    private Operand translateSwitch(Operand key, int defaultTarget, int[] targets) {
+        Set<Block> succs = Sets.newLinkedSet();
+        succs.add(blockAt[defaultTarget]);
+        for (int target : targets) {
+            succs.add(blockAt[target]);
+        }
+        return prepareExit(List.copyOf(succs), List.of(key)).get(0);
+    }
+
+    private void translateSimpleInsn(int opcode) {
+        switch (opcode) {
+            case Opcodes.NOP -> {
+            }
+            case Opcodes.ACONST_NULL -> push(new Const(NullLiteral.get()));
+            case Opcodes.ICONST_M1, Opcodes.ICONST_0, Opcodes.ICONST_1,
+                    Opcodes.ICONST_2, Opcodes.ICONST_3, Opcodes.ICONST_4,
+                    Opcodes.ICONST_5 ->
+                    push(new Const(IntLiteral.get(opcode - Opcodes.ICONST_0)));
+            case Opcodes.LCONST_0, Opcodes.LCONST_1 ->
+                    push(new Const(LongLiteral.get(opcode - Opcodes.LCONST_0)));
+            case Opcodes.FCONST_0, Opcodes.FCONST_1, Opcodes.FCONST_2 ->
+                    push(new Const(FloatLiteral.get(opcode - Opcodes.FCONST_0)));
+            case Opcodes.DCONST_0, Opcodes.DCONST_1 ->
+                    push(new Const(DoubleLiteral.get(opcode - Opcodes.DCONST_0)));
+            // array loads and stores
+            case Opcodes.IALOAD -> loadArray(Sort.INT, PrimitiveType.INT);
+            case Opcodes.LALOAD -> loadArray(Sort.LONG, PrimitiveType.LONG);
+            case Opcodes.FALOAD -> loadArray(Sort.FLOAT, PrimitiveType.FLOAT);
+            case Opcodes.DALOAD -> loadArray(Sort.DOUBLE, PrimitiveType.DOUBLE);
+            case Opcodes.AALOAD -> loadArray(Sort.REF, null);
+            case Opcodes.BALOAD -> loadArray(Sort.INT, null);
+            case Opcodes.CALOAD -> loadArray(Sort.INT, PrimitiveType.CHAR);
+            case Opcodes.SALOAD -> loadArray(Sort.INT, PrimitiveType.SHORT);
+            case Opcodes.IASTORE, Opcodes.LASTORE, Opcodes.FASTORE,
+                    Opcodes.DASTORE, Opcodes.AASTORE, Opcodes.BASTORE,
+                    Opcodes.CASTORE, Opcodes.SASTORE -> {
+                Operand value = pop();
+                Operand index = pop();
+                Operand array = pop();
+                emit(null, lhs -> {
+                    ArrayAccess access = new ArrayAccess(toVar(array), toVar(index));
+                    return new StoreArray(access, toVar(value));
+                });
+            }
+            // stack manipulation
+            case Opcodes.POP -> popWords(1);
+            case Opcodes.POP2 -> popWords(2);
+            case Opcodes.DUP -> dup(1, 0);
+            case Opcodes.DUP_X1 -> dup(1, 1);
+            case Opcodes.DUP_X2 -> dup(1, 2);
+            case Opcodes.DUP2 -> dup(2, 0);
+            case Opcodes.DUP2_X1 -> dup(2, 1);
+            case Opcodes.DUP2_X2 -> dup(2, 2);
+            case Opcodes.SWAP -> {
+                Operand v1 = popRaw();
+                Operand v2 = popRaw();
+                push(v1);
+                push(v2);
+            }
+            // arithmetic
+            case Opcodes.IADD, Opcodes.LADD, Opcodes.FADD, Opcodes.DADD ->
+                    binary(ArithmeticExp.Op.ADD, opcode - Opcodes.IADD);
+            case Opcodes.ISUB, Opcodes.LSUB, Opcodes.FSUB, Opcodes.DSUB ->
+                    binary(ArithmeticExp.Op.SUB, opcode - Opcodes.ISUB);
+            case Opcodes.IMUL, Opcodes.LMUL, Opcodes.FMUL, Opcodes.DMUL ->
+                    binary(ArithmeticExp.Op.MUL, opcode - Opcodes.IMUL);
+            case Opcodes.IDIV, Opcodes.LDIV, Opcodes.FDIV, Opcodes.DDIV ->
+                    binary(ArithmeticExp.Op.DIV, opcode - Opcodes.IDIV);
+            case Opcodes.IREM, Opcodes.LREM, Opcodes.FREM, Opcodes.DREM ->
+                    binary(ArithmeticExp.Op.REM, opcode - Opcodes.IREM);
+            case Opcodes.INEG, Opcodes.LNEG, Opcodes.FNEG, Opcodes.DNEG -> {
+                Operand value = pop();
+                PVar result = newTemp(value.sort(), value.sort().type);
+                result.def = emit(result, lhs -> new Unary(lhs,
+                        new NegExp(toVar(value))));
+                push(result);
+            }
+            case Opcodes.ISHL, Opcodes.LSHL ->
+                    binary(ShiftExp.Op.SHL, opcode - Opcodes.ISHL);
+            case Opcodes.ISHR, Opcodes.LSHR ->
+                    binary(ShiftExp.Op.SHR, opcode - Opcodes.ISHR);
+            case Opcodes.IUSHR, Opcodes.LUSHR ->
+                    binary(ShiftExp.Op.USHR, opcode - Opcodes.IUSHR);
+            case Opcodes.IAND, Opcodes.LAND ->
+                    binary(BitwiseExp.Op.AND, opcode - Opcodes.IAND);
+            case Opcodes.IOR, Opcodes.LOR ->
+                    binary(BitwiseExp.Op.OR, opcode - Opcodes.IOR);
+            case Opcodes.IXOR, Opcodes.LXOR ->
+                    binary(BitwiseExp.Op.XOR, opcode - Opcodes.IXOR);
+            // conversions
+            case Opcodes.I2L, Opcodes.F2L, Opcodes.D2L -> cast(PrimitiveType.LONG);
+            case Opcodes.I2F, Opcodes.L2F, Opcodes.D2F -> cast(PrimitiveType.FLOAT);
+            case Opcodes.I2D, Opcodes.L2D, Opcodes.F2D -> cast(PrimitiveType.DOUBLE);
+            case Opcodes.L2I, Opcodes.F2I, Opcodes.D2I -> cast(PrimitiveType.INT);
+            case Opcodes.I2B -> cast(PrimitiveType.BYTE);
+            case Opcodes.I2C -> cast(PrimitiveType.CHAR);
+            case Opcodes.I2S -> cast(PrimitiveType.SHORT);
+            // comparisons
+            case Opcodes.LCMP -> compare(ComparisonExp.Op.CMP);
+            case Opcodes.FCMPL, Opcodes.DCMPL -> compare(ComparisonExp.Op.CMPL);
+            case Opcodes.FCMPG, Opcodes.DCMPG -> compare(ComparisonExp.Op.CMPG);
+            // returns and throw
+            case Opcodes.IRETURN, Opcodes.LRETURN, Opcodes.FRETURN,
+                    Opcodes.DRETURN, Opcodes.ARETURN -> {
+                Operand value = pop();
+                emit(null, lhs -> {
+                    Var v = toVar(value);
+                    returnVars.add(v);
+                    return new Return(v);
+                });
+            }
+            case Opcodes.RETURN -> emit(null, lhs -> new Return());
+            case Opcodes.ATHROW -> {
+                Operand value = pop();
+                emit(null, lhs -> new Throw(toVar(value)));
+            }
+            case Opcodes.ARRAYLENGTH -> {
+                Operand array = pop();
+                PVar result = newTemp(Sort.INT, PrimitiveType.INT);
+                result.def = emit(result, lhs -> new Unary(lhs,
+                        new ArrayLengthExp(toVar(array))));
+                push(result);
+            }
+            case Opcodes.MONITORENTER, Opcodes.MONITOREXIT -> {
+                Operand value = pop();
+                Monitor.Op op = opcode == Opcodes.MONITORENTER ?
+                        Monitor.Op.ENTER : Monitor.Op.EXIT;
+                emit(null, lhs -> new Monitor(op, toVar(value)));
+            }
+            default -> throw new AsmFrontendException(
+                    "Unsupported opcode " + opcode + " in " + method);
+        }
+    }
+
+    private void loadArray(Sort sort, @Nullable PrimitiveType type) {
+        Operand index = pop();
+        Operand array = pop();
+        Type fallback = sort == Sort.REF ? objectType : PrimitiveType.BYTE;
+        Object source = type != null ? type :
+                array instanceof PVar a ? new ElementOf(a, fallback) : fallback;
+        PVar result = newTemp(sort, source);
+        result.def = emit(result, lhs -> new LoadArray(lhs,
+                new ArrayAccess(toVar(array), toVar(index))));
+        push(result);
+    }
+
+    /**
+     * @param sortOffset offset of the opcode from the int version of
+     *                   the instruction, which is 0 for int, 1 for long,
+     *                   2 for float, and 3 for double.
+     */
+    private void binary(BinaryExp.Op op, int sortOffset) {
+        Operand v2 = pop();
+        Operand v1 = pop();
+        Sort sort = switch (sortOffset) {
+            case 0 -> Sort.INT;
+            case 1 -> Sort.LONG;
+            case 2 -> Sort.FLOAT;
+            default -> Sort.DOUBLE;
+        };
+        PVar result = newTemp(sort, sort.type);
+        result.def = emit(result, lhs -> {
+            Var x = toVar(v1), y = toVar(v2);
+            BinaryExp exp;
+            if (op instanceof ArithmeticExp.Op aop) {
+                exp = new ArithmeticExp(aop, x, y);
+            } else if (op instanceof BitwiseExp.Op bop) {
+                exp = new BitwiseExp(bop, x, y);
+            } else if (op instanceof ShiftExp.Op sop) {
+                exp = new ShiftExp(sop, x, y);
+            } else {
+                exp = new ComparisonExp((ComparisonExp.Op) op, x, y);
+            }
+            return new Binary(lhs, exp);
+        });
+        push(result);
+    }
+
+    private void compare(ComparisonExp.Op op) {
+        binary(op, 0);
+    }
+
+    private void cast(PrimitiveType type) {
+        Operand value = pop();
+        PVar result = newTemp(sortOf(type), type);
+        result.def = emit(result, lhs -> new Cast(lhs,
+                new CastExp(toVar(value), type)));
+        push(result);
+    }
+
+    // ---------- splitting local variables ----------
+
+    /**
+     * Computes reaching definitions of local variable slots, and merges
+     * each use of slot with the definitions reaching it.
+     */
+    private void splitLocals() {
+        BitSet[] slotDefs = new BitSet[maxSlot];
+        for (int i = 0; i < maxSlot; ++i) {
+            slotDefs[i] = new BitSet();
+        }
+        for (PVar def : localDefs) {
+            slotDefs[def.slot].set(def.defId);
+        }
+        List<Block> reached = blocks.stream()
+                .filter(b -> b.entryStack != null)
+                .toList();
+        // definitions in each block, which reach the handlers of the block
+        Map<Block, BitSet> blockDefs = Maps.newMap(reached.size());
+        for (Block block : reached) {
+            BitSet defs = new BitSet();
+            block.localOps.forEach(op -> {
+                if (op.isDef()) {
+                    defs.set(op.var().defId);
+                }
+            });
+            blockDefs.put(block, defs);
+        }
+        // iterate to fixed point
+        Deque<Block> workList = new ArrayDeque<>(reached);
+        Set<Block> inWorkList = Sets.newSet(reached);
+        while (!workList.isEmpty()) {
+            Block block = workList.poll();
+            inWorkList.remove(block);
+            BitSet out = (BitSet) block.in.clone();
+            for (LocalOp op : block.localOps) {
+                if (op.isDef()) {
+                    out.andNot(slotDefs[op.var().slot]);
+                    out.set(op.var().defId);
+                }
+            }
+            BitSet toHandlers = (BitSet) block.in.clone();
+            toHandlers.or(blockDefs.get(block));
+            propagate(block.succs, out, workList, inWorkList);
+            propagate(block.handlers, toHandlers, workList, inWorkList);
+        }
+        // merge uses and reaching definitions
+        for (Block block : reached) {
+            BitSet defs = (BitSet) block.in.clone();
+            for (LocalOp op : block.localOps) {
+                PVar v = op.var();
+                if (op.isDef()) {
+                    defs.andNot(slotDefs[v.slot]);
+                    defs.set(v.defId);
+                } else {
+                    BitSet slotDef = slotDefs[v.slot];
+                    for (int i = defs.nextSetBit(0); i >= 0;
+                         i = defs.nextSetBit(i + 1)) {
+                        PVar def = localDefs.get(i);
+                        if (slotDef.get(i) && def.sort == v.sort) {
+                            union(v, def);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static void propagate(Set<Block> targets, BitSet defs,
+                                  Deque<Block> workList, Set<Block> inWorkList) {
+        for (Block target : targets) {
+            BitSet in = target.in;
+            BitSet old = (BitSet) in.clone();
+            in.or(defs);
+            if (!in.equals(old) && inWorkList.add(target)) {
+                workList.add(target);
+            }
+        }
+    }
+
+    // ---------- inferring types ----------
+
+    private void inferTypes() {
+        List<PVar> roots = new ArrayList<>();
+        for (PVar v : pvars) {
+            PVar root = v.find();
+            if (root.members == null) {
+                root.members = new ArrayList<>();
+                roots.add(root);
+            }
+            root.members.add(v);
+            if (v.fixedType && v != root) {
+                root.fixedType = true;
+                root.type = v.type;
+            }
+        }
+        // obtains names and types from local variable table
+        for (PVar root : roots) {
+            if (root.kind == Kind.STACK) {
+                continue;
+            }
+            List<LocalVariable> lvs = findLocalVariables(root);
+            if (!lvs.isEmpty()) {
+                root.name = lvs.get(0).name();
+                // uses the declared type if it is unique
+                if (!root.fixedType && lvs.stream()
+                        .map(LocalVariable::descriptor)
+                        .distinct()
+                        .count() == 1) {
+                    Type type = converter.convertType(lvs.get(0).descriptor());
+                    if (sortOf(type) == root.sort) {
+                        root.type = type;
+                        root.fixedType = true;
+                    }
+                }
+            }
+        }
+        // infers types of the other variables from their sources
+        List<PVar> inferred = roots.stream()
+                .filter(r -> !r.fixedType)
+                .toList();
+        boolean changed = true;
+        for (int round = 0; changed && round < MAX_TYPE_INFERENCE_ROUNDS; ++round) {
+            changed = false;
+            for (PVar root : inferred) {
+                Type type = null;
+                for (PVar member : root.members) {
+                    for (Object source : member.sources) {
+                        type = join(type, getSourceType(source));
+                    }
+                }
+                if (!Objects.equals(type, root.type)) {
+                    root.type = type;
+                    changed = true;
+                }
+            }
+        }
+        for (PVar root : inferred) {
+            if (root.type == null || root.type instanceof NullType) {
+                root.type = root.sort.type != null ? root.sort.type : objectType;
+            } else if (sortOf(root.type) != root.sort) {
+                root.type = root.sort.type != null ? root.sort.type : objectType;
+            }
+        }
+    }
+
+    /**
+     * Finds the entries of local variable table which cover
+     * the occurrences of the variables in the given web.
+     */
+    private List<LocalVariable> findLocalVariables(PVar root) {
+        List<LocalVariable> localVariables = code.getLocalVariables();
+        if (localVariables.isEmpty()) {
+            return List.of();
+        }
+        List<LocalVariable> result = new ArrayList<>(1);
+        for (PVar v : root.members) {
+            // the range of local variable starts after the instruction
+            // which stores the variable
+            int p = v.isDef ? v.pos + 1 : v.pos;
+            for (LocalVariable lv : localVariables) {
+                if (lv.slot() == v.slot && lv.start() <= p && p < lv.end()
+                        && !result.contains(lv)) {
+                    result.add(lv);
+                }
+            }
+        }
+        return result;
+    }
+
+    @Nullable
+    private Type getSourceType(Object source) {
+        if (source instanceof Type type) {
+            return type;
+        } else if (source instanceof PVar v) {
+            return v.find().type;
+        } else {
+            ElementOf elementOf = (ElementOf) source;
+            Type arrayType = elementOf.array().find().type;
+            if (arrayType == null) {
+                return null;
+            }
+            return arrayType instanceof ArrayType at ?
+                    at.elementType() : elementOf.fallback();
+        }
+    }
+
+    private Type join(@Nullable Type t1, @Nullable Type t2) {
+        if (t1 == null || t1 instanceof NullType) {
+            return t2;
+        }
+        if (t2 == null || t2 instanceof NullType || t1.equals(t2)) {
+            return t1;
+        }
+        if (t1 instanceof PrimitiveType || t2 instanceof PrimitiveType) {
+            return PrimitiveType.INT;
+        }
+        if (typeSystem.isSubtype(t1, t2)) {
+            return t1;
+        }
+        if (typeSystem.isSubtype(t2, t1)) {
+            return t2;
+        }
+        if (t1 instanceof ArrayType a1 && t2 instanceof ArrayType a2) {
+            Type e1 = a1.elementType(), e2 = a2.elementType();
+            if (e1 instanceof PrimitiveType || e2 instanceof PrimitiveType) {
+                return objectType;
+            }
+            Type elemType = join(e1, e2);
+            return elemType instanceof ArrayType at ?
+                    typeSystem.getArrayType(at.baseType(), at.dimensions() + 1) :
+                    typeSystem.getArrayType(elemType, 1);
+        }
+        if (t1 instanceof ClassType c1) {
+            JClass jclass = c1.getJClass();
+            while (jclass != null) {
+                if (typeSystem.isSubtype(jclass.getType(), t2)) {
+                    return jclass.getType();
+                }
+                jclass = jclass.getSuperClass();
+            }
+        }
+        return objectType;
+    }
+
+    // ---------- building IR ----------
+
+    private final List<Var> vars = new ArrayList<>();
+
+    private final Set<String> varNames = Sets.newSet();
+
+    private Set<Var> returnVars;
+
+    /**
+     * Caches variables that hold constant values, so that we don't need to
+     * create multiple temp variables and assignments for the same constants
+     * in the same method.
+     */
+    private final Map<Literal, Var> constantVars = Maps.newHybridMap();
+
+    private int tempConstCounter = 0;
+
+    /**
+     * Counters for naming stack variables, one per {@link Sort}.
+     */
+    private final int[] stackVarCounters = new int[Sort.values().length];
+
+    /**
+     * Statements which are created when building current statement,
+     * and should be placed before it.
+     */
+    private final List<Stmt> tempStmts = new ArrayList<>();
+
+    private IR buildIR() {
+        returnVars = method.getReturnType().equals(VOID) ?
+                Set.of() : Sets.newLinkedSet();
+        Var thisV = thisVar == null ? null : toVar(thisVar);
+        List<Var> paramVars = new ArrayList<>(params.size());
+        for (int i = 0; i < params.size(); ++i) {
+            PVar root = params.get(i).find();
+            String paramName = method.getParamName(i);
+            if (paramName != null) {
+                root.name = paramName;
+            }
+            paramVars.add(toVar(root));
+        }
+        // builds statements
+        List<Stmt> stmts = new ArrayList<>();
+        for (Block block : blocks) {
+            block.firstIndex = stmts.size();
+            for (ProtoStmt proto : block.stmts) {
+                PVar def = proto.def;
+                Var lhs = null;
+                // removes unused temp variables that receive invoke result
+                if (def != null && !(proto.isInvoke
+                        && def.kind == Kind.STACK && !def.used)) {
+                    lhs = toVar(def);
+                }
+                Stmt stmt = proto.builder.apply(lhs);
+                for (Stmt temp : tempStmts) {
+                    addStmt(stmts, temp, proto.line);
+                }
+                tempStmts.clear();
+                addStmt(stmts, stmt, proto.line);
+                proto.stmt = stmt;
+            }
+        }
+        // computes the index of the first statement at or after each position
+        int[] firstIndexAt = new int[insns.size() + 1];
+        firstIndexAt[insns.size()] = stmts.size();
+        for (int i = blocks.size() - 1; i >= 0; --i) {
+            Block block = blocks.get(i);
+            int next = firstIndexAt[block.end];
+            int first = block.stmts.isEmpty() ? next : block.firstIndex;
+            for (int p = block.start; p < block.end; ++p) {
+                firstIndexAt[p] = first;
+            }
+        }
+        // links jump targets
+        for (Block block : blocks) {
+            for (ProtoStmt proto : block.stmts) {
+                if (proto.targets != null) {
+                    linkJumpTargets(proto, stmts, firstIndexAt);
+                }
+            }
+        }
+        List<ExceptionEntry> exceptionEntries = buildExceptionEntries(
+                stmts, firstIndexAt);
+        return new DefaultIR(method, thisV, paramVars, returnVars,
+                vars, stmts, exceptionEntries);
+    }
+
+    private static void addStmt(List<Stmt> stmts, Stmt stmt, int line) {
+        stmt.setIndex(stmts.size());
+        stmt.setLineNumber(line);
+        stmts.add(stmt);
+    }
+
+    private static void linkJumpTargets(ProtoStmt proto, List<Stmt> stmts,
+                                        int[] firstIndexAt) {
+        Stmt stmt = proto.stmt;
+        if (stmt instanceof Goto gotoStmt) {
+            gotoStmt.setTarget(stmts.get(firstIndexAt[proto.targets[0]]));
+        } else if (stmt instanceof If ifStmt) {
+            ifStmt.setTarget(stmts.get(firstIndexAt[proto.targets[0]]));
+        } else if (stmt instanceof SwitchStmt switchStmt) {
+            List<Stmt> targets = new ArrayList<>(proto.targets.length);
+            for (int target : proto.targets) {
+                targets.add(stmts.get(firstIndexAt[target]));
+            }
+            switchStmt.setTargets(targets);
+            switchStmt.setDefaultTarget(
+                    stmts.get(firstIndexAt[proto.defaultTarget]));
+        }
+    }
+
+    private List<ExceptionEntry> buildExceptionEntries(
+            List<Stmt> stmts, int[] firstIndexAt) {
+        List<TryCatch> tryCatches = code.getTryCatches();
+        if (tryCatches.isEmpty()) {
+            return List.of();
+        }
+        List<ExceptionEntry> entries = new ArrayList<>(tryCatches.size());
+        for (TryCatch tc : tryCatches) {
+            int start = firstIndexAt[tc.start()];
+            int end = firstIndexAt[tc.end()];
+            if (start >= end) {
+                continue;
+            }
+            if (end == stmts.size()) {
+                // the try-block reaches the end of the code, thus we
+                // add a nop as the (exclusive) end of the try-block
+                addStmt(stmts, new Nop(), -1);
+            }
+            Block handler = blockAt[tc.handler()];
+            entries.add(new ExceptionEntry(stmts.get(start), stmts.get(end),
+                    (Catch) handler.stmts.get(0).stmt, getCatchType(tc)));
+        }
+        return entries;
+    }
+
+    /**
+     * Converts the operand to variable.
+     * If the operand is a constant, then returns the variable holding it,
+     * and adds a temporary assignment, e.g., x = 10 for constant 10,
+     * if the variable is newly created.
+     */
+    private Var toVar(Operand operand) {
+        if (operand instanceof PVar v) {
+            PVar root = v.find();
+            if (root.var == null) {
+                root.var = newVar(getName(root), root.type, null);
+            }
+            return root.var;
+        } else {
+            Literal literal = ((Const) operand).literal();
+            return constantVars.computeIfAbsent(literal, l -> {
+                Var v = newConstantVar(l);
+                if (!(l instanceof NullLiteral)) {
+                    // add temp assignment for non-null variable
+                    tempStmts.add(new AssignLiteral(v, l));
+                }
+                return v;
+            });
+        }
+    }
+
+    private String getName(PVar root) {
+        if (root.kind == Kind.THIS) {
+            return THIS;
+        }
+        String name = root.name;
+        if (name == null) {
+            name = root.kind == Kind.STACK ?
+                    "$" + root.sort.prefix + stackVarCounters[root.sort.ordinal()]++ :
+                    root.sort.prefix + root.members.get(0).slot;
+        }
+        if (!varNames.add(name)) {
+            // the same name is used by different variables
+            // (due to the splitting of local variables)
+            int i = 1;
+            while (!varNames.add(name + "#" + i)) {
+                ++i;
+            }
+            name = name + "#" + i;
+        }
+        return name;
+    }
+
+    private Var newConstantVar(Literal literal) {
+        String varName;
+        if (literal instanceof StringLiteral) {
+            varName = STRING_CONSTANT + tempConstCounter++;
+        } else if (literal instanceof ClassLiteral) {
+            varName = CLASS_CONSTANT + tempConstCounter++;
+        } else if (literal instanceof NullLiteral) {
+            varName = NULL_CONSTANT;
+        } else {
+            varName = "%" + literal.getType().getName() +
+                    "const" + tempConstCounter++;
+        }
+        return newVar(varName, literal.getType(), literal);
+    }
+
+    private Var newVar(String name, Type type, @Nullable Literal literal) {
+        Var var = new Var(method, name, type, vars.size(), literal);
+        vars.add(var);
+        return var;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.objectweb.asm.Opcodes;
+import pascal.taie.language.classes.Modifier;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+import static pascal.taie.util.collection.Maps.newConcurrentMap;
+
+/**
+ * Converts access flags in class files to {@link Modifier}s.
+ * Some flags share the same value but have different meanings for classes,
+ * fields and methods (e.g., {@link Opcodes#ACC_VOLATILE} and
+ * {@link Opcodes#ACC_BRIDGE}), thus we convert them separately.
+ */
+final class Modifiers {
+
+    private static final ConcurrentMap<Integer, Set<Modifier>> classModMap
+            = newConcurrentMap();
+
+    private static final ConcurrentMap<Integer, Set<Modifier>> fieldModMap
+            = newConcurrentMap();
+
+    private static final ConcurrentMap<Integer, Set<Modifier>> methodModMap
+            = newConcurrentMap();
+
+    private Modifiers() {
+    }
+
+    static Set<Modifier> convertClassModifiers(int access) {
+        return classModMap.computeIfAbsent(access, a -> {
+            Set<Modifier> result = convertCommon(a);
+            // ACC_SUPER (0x0020) of classes is not a modifier
+            if ((a & Opcodes.ACC_INTERFACE) != 0) {
+                result.add(Modifier.INTERFACE);
+            }
+            if ((a & Opcodes.ACC_ABSTRACT) != 0) {
+                result.add(Modifier.ABSTRACT);
+            }
+            if ((a & Opcodes.ACC_ANNOTATION) != 0) {
+                result.add(Modifier.ANNOTATION);
+            }
+            if ((a & Opcodes.ACC_ENUM) != 0) {
+                result.add(Modifier.ENUM);
+            }
+            return Collections.unmodifiableSet(result);
+        });
+    }
+
+    static Set<Modifier> convertFieldModifiers(int access) {
+        return fieldModMap.computeIfAbsent(access, a -> {
+            Set<Modifier> result = convertCommon(a);
+            if ((a & Opcodes.ACC_VOLATILE) != 0) {
+                result.add(Modifier.VOLATILE);
+            }
+            if ((a & Opcodes.ACC_TRANSIENT) != 0) {
+                result.add(Modifier.TRANSIENT);
+            }
+            if ((a & Opcodes.ACC_ENUM) != 0) {
+                result.add(Modifier.ENUM);
+            }
+            return Collections.unmodifiableSet(result);
+        });
+    }
+
+    static Set<Modifier> convertMethodModifiers(int access) {
+        return methodModMap.computeIfAbsent(access, a -> {
+            Set<Modifier> result = convertCommon(a);
+            if ((a & Opcodes.ACC_SYNCHRONIZED) != 0) {
+                result.add(Modifier.SYNCHRONIZED);
+            }
+            if ((a & Opcodes.ACC_BRIDGE) != 0) {
+                result.add(Modifier.BRIDGE);
+            }
+            if ((a & Opcodes.ACC_VARARGS) != 0) {
+                result.add(Modifier.VARARGS);
+            }
+            if ((a & Opcodes.ACC_NATIVE) != 0) {
+                result.add(Modifier.NATIVE);
+            }
+            if ((a & Opcodes.ACC_ABSTRACT) != 0) {
+                result.add(Modifier.ABSTRACT);
+            }
+            if ((a & Opcodes.ACC_STRICT) != 0) {
+                result.add(Modifier.STRICTFP);
+            }
+            return Collections.unmodifiableSet(result);
+        });
+    }
+
+    /**
+     * Converts the flags which have the same meaning for
+     * classes, fields and methods.
+     */
+    private static Set<Modifier> convertCommon(int access) {
+        Set<Modifier> result = EnumSet.noneOf(Modifier.class);
+        if ((access & Opcodes.ACC_PUBLIC) != 0) {
+            result.add(Modifier.PUBLIC);
+        }
+        if ((access & Opcodes.ACC_PRIVATE) != 0) {
+            result.add(Modifier.PRIVATE);
+        }
+        if ((access & Opcodes.ACC_PROTECTED) != 0) {
+            result.add(Modifier.PROTECTED);
+        }
+        if ((access & Opcodes.ACC_STATIC) != 0) {
+            result.add(Modifier.STATIC);
+        }
+        if ((access & Opcodes.ACC_FINAL) != 0) {
+            result.add(Modifier.FINAL);
+        }
+        if ((access & Opcodes.ACC_SYNTHETIC) != 0) {
+            result.add(Modifier.SYNTHETIC);
+        }
+        return result;
+    }
+}
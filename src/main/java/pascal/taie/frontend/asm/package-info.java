@@ -21,6 +21,6 @@
  */
 
 /**
- * TODO: We'll add another frontend implemented based on ASM
+ * Frontend that builds Tai-e's world from bytecode by ASM.
  */
 package pascal.taie.frontend.asm;
@@ -0,0 +1,63 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+
+/**
+ * Object input stream for world cache, which reads the streams
+ * written by {@link CacheObjectOutputStream}.
+ */
+class CacheObjectInputStream extends ObjectInputStream {
+
+    private final WorldCacheReader reader;
+
+    CacheObjectInputStream(InputStream in, WorldCacheReader reader)
+            throws IOException {
+        super(in);
+        this.reader = reader;
+        enableResolveObject(true);
+    }
+
+    WorldCacheReader getReader() {
+        return reader;
+    }
+
+    @Override
+    protected ObjectStreamClass readClassDescriptor() throws IOException {
+        return ObjectStreamClass.lookupAny(reader.getClass(readInt()));
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) {
+        return desc.forClass();
+    }
+
+    @Override
+    protected Object resolveObject(Object obj) {
+        return obj instanceof StringRef ref ? reader.getString(ref.index()) : obj;
+    }
+}
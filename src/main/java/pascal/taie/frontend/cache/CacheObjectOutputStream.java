@@ -0,0 +1,59 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+
+/**
+ * Object output stream for world cache, which writes class descriptors
+ * and strings as indexes of the tables of {@link WorldCacheWriter}.
+ */
+class CacheObjectOutputStream extends ObjectOutputStream {
+
+    private final WorldCacheWriter writer;
+
+    CacheObjectOutputStream(OutputStream out, WorldCacheWriter writer)
+            throws IOException {
+        super(out);
+        this.writer = writer;
+        enableReplaceObject(true);
+    }
+
+    WorldCacheWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    protected void writeClassDescriptor(ObjectStreamClass desc)
+            throws IOException {
+        writeInt(writer.getClassIndex(desc.forClass()));
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) {
+        return obj instanceof String s ? writer.getStringRef(s) : obj;
+    }
+}
@@ -22,13 +22,17 @@
 
 package pascal.taie.frontend.cache;
 
-
 import pascal.taie.ir.IR;
 import pascal.taie.ir.IRBuilder;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
 import java.util.Collection;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -37,10 +41,25 @@ import java.util.stream.Collectors;
  * The {@link pascal.taie.ir.IRBuilder} is for keeping the {@link IR}s of all methods to
  * prevent cyclic references with too long a path which may make
  * the serialization fail or {@link java.lang.StackOverflowError}.
+ * <p>
+ * When it is written to world cache, the IRs are stored as separate entries
+ * indexed by method signatures (see {@link WorldCacheWriter#writeMethodIRs()}).
+ * After the cache is loaded, the IR of each method is read from the cache
+ * only when {@link JMethod#getIR()} is called on the method for the first time.
  */
 public class CachedIRBuilder implements IRBuilder {
 
-    private final Map<String, IR> methodSig2IR;
+    /**
+     * IRs of all methods, which is absent if this builder
+     * is loaded from world cache.
+     */
+    private transient Map<String, IR> methodSig2IR;
+
+    /**
+     * Reader of world cache, which is present if this builder
+     * is loaded from world cache.
+     */
+    private transient WorldCacheReader reader;
 
     public CachedIRBuilder(IRBuilder irBuilder, ClassHierarchy hierarchy) {
         irBuilder.buildAll(hierarchy);
@@ -57,6 +76,14 @@ public class CachedIRBuilder implements IRBuilder {
      */
     @Override
     public IR buildIR(JMethod method) {
+        if (reader != null) {
+            try {
+                return reader.readMethodIR(method.getSignature());
+            } catch (IOException | ClassNotFoundException e) {
+                throw new AnalysisException("Failed to load IR of " + method
+                        + " from world cache", e);
+            }
+        }
         return methodSig2IR.remove(method.getSignature());
     }
 
@@ -68,4 +95,27 @@ public class CachedIRBuilder implements IRBuilder {
                 .filter(m -> !m.isAbstract() || m.isNative())
                 .forEach(JMethod::getIR);
     }
+
+    @Serial
+    private void writeObject(ObjectOutputStream s) throws IOException {
+        s.defaultWriteObject();
+        if (s instanceof CacheObjectOutputStream out) {
+            // the IRs are written after the world by the cache writer
+            out.getWriter().setMethodIRs(methodSig2IR);
+        } else {
+            s.writeObject(methodSig2IR);
+        }
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream s) throws IOException,
+            ClassNotFoundException {
+        s.defaultReadObject();
+        if (s instanceof CacheObjectInputStream in) {
+            reader = in.getReader();
+        } else {
+            // noinspection unchecked
+            methodSig2IR = (Map<String, IR>) s.readObject();
+        }
+    }
 }
@@ -28,21 +28,16 @@ import pascal.taie.World;
 import pascal.taie.WorldBuilder;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
+import pascal.taie.frontend.cache.WorldCacheReader.StaleCacheException;
 import pascal.taie.util.Timer;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A {@link WorldBuilder} that loads the cached world if it exists, or delegates to the
  * underlying {@link WorldBuilder} otherwise.
+ * The cache is stored in the format described in {@link WorldCacheFormat}.
  */
 public class CachedWorldBuilder implements WorldBuilder {
 
@@ -50,6 +45,16 @@ public class CachedWorldBuilder implements WorldBuilder {
 
     private static final String CACHE_DIR = "cache";
 
+    /**
+     * Reader of the loaded world cache. It is kept open as the IRs
+     * of methods are loaded on demand, and closed when the world is reset.
+     */
+    private static WorldCacheReader openReader;
+
+    static {
+        World.registerResetCallback(CachedWorldBuilder::closeReader);
+    }
+
     private final WorldBuilder delegate;
 
     public CachedWorldBuilder(WorldBuilder delegate) {
@@ -65,14 +70,16 @@ public class CachedWorldBuilder implements WorldBuilder {
             System.exit(-1);
         }
         File worldCacheFile = getWorldCacheFile(options);
-        if (loadCache(options, worldCacheFile)) {
+        String fingerprint = Fingerprints.ofProgram(options);
+        if (loadCache(options, fingerprint, worldCacheFile)) {
             return;
         }
         runWorldBuilder(options, analyses);
-        saveCache(worldCacheFile);
+        saveCache(fingerprint, worldCacheFile);
     }
 
-    private boolean loadCache(Options options, File worldCacheFile) {
+    private boolean loadCache(Options options, String fingerprint,
+                              File worldCacheFile) {
         if (!worldCacheFile.exists()) {
             logger.info("World cache not found in {}", worldCacheFile);
             return false;
@@ -80,31 +87,45 @@ public class CachedWorldBuilder implements WorldBuilder {
         logger.info("Loading the world cache from {}", worldCacheFile);
         Timer timer = new Timer("Load the world cache");
         timer.start();
-        ObjectInputStream ois = null;
+        WorldCacheReader reader = null;
         try {
-            ois = new ObjectInputStream(
-                    new BufferedInputStream(new FileInputStream(worldCacheFile)));
-            World world = (World) ois.readObject();
+            reader = new WorldCacheReader(worldCacheFile, fingerprint);
+            World world = (World) reader.readSection(WorldCacheFormat.WORLD_SECTION);
             World.set(world);
             world.setOptions(options);
+            closeReader();
+            openReader = reader;
             return true;
+        } catch (StaleCacheException e) {
+            logger.info(e.getMessage());
         } catch (Exception e) {
             logger.error("Failed to load world cache from {} due to {}",
                     worldCacheFile, e);
-        } finally {
-            if (ois != null) {
+            if (reader != null) {
                 try {
-                    ois.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close input stream", e);
+                    reader.close();
+                } catch (Exception ex) {
+                    logger.error("Failed to close world cache", ex);
                 }
             }
+        } finally {
             timer.stop();
             logger.info(timer);
         }
         return false;
     }
 
+    private static void closeReader() {
+        if (openReader != null) {
+            try {
+                openReader.close();
+            } catch (Exception e) {
+                logger.error("Failed to close world cache", e);
+            }
+            openReader = null;
+        }
+    }
+
     private void runWorldBuilder(Options options, List<AnalysisConfig> analyses) {
         logger.info("Running the WorldBuilder ...");
         Timer timer = new Timer("Run the WorldBuilder");
@@ -114,62 +135,38 @@ public class CachedWorldBuilder implements WorldBuilder {
         logger.info(timer);
     }
 
-    private void saveCache(File worldCacheFile) {
+    private void saveCache(String fingerprint, File worldCacheFile) {
         logger.info("Saving the world cache to {}", worldCacheFile);
         Timer timer = new Timer("Save the world cache");
         timer.start();
-        ObjectOutputStream oos = null;
-        try {
-            oos = new ObjectOutputStream(
-                    new BufferedOutputStream(new FileOutputStream(worldCacheFile)));
-            oos.writeObject(World.get());
-            oos.close();
+        try (WorldCacheWriter writer = new WorldCacheWriter(worldCacheFile, fingerprint)) {
+            writer.writeSection(WorldCacheFormat.WORLD_SECTION, World.get());
+            // IRs are handed over to the writer when writing CachedIRBuilder
+            writer.writeMethodIRs();
         } catch (Exception e) {
             logger.error("Failed to save world cache from {} due to {}",
                     worldCacheFile, e);
+            worldCacheFile.delete();
         } finally {
-            if (oos != null) {
-                try {
-                    oos.close();
-                } catch (Exception e) {
-                    logger.error("Failed to close output stream", e);
-                }
-            }
             timer.stop();
             logger.info(timer);
         }
     }
 
     public static File getWorldCacheFile(Options options) {
+        return getCacheFile("world-cache-"
+                + Integer.toHexString(Fingerprints.ofProgramOptions(options)) + ".bin");
+    }
+
+    /**
+     * @return the file of given name in the cache directory.
+     * The cache directory is created if it does not exist.
+     */
+    public static File getCacheFile(String name) {
         File cacheDir = new File(CACHE_DIR);
         if (!cacheDir.exists()) {
             cacheDir.mkdirs();
         }
-        return new File(cacheDir,
-                "world-cache-" + getWorldCacheHash(options) + ".bin").getAbsoluteFile();
-    }
-
-    private static int getWorldCacheHash(Options options) {
-        int result = options.getMainClass() != null
-                ? options.getMainClass().hashCode() : 0;
-        result = 31 * result + (options.getInputClasses() != null
-                ? options.getInputClasses().hashCode() : 0);
-        result = 31 * result + options.getJavaVersion();
-        result = 31 * result + (options.isPrependJVM() ? 1 : 0);
-        result = 31 * result + (options.isAllowPhantom() ? 1 : 0);
-        result = 31 * result + (options.getWorldBuilderClass() != null
-                ? options.getWorldBuilderClass().getName().hashCode() : 0);
-        // add the timestamp to the cache key calculation
-        List<String> paths = new ArrayList<>();
-        paths.addAll(options.getClassPath());
-        paths.addAll(options.getAppClassPath());
-        for (String path : paths) {
-            File file = new File(path);
-            if (file.exists()) {
-                result = 31 * result + (int) file.lastModified();
-            }
-        }
-        result = Math.abs(result);
-        return result;
+        return new File(cacheDir, name).getAbsoluteFile();
     }
 }
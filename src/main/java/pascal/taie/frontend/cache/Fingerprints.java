@@ -0,0 +1,179 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.config.Options;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Computes fingerprints of the analyzed program and its elements, which
+ * decide whether the cached results of previous runs (i.e., world cache,
+ * pre-analysis results and pointer analysis snapshots) can be reused.
+ * A fingerprint changes if the program (element) is modified, and
+ * it remains unchanged across runs on the same program.
+ */
+public final class Fingerprints {
+
+    private Fingerprints() {
+    }
+
+    /**
+     * @return the hash of the options that identify the analyzed program.
+     * It does not cover the contents of class path, thus it remains
+     * unchanged when the program is modified and recompiled, and it is
+     * used to name the cache files of the program.
+     */
+    public static int ofProgramOptions(Options options) {
+        int result = options.getMainClass() != null
+                ? options.getMainClass().hashCode() : 0;
+        result = 31 * result + (options.getInputClasses() != null
+                ? options.getInputClasses().hashCode() : 0);
+        result = 31 * result + options.getJavaVersion();
+        result = 31 * result + (options.isPrependJVM() ? 1 : 0);
+        result = 31 * result + (options.isAllowPhantom() ? 1 : 0);
+        result = 31 * result + (options.getWorldBuilderClass() != null
+                ? options.getWorldBuilderClass().getName().hashCode() : 0);
+        return result;
+    }
+
+    /**
+     * @return the fingerprint of the program specified by given options,
+     * which covers the options that affect the world and the files
+     * in class path (see {@link #ofPath(File)}).
+     */
+    public static String ofProgram(Options options) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("main-class=").append(options.getMainClass()).append('\n');
+        sb.append("input-classes=").append(options.getInputClasses()).append('\n');
+        sb.append("java=").append(options.getJavaVersion()).append('\n');
+        sb.append("prepend-JVM=").append(options.isPrependJVM()).append('\n');
+        sb.append("allow-phantom=").append(options.isAllowPhantom()).append('\n');
+        sb.append("world-builder=").append(options.getWorldBuilderClass() != null
+                ? options.getWorldBuilderClass().getName() : null).append('\n');
+        List<String> paths = new ArrayList<>();
+        paths.addAll(options.getClassPath());
+        paths.addAll(options.getAppClassPath());
+        for (String path : paths) {
+            sb.append(path).append('#').append(ofPath(new File(path))).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the fingerprint of given class path entry, or "absent"
+     * if it does not exist.
+     * <ul>
+     *     <li>For a file (e.g., a JAR), it consists of the size and
+     *     the last modified time of the file, so that large libraries,
+     *     such as the ones of JDK, are not read.</li>
+     *     <li>For a directory, it is the SHA-256 digest of the relative
+     *     paths and contents of all files in the directory. Timestamps
+     *     are not used, as a class file which is recompiled in place may
+     *     keep its size and (coarse-grained) modified time.</li>
+     * </ul>
+     */
+    static String ofPath(File file) {
+        if (!file.exists()) {
+            return "absent";
+        }
+        if (file.isFile()) {
+            return file.length() + ":" + file.lastModified();
+        }
+        MessageDigest digest = newDigest();
+        Path root = file.toPath();
+        try (Stream<Path> files = Files.walk(root)) {
+            List<Path> regularFiles = files.filter(Files::isRegularFile)
+                    .sorted()
+                    .toList();
+            byte[] buffer = new byte[8192];
+            for (Path p : regularFiles) {
+                String name = root.relativize(p).toString()
+                        .replace(File.separatorChar, '/');
+                digest.update(name.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+                try (InputStream in = Files.newInputStream(p)) {
+                    int n;
+                    while ((n = in.read(buffer)) > 0) {
+                        digest.update(buffer, 0, n);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError("SHA-256 is always supported", e);
+        }
+    }
+
+    /**
+     * @return fingerprint of the IR of given method.
+     */
+    public static long ofMethod(JMethod method) {
+        long result = method.isStatic() ? 1 : 0;
+        if (!method.isAbstract()) {
+            IR ir = method.getIR();
+            for (Stmt stmt : ir) {
+                result = 31 * result + stmt.getLineNumber();
+                result = 31 * result + stmt.toString().hashCode();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return fingerprint of the super class and interfaces of given class.
+     */
+    public static int ofSupertypes(JClass jclass) {
+        JClass superclass = jclass.getSuperClass();
+        int result = superclass != null ? superclass.getName().hashCode() : 0;
+        for (JClass iface : jclass.getInterfaces()) {
+            result = 31 * result + iface.getName().hashCode();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.frontend.cache.WorldHandles.ClassHandle;
+import pascal.taie.frontend.cache.WorldHandles.FieldHandle;
+import pascal.taie.frontend.cache.WorldHandles.FieldRefHandle;
+import pascal.taie.frontend.cache.WorldHandles.MethodHandle;
+import pascal.taie.frontend.cache.WorldHandles.MethodRefHandle;
+import pascal.taie.frontend.cache.WorldHandles.TypeHandle;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.classes.ClassHierarchy;
+import pascal.taie.language.type.TypeSystem;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Object input stream for IR entries of world cache, which resolves
+ * {@link WorldHandles} to the elements of the loaded world.
+ */
+class IRObjectInputStream extends CacheObjectInputStream {
+
+    private final ClassHierarchy hierarchy;
+
+    private final TypeSystem typeSystem;
+
+    IRObjectInputStream(InputStream in, WorldCacheReader reader,
+                        ClassHierarchy hierarchy, TypeSystem typeSystem)
+            throws IOException {
+        super(in, reader);
+        this.hierarchy = hierarchy;
+        this.typeSystem = typeSystem;
+    }
+
+    @Override
+    protected Object resolveObject(Object obj) {
+        if (obj instanceof ClassHandle handle) {
+            return hierarchy.getClass(handle.name());
+        } else if (obj instanceof MethodHandle handle) {
+            return hierarchy.getMethod(handle.signature());
+        } else if (obj instanceof FieldHandle handle) {
+            return hierarchy.getField(handle.signature());
+        } else if (obj instanceof TypeHandle handle) {
+            return typeSystem.getType(handle.name());
+        } else if (obj instanceof MethodRefHandle handle) {
+            return MethodRef.get(handle.declaringClass(), handle.name(),
+                    handle.parameterTypes(), handle.returnType(),
+                    handle.isStatic());
+        } else if (obj instanceof FieldRefHandle handle) {
+            return FieldRef.get(handle.declaringClass(), handle.name(),
+                    handle.type(), handle.isStatic());
+        }
+        return super.resolveObject(obj);
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.frontend.cache.WorldHandles.ClassHandle;
+import pascal.taie.frontend.cache.WorldHandles.FieldHandle;
+import pascal.taie.frontend.cache.WorldHandles.FieldRefHandle;
+import pascal.taie.frontend.cache.WorldHandles.MethodHandle;
+import pascal.taie.frontend.cache.WorldHandles.MethodRefHandle;
+import pascal.taie.frontend.cache.WorldHandles.TypeHandle;
+import pascal.taie.ir.proginfo.FieldRef;
+import pascal.taie.ir.proginfo.MethodRef;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JField;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.language.type.ArrayType;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.language.type.Type;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+
+/**
+ * Object output stream for IR entries of world cache, which writes
+ * the elements of the world as {@link WorldHandles}.
+ */
+class IRObjectOutputStream extends CacheObjectOutputStream {
+
+    IRObjectOutputStream(OutputStream out, WorldCacheWriter writer)
+            throws IOException {
+        super(out, writer);
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) {
+        if (obj instanceof JClass jclass) {
+            return new ClassHandle(jclass.getName());
+        } else if (obj instanceof JMethod method) {
+            return new MethodHandle(method.getSignature());
+        } else if (obj instanceof JField field) {
+            return new FieldHandle(field.getSignature());
+        } else if (obj instanceof ClassType || obj instanceof ArrayType) {
+            return new TypeHandle(((Type) obj).getName());
+        } else if (obj instanceof MethodRef ref) {
+            return new MethodRefHandle(ref.getDeclaringClass(), ref.getName(),
+                    new ArrayList<>(ref.getParameterTypes()),
+                    ref.getReturnType(), ref.isStatic());
+        } else if (obj instanceof FieldRef ref) {
+            return new FieldRefHandle(ref.getDeclaringClass(), ref.getName(),
+                    ref.getType(), ref.isStatic());
+        }
+        return super.replaceObject(obj);
+    }
+}
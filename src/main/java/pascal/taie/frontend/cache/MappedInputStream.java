@@ -0,0 +1,106 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Input stream which reads a region of file through memory-mapped buffers.
+ * Large regions are mapped by windows lazily.
+ * The stream can also read a (slice of) buffer that has been mapped.
+ */
+class MappedInputStream extends InputStream {
+
+    private static final long WINDOW_SIZE = 1L << 30;
+
+    private final FileChannel channel;
+
+    /**
+     * File position of the next window.
+     */
+    private long position;
+
+    private final long end;
+
+    private ByteBuffer buffer;
+
+    MappedInputStream(FileChannel channel, long position, long length) {
+        this.channel = channel;
+        this.position = position;
+        this.end = position + length;
+    }
+
+    MappedInputStream(ByteBuffer buffer) {
+        this(null, 0, 0);
+        this.buffer = buffer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public int available() {
+        long remaining = (buffer != null ? buffer.remaining() : 0)
+                + (end - position);
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Maps the next window if current buffer is exhausted.
+     *
+     * @return {@code false} if the end of region is reached.
+     */
+    private boolean ensureRemaining() throws IOException {
+        if (buffer != null && buffer.hasRemaining()) {
+            return true;
+        }
+        if (position >= end) {
+            return false;
+        }
+        long size = Math.min(WINDOW_SIZE, end - position);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        position += size;
+        return true;
+    }
+}
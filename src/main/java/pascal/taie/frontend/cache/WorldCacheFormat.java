@@ -0,0 +1,136 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Constants and helpers of the world cache file format.
+ * <p>
+ * A world cache file is laid out as follows:
+ * <pre>
+ * header:    magic (int) | version (int) | offset of directory (long)
+ * sections:  object streams written by {@link CacheObjectOutputStream}
+ * directory: fingerprint | class table | string table | section table
+ * trailer:   checksum of header and directory (long)
+ * </pre>
+ * The fingerprint, computed by {@link Fingerprints#ofProgram}, identifies
+ * the options and the contents of class path used to build the cached world. The class table records the name and serial version
+ * UID of every class whose instances are written in the sections, so that
+ * the streams only refer to classes by their indexes, and the cache is
+ * discarded once the serial form of any of these classes changes.
+ * The string table holds every distinct string in the sections,
+ * which the streams also refer to by indexes.
+ * The section table records the offset, length and checksum of each
+ * section, and the index of IR entries records the same for each entry.
+ * The trailing checksum only covers the header and directory, and the
+ * checksum of a section (IR entry) is verified when the section (entry)
+ * is read, so that opening the cache does not read the whole file,
+ * and a corrupted cache is still rejected before the corrupted part
+ * is deserialized.
+ */
+final class WorldCacheFormat {
+
+    static final int MAGIC = 0x54414945; // "TAIE"
+
+    /**
+     * Version of the file format. Increase it when the format is changed.
+     */
+    static final int VERSION = 4;
+
+    static final int HEADER_SIZE = 16;
+
+    static final int TRAILER_SIZE = 8;
+
+    static final String WORLD_SECTION = "world";
+
+    /**
+     * Section of IR entries, each of which is an object stream
+     * written by {@link IRObjectOutputStream}.
+     */
+    static final String IR_SECTION = "ir";
+
+    /**
+     * Section of the map from method signatures to the offsets
+     * (relative to {@link #IR_SECTION}), lengths and checksums
+     * of their IR entries.
+     */
+    static final String IR_INDEX_SECTION = "ir-index";
+
+    private WorldCacheFormat() {
+    }
+
+    /**
+     * Updates given checksum with the {@code length} bytes starting
+     * at {@code offset} of given channel, which must be readable.
+     */
+    static void update(CRC32C crc, FileChannel channel, long offset, long length)
+            throws IOException {
+        for (long position = offset, end = offset + length; position < end; ) {
+            long size = Math.min(end - position, Integer.MAX_VALUE);
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+            position += size;
+        }
+    }
+
+    /**
+     * @return CRC32C checksum of the {@code length} bytes starting
+     * at {@code offset} of given channel, which must be readable.
+     */
+    static long checksum(FileChannel channel, long offset, long length)
+            throws IOException {
+        CRC32C crc = new CRC32C();
+        update(crc, channel, offset, length);
+        return crc.getValue();
+    }
+
+    /**
+     * @return CRC32C checksum of the header and directory of the file
+     * of given channel, i.e., the bytes before the first section and the
+     * bytes from {@code dirOffset} to {@code dirEnd}.
+     */
+    static long checksumDirectory(FileChannel channel, long dirOffset, long dirEnd)
+            throws IOException {
+        CRC32C crc = new CRC32C();
+        update(crc, channel, 0, HEADER_SIZE);
+        update(crc, channel, dirOffset, dirEnd - dirOffset);
+        return crc.getValue();
+    }
+
+    static void writeString(DataOutput out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import pascal.taie.World;
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static pascal.taie.frontend.cache.WorldCacheFormat.readString;
+
+/**
+ * Reads world cache file written by {@link WorldCacheWriter}.
+ * The header and directory are validated when the reader is created,
+ * and the sections and IR entries are read through memory-mapped buffers
+ * on demand, thus the reader should be kept open until the IRs are read.
+ * The checksum of each section and IR entry is verified when it is read.
+ * If it mismatches, the cache file is deleted, so that the world is built
+ * from scratch and cached again in the next run.
+ */
+class WorldCacheReader implements Closeable {
+
+    private static final Logger logger = LogManager.getLogger(WorldCacheReader.class);
+
+    private final File file;
+
+    private final FileChannel channel;
+
+    private final Class<?>[] classes;
+
+    private final String[] strings;
+
+    /**
+     * Map from section names to their offsets, lengths and checksums.
+     */
+    private final Map<String, long[]> sections = Maps.newMap();
+
+    /**
+     * Index of IR entries, which is read on demand.
+     */
+    private Map<String, long[]> irIndex;
+
+    /**
+     * Buffer of IR section, or {@code null} if the section is too large
+     * to be mapped in a single buffer.
+     */
+    private MappedByteBuffer irBuffer;
+
+    /**
+     * @param fingerprint fingerprint of current program
+     * @throws StaleCacheException if the cache file is not compatible with
+     *                             given fingerprint or current classes
+     */
+    WorldCacheReader(File file, String fingerprint) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            long size = channel.size() - WorldCacheFormat.TRAILER_SIZE;
+            if (size < WorldCacheFormat.HEADER_SIZE) {
+                throw new StreamCorruptedException("World cache is truncated");
+            }
+            ByteBuffer header = ByteBuffer.allocate(WorldCacheFormat.HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != WorldCacheFormat.MAGIC) {
+                throw new StreamCorruptedException("Not a world cache file");
+            }
+            int version = header.getInt();
+            if (version != WorldCacheFormat.VERSION) {
+                throw new StaleCacheException("format version " + version
+                        + " mismatches " + WorldCacheFormat.VERSION);
+            }
+            long dirOffset = header.getLong();
+            if (dirOffset < WorldCacheFormat.HEADER_SIZE || dirOffset > size) {
+                throw new StreamCorruptedException("World cache is corrupted");
+            }
+            ByteBuffer trailer = ByteBuffer.allocate(WorldCacheFormat.TRAILER_SIZE);
+            channel.read(trailer, size);
+            trailer.flip();
+            if (trailer.getLong() != WorldCacheFormat.checksumDirectory(
+                    channel, dirOffset, size)) {
+                throw new StreamCorruptedException("World cache is corrupted");
+            }
+            DataInputStream in = new DataInputStream(new MappedInputStream(
+                    channel, dirOffset, size - dirOffset));
+            if (!readString(in).equals(fingerprint)) {
+                throw new StaleCacheException("options or class path are changed");
+            }
+            classes = new Class<?>[in.readInt()];
+            for (int i = 0; i < classes.length; ++i) {
+                String name = readString(in);
+                long suid = in.readLong();
+                try {
+                    classes[i] = Class.forName(name, false,
+                            WorldCacheReader.class.getClassLoader());
+                } catch (ClassNotFoundException e) {
+                    throw new StaleCacheException("class " + name + " is not found");
+                }
+                ObjectStreamClass desc = ObjectStreamClass.lookupAny(classes[i]);
+                if (desc.getSerialVersionUID() != suid) {
+                    throw new StaleCacheException(
+                            "serial form of class " + name + " is changed");
+                }
+            }
+            strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; ++i) {
+                strings[i] = readString(in);
+            }
+            int nSections = in.readInt();
+            for (int i = 0; i < nSections; ++i) {
+                String name = readString(in);
+                sections.put(name, new long[]{
+                        in.readLong(), in.readLong(), in.readLong() });
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the object in given section.
+     */
+    Object readSection(String name) throws IOException, ClassNotFoundException {
+        long[] section = sections.get(name);
+        if (section == null) {
+            throw new StreamCorruptedException("Section " + name + " is absent");
+        }
+        if (WorldCacheFormat.checksum(channel, section[0], section[1]) != section[2]) {
+            throw corrupted("section " + name);
+        }
+        ObjectInputStream in = new CacheObjectInputStream(
+                new MappedInputStream(channel, section[0], section[1]), this);
+        return in.readObject();
+    }
+
+    /**
+     * Reads the IR entry of given method.
+     *
+     * @return the IR of the method, or {@code null} if the IR
+     * of the method is absent in the cache.
+     */
+    IR readMethodIR(String methodSig) throws IOException, ClassNotFoundException {
+        Map<String, long[]> index = getIRIndex();
+        long[] entry = index.get(methodSig);
+        if (entry == null) {
+            return null;
+        }
+        MappedInputStream in;
+        long checksum;
+        if (irBuffer != null) {
+            ByteBuffer buffer = irBuffer.slice((int) entry[0], (int) entry[1]);
+            CRC32C crc = new CRC32C();
+            crc.update(buffer.duplicate());
+            checksum = crc.getValue();
+            in = new MappedInputStream(buffer);
+        } else {
+            long offset = sections.get(WorldCacheFormat.IR_SECTION)[0] + entry[0];
+            checksum = WorldCacheFormat.checksum(channel, offset, entry[1]);
+            in = new MappedInputStream(channel, offset, entry[1]);
+        }
+        if (checksum != entry[2]) {
+            throw corrupted("IR of " + methodSig);
+        }
+        World world = World.get();
+        return (IR) new IRObjectInputStream(in, this,
+                world.getClassHierarchy(), world.getTypeSystem()).readObject();
+    }
+
+    private synchronized Map<String, long[]> getIRIndex()
+            throws IOException, ClassNotFoundException {
+        if (irIndex == null) {
+            // noinspection unchecked
+            irIndex = (Map<String, long[]>) readSection(
+                    WorldCacheFormat.IR_INDEX_SECTION);
+            long[] section = sections.get(WorldCacheFormat.IR_SECTION);
+            if (section[1] <= Integer.MAX_VALUE) {
+                // map the whole section at once, and slice it for each entry
+                irBuffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                        section[0], section[1]);
+            }
+        }
+        return irIndex;
+    }
+
+    /**
+     * Deletes the corrupted cache file, so that it is rebuilt in the next run.
+     *
+     * @return the exception to be thrown for the corrupted part of the cache.
+     */
+    private StreamCorruptedException corrupted(String part) {
+        if (!file.delete()) {
+            logger.warn("Failed to delete corrupted world cache {}", file);
+        }
+        return new StreamCorruptedException(
+                "World cache is corrupted in " + part + ", it has been discarded");
+    }
+
+    Class<?> getClass(int index) {
+        return classes[index];
+    }
+
+    String getString(int index) {
+        return strings[index];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Exception thrown when the cache file is outdated.
+     */
+    static class StaleCacheException extends IOException {
+
+        StaleCacheException(String reason) {
+            super("World cache is stale: " + reason);
+        }
+    }
+}
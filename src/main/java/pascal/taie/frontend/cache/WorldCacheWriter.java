@@ -0,0 +1,228 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.ir.IR;
+import pascal.taie.util.collection.Maps;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+import static pascal.taie.frontend.cache.WorldCacheFormat.writeString;
+
+/**
+ * Writes world cache file in the format described in {@link WorldCacheFormat}.
+ */
+class WorldCacheWriter implements Closeable {
+
+    private final FileChannel channel;
+
+    private final String fingerprint;
+
+    private final List<Class<?>> classes = new ArrayList<>();
+
+    private final Map<Class<?>, Integer> classIndexes = Maps.newMap();
+
+    private final List<String> strings = new ArrayList<>();
+
+    private final Map<String, StringRef> stringRefs = Maps.newMap();
+
+    /**
+     * Map from section names to their offsets, lengths and checksums.
+     */
+    private final Map<String, long[]> sections = Maps.newLinkedHashMap();
+
+    private Map<String, IR> methodIRs;
+
+    /**
+     * @param fingerprint fingerprint of the program whose world is written
+     */
+    WorldCacheWriter(File file, String fingerprint) throws IOException {
+        // the channel is also read to compute the checksums
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.fingerprint = fingerprint;
+        // reserve space for header
+        channel.position(WorldCacheFormat.HEADER_SIZE);
+    }
+
+    /**
+     * Writes given object as a section of the cache file.
+     */
+    void writeSection(String name, Object obj) throws IOException {
+        long offset = channel.position();
+        ObjectOutputStream out = new CacheObjectOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel)), this);
+        out.writeObject(obj);
+        // flush, instead of close, the stream, otherwise the channel is closed
+        out.flush();
+        long length = channel.position() - offset;
+        sections.put(name, new long[]{ offset, length,
+                WorldCacheFormat.checksum(channel, offset, length) });
+    }
+
+    /**
+     * Sets the IRs to be written by {@link #writeMethodIRs()}.
+     */
+    void setMethodIRs(Map<String, IR> methodIRs) {
+        this.methodIRs = methodIRs;
+    }
+
+    /**
+     * Writes the IRs of methods as separate entries of
+     * {@link WorldCacheFormat#IR_SECTION}, so that each IR can be read
+     * on demand. The entries are indexed by method signatures
+     * in {@link WorldCacheFormat#IR_INDEX_SECTION}, together with
+     * their checksums computed as they are written.
+     */
+    void writeMethodIRs() throws IOException {
+        if (methodIRs == null) {
+            return;
+        }
+        long sectionOffset = channel.position();
+        Map<String, long[]> index = Maps.newMap(methodIRs.size());
+        BufferedOutputStream out = new BufferedOutputStream(
+                Channels.newOutputStream(channel));
+        CountingOutputStream counter = new CountingOutputStream(out);
+        for (var entry : methodIRs.entrySet()) {
+            long offset = counter.count;
+            counter.crc.reset();
+            ObjectOutputStream irOut = new IRObjectOutputStream(counter, this);
+            irOut.writeObject(entry.getValue());
+            irOut.flush();
+            index.put(entry.getKey(), new long[]{
+                    offset, counter.count - offset, counter.crc.getValue() });
+        }
+        out.flush();
+        // the IR section is verified by the checksums of its entries
+        sections.put(WorldCacheFormat.IR_SECTION,
+                new long[]{ sectionOffset, channel.position() - sectionOffset, 0 });
+        writeSection(WorldCacheFormat.IR_INDEX_SECTION, index);
+        methodIRs = null;
+    }
+
+    int getClassIndex(Class<?> c) {
+        return classIndexes.computeIfAbsent(c, __ -> {
+            classes.add(c);
+            return classes.size() - 1;
+        });
+    }
+
+    StringRef getStringRef(String s) {
+        return stringRefs.computeIfAbsent(s, __ -> {
+            strings.add(s);
+            return new StringRef(strings.size() - 1);
+        });
+    }
+
+    /**
+     * Output stream that counts the written bytes and computes
+     * their checksum.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private final CRC32C crc = new CRC32C();
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            crc.update(b);
+            ++count;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            crc.update(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+            // the underlying stream is flushed after writing all entries
+        }
+    }
+
+    /**
+     * Writes the directory, header and checksum, and closes the file.
+     */
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            long dirOffset = channel.position();
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Channels.newOutputStream(channel)));
+            writeString(out, fingerprint);
+            out.writeInt(classes.size());
+            for (Class<?> c : classes) {
+                writeString(out, c.getName());
+                out.writeLong(ObjectStreamClass.lookupAny(c).getSerialVersionUID());
+            }
+            out.writeInt(strings.size());
+            for (String s : strings) {
+                writeString(out, s);
+            }
+            out.writeInt(sections.size());
+            for (var entry : sections.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeLong(entry.getValue()[0]);
+                out.writeLong(entry.getValue()[1]);
+                out.writeLong(entry.getValue()[2]);
+            }
+            out.flush();
+            ByteBuffer header = ByteBuffer.allocate(WorldCacheFormat.HEADER_SIZE);
+            header.putInt(WorldCacheFormat.MAGIC)
+                    .putInt(WorldCacheFormat.VERSION)
+                    .putLong(dirOffset)
+                    .flip();
+            channel.write(header, 0);
+            long size = channel.size();
+            ByteBuffer trailer = ByteBuffer.allocate(WorldCacheFormat.TRAILER_SIZE);
+            trailer.putLong(WorldCacheFormat.checksumDirectory(
+                    channel, dirOffset, size)).flip();
+            channel.write(trailer, size);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.cache;
+
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.type.Type;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Serializable handles that are written in place of the elements of
+ * the world (classes, members, types and member references) in the
+ * IR entries of world cache. A handle is resolved to the corresponding
+ * element of the loaded world by {@link IRObjectInputStream}, thus each
+ * IR entry can be read independently of the others.
+ */
+final class WorldHandles {
+
+    private WorldHandles() {
+    }
+
+    record ClassHandle(String name) implements Serializable {
+    }
+
+    record MethodHandle(String signature) implements Serializable {
+    }
+
+    record FieldHandle(String signature) implements Serializable {
+    }
+
+    record TypeHandle(String name) implements Serializable {
+    }
+
+    record MethodRefHandle(JClass declaringClass, String name,
+                           List<Type> parameterTypes, Type returnType,
+                           boolean isStatic) implements Serializable {
+    }
+
+    record FieldRefHandle(JClass declaringClass, String name,
+                          Type type, boolean isStatic) implements Serializable {
+    }
+}
@@ -27,12 +27,9 @@ import org.apache.logging.log4j.Logger;
 import pascal.taie.ir.IR;
 import pascal.taie.ir.IRBuildHelper;
 import pascal.taie.language.classes.ClassHierarchy;
-import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JMethod;
 import pascal.taie.util.Timer;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -70,25 +67,16 @@ class IRBuilder implements pascal.taie.ir.IRBuilder {
         Timer timer = new Timer("Build IR for all methods");
         timer.start();
         int nThreads = Runtime.getRuntime().availableProcessors();
-        // Group all methods by number of threads
-        List<List<JMethod>> groups = new ArrayList<>();
-        for (int i = 0; i < nThreads; ++i) {
-            groups.add(new ArrayList<>());
-        }
-        List<JClass> classes = hierarchy.allClasses().toList();
-        int i = 0;
-        for (JClass c : classes) {
-            for (JMethod m : c.getDeclaredMethods()) {
-                if (!m.isAbstract() || m.isNative()) {
-                    groups.get(i++ % nThreads).add(m);
-                }
-            }
-        }
-        // Build IR for all methods in parallel
-        ExecutorService service = Executors.newFixedThreadPool(nThreads);
-        for (List<JMethod> group : groups) {
-            service.execute(() -> group.forEach(JMethod::getIR));
-        }
+        // Build IR for all methods in parallel. Each method is submitted
+        // as a separate task to a work-stealing pool, so that the threads
+        // are balanced even if the sizes of the methods vary greatly.
+        // The methods whose IRs have been built are skipped.
+        ExecutorService service = Executors.newWorkStealingPool(nThreads);
+        hierarchy.allClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract() || m.isNative())
+                .filter(m -> m.getIRIfPresent() == null)
+                .forEach(m -> service.execute(m::getIR));
         service.shutdown();
         try {
             service.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
@@ -30,7 +30,7 @@ import soot.Scene;
 import soot.SootClass;
 
 import java.util.Collection;
-import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 class SootClassLoader implements JClassLoader {
 
@@ -42,7 +42,11 @@ class SootClassLoader implements JClassLoader {
 
     private transient Converter converter;
 
-    private final Map<String, JClass> classes = Maps.newMap(1024);
+    /**
+     * This map may be concurrently read during parallel IR construction,
+     * thus we use concurrent map to ensure its thread-safety.
+     */
+    private final ConcurrentMap<String, JClass> classes = Maps.newConcurrentMap(1024);
 
     SootClassLoader(Scene scene, ClassHierarchy hierarchy, boolean allowPhantom) {
         this.scene = scene;
@@ -54,24 +58,39 @@ class SootClassLoader implements JClassLoader {
     public JClass loadClass(String name) {
         JClass jclass = classes.get(name);
         if (jclass == null && scene != null) {
-            SootClass sootClass = scene.getSootClassUnsafe(name, false);
-            if (sootClass != null && (!sootClass.isPhantom() || allowPhantom)) {
-                // TODO: handle phantom class more comprehensively
-                jclass = new JClass(this, sootClass.getName(),
-                        sootClass.moduleName);
-                // New class must be put into classes map at first,
-                // at build(jclass) may also trigger the loading of
-                // the new created class. Not putting the class into classes
-                // may cause infinite recursion.
-                classes.put(name, jclass);
-                new SootClassBuilder(converter, sootClass).build(jclass);
-                hierarchy.addClass(jclass);
-            }
+            jclass = buildClass(name);
         }
         // TODO: add warning for missing classes
         return jclass;
     }
 
+    /**
+     * Builds the class of given name from Soot's scene and adds it
+     * to the hierarchy. Soot's {@link Scene} and {@link SootClass} are not
+     * thread-safe, and a class may be loaded on demand during parallel
+     * IR construction, thus this method is synchronized.
+     */
+    private synchronized JClass buildClass(String name) {
+        JClass jclass = classes.get(name);
+        if (jclass != null) {
+            return jclass;
+        }
+        SootClass sootClass = scene.getSootClassUnsafe(name, false);
+        if (sootClass != null && (!sootClass.isPhantom() || allowPhantom)) {
+            // TODO: handle phantom class more comprehensively
+            jclass = new JClass(this, sootClass.getName(),
+                    sootClass.moduleName);
+            // New class must be put into classes map at first,
+            // at build(jclass) may also trigger the loading of
+            // the new created class. Not putting the class into classes
+            // may cause infinite recursion.
+            classes.put(name, jclass);
+            new SootClassBuilder(converter, sootClass).build(jclass);
+            hierarchy.addClass(jclass);
+        }
+        return jclass;
+    }
+
     @Override
     public Collection<JClass> getLoadedClasses() {
         return classes.values();
@@ -22,23 +22,17 @@
 
 package pascal.taie.frontend.soot;
 
-import com.fasterxml.jackson.databind.JavaType;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import pascal.taie.AbstractWorldBuilder;
 import pascal.taie.World;
-import pascal.taie.analysis.pta.PointerAnalysis;
-import pascal.taie.analysis.pta.plugin.reflection.LogItem;
 import pascal.taie.config.AnalysisConfig;
 import pascal.taie.config.Options;
 import pascal.taie.language.classes.ClassHierarchy;
 import pascal.taie.language.classes.ClassHierarchyImpl;
-import pascal.taie.language.classes.StringReps;
-import pascal.taie.language.type.PrimitiveType;
 import pascal.taie.language.type.TypeSystem;
 import pascal.taie.language.type.TypeSystemImpl;
+import pascal.taie.util.Timer;
 import soot.G;
 import soot.PackManager;
 import soot.Scene;
@@ -47,8 +41,6 @@ import soot.SootResolver;
 import soot.Transform;
 
 import java.io.File;
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -61,12 +53,6 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
 
     private static final Logger logger = LogManager.getLogger(SootWorldBuilder.class);
 
-    /**
-     * Path to the file which specifies the basic classes that should be
-     * added to Scene in advance.
-     */
-    private static final String BASIC_CLASSES = "basic-classes.yml";
-
     @Override
     public void build(Options options, List<AnalysisConfig> analyses) {
         initSoot(options, analyses, this);
@@ -136,22 +122,10 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
     }
 
     /**
-     * Reads basic classes specified by file {@link #BASIC_CLASSES} and
-     * adds them to {@code scene}.
+     * Adds basic classes to {@code scene}.
      */
     private static void addBasicClasses(Scene scene) {
-        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
-        JavaType type = mapper.getTypeFactory()
-                .constructCollectionType(List.class, String.class);
-        try {
-            InputStream content = SootWorldBuilder.class
-                    .getClassLoader()
-                    .getResourceAsStream(BASIC_CLASSES);
-            List<String> classNames = mapper.readValue(content, type);
-            classNames.forEach(name -> scene.addBasicClass(name, HIERARCHY));
-        } catch (IOException e) {
-            throw new SootFrontendException("Failed to read Soot basic classes", e);
-        }
+        getBasicClasses().forEach(name -> scene.addBasicClass(name, HIERARCHY));
     }
 
     /**
@@ -159,38 +133,12 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
      * Tai-e's ClassHierarchy depends on Soot's Scene, which does not change
      * after hierarchy's construction, thus we need to add the classes
      * in the reflection log before starting Soot.
-     * <p>
-     * TODO: this is a tentative solution. We should remove it and use other
-     *  way to load basic classes in the reflection log, so that world builder
-     *  does not depend on analyses to be executed.
      *
      * @param analyses the analyses to be executed
      * @param scene    the Soot's scene
      */
     private static void addReflectionLogClasses(List<AnalysisConfig> analyses, Scene scene) {
-        analyses.forEach(config -> {
-            if (config.getId().equals(PointerAnalysis.ID)) {
-                String path = config.getOptions().getString("reflection-log");
-                if (path != null) {
-                    LogItem.load(path).forEach(item -> {
-                        // add target class
-                        String target = item.target;
-                        String targetClass;
-                        if (target.startsWith("<")) {
-                            targetClass = StringReps.getClassNameOf(target);
-                        } else {
-                            targetClass = target;
-                        }
-                        if (StringReps.isArrayType(targetClass)) {
-                            targetClass = StringReps.getBaseTypeNameOf(target);
-                        }
-                        if (!PrimitiveType.isPrimitiveType(targetClass)) {
-                            scene.addBasicClass(targetClass);
-                        }
-                    });
-                }
-            }
-        });
+        getReflectionLogClasses(analyses).forEach(scene::addBasicClass);
     }
 
     private void build(Options options, Scene scene) {
@@ -214,6 +162,9 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
         // initialize converter
         Converter converter = new Converter(loader, typeSystem);
         loader.setConverter(converter);
+        // initialize IR builder
+        IRBuilder irBuilder = new IRBuilder(converter);
+        world.setIRBuilder(irBuilder);
         // build classes in hierarchy
         buildClasses(hierarchy, scene);
         // set main method
@@ -236,19 +187,26 @@ public class SootWorldBuilder extends AbstractWorldBuilder {
                 // thus we filter out null
                 .filter(Objects::nonNull)
                 .toList());
-        // initialize IR builder
         world.setNativeModel(getNativeModel(typeSystem, hierarchy, options));
-        IRBuilder irBuilder = new IRBuilder(converter);
-        world.setIRBuilder(irBuilder);
         if (options.isPreBuildIR()) {
+            // IRs are built in parallel after all classes are built and
+            // added to the hierarchy, and the native model is set
             irBuilder.buildAll(hierarchy);
         }
     }
 
+    /**
+     * Builds the classes in the scene one by one. Building a class reads
+     * Soot's {@link Scene} and {@link soot.SootClass}, which are not
+     * thread-safe, thus the classes are not built in parallel.
+     */
     protected static void buildClasses(ClassHierarchy hierarchy, Scene scene) {
-        // TODO: parallelize?
+        Timer timer = new Timer("Build classes");
+        timer.start();
         new ArrayList<>(scene.getClasses()).forEach(c ->
                 hierarchy.getDefaultClassLoader().loadClass(c.getName()));
+        timer.stop();
+        logger.info(timer);
     }
 
     private static void runSoot(String[] args) {
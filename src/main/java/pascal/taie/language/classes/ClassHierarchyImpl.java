@@ -82,15 +82,23 @@ public class ClassHierarchyImpl implements ClassHierarchy {
     private final MultiMap<JClass, JClass> directInnerClasses = Maps.newMultiMap();
 
     /**
-     * Cache results of method dispatch.
+     * Cache results of method dispatch. This map is concurrent as
+     * method dispatch may be performed by multiple threads.
      */
-    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable = Maps.newTwoKeyMap();
+    private final TwoKeyMap<JClass, Subsignature, JMethod> dispatchTable =
+            Maps.newTwoKeyMap(Maps.newConcurrentMap(), Maps::newConcurrentMap);
 
     /**
      * Cache results of {@link #getAllSubclassesOf(JClass)}.
      */
     private final Map<JClass, Set<JClass>> allSubclasses = Maps.newConcurrentMap();
 
+    /**
+     * Index for constant-time subclass checking, built lazily
+     * after all classes have been added.
+     */
+    private volatile HierarchyIndex hierarchyIndex;
+
     @Override
     public void setDefaultClassLoader(JClassLoader loader) {
         this.defaultLoader = loader;
@@ -121,8 +129,12 @@ public class ClassHierarchyImpl implements ClassHierarchy {
                 .toList();
     }
 
+    /**
+     * Classes may be added by multiple threads (e.g., when the frontend
+     * loads classes in parallel), thus this method is synchronized.
+     */
     @Override
-    public void addClass(JClass jclass) {
+    public synchronized void addClass(JClass jclass) {
         // Add direct subinterface
         if (jclass.isInterface()) {
             jclass.getInterfaces().forEach(iface ->
@@ -150,6 +162,7 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         // invalidate global hierarchy information
         // TODO - make this elegant
         allSubclasses.clear();
+        invalidateHierarchyIndex(jclass);
     }
 
     @Override
@@ -399,10 +412,49 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         } else if (superclass == getObjectClass()) {
             return true;
         } else {
+            HierarchyIndex index = getHierarchyIndex();
+            if (index.covers(superclass) && index.covers(subclass)) {
+                return index.isSubclass(superclass, subclass);
+            }
+            // fall back to traversal for the classes which are
+            // not (yet) covered by the index
             return getAllSubclassesOf(superclass).contains(subclass);
         }
     }
 
+    /**
+     * Invalidates the hierarchy index after a class is added.
+     * The index remains correct for the classes it covers, unless the
+     * added class is a supertype of some existing classes. Queries on
+     * the classes not covered fall back to traversal, and the index is
+     * rebuilt once enough new classes are added, so that frequent
+     * additions (e.g., of phantom classes) do not rebuild it every time.
+     */
+    private void invalidateHierarchyIndex(JClass jclass) {
+        HierarchyIndex index = hierarchyIndex;
+        if (index != null &&
+                (directSubclasses.containsKey(jclass) ||
+                        directImplementors.containsKey(jclass) ||
+                        directSubinterfaces.containsKey(jclass) ||
+                        classCounter - index.size() > index.size() / 16)) {
+            hierarchyIndex = null;
+        }
+    }
+
+    HierarchyIndex getHierarchyIndex() {
+        HierarchyIndex index = hierarchyIndex;
+        if (index == null) {
+            synchronized (this) {
+                index = hierarchyIndex;
+                if (index == null) {
+                    index = new HierarchyIndex(classes, directSubclasses);
+                    hierarchyIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+
     /**
      * Obtains JClass representing java.lang.Object.
      * Since the creation of JClass requires TypeSystem, which may
@@ -420,47 +472,6 @@ public class ClassHierarchyImpl implements ClassHierarchy {
         return JavaLangObject;
     }
 
-    /**
-     * Traverses class hierarchy to check if subiface is
-     * a subinterface of superiface.
-     */
-    private boolean isSubinterface(JClass superiface, JClass subiface) {
-        if (subiface.equals(superiface)) {
-            return true;
-        }
-        for (JClass iface : subiface.getInterfaces()) {
-            if (isSubinterface(superiface, iface)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Traverses class hierarchy to check if subclass is a subclass of superclass.
-     * TODO: optimize performance
-     */
-    private boolean isSubclass0(JClass superclass, JClass subclass) {
-        boolean isToInterface = superclass.isInterface();
-        for (JClass jclass = subclass; jclass != null;
-             jclass = jclass.getSuperClass()) {
-            if (jclass.equals(superclass)) {
-                return true;
-            }
-            if (isToInterface) {
-                // Interfaces can only extend other interfaces, thus we only
-                // have to consider the interfaces of the subclass
-                // if superclass is an interface.
-                for (JClass iface : jclass.getInterfaces()) {
-                    if (isSubclass0(superclass, iface)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
-    }
-
     @Override
     public Collection<JClass> getAllSubclassesOf(JClass jclass) {
         return allSubclasses.computeIfAbsent(jclass, c -> {
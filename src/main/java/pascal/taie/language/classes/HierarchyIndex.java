@@ -0,0 +1,270 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import pascal.taie.util.collection.MultiMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable index of a class hierarchy which answers subclass queries
+ * in (nearly) constant time without allocation.
+ * <ul>
+ *     <li>Each non-interface class is numbered by a depth-first traversal
+ *     over the superclass tree, so that the subclasses of a class occupy
+ *     a contiguous interval of numbers.</li>
+ *     <li>Each class (or interface) records the sorted indexes of all
+ *     interfaces it implements (or extends), including itself if it is
+ *     an interface. These rows are short in practice and are shared
+ *     between a class and its superclass when possible.</li>
+ * </ul>
+ * The index only reflects the classes that have been added to the
+ * hierarchy when it is built, thus it must be rebuilt after the
+ * hierarchy changes.
+ */
+class HierarchyIndex {
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Marks the classes whose rows are being computed.
+     */
+    private static final int[] VISITING = new int[0];
+
+    /**
+     * Number of classes covered by this index.
+     */
+    private final int size;
+
+    /**
+     * Pre-order number of each non-interface class, or -1 for interfaces.
+     */
+    private final int[] pre;
+
+    /**
+     * The largest pre-order number in the subtree of each non-interface class.
+     */
+    private final int[] last;
+
+    /**
+     * Sorted indexes of all interfaces of each class.
+     */
+    private final int[][] interfaces;
+
+    HierarchyIndex(List<JClass> classes, MultiMap<JClass, JClass> directSubclasses) {
+        size = classes.size();
+        pre = new int[size];
+        last = new int[size];
+        interfaces = new int[size][];
+        Arrays.fill(pre, -1);
+        numberClasses(classes, directSubclasses);
+        for (int i = 0; i < size; ++i) {
+            computeInterfaces(classes.get(i));
+        }
+    }
+
+    /**
+     * @return the number of classes covered by this index.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return {@code true} if given class is covered by this index.
+     */
+    boolean covers(JClass jclass) {
+        int i = jclass.getIndex();
+        return 0 <= i && i < size;
+    }
+
+    /**
+     * @return {@code true} if subclass is a subclass of superclass.
+     * Both classes must be covered by this index.
+     */
+    boolean isSubclass(JClass superclass, JClass subclass) {
+        int sup = superclass.getIndex(), sub = subclass.getIndex();
+        if (superclass.isInterface()) {
+            return Arrays.binarySearch(interfaces[sub], sup) >= 0;
+        } else {
+            int p = pre[sub];
+            int q = pre[sup];
+            return p >= 0 && q >= 0 && q <= p && p <= last[sup];
+        }
+    }
+
+    private void numberClasses(List<JClass> classes,
+                               MultiMap<JClass, JClass> directSubclasses) {
+        int counter = 0;
+        // explicit stacks of classes and their subclass arrays, which
+        // avoid deep recursion on long superclass chains
+        JClass[] stack = new JClass[16];
+        JClass[][] children = new JClass[16][];
+        int[] next = new int[16];
+        for (JClass root : classes) {
+            if (root.isInterface() || !isRoot(root)) {
+                continue;
+            }
+            int top = 0;
+            stack[0] = root;
+            children[0] = directSubclasses.get(root).toArray(new JClass[0]);
+            next[0] = 0;
+            pre[root.getIndex()] = counter++;
+            while (top >= 0) {
+                JClass[] subs = children[top];
+                if (next[top] < subs.length) {
+                    JClass sub = subs[next[top]++];
+                    if (!covers(sub) || pre[sub.getIndex()] >= 0) {
+                        continue;
+                    }
+                    pre[sub.getIndex()] = counter++;
+                    if (++top == stack.length) {
+                        int length = stack.length * 2;
+                        stack = Arrays.copyOf(stack, length);
+                        children = Arrays.copyOf(children, length);
+                        next = Arrays.copyOf(next, length);
+                    }
+                    stack[top] = sub;
+                    children[top] = directSubclasses.get(sub).toArray(new JClass[0]);
+                    next[top] = 0;
+                } else {
+                    last[stack[top].getIndex()] = counter - 1;
+                    children[top] = null;
+                    --top;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if given class is the root of a superclass tree
+     * in the covered hierarchy, e.g., java.lang.Object, or a class whose
+     * superclass has not been added to the hierarchy.
+     */
+    private boolean isRoot(JClass jclass) {
+        JClass superClass = jclass.getSuperClass();
+        return superClass == null || !covers(superClass)
+                || superClass.isInterface();
+    }
+
+    /**
+     * Computes the interface rows of given class and the supertypes it
+     * depends on. The supertypes are processed before their subtypes,
+     * using an explicit stack instead of recursion on long superclass
+     * chains, as {@link #numberClasses} does.
+     */
+    private void computeInterfaces(JClass jclass) {
+        if (interfaces[jclass.getIndex()] != null) {
+            return;
+        }
+        JClass[] stack = new JClass[16];
+        int top = 0;
+        stack[0] = jclass;
+        while (top >= 0) {
+            JClass c = stack[top];
+            int i = c.getIndex();
+            if (interfaces[i] == null) {
+                // first visit: push the supertypes whose rows are not
+                // computed, and compute the row of c after them
+                interfaces[i] = VISITING;
+                for (JClass sup : getSupertypes(c)) {
+                    if (interfaces[sup.getIndex()] == null) {
+                        if (++top == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[top] = sup;
+                    }
+                }
+            } else {
+                if (interfaces[i] == VISITING) {
+                    int[] result = c.isInterface() ? new int[]{ i } : EMPTY;
+                    for (JClass sup : getSupertypes(c)) {
+                        // a supertype is still being visited only in
+                        // malformed (cyclic) hierarchies, which is ignored
+                        int[] row = interfaces[sup.getIndex()];
+                        if (row != VISITING) {
+                            result = union(result, row);
+                        }
+                    }
+                    interfaces[i] = result;
+                }
+                stack[top--] = null;
+            }
+        }
+    }
+
+    /**
+     * @return the covered superclass (for non-interface classes) and
+     * superinterfaces of given class, whose rows constitute its row.
+     */
+    private List<JClass> getSupertypes(JClass jclass) {
+        List<JClass> supertypes = new ArrayList<>();
+        if (!jclass.isInterface()) {
+            JClass superClass = jclass.getSuperClass();
+            if (superClass != null && covers(superClass)
+                    && !superClass.isInterface()) {
+                supertypes.add(superClass);
+            }
+        }
+        for (JClass iface : jclass.getInterfaces()) {
+            if (iface != null && covers(iface) && iface.isInterface()) {
+                supertypes.add(iface);
+            }
+        }
+        return supertypes;
+    }
+
+    /**
+     * @return union of two sorted arrays. If one array already contains
+     * the other, returns it instead of creating a new array.
+     */
+    private static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[k++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[k++] = b[j++];
+            } else {
+                result[k++] = a[i++];
+                ++j;
+            }
+        }
+        while (i < a.length) {
+            result[k++] = a[i++];
+        }
+        while (j < b.length) {
+            result[k++] = b[j++];
+        }
+        if (k == a.length) {
+            return a;
+        } else if (k == b.length) {
+            return b;
+        } else {
+            return Arrays.copyOf(result, k);
+        }
+    }
+}
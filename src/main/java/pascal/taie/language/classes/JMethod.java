@@ -76,7 +76,7 @@ public class JMethod extends ClassMember {
      *
      * @see pascal.taie.frontend.cache.CachedIRBuilder
      */
-    private transient IR ir;
+    private transient volatile IR ir;
 
     public JMethod(JClass declaringClass, String name, Set<Modifier> modifiers,
                    List<Type> paramTypes, Type returnType, List<ClassType> exceptions,
@@ -180,19 +180,31 @@ public class JMethod extends ClassMember {
         return methodSource;
     }
 
+    /**
+     * Returns the IR of this method, and builds it if absent.
+     * This method is thread-safe, i.e., the IR is built only once
+     * even if it is requested by multiple threads simultaneously.
+     */
     public IR getIR() {
-        if (ir == null) {
+        IR result = ir;
+        if (result == null) {
             if (isAbstract()) {
                 throw new AnalysisException("Abstract method " + this +
                         " has no method body");
             }
-            if (isNative()) {
-                ir = World.get().getNativeModel().buildNativeIR(this);
-            } else {
-                ir = World.get().getIRBuilder().buildIR(this);
+            synchronized (this) {
+                result = ir;
+                if (result == null) {
+                    if (isNative()) {
+                        result = World.get().getNativeModel().buildNativeIR(this);
+                    } else {
+                        result = World.get().getIRBuilder().buildIR(this);
+                    }
+                    ir = result;
+                }
             }
         }
-        return ir;
+        return result;
     }
 
     @Nullable
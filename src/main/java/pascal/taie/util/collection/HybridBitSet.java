@@ -67,10 +67,30 @@ public final class HybridBitSet<E> extends AbstractHybridSet<E>
     @Override
     public boolean addAll(@Nonnull Collection<? extends E> c) {
         // optimize when c is HybridBitSet
-        if (this.set instanceof GenericBitSet<E> thisBitSet
-                && c instanceof HybridBitSet<? extends E> other
+        if (c instanceof HybridBitSet<? extends E> other
                 && other.set instanceof GenericBitSet<? extends E> otherBitSet) {
-            return thisBitSet.addAll(otherBitSet);
+            if (this.set instanceof GenericBitSet<E> thisBitSet) {
+                return thisBitSet.addAll(otherBitSet);
+            }
+            if (!isLargeSet) {
+                // current set is empty or small set, so we copy the bits
+                // of c (instead of adding its elements one by one), and
+                // then add the few elements of current set
+                int oldSize = size();
+                E oldSingleton = singleton;
+                Set<E> oldSet = set;
+                //noinspection unchecked
+                set = ((SetEx<E>) otherBitSet).copy();
+                singleton = null;
+                isLargeSet = true;
+                if (oldSingleton != null) {
+                    set.add(oldSingleton);
+                }
+                if (oldSet != null) {
+                    set.addAll(oldSet);
+                }
+                return set.size() != oldSize;
+            }
         }
         return super.addAll(c);
     }
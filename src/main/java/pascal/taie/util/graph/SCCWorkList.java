@@ -0,0 +1,199 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.util.graph;
+
+import pascal.taie.util.Indexer;
+import pascal.taie.util.collection.RegularBitSet;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Work list of graph nodes for work-list algorithms, which always polls
+ * the node that comes first in a schedule computed in advance: the strongly
+ * connected components (SCCs) of the graph are ordered topologically, and
+ * the nodes of each SCC are ordered in reverse postorder of a depth-first
+ * search within the SCC. Thus, an algorithm driven by this work list
+ * iterates each loop to stability before it moves on to the nodes after
+ * the loop.
+ * <p>
+ * The nodes are kept in a bit set indexed by their positions in the schedule.
+ *
+ * @param <N> type of nodes
+ */
+public class SCCWorkList<N> {
+
+    private final Indexer<N> indexer;
+
+    /**
+     * Maps index of each node to its position in the schedule.
+     */
+    private final int[] positions;
+
+    /**
+     * Nodes in the order of the schedule.
+     */
+    private final List<N> schedule;
+
+    private final RegularBitSet workList;
+
+    /**
+     * Positions before cursor are not in the work list.
+     */
+    private int cursor = 0;
+
+    /**
+     * Number of nodes polled from this work list.
+     */
+    private int polls = 0;
+
+    /**
+     * @param graph   the graph whose nodes are to be scheduled
+     * @param indexer the indexer of the nodes, which maps each node
+     *                to an index in [0, number of nodes)
+     * @param reverse whether to schedule the nodes for the reverse graph,
+     *                e.g., for backward data-flow analysis
+     */
+    public SCCWorkList(Graph<N> graph, Indexer<N> indexer, boolean reverse) {
+        this(schedule(reverse ? new ReverseGraph<>(graph) : graph), indexer);
+    }
+
+    /**
+     * Creates a work list that polls the nodes in the given schedule
+     * instead of the one computed from the graph.
+     *
+     * @param schedule all nodes in the order to be polled
+     * @param indexer  the indexer of the nodes, which maps each node
+     *                 to an index in [0, number of nodes)
+     */
+    public SCCWorkList(List<N> schedule, Indexer<N> indexer) {
+        this.indexer = indexer;
+        this.schedule = schedule;
+        positions = new int[schedule.size()];
+        for (int i = 0; i < schedule.size(); ++i) {
+            positions[indexer.getIndex(schedule.get(i))] = i;
+        }
+        workList = new RegularBitSet(schedule.size());
+    }
+
+    /**
+     * @return the nodes of given graph in the order of the schedule.
+     */
+    private static <N> List<N> schedule(Graph<N> graph) {
+        List<N> schedule = new ArrayList<>(graph.getNumberOfNodes());
+        // SCC gives the components in reverse topological order
+        List<List<N>> components = new SCC<>(graph).getComponents();
+        for (int i = components.size() - 1; i >= 0; --i) {
+            schedule.addAll(reversePostOrder(graph, components.get(i)));
+        }
+        return schedule;
+    }
+
+    /**
+     * @return the nodes of given component in reverse postorder of
+     * a depth-first search within the component. The search starts from
+     * the first node of the component, which is connected to the
+     * predecessors of the component (see {@link SCC}).
+     */
+    private static <N> List<N> reversePostOrder(Graph<N> graph, List<N> component) {
+        if (component.size() == 1) {
+            return component;
+        }
+        Set<N> members = Sets.newSet(component);
+        Set<N> visited = Sets.newSet(component.size());
+        List<N> postOrder = new ArrayList<>(component.size());
+        Deque<N> stack = new ArrayDeque<>();
+        Deque<Iterator<N>> succIters = new ArrayDeque<>();
+        N head = component.get(0);
+        visited.add(head);
+        stack.push(head);
+        succIters.push(graph.getSuccsOf(head).iterator());
+        while (!stack.isEmpty()) {
+            Iterator<N> succIter = succIters.peek();
+            N next = null;
+            while (succIter.hasNext()) {
+                N succ = succIter.next();
+                if (members.contains(succ) && visited.add(succ)) {
+                    next = succ;
+                    break;
+                }
+            }
+            if (next != null) {
+                stack.push(next);
+                succIters.push(graph.getSuccsOf(next).iterator());
+            } else {
+                postOrder.add(stack.pop());
+                succIters.pop();
+            }
+        }
+        Collections.reverse(postOrder);
+        return postOrder;
+    }
+
+    public void add(N node) {
+        int position = positions[indexer.getIndex(node)];
+        workList.set(position);
+        if (position < cursor) {
+            cursor = position;
+        }
+    }
+
+    public void addAll(Collection<? extends N> nodes) {
+        nodes.forEach(this::add);
+    }
+
+    public boolean isEmpty() {
+        return workList.isEmpty();
+    }
+
+    /**
+     * Removes and returns the node that comes first in the schedule.
+     *
+     * @return the polled node, or {@code null} if the work list is empty.
+     */
+    public N poll() {
+        int position = workList.nextSetBit(cursor);
+        if (position < 0) {
+            cursor = schedule.size();
+            return null;
+        }
+        workList.clear(position);
+        cursor = position + 1;
+        ++polls;
+        return schedule.get(position);
+    }
+
+    /**
+     * @return the number of nodes polled from this work list so far,
+     * i.e., the number of iterations of the algorithm driven by it.
+     */
+    public int getNumberOfPolls() {
+        return polls;
+    }
+}
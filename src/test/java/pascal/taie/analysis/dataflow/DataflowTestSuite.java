@@ -29,6 +29,7 @@ import pascal.taie.analysis.dataflow.analysis.LiveVarTestFull;
 import pascal.taie.analysis.dataflow.analysis.ReachDefTest;
 import pascal.taie.analysis.dataflow.analysis.constprop.CPTestSuite;
 import pascal.taie.analysis.dataflow.fact.FactTest;
+import pascal.taie.analysis.dataflow.ifds.IFDSSolverTest;
 
 @Suite
 @SelectClasses({
@@ -37,6 +38,7 @@ import pascal.taie.analysis.dataflow.fact.FactTest;
         LiveVarTestFull.class,
         ReachDefTest.class,
         AvailExpTest.class,
+        IFDSSolverTest.class,
 })
 public class DataflowTestSuite {
 }
@@ -0,0 +1,151 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+package pascal.taie.analysis.dataflow.ifds;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.icfg.CallEdge;
+import pascal.taie.analysis.graph.icfg.CallToReturnEdge;
+import pascal.taie.analysis.graph.icfg.ICFG;
+import pascal.taie.analysis.graph.icfg.ICFGBuilder;
+import pascal.taie.analysis.graph.icfg.NormalEdge;
+import pascal.taie.analysis.graph.icfg.ReturnEdge;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.AssignLiteral;
+import pascal.taie.ir.stmt.Copy;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IFDSSolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/inter";
+
+    @Test
+    void testLiteralVars() {
+        Main.main(new String[]{
+                "-pp", "-cp", CLASS_PATH, "-m", "Example",
+                "-a", "cg=algorithm:cha", "-a", "icfg"
+        });
+        ICFG<JMethod, Stmt> icfg = World.get().getResult(ICFGBuilder.ID);
+        LiteralVars problem = new LiteralVars();
+        IFDSResult<Stmt, Optional<Var>> result =
+                new IFDSSolver<>(problem, icfg, 1).solve();
+        // the literal passed to addOne() reaches its parameter
+        JMethod addOne = World.get().getClassHierarchy()
+                .getClass("Example").getDeclaredMethod("addOne");
+        Var param = addOne.getIR().getParam(0);
+        assertTrue(result.isReachable(icfg.getExitOf(addOne)));
+        assertTrue(result.getFacts(icfg.getExitOf(addOne)).contains(Optional.of(param)));
+        // the parallel solver reaches the same result, where
+        // every round is processed in parallel
+        IFDSResult<Stmt, Optional<Var>> parallelResult =
+                new IFDSSolver<>(problem, icfg, 4, 0).solve();
+        icfg.forEach(node -> {
+            assertEquals(result.isReachable(node), parallelResult.isReachable(node));
+            assertEquals(result.getFacts(node), parallelResult.getFacts(node));
+        });
+    }
+
+    /**
+     * Computes the variables that may hold values of literals,
+     * the zero fact is represented by {@link Optional#empty()}.
+     */
+    private static class LiteralVars implements IFDSProblem<Stmt, Optional<Var>> {
+
+        @Override
+        public Optional<Var> zeroValue() {
+            return Optional.empty();
+        }
+
+        @Override
+        public FlowFunction<Optional<Var>> getNormalFlowFunction(
+                NormalEdge<Stmt> edge) {
+            Stmt stmt = edge.source();
+            return fact -> {
+                Set<Optional<Var>> result = Sets.newHybridSet();
+                if (fact.isEmpty()) {
+                    result.add(fact);
+                    if (stmt instanceof AssignLiteral assign) {
+                        result.add(Optional.of(assign.getLValue()));
+                    }
+                    return result;
+                }
+                Var var = fact.get();
+                if (stmt.getDef().orElse(null) != var) {
+                    result.add(fact);
+                }
+                if (stmt instanceof Copy copy && copy.getRValue() == var) {
+                    result.add(Optional.of(copy.getLValue()));
+                }
+                return result;
+            };
+        }
+
+        @Override
+        public FlowFunction<Optional<Var>> getCallToReturnFlowFunction(
+                CallToReturnEdge<Stmt> edge) {
+            Var result = ((Invoke) edge.source()).getResult();
+            return fact -> fact.isPresent() && fact.get() == result ?
+                    Set.of() : Set.of(fact);
+        }
+
+        @Override
+        public FlowFunction<Optional<Var>> getCallFlowFunction(CallEdge<Stmt> edge) {
+            List<Var> args = ((Invoke) edge.source()).getInvokeExp().getArgs();
+            JMethod callee = edge.getCallee();
+            return fact -> {
+                if (fact.isEmpty()) {
+                    return Set.of(fact);
+                }
+                Set<Optional<Var>> result = Sets.newHybridSet();
+                for (int i = 0; i < args.size(); ++i) {
+                    if (args.get(i) == fact.get()) {
+                        result.add(Optional.of(callee.getIR().getParam(i)));
+                    }
+                }
+                return result;
+            };
+        }
+
+        @Override
+        public FlowFunction<Optional<Var>> getReturnFlowFunction(ReturnEdge<Stmt> edge) {
+            Var result = ((Invoke) edge.getCallSite()).getResult();
+            return fact -> {
+                if (fact.isEmpty()) {
+                    return Set.of(fact);
+                }
+                return result != null && edge.getReturnVars().contains(fact.get()) ?
+                        Set.of(Optional.of(result)) : Set.of();
+            };
+        }
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.dataflow.solver;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.dataflow.analysis.AbstractDataflowAnalysis;
+import pascal.taie.analysis.dataflow.analysis.constprop.CPFact;
+import pascal.taie.analysis.dataflow.analysis.constprop.ConstantPropagation;
+import pascal.taie.analysis.dataflow.fact.DataflowResult;
+import pascal.taie.analysis.dataflow.fact.SetFact;
+import pascal.taie.analysis.graph.cfg.CFG;
+import pascal.taie.analysis.graph.cfg.CFGBuilder;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class WorkListSolverTest {
+
+    private static final String CLASS_PATH = "src/test/resources/dataflow/constprop/";
+
+    /**
+     * Solves constant propagation for the methods of the constprop tests
+     * with the nodes processed in the order given by SCCWorkList and in
+     * the order of CFG indexes, and checks that the former gives the same
+     * results in no more iterations.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Assign",
+            "SimpleConstant",
+            "SimpleBinary",
+            "SimpleBranch",
+            "SimpleChar",
+            "BranchConstant",
+            "Interprocedural",
+            "SimpleBoolean",
+            "BinaryOp",
+            "BranchNAC",
+            "BranchUndef",
+            "Loop",
+            "LogicalOp",
+            "DivisionByZero",
+            "MultiplyByZero",
+            "ConditionOp",
+            "ComparisonOp",
+    })
+    void testCPIterations(String inputClass) {
+        Main.main("-pp", "-cp", CLASS_PATH,
+                "--input-classes", inputClass, "-a", CFGBuilder.ID);
+        WorkListSolver<Stmt, CPFact> sccSolver = new WorkListSolver<>(true);
+        WorkListSolver<Stmt, CPFact> indexSolver = new WorkListSolver<>(false);
+        JClass jclass = World.get().getClassHierarchy().getClass(inputClass);
+        for (JMethod method : jclass.getDeclaredMethods()) {
+            if (method.isAbstract() || method.isNative()) {
+                continue;
+            }
+            IR ir = method.getIR();
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            DataflowResult<Stmt, CPFact> sccResult = sccSolver.solve(
+                    new ConstantPropagation.Analysis(cfg, false));
+            DataflowResult<Stmt, CPFact> indexResult = indexSolver.solve(
+                    new ConstantPropagation.Analysis(cfg, false));
+            for (Stmt stmt : ir) {
+                assertEquals(indexResult.getOutFact(stmt), sccResult.getOutFact(stmt),
+                        "Different results of " + stmt + " in " + method);
+            }
+        }
+        assertTrue(sccSolver.getIterations() <= indexSolver.getIterations(),
+                "SCC order takes " + sccSolver.getIterations() +
+                        " iterations, index order takes " + indexSolver.getIterations());
+    }
+
+    /**
+     * Same as {@link #testCPIterations}, but solves live variable analysis,
+     * which is a backward analysis, for the methods of the live-var tests.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Assign",
+            "Branch",
+            "BranchLoop",
+            "Loop",
+            "Fibonacci",
+            "Sort",
+            "GaussianElimination",
+    })
+    void testLiveVarIterations(String inputClass) {
+        Main.main("-pp", "-cp", "src/test/resources/dataflow/livevar/",
+                "--input-classes", inputClass, "-a", CFGBuilder.ID);
+        WorkListSolver<Stmt, SetFact<Var>> sccSolver = new WorkListSolver<>(true);
+        WorkListSolver<Stmt, SetFact<Var>> indexSolver = new WorkListSolver<>(false);
+        JClass jclass = World.get().getClassHierarchy().getClass(inputClass);
+        for (JMethod method : jclass.getDeclaredMethods()) {
+            if (method.isAbstract() || method.isNative()) {
+                continue;
+            }
+            IR ir = method.getIR();
+            CFG<Stmt> cfg = ir.getResult(CFGBuilder.ID);
+            DataflowResult<Stmt, SetFact<Var>> sccResult =
+                    sccSolver.solve(new LiveVars(cfg));
+            DataflowResult<Stmt, SetFact<Var>> indexResult =
+                    indexSolver.solve(new LiveVars(cfg));
+            for (Stmt stmt : ir) {
+                assertEquals(indexResult.getInFact(stmt), sccResult.getInFact(stmt),
+                        "Different results of " + stmt + " in " + method);
+            }
+        }
+        assertTrue(sccSolver.getIterations() <= indexSolver.getIterations(),
+                "SCC order takes " + sccSolver.getIterations() +
+                        " iterations, index order takes " + indexSolver.getIterations());
+    }
+
+    /**
+     * Live variable analysis on {@link SetFact}, which is solved by
+     * {@link WorkListSolver} instead of the bit-vector solver.
+     */
+    private static class LiveVars extends AbstractDataflowAnalysis<Stmt, SetFact<Var>> {
+
+        private LiveVars(CFG<Stmt> cfg) {
+            super(cfg);
+        }
+
+        @Override
+        public boolean isForward() {
+            return false;
+        }
+
+        @Override
+        public SetFact<Var> newBoundaryFact() {
+            return newInitialFact();
+        }
+
+        @Override
+        public SetFact<Var> newInitialFact() {
+            return new SetFact<>();
+        }
+
+        @Override
+        public void meetInto(SetFact<Var> fact, SetFact<Var> target) {
+            target.union(fact);
+        }
+
+        @Override
+        public boolean transferNode(Stmt stmt, SetFact<Var> in, SetFact<Var> out) {
+            SetFact<Var> oldIn = in.copy();
+            in.set(out);
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var var) {
+                    in.remove(var);
+                }
+            });
+            stmt.getUses().forEach(use -> {
+                if (use instanceof Var var) {
+                    in.add(var);
+                }
+            });
+            return !in.equals(oldIn);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.graph.callgraph.cha;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.graph.callgraph.CallGraph;
+import pascal.taie.analysis.graph.callgraph.CallGraphBuilder;
+import pascal.taie.ir.stmt.Invoke;
+import pascal.taie.language.classes.JMethod;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the entries of CHA given by options implicit-entries
+ * and entry-methods.
+ */
+public class CHAEntryTest {
+
+    private static final String CLASS_PATH = "src/test/resources/cha/";
+
+    /**
+     * Builds the call graph of StaticCall without main method, so that
+     * only the methods reachable from the given entry methods are reachable.
+     */
+    @Test
+    void testEntryMethods() throws IOException {
+        // method signatures contain ": ", so they are given in a plan file
+        Path plan = Files.createTempFile("cha-plan", ".yml");
+        Files.writeString(plan, """
+                - id: cg
+                  options:
+                    algorithm: cha
+                    entry-methods:
+                      - "<StaticCall: void foo()>"
+                      - "<B: void qux()>"
+                """);
+        try {
+            Main.main("-pp", "-cp", CLASS_PATH,
+                    "--input-classes", "StaticCall",
+                    "-p", plan.toString());
+        } finally {
+            Files.delete(plan);
+        }
+        CallGraph<Invoke, JMethod> callGraph = World.get().getResult(CallGraphBuilder.ID);
+        assertEquals(Set.of("<StaticCall: void foo()>", "<B: void qux()>"),
+                signaturesOf(callGraph.entryMethods().collect(Collectors.toSet())));
+        assertEquals(Set.of(
+                        "<StaticCall: void foo()>",
+                        "<StaticCall: void bar()>",
+                        "<B: void qux()>",
+                        "<A: void baz()>"),
+                signaturesOf(callGraph.reachableMethods().collect(Collectors.toSet())));
+    }
+
+    /**
+     * Builds the call graph of StaticCall with and without implicit entries,
+     * the former should reach all methods of the latter and the implicit entries.
+     */
+    @Test
+    void testImplicitEntries() {
+        Set<JMethod> withoutImplicit = buildCallGraph(false);
+        Set<JMethod> withImplicit = buildCallGraph(true);
+        Set<String> reachable = signaturesOf(withImplicit);
+        assertTrue(reachable.containsAll(signaturesOf(withoutImplicit)));
+        Set<String> implicitEntries = signaturesOf(World.get().getImplicitEntries());
+        assertFalse(implicitEntries.isEmpty());
+        assertTrue(reachable.containsAll(implicitEntries));
+        assertFalse(signaturesOf(withoutImplicit).containsAll(implicitEntries));
+    }
+
+    private static Set<JMethod> buildCallGraph(boolean implicitEntries) {
+        Main.main("-pp", "-cp", CLASS_PATH, "-m", "StaticCall",
+                "-a", "cg=algorithm:cha;implicit-entries:" + implicitEntries);
+        CallGraph<Invoke, JMethod> callGraph = World.get().getResult(CallGraphBuilder.ID);
+        return callGraph.reachableMethods().collect(Collectors.toSet());
+    }
+
+    private static Set<String> signaturesOf(Collection<JMethod> methods) {
+        return methods.stream()
+                .map(JMethod::getSignature)
+                .collect(Collectors.toSet());
+    }
+}
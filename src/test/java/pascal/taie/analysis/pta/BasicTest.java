@@ -63,4 +63,60 @@ public class BasicTest {
         Tests.testPTA(DIR, mainClass);
     }
 
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "LinkedQueue",
+            "RedBlackBST",
+            "Recursion",
+            "Cycle",
+            "ComplexAssign",
+    })
+    void testParallelSolver(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "solver:parallel", "threads:2");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "topo",
+            "lrf",
+            "smallest-delta",
+    })
+    void testScheduling(String scheduling) {
+        Tests.testPTA(DIR, "RedBlackBST", "scheduling:" + scheduling);
+        Tests.testPTA(DIR, "Cycle", "scheduling:" + scheduling);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "Cycle",
+            "Recursion",
+            "CallParamRet",
+            "LinkedQueue",
+            "RedBlackBST",
+    })
+    void testCollapseCycles(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "collapse-cycles:true");
+        Tests.testPTA(DIR, mainClass, "collapse-cycles:true",
+                "solver:parallel", "threads:2");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "LinkedQueue",
+            "RedBlackBST",
+            "Cycle",
+    })
+    void testSharePointsToSets(String mainClass) {
+        Tests.testPTA(DIR, mainClass, "share-pts:after-solving");
+        Tests.testPTA(DIR, mainClass, "share-pts:periodic",
+                "collapse-cycles:true");
+        // share points-to sets after 1, 2, 4, ... entries, so that
+        // the shared sets are modified in the rest of solving
+        Tests.testPTA(DIR, mainClass, "share-pts:periodic",
+                "share-pts-checkpoint:1");
+        Tests.testPTA(DIR, mainClass, "share-pts:periodic",
+                "share-pts-checkpoint:1", "collapse-cycles:true",
+                "solver:parallel", "threads:2");
+    }
+
 }
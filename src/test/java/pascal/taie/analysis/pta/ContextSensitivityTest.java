@@ -50,4 +50,13 @@ public class ContextSensitivityTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    @ParameterizedTest
+    @MultiStringsSource({"OneObject", "cs:1-obj;cs-manager:array"})
+    @MultiStringsSource({"TwoCall", "cs:2-call;cs-manager:array"})
+    @MultiStringsSource({"TwoObject", "cs:2-obj;cs-manager:array"})
+    @MultiStringsSource({"TwoType", "cs:2-type;cs-manager:array"})
+    void testArrayBasedCSManager(String mainClass, String opts) {
+        Tests.testPTA(DIR, mainClass, opts);
+    }
+
 }
@@ -0,0 +1,154 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.core.cs.element.Pointer;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.frontend.cache.CachedWorldBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IncrementalTest {
+
+    private static final String DIR = "basic";
+
+    private static final String COUNTER =
+            "plugins:[" + PointerEntryCounter.class.getName() + "]";
+
+    @AfterAll
+    static void deleteSnapshots() {
+        for (File snapshot : getSnapshots()) {
+            snapshot.delete();
+        }
+    }
+
+    private static File[] getSnapshots() {
+        File cacheDir = CachedWorldBuilder.getCacheFile("").getParentFile();
+        File[] snapshots = cacheDir.listFiles((dir, name) ->
+                name.startsWith("pta-snapshot-"));
+        return snapshots != null ? snapshots : new File[0];
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "LinkedQueue",
+            "RedBlackBST",
+            "Recursion",
+    })
+    void testIncremental(String mainClass) {
+        deleteSnapshots();
+        Tests.testPTA(DIR, mainClass, "incremental:false", COUNTER);
+        long fullEntries = getPointerEntryCount();
+        // the first run saves the snapshot, and the second run reuses it
+        Tests.testPTA(DIR, mainClass, "incremental:true");
+        Tests.testPTA(DIR, mainClass, "incremental:true", COUNTER);
+        long incrementalEntries = getPointerEntryCount();
+        assertTrue(incrementalEntries < fullEntries,
+                "Incremental run processes " + incrementalEntries +
+                        " pointer entries, full run processes " + fullEntries);
+    }
+
+    private static long getPointerEntryCount() {
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        return result.getResult(PointerEntryCounter.class.getName());
+    }
+
+    /**
+     * Analyzes the versions of a program in turn. Each version is analyzed
+     * incrementally with the snapshot of the previous version, and the
+     * result must be the same as the one of a full analysis.
+     * Compared with its previous version, v2 changes a method body and
+     * adds an overriding method, and v3 changes the super class of a class.
+     */
+    @Test
+    void testModifiedProgram() {
+        deleteSnapshots();
+        Tests.testPTA(false, "incremental/v1", "Incremental", "incremental:true");
+        for (String version : List.of("v2", "v3")) {
+            String dir = "incremental/" + version;
+            Tests.testPTA(false, dir, "Incremental", "incremental:false");
+            List<String> expected = dumpResult();
+            Tests.testPTA(false, dir, "Incremental", "incremental:true");
+            assertEquals(expected, dumpResult(), "Mismatch on " + version);
+        }
+    }
+
+    @Test
+    void testIncompatibleSnapshot() throws IOException {
+        deleteSnapshots();
+        Tests.testPTA(DIR, "LinkedQueue", "incremental:true");
+        // corrupt the snapshot, which should be rejected
+        for (File snapshot : getSnapshots()) {
+            Files.write(snapshot.toPath(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        }
+        Tests.testPTA(DIR, "LinkedQueue", "incremental:true");
+    }
+
+    /**
+     * @return the textual points-to sets and call graph edges
+     * of the latest pointer analysis, in sorted order.
+     */
+    private static List<String> dumpResult() {
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        List<String> lines = new ArrayList<>();
+        result.getCSVars().forEach(p -> dumpPointer(lines, p));
+        result.getInstanceFields().forEach(p -> dumpPointer(lines, p));
+        result.getArrayIndexes().forEach(p -> dumpPointer(lines, p));
+        result.getStaticFields().forEach(p -> dumpPointer(lines, p));
+        result.getCSCallGraph().edges().forEach(e -> lines.add(e.toString()));
+        Collections.sort(lines);
+        return lines;
+    }
+
+    private static void dumpPointer(List<String> lines, Pointer pointer) {
+        PointsToSet pts = pointer.getPointsToSet();
+        List<String> objs = pts == null ? List.of() : pts.objects()
+                .map(Object::toString)
+                .sorted()
+                .toList();
+        lines.add(pointer + " -> " + objs);
+    }
+
+    @Test
+    void testIncrementalCS() {
+        Tests.testPTA("contextsensitivity", "LinkedQueue",
+                "cs:2-obj", "incremental:true");
+        Tests.testPTA("contextsensitivity", "LinkedQueue",
+                "cs:2-obj", "incremental:true");
+    }
+
+}
@@ -32,6 +32,8 @@ import pascal.taie.analysis.pta.core.cs.context.ContextTest;
         BasicTestFull.class,
         ContextSensitivityTestFull.class,
         ExceptionTest.class,
+        IncrementalTest.class,
+        ParallelSolverTest.class,
         LambdaTest.class,
         Java9StringConcatTest.class,
         ReflectionTest.class,
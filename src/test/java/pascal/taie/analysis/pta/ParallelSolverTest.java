@@ -0,0 +1,128 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+
+package pascal.taie.analysis.pta;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.analysis.Tests;
+import pascal.taie.util.MultiStringsSource;
+
+import javax.annotation.Nullable;
+
+/**
+ * Tests parallel solver on the test cases of pointer analysis.
+ * The expected results are produced by the default solver, and
+ * {@code min-entries-per-thread:0} forces the parallel solver to process
+ * every round in parallel (even for the small test programs), so that
+ * these tests compare the parallel propagation against the default solver.
+ */
+public class ParallelSolverTest {
+
+    private static final String PARALLEL =
+            "solver:parallel;threads:4;min-entries-per-thread:0";
+
+    @ParameterizedTest
+    // basic
+    @MultiStringsSource({"basic", "New"})
+    @MultiStringsSource({"basic", "Assign"})
+    @MultiStringsSource({"basic", "StoreLoad"})
+    @MultiStringsSource({"basic", "Call"})
+    @MultiStringsSource({"basic", "Assign2"})
+    @MultiStringsSource({"basic", "InstanceField"})
+    @MultiStringsSource({"basic", "InstanceField2"})
+    @MultiStringsSource({"basic", "CallParamRet"})
+    @MultiStringsSource({"basic", "CallField"})
+    @MultiStringsSource({"basic", "StaticCall"})
+    @MultiStringsSource({"basic", "MergeParam"})
+    @MultiStringsSource({"basic", "LinkedQueue"})
+    @MultiStringsSource({"basic", "RedBlackBST"})
+    @MultiStringsSource({"basic", "MultiReturn"})
+    @MultiStringsSource({"basic", "Dispatch"})
+    @MultiStringsSource({"basic", "Dispatch2"})
+    @MultiStringsSource({"basic", "Interface"})
+    @MultiStringsSource({"basic", "Recursion"})
+    @MultiStringsSource({"basic", "Cycle"})
+    @MultiStringsSource({"basic", "ComplexAssign"})
+    @MultiStringsSource({"basic", "StaticField"})
+    @MultiStringsSource({"basic", "Array"})
+    @MultiStringsSource({"basic", "Cast"})
+    @MultiStringsSource({"basic", "Cast2"})
+    @MultiStringsSource({"basic", "Null"})
+    @MultiStringsSource({"basic", "Primitive"})
+    @MultiStringsSource({"basic", "Primitives", "propagate-types:[reference,int,double];"
+            + "plugins:[pascal.taie.analysis.pta.plugin.NumberLiteralHandler]"})
+    @MultiStringsSource({"basic", "PropagateNull", "propagate-types:[reference,null];"
+            + "plugins:[pascal.taie.analysis.pta.plugin.NullHandler]"})
+    @MultiStringsSource({"basic", "Strings", "distinguish-string-constants:all"})
+    @MultiStringsSource({"basic", "MultiArray"})
+    @MultiStringsSource({"basic", "Clinit"})
+    @MultiStringsSource({"basic", "ClassObj"})
+    @MultiStringsSource({"basic", "Native"})
+    @MultiStringsSource({"basic", "NativeModel", "distinguish-string-constants:all"})
+    @MultiStringsSource({"basic", "Annotations", "cs:1-call;"
+            + "distinguish-string-constants:all"})
+    // cycle collapsing
+    @MultiStringsSource({"basic", "Cycle", "collapse-cycles:true"})
+    @MultiStringsSource({"basic", "Recursion", "collapse-cycles:true"})
+    @MultiStringsSource({"basic", "RedBlackBST", "collapse-cycles:true"})
+    // context sensitivity
+    @MultiStringsSource({"contextsensitivity", "OneCall", "cs:1-call;"
+            + "propagate-types:[reference,int];"
+            + "plugins:[pascal.taie.analysis.pta.plugin.NumberLiteralHandler]"})
+    @MultiStringsSource({"contextsensitivity", "OneObject", "cs:1-obj"})
+    @MultiStringsSource({"contextsensitivity", "OneType", "cs:1-type"})
+    @MultiStringsSource({"contextsensitivity", "TwoCall", "cs:2-call"})
+    @MultiStringsSource({"contextsensitivity", "TwoObject", "cs:2-obj"})
+    @MultiStringsSource({"contextsensitivity", "TwoType", "cs:2-type"})
+    @MultiStringsSource({"contextsensitivity", "RecursiveObj", "cs:2-obj"})
+    @MultiStringsSource({"contextsensitivity", "LongObjContext", "cs:2-obj"})
+    @MultiStringsSource({"contextsensitivity", "LongCallContext", "cs:2-call"})
+    @MultiStringsSource({"contextsensitivity", "StaticSelect", "cs:2-obj"})
+    @MultiStringsSource({"contextsensitivity", "TwoCallOnly", "cs:2-call"})
+    @MultiStringsSource({"contextsensitivity", "ObjOnly", "cs:1-obj"})
+    @MultiStringsSource({"contextsensitivity", "MustUseHeap", "cs:2-call"})
+    @MultiStringsSource({"contextsensitivity", "NestedHeap", "cs:2-obj"})
+    @MultiStringsSource({"contextsensitivity", "CallOnly", "cs:1-call"})
+    @MultiStringsSource({"contextsensitivity", "LinkedQueue", "cs:2-obj"})
+    @MultiStringsSource({"contextsensitivity", "TypeSens", "cs:2-type"})
+    @MultiStringsSource({"contextsensitivity", "SpecialHeapContext", "cs:2-obj"})
+    // plugins
+    @MultiStringsSource({"exception", "ExceptionCircle"})
+    @MultiStringsSource({"exception", "ExceptionCircleAndRecursion"})
+    @MultiStringsSource({"exception", "ExceptionNoneCaught"})
+    @MultiStringsSource({"exception", "ExceptionTreeAndRecursion"})
+    @MultiStringsSource({"exception", "ExceptionFromClinit", "cs:1-call"})
+    @MultiStringsSource({"lambda", "Args", "handle-invokedynamic:true"})
+    @MultiStringsSource({"lambda", "LambdaInstanceMethod", "handle-invokedynamic:true"})
+    @MultiStringsSource({"lambda", "ImpreciseLambdas", "handle-invokedynamic:true"})
+    @MultiStringsSource({"reflection", "GetMember"})
+    @MultiStringsSource({"reflection", "GetMethods", "reflection-inference:solar"})
+    @MultiStringsSource({"reflection", "ArgsRefine", "reflection-inference:solar"})
+    void test(String dir, String mainClass, @Nullable String opts) {
+        if (opts != null) {
+            Tests.testPTA(dir, mainClass, opts, PARALLEL);
+        } else {
+            Tests.testPTA(dir, mainClass, PARALLEL);
+        }
+    }
+}
@@ -22,10 +22,24 @@
 
 package pascal.taie.analysis.pta;
 
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.World;
 import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.plugin.taint.TaintAnalysis;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlow;
+import pascal.taie.analysis.pta.plugin.taint.TaintFlowCounter;
 import pascal.taie.util.MultiStringsSource;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 public class TaintTest {
 
     static final String DIR = "taint";
@@ -68,4 +82,57 @@ public class TaintTest {
         Tests.testPTA(DIR, mainClass, opts);
     }
 
+    @Test
+    void testStreamTaintFlows() throws IOException {
+        Tests.testPTA(DIR, "ComplexTaint", TAINT_CONFIG);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(TaintAnalysis.class.getName());
+        File streamed = new File(World.get().getOptions().getOutputDir(),
+                "taint-flows.jsonl");
+        List<String> lines = Files.readAllLines(streamed.toPath());
+        assertEquals(taintFlows.size(), lines.size());
+    }
+
+    /**
+     * Tests that the taint flows detected by the pre-analysis of
+     * an advanced pointer analysis are not streamed or reported.
+     */
+    @Test
+    void testPreAnalysisNotReported() throws IOException {
+        TaintFlowCounter.COUNT.set(0);
+        Tests.testPTA(false, DIR, "ComplexTaint", TAINT_CONFIG,
+                "advanced:zipper", "cs:2-obj",
+                "plugins:[" + TaintFlowCounter.class.getName() + "]");
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(TaintAnalysis.class.getName());
+        assertEquals(taintFlows.size(), TaintFlowCounter.COUNT.get());
+        File streamed = new File(World.get().getOptions().getOutputDir(),
+                "taint-flows.jsonl");
+        assertEquals(taintFlows.size(),
+                Files.readAllLines(streamed.toPath()).size());
+    }
+
+    /**
+     * Tests that collapsing cycles of pointer flow graph does not bypass
+     * the sanitizer whose parameter is on a cycle.
+     */
+    @Test
+    void testSanitizerOnCycle() {
+        Set<String> taintFlows = runTaintAnalysis("SanitizerCycle", TAINT_CONFIG);
+        assertEquals(1, taintFlows.size());
+        assertEquals(taintFlows, runTaintAnalysis("SanitizerCycle",
+                TAINT_CONFIG, "collapse-cycles:true"));
+        assertEquals(taintFlows, runTaintAnalysis("SanitizerCycle",
+                TAINT_CONFIG, "collapse-cycles:true",
+                "solver:parallel", "threads:2", "min-entries-per-thread:0"));
+    }
+
+    private static Set<String> runTaintAnalysis(String mainClass, String... opts) {
+        Tests.testPTA(false, DIR, mainClass, opts);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        Set<TaintFlow> taintFlows = result.getResult(TaintAnalysis.class.getName());
+        return taintFlows.stream()
+                .map(TaintFlow::toString)
+                .collect(Collectors.toSet());
+    }
 }
@@ -28,7 +28,18 @@ import pascal.taie.Main;
 import pascal.taie.World;
 import pascal.taie.frontend.cache.CachedIRBuilder;
 import pascal.taie.frontend.cache.CachedWorldBuilder;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.AnalysisException;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class WorldCacheTest {
@@ -55,4 +66,113 @@ public class WorldCacheTest {
         assertTrue(world2.getIRBuilder() instanceof CachedIRBuilder);
     }
 
+    /**
+     * Modifies the program between two runs without changing the size
+     * and timestamp of its class file, the cache must not be reused.
+     */
+    @Test
+    void testClassPathChange() throws IOException {
+        Path cp = Files.createTempDirectory("world-cache");
+        Path source = cp.resolve("Program.java");
+        String[] args = {
+                "-wc",
+                "-java", "8",
+                "-cp", cp.toString(),
+                "-m", "Program",
+                "-a", "pta=implicit-entries:false;only-app:true"
+        };
+        try {
+            Files.writeString(source, program("v1"));
+            FileTime time = Files.getLastModifiedTime(source);
+            Main.main(args);
+            Files.writeString(source, program("v2"));
+            Files.setLastModifiedTime(source, time);
+            Main.main(args);
+            World world = World.get();
+            assertFalse(world.getIRBuilder() instanceof CachedIRBuilder);
+            JMethod main = world.getMainMethod();
+            assertTrue(main.getIR().stmts()
+                    .anyMatch(stmt -> stmt.toString().contains("\"v2\"")));
+            CachedWorldBuilder.getWorldCacheFile(world.getOptions()).delete();
+        } finally {
+            Files.deleteIfExists(source);
+            Files.deleteIfExists(cp);
+        }
+    }
+
+    private static String program(String version) {
+        return """
+                public class Program {
+                    public static void main(String[] args) {
+                        String s = "%s";
+                        System.out.println(s);
+                    }
+                }
+                """.formatted(version);
+    }
+
+    /**
+     * Corrupts the world section of the cache file, which must be rejected,
+     * and the world is built from scratch and cached again.
+     */
+    @Test
+    void testCorruptedCache() throws IOException {
+        String[] args = {
+                "-wc",
+                "-java", "8",
+                "-cp", "src/test/resources/pta/basic",
+                "-m", "LinkedQueue",
+                "-a", "pta=implicit-entries:false;only-app:true"
+        };
+        Main.main(args);
+        File cacheFile = CachedWorldBuilder.getWorldCacheFile(
+                World.get().getOptions());
+        try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+            flip(file, 100);
+        }
+        Main.main(args);
+        assertFalse(World.get().getIRBuilder() instanceof CachedIRBuilder);
+        Main.main(args);
+        World world = World.get();
+        CachedWorldBuilder.getWorldCacheFile(world.getOptions()).delete();
+        assertTrue(world.getIRBuilder() instanceof CachedIRBuilder);
+    }
+
+    /**
+     * Corrupts the IR index of the cache file. The world is still loaded
+     * as IRs are verified on demand, and the corruption is reported (and
+     * the cache file is discarded) when an IR is loaded.
+     */
+    @Test
+    void testCorruptedIR() throws IOException {
+        String[] args = {
+                "-wc",
+                "-java", "8",
+                "-cp", "src/test/resources/pta/basic",
+                "-m", "LinkedQueue",
+        };
+        Main.buildWorld(args);
+        File cacheFile = CachedWorldBuilder.getWorldCacheFile(
+                World.get().getOptions());
+        try (RandomAccessFile file = new RandomAccessFile(cacheFile, "rw")) {
+            file.seek(8); // skip magic and version
+            long dirOffset = file.readLong();
+            // the IR index is the last section before the directory
+            flip(file, dirOffset - 1);
+        }
+        Main.buildWorld(args);
+        World world = World.get();
+        assertTrue(world.getIRBuilder() instanceof CachedIRBuilder);
+        assertThrows(AnalysisException.class,
+                () -> world.getMainMethod().getIR());
+        assertFalse(cacheFile.exists());
+    }
+
+    private static void flip(RandomAccessFile file, long position)
+            throws IOException {
+        file.seek(position);
+        int b = file.read();
+        file.seek(position);
+        file.write(~b);
+    }
 }
@@ -25,6 +25,7 @@ package pascal.taie.analysis.pta.core.cs.context;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 public class ContextTest {
 
@@ -45,6 +46,44 @@ public class ContextTest {
         assertEquals(cde.getParent(), cd);
     }
 
+    @Test
+    void testInternedContext() {
+        testContext(new InternedContext.Factory<>());
+    }
+
+    @Test
+    void testInternedContext2() {
+        InternedContext.Factory<String> factory = new InternedContext.Factory<>();
+        Context abc = factory.make("A", "B", "C");
+        InternedContext bcd = factory.append(abc, "D", 3);
+        Context bc = factory.make("B", "C");
+        assertEquals(bc, bcd.getParent());
+        InternedContext cde = factory.append(bcd, "E", 3);
+        Context cd = factory.make("C", "D");
+        assertEquals(cde.getParent(), cd);
+        assertEquals("[C, D, E]", cde.toString());
+        assertEquals("D", cde.getElementAt(1));
+        assertEquals(factory.getEmptyContext(), factory.makeLastK(cde, 0));
+    }
+
+    @Test
+    void testInternedContextIds() {
+        InternedContext.Factory<Integer> factory = new InternedContext.Factory<>();
+        int n = 5000;
+        InternedContext[] contexts = new InternedContext[n];
+        for (int i = 0; i < n; ++i) {
+            contexts[i] = factory.append(factory.make(i / 100), i % 100, 2);
+        }
+        for (int i = 0; i < n; ++i) {
+            InternedContext c = factory.make(i / 100, i % 100);
+            assertSame(contexts[i], c);
+            assertEquals(2, c.getLength());
+            assertEquals(i % 100, c.getElementAt(1));
+        }
+        // empty context, 50 contexts of length 1, and n of length 2
+        assertEquals(1 + 50 + n, factory.getContextCount());
+    }
+
     private static void testContext(ContextFactory<String> factory) {
         Context a = factory.make("A");
         Context empty1 = factory.getEmptyContext();
@@ -0,0 +1,92 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import pascal.taie.World;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Plugin that registers the variables named {@link #VAR_NAME} in main
+ * method, and records the variables of which it is notified.
+ */
+public class InterestedVarPlugin implements Plugin {
+
+    static final String VAR_NAME = "a2";
+
+    private Solver solver;
+
+    private final Set<Var> registeredVars = Sets.newSet();
+
+    private final Set<Var> notifiedVars = Sets.newSet();
+
+    @Override
+    public void setSolver(Solver solver) {
+        this.solver = solver;
+    }
+
+    @Override
+    public boolean isInterestedInRegisteredVarsOnly() {
+        return true;
+    }
+
+    @Override
+    public void onNewMethod(JMethod method) {
+        if (method.equals(World.get().getMainMethod())) {
+            method.getIR().getVars().forEach(var -> {
+                if (var.getName().equals(VAR_NAME)) {
+                    registeredVars.add(var);
+                    solver.addInterestedVar(this, var);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+        notifiedVars.add(csVar.getVar());
+    }
+
+    @Override
+    public void onFinish() {
+        List<InterestedVarPlugin> plugins = solver.getResult()
+                .getResult(getClass().getName(), ArrayList::new);
+        plugins.add(this);
+    }
+
+    Set<Var> getRegisteredVars() {
+        return registeredVars;
+    }
+
+    Set<Var> getNotifiedVars() {
+        return notifiedVars;
+    }
+}
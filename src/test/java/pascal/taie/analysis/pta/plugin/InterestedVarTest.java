@@ -0,0 +1,119 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.cs.element.CSVar;
+import pascal.taie.analysis.pta.core.solver.Solver;
+import pascal.taie.analysis.pta.pts.PointsToSet;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InterestedVarTest {
+
+    private static final String PLUGIN = InterestedVarPlugin.class.getName();
+
+    /**
+     * Checks that a plugin interested in registered variables only
+     * is notified of the registered variables only.
+     */
+    @Test
+    void testRegisteredVarsOnly() {
+        List<InterestedVarPlugin> plugins = runPlugins(1);
+        assertEquals(1, plugins.size());
+        InterestedVarPlugin plugin = plugins.get(0);
+        assertFalse(plugin.getRegisteredVars().isEmpty());
+        assertEquals(plugin.getRegisteredVars(), plugin.getNotifiedVars());
+    }
+
+    /**
+     * Checks that the plugins exceeding the limit of the solver are
+     * notified of all variables, instead of failing the analysis.
+     */
+    @Test
+    void testTooManyPlugins() {
+        List<InterestedVarPlugin> plugins = runPlugins(Long.SIZE + 1);
+        assertEquals(Long.SIZE + 1, plugins.size());
+        int selective = 0;
+        for (InterestedVarPlugin plugin : plugins) {
+            assertTrue(plugin.getNotifiedVars().containsAll(plugin.getRegisteredVars()));
+            if (plugin.getRegisteredVars().equals(plugin.getNotifiedVars())) {
+                ++selective;
+            }
+        }
+        assertEquals(Long.SIZE, selective);
+    }
+
+    /**
+     * Checks that {@link CompositePlugin} keeps forwarding new points-to
+     * sets to the plugins interested in registered variables only,
+     * unless the solver dispatches them by itself.
+     */
+    @Test
+    void testSolverDispatch() {
+        assertEquals(1, countNotifications(false));
+        assertEquals(0, countNotifications(true));
+    }
+
+    private static int countNotifications(boolean dispatchesInterestedVars) {
+        int[] count = { 0 };
+        Plugin plugin = new Plugin() {
+            @Override
+            public boolean isInterestedInRegisteredVarsOnly() {
+                return true;
+            }
+
+            @Override
+            public void onNewPointsToSet(CSVar csVar, PointsToSet pts) {
+                ++count[0];
+            }
+        };
+        Solver solver = (Solver) Proxy.newProxyInstance(
+                Solver.class.getClassLoader(), new Class<?>[]{ Solver.class },
+                (proxy, method, args) ->
+                        method.getName().equals("dispatchesInterestedVars")
+                                ? dispatchesInterestedVars : null);
+        CompositePlugin composite = new CompositePlugin();
+        composite.addPlugin(plugin);
+        composite.setSolver(solver);
+        composite.onNewPointsToSet(null, null);
+        return count[0];
+    }
+
+    private static List<InterestedVarPlugin> runPlugins(int count) {
+        Tests.testPTA(false, "basic", "Assign",
+                "plugins:[" + String.join(",", Collections.nCopies(count, PLUGIN)) + "]");
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        return result.getResult(PLUGIN);
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.plugin.taint;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.graph.flowgraph.FlowEdge;
+import pascal.taie.analysis.graph.flowgraph.Node;
+import pascal.taie.analysis.graph.flowgraph.ObjectFlowGraph;
+import pascal.taie.analysis.graph.flowgraph.VarNode;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.plugin.util.InvokeUtils;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.util.collection.Sets;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaintFlowGraphTest {
+
+    private static final String DIR = "taint";
+
+    private static final String TAINT_CONFIG =
+            "taint-config:src/test/resources/pta/taint/taint-config.yml";
+
+    /**
+     * Checks the variables of SimpleTaint.main() in the taint flow graph,
+     * which are the ones that receive taint objects and reach sinks,
+     * i.e., the sanitized and untainted variables are excluded.
+     */
+    @Test
+    void testSimpleTaint() {
+        TaintFlowGraph tfg = buildTFG("SimpleTaint");
+        Set<String> vars = tfg.getNodes()
+                .stream()
+                .filter(n -> n instanceof VarNode)
+                .map(n -> ((VarNode) n).getVar())
+                .filter(v -> v.getMethod().getName().equals("main"))
+                .map(Var::getName)
+                .filter(name -> !name.startsWith("$"))
+                .collect(Collectors.toSet());
+        assertEquals(Set.of("s1", "s2", "s3", "s5", "s7"), vars);
+    }
+
+    /**
+     * Checks that the taint flow graph consists of the object flow graph
+     * edges on the paths from sources to sinks, and covers every sink
+     * of the reported taint flows.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SimpleTaint", "ArrayTaint", "FieldTaint", "CycleTaint",
+            "ComplexTaint", "ArgToResult", "BaseToResult", "StringAppend",
+    })
+    void testPathsFromSourcesToSinks(String mainClass) {
+        TaintFlowGraph tfg = buildTFG(mainClass);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        ObjectFlowGraph ofg = result.getObjectFlowGraph();
+        for (Node node : tfg.getNodes()) {
+            for (FlowEdge edge : tfg.getOutEdgesOf(node)) {
+                assertTrue(ofg.getOutEdgesOf(node).contains(edge),
+                        edge + " is not in object flow graph");
+            }
+        }
+        Set<Node> fromSources = reach(tfg.getSourceNodes(), tfg::getSuccsOf);
+        Set<Node> toSinks = reach(tfg.getSinkNodes(), tfg::getPredsOf);
+        assertEquals(tfg.getNodes(), fromSources);
+        for (Node node : tfg.getNodes()) {
+            if (!tfg.getSourceNodes().contains(node)) {
+                assertTrue(toSinks.contains(node), node + " reaches no sink");
+            }
+        }
+        Set<TaintFlow> taintFlows = result.getResult(TaintAnalysis.class.getName());
+        for (TaintFlow flow : taintFlows) {
+            Var sinkVar = InvokeUtils.getVar(flow.sinkPoint().sinkCall(),
+                    flow.sinkPoint().index());
+            assertTrue(fromSources.contains(ofg.getVarNode(sinkVar)),
+                    flow + " is not in taint flow graph");
+        }
+    }
+
+    private static TaintFlowGraph buildTFG(String mainClass) {
+        Tests.testPTA(false, DIR, mainClass, TAINT_CONFIG);
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        return result.getResult(TaintFlowGraph.class.getName());
+    }
+
+    private static Set<Node> reach(Set<Node> roots, Function<Node, Set<Node>> next) {
+        Set<Node> visited = Sets.newSet();
+        Deque<Node> workList = new ArrayDeque<>(roots);
+        while (!workList.isEmpty()) {
+            Node node = workList.poll();
+            if (visited.add(node)) {
+                workList.addAll(next.apply(node));
+            }
+        }
+        return visited;
+    }
+}
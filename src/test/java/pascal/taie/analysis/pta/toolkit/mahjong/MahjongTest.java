@@ -0,0 +1,150 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.analysis.pta.toolkit.mahjong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.World;
+import pascal.taie.analysis.Tests;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.stmt.New;
+import pascal.taie.language.type.Type;
+import pascal.taie.util.MultiStringsSource;
+import pascal.taie.util.collection.UnionFindSet;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class MahjongTest {
+
+    private static final String MISC = "misc";
+
+    /**
+     * The saved groups of allocation sites are rejected if the sites
+     * in a group do not share a type, and Mahjong runs again.
+     */
+    @Test
+    void testRejectStaleGroups() throws IOException {
+        Tests.testPTA(false, MISC, "Zipper", "advanced:mahjong");
+        File saved = new File(World.get().getOptions().getOutputDir(),
+                "pre-analysis-mahjong.txt");
+        List<New> sites = World.get().getClassHierarchy()
+                .applicationClasses()
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract())
+                .flatMap(m -> m.getIR().stmts())
+                .filter(s -> s instanceof New)
+                .map(s -> (New) s)
+                .toList();
+        New site1 = sites.get(0);
+        New site2 = sites.stream()
+                .filter(s -> !s.getRValue().getType()
+                        .equals(site1.getRValue().getType()))
+                .findFirst()
+                .orElseThrow();
+        String staleGroup = site1.getContainer().getSignature() + "\t"
+                + site1.getIndex() + "\t"
+                + site2.getContainer().getSignature() + "\t"
+                + site2.getIndex();
+        Files.writeString(saved.toPath(), staleGroup + System.lineSeparator(),
+                StandardOpenOption.APPEND);
+        saved.setLastModified(0);
+        Tests.testPTA(false, MISC, "Zipper", "advanced:mahjong",
+                "reuse-pre-analysis:true");
+        assertNotEquals(0, saved.lastModified(), "stale groups are reused");
+        assertFalse(Files.readAllLines(saved.toPath()).contains(staleGroup));
+    }
+
+    /**
+     * Merges the objects by partitioning them with different hash functions
+     * of DFAs, including the ones that cause massive collisions, and checks
+     * that the groups are the same as the ones of pairwise DFA equivalence.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"basic", "LinkedQueue"})
+    @MultiStringsSource({"basic", "RedBlackBST"})
+    @MultiStringsSource({"contextsensitivity", "LinkedQueue"})
+    void testBucketedMerge(String dir, String main) {
+        Tests.testPTA(false, dir, main);
+        PointerAnalysisResult pta = World.get().getResult(PointerAnalysis.ID);
+        Set<Set<Obj>> expected = mergePairwise(pta);
+        assertEquals(expected, toGroups(new Mahjong().mergeObjects(pta, null)));
+        // all DFAs collide
+        assertEquals(expected, toGroups(new Mahjong().mergeObjects(pta, dfa -> 0)));
+        // DFAs of the same size collide
+        assertEquals(expected, toGroups(new Mahjong().mergeObjects(pta,
+                dfa -> dfa.getAllStates().size())));
+    }
+
+    private static Set<Set<Obj>> toGroups(UnionFindSet<Obj> uf) {
+        return Set.copyOf(uf.getDisjointSets());
+    }
+
+    /**
+     * Merges the objects of the same type by checking the equivalence
+     * of the DFAs of every pair of objects.
+     */
+    private static Set<Set<Obj>> mergePairwise(PointerAnalysisResult pta) {
+        FieldPointsToGraph fpg = new FieldPointsToGraph(pta);
+        DFAFactory dfaFactory = new DFAFactory(fpg);
+        DFAEquivChecker checker = new DFAEquivChecker();
+        UnionFindSet<Obj> uf = new UnionFindSet<>(fpg.getObjects());
+        Map<Type, List<Obj>> groupedObjs = fpg.getObjects()
+                .stream()
+                .collect(Collectors.groupingBy(Obj::getType));
+        groupedObjs.values().forEach(objs -> {
+            List<Obj> mergeable = new ArrayList<>();
+            for (Obj o : objs) {
+                DFA dfa = dfaFactory.getDFA(o);
+                if (dfa.getStates().stream()
+                        .allMatch(s -> dfa.outputOf(s).size() <= 1)) {
+                    mergeable.add(o);
+                }
+            }
+            for (int i = 0; i < mergeable.size(); ++i) {
+                for (int j = i + 1; j < mergeable.size(); ++j) {
+                    Obj o1 = mergeable.get(i);
+                    Obj o2 = mergeable.get(j);
+                    if (checker.isEquivalent(dfaFactory.getDFA(o1),
+                            dfaFactory.getDFA(o2))) {
+                        uf.union(o1, o2);
+                    }
+                }
+            }
+        });
+        return toGroups(uf);
+    }
+}
@@ -36,7 +36,12 @@ import pascal.taie.analysis.pta.toolkit.PointerAnalysisResultExImpl;
 import pascal.taie.util.graph.DotDumper;
 
 import java.io.File;
-import java.util.stream.Stream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class ZipperTest {
 
@@ -84,4 +89,37 @@ public class ZipperTest {
     void testPFGBuilder() {
         Tests.testPTA(false, MISC, "Zipper", "advanced:zipper");
     }
+
+    @Test
+    void testReusePreAnalysis() {
+        Tests.testPTA(false, MISC, "Zipper", "advanced:zipper");
+        List<String> expected = dumpResult();
+        File saved = new File(World.get().getOptions().getOutputDir(),
+                "pre-analysis-zipper.txt");
+        assertTrue(saved.exists());
+        // the saved file is rewritten only when pre-analysis runs
+        assertTrue(saved.setLastModified(0));
+        Tests.testPTA(false, MISC, "Zipper", "advanced:zipper",
+                "reuse-pre-analysis:true");
+        assertEquals(0, saved.lastModified(), "pre-analysis is not skipped");
+        assertEquals(expected, dumpResult());
+    }
+
+    /**
+     * @return the textual points-to sets of variables and call graph
+     * edges of the latest pointer analysis, in sorted order.
+     */
+    private static List<String> dumpResult() {
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        List<String> lines = new ArrayList<>();
+        result.getCSVars().forEach(v -> lines.add(v + " -> " +
+                (v.getPointsToSet() == null ? List.of() : v.getPointsToSet()
+                        .objects()
+                        .map(Object::toString)
+                        .sorted()
+                        .toList())));
+        result.getCSCallGraph().edges().forEach(e -> lines.add(e.toString()));
+        Collections.sort(lines);
+        return lines;
+    }
 }
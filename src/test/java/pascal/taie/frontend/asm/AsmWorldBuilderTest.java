@@ -0,0 +1,179 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.frontend.asm;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import pascal.taie.Main;
+import pascal.taie.World;
+import pascal.taie.analysis.pta.PointerAnalysis;
+import pascal.taie.analysis.pta.PointerAnalysisResult;
+import pascal.taie.analysis.pta.core.heap.Obj;
+import pascal.taie.ir.IR;
+import pascal.taie.ir.exp.Var;
+import pascal.taie.ir.stmt.Stmt;
+import pascal.taie.language.classes.JClass;
+import pascal.taie.language.classes.JMethod;
+import pascal.taie.util.MultiStringsSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AsmWorldBuilderTest {
+
+    private static final List<String> targets = List.of(
+            "Annotated", "DefaultMethod", "FieldsWithSameName", "Mahjong");
+
+    private static void buildWorld(String... inputClasses) {
+        Main.buildWorld("-pp", "-ap", "-cp", "src/test/resources/world",
+                "--world-builder", AsmWorldBuilder.class.getName(),
+                "--input-classes", String.join(",", inputClasses));
+    }
+
+    @Test
+    void testIRBuilder() {
+        buildWorld(targets.toArray(String[]::new));
+        targets.forEach(name -> {
+            JClass jclass = World.get().getClassHierarchy().getClass(name);
+            assertNotNull(jclass);
+            jclass.getDeclaredMethods()
+                    .stream()
+                    .filter(m -> !m.isAbstract() && !m.isNative())
+                    .forEach(m -> examineIR(m.getIR()));
+        });
+    }
+
+    /**
+     * Checks the well-formedness of given IR.
+     */
+    private static void examineIR(IR ir) {
+        JMethod method = ir.getMethod();
+        assertFalse(ir.getStmts().isEmpty(), method + " has no statements");
+        assertEquals(method.getParamCount(), ir.getParams().size());
+        assertEquals(method.isStatic(), ir.getThis() == null);
+        Set<Var> vars = Set.copyOf(ir.getVars());
+        for (int i = 0; i < ir.getStmts().size(); ++i) {
+            Stmt stmt = ir.getStmt(i);
+            assertEquals(i, stmt.getIndex(), method + ": " + stmt);
+            stmt.getDef().ifPresent(def -> {
+                if (def instanceof Var v) {
+                    assertTrue(vars.contains(v), method + ": " + stmt);
+                }
+            });
+            stmt.getUses().forEach(use -> {
+                if (use instanceof Var v) {
+                    assertTrue(vars.contains(v), method + ": " + stmt);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs pointer analysis on the programs (whose class files are
+     * available) with Soot and ASM frontends, and compares the results.
+     * As the two frontends name temporary variables and allocation sites
+     * differently, the results are compared by the reachable methods,
+     * the call edges, and the types and containers of the objects
+     * pointed to by the parameters of each reachable method.
+     */
+    @ParameterizedTest
+    @MultiStringsSource({"basic", "ClassObj"})
+    @MultiStringsSource({"basic", "Dispatch2"})
+    @MultiStringsSource({"misc", "DefaultMethod"})
+    @MultiStringsSource({"contextsensitivity", "TypeSens"})
+    @MultiStringsSource({"lambda", "LambdaInstanceMethod"})
+    @MultiStringsSource({"reflection", "GetMember"})
+    void testPTA(String dir, String main) {
+        List<String> soot = runPTA(dir, main, null);
+        List<String> asm = runPTA(dir, main, AsmWorldBuilder.class.getName());
+        assertEquals(soot, asm);
+    }
+
+    private static List<String> runPTA(String dir, String main, String worldBuilder) {
+        List<String> args = new ArrayList<>(List.of("-pp",
+                "-cp", "src/test/resources/pta/" + dir, "-m", main,
+                "-a", "pta=implicit-entries:false;only-app:true"));
+        if (worldBuilder != null) {
+            args.add("--world-builder");
+            args.add(worldBuilder);
+        }
+        Main.main(args.toArray(String[]::new));
+        PointerAnalysisResult result = World.get().getResult(PointerAnalysis.ID);
+        List<String> lines = new ArrayList<>();
+        result.getCallGraph().reachableMethods()
+                .filter(m -> m.getDeclaringClass().isApplication())
+                .forEach(m -> {
+                    lines.add(m.getSignature());
+                    IR ir = m.getIR();
+                    if (ir.getThis() != null) {
+                        lines.add(m + "/this -> " + dumpObjs(result, ir.getThis()));
+                    }
+                    for (int i = 0; i < ir.getParams().size(); ++i) {
+                        lines.add(m + "/" + i + " -> "
+                                + dumpObjs(result, ir.getParam(i)));
+                    }
+                });
+        result.getCallGraph().edges()
+                .filter(e -> e.getCallSite().getContainer()
+                        .getDeclaringClass().isApplication())
+                .forEach(e -> lines.add(e.getKind() + ": "
+                        + e.getCallSite().getContainer() + " -> " + e.getCallee()));
+        lines.sort(null);
+        return lines;
+    }
+
+    private static Set<String> dumpObjs(PointerAnalysisResult result, Var var) {
+        Set<String> objs = new TreeSet<>();
+        for (Obj obj : result.getPointsToSet(var)) {
+            objs.add(obj.getType() + "@" + obj.getContainerMethod()
+                    .map(JMethod::toString).orElse(""));
+        }
+        return objs;
+    }
+
+    @Test
+    void testBottomType() {
+        String clzName = "android$widget$RemoteViews$BaseReflectionAction";
+        buildWorld(clzName);
+        World.get().getClassHierarchy().getClass(clzName)
+                .getDeclaredMethod("initActionAsync").getIR();
+    }
+
+    @Test
+    void testReferencedClassesLoaded() {
+        buildWorld("DefaultMethod");
+        JClass c = World.get().getClassHierarchy().getClass("DefaultMethod$C");
+        assertNotNull(c);
+        assertFalse(c.isPhantom());
+        // classes that are not referenced by the input classes are not loaded
+        assertFalse(World.get().getClassHierarchy().applicationClasses()
+                .anyMatch(jclass -> jclass.getName().equals("Mahjong")));
+    }
+}
@@ -25,6 +25,7 @@ package pascal.taie.frontend.soot;
 import org.junit.jupiter.api.Test;
 import pascal.taie.Main;
 import pascal.taie.World;
+import pascal.taie.ir.IR;
 import pascal.taie.language.classes.JClass;
 import pascal.taie.language.classes.JField;
 import pascal.taie.language.classes.JMethod;
@@ -34,7 +35,9 @@ import soot.SootClass;
 import soot.SootField;
 import soot.SootMethod;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -56,6 +59,50 @@ public class SootFrontendTest {
                 });
     }
 
+    /**
+     * Builds the world with IRs built in parallel (--pre-build-ir)
+     * and on demand by the current thread, and compares the class
+     * hierarchies and the IRs of the two worlds.
+     */
+    @Test
+    void testParallelIRBuilding() {
+        String[] args = {"-java", "8",
+                "-cp", "src/test/resources/pta/contextsensitivity",
+                "-m", "LinkedQueue"};
+        Main.buildWorld(args);
+        List<String> sequential = dumpWorld();
+        World.reset();
+        List<String> preBuildArgs = new ArrayList<>(List.of(args));
+        preBuildArgs.add("--pre-build-ir");
+        Main.buildWorld(preBuildArgs.toArray(String[]::new));
+        List<String> parallel = dumpWorld();
+        World.reset();
+        assertEquals(sequential, parallel);
+    }
+
+    /**
+     * @return the classes of the current world in the order of
+     * the hierarchy, followed by the IRs of the application methods.
+     */
+    private static List<String> dumpWorld() {
+        List<String> lines = new ArrayList<>();
+        List<JClass> classes = World.get().getClassHierarchy()
+                .allClasses()
+                .toList();
+        classes.forEach(c -> lines.add(c.getName()));
+        classes.stream()
+                .filter(JClass::isApplication)
+                .flatMap(c -> c.getDeclaredMethods().stream())
+                .filter(m -> !m.isAbstract())
+                .forEach(m -> {
+                    IR ir = m.getIR();
+                    lines.add(m.getSignature());
+                    ir.getParams().forEach(p -> lines.add(p.toString()));
+                    ir.forEach(stmt -> lines.add(stmt.getIndex() + ": " + stmt));
+                });
+        return lines;
+    }
+
     /**
      * Compare the information of JClass and SootClass.
      */
@@ -0,0 +1,288 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.language.classes;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import pascal.taie.language.annotation.AnnotationHolder;
+import pascal.taie.language.generics.ClassGSignature;
+import pascal.taie.language.type.ClassType;
+import pascal.taie.util.collection.Maps;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HierarchyIndexTest {
+
+    /**
+     * Number of unrelated classes added to the hierarchy, so that
+     * the index is not rebuilt after adding a few classes.
+     */
+    private static final int FILLERS = 48;
+
+    private final Map<String, JClass> classes = Maps.newMap();
+
+    private final JClassLoader loader = new JClassLoader() {
+        @Override
+        public JClass loadClass(String name) {
+            return classes.get(name);
+        }
+
+        @Override
+        public Collection<JClass> getLoadedClasses() {
+            return classes.values();
+        }
+    };
+
+    private ClassHierarchyImpl hierarchy;
+
+    @BeforeEach
+    void buildHierarchy() {
+        hierarchy = new ClassHierarchyImpl();
+        hierarchy.setDefaultClassLoader(loader);
+        JClass object = newClass(ClassNames.OBJECT, null);
+        // I <- J <- A <- B, K <- C, and L <- M (interfaces)
+        JClass i = newInterface("I");
+        JClass j = newInterface("J", i);
+        JClass k = newInterface("K");
+        JClass l = newInterface("L");
+        newInterface("M", l);
+        JClass a = newClass("A", object, j);
+        newClass("B", a);
+        newClass("C", object, k);
+        for (int n = 0; n < FILLERS; ++n) {
+            newClass("F" + n, object);
+        }
+    }
+
+    @Test
+    void testInterfaceRows() {
+        hierarchy.getHierarchyIndex();
+        assertSubclass("I", "J");
+        assertSubclass("I", "A");
+        assertSubclass("I", "B");
+        assertSubclass("J", "B");
+        assertSubclass("K", "C");
+        assertSubclass("L", "M");
+        assertSubclass("A", "B");
+        assertNotSubclass("J", "I");
+        assertNotSubclass("K", "A");
+        assertNotSubclass("I", "C");
+        assertNotSubclass("L", "A");
+        assertNotSubclass("B", "A");
+        assertNotSubclass("A", "C");
+    }
+
+    /**
+     * Long superclass chains must not overflow the stack.
+     */
+    @Test
+    void testLongSuperclassChain() {
+        JClass c = get("B");
+        for (int n = 0; n < 100_000; ++n) {
+            c = newClass("D" + n, c);
+        }
+        HierarchyIndex index = hierarchy.getHierarchyIndex();
+        assertTrue(index.covers(c));
+        assertSubclass("I", c.getName());
+        assertSubclass("A", c.getName());
+        assertNotSubclass("K", c.getName());
+    }
+
+    /**
+     * Classes added after the index is built are not covered by it,
+     * and the queries on them fall back to traversal.
+     */
+    @Test
+    void testClassAddedLater() {
+        HierarchyIndex index = hierarchy.getHierarchyIndex();
+        JClass d = newClass("D", get("B"), get("K"));
+        assertSame(index, hierarchy.getHierarchyIndex());
+        assertFalse(index.covers(d));
+        assertSubclass("A", "D");
+        assertSubclass("I", "D");
+        assertSubclass("K", "D");
+        assertNotSubclass("L", "D");
+        assertNotSubclass("D", "B");
+    }
+
+    /**
+     * Adding a supertype of existing classes invalidates the index.
+     */
+    @Test
+    void testSupertypeAddedLater() {
+        JClass s = new JClass(loader, "S");
+        JClass n = new JClass(loader, "N");
+        newClass("T", s, n);
+        HierarchyIndex index = hierarchy.getHierarchyIndex();
+        build(s, get(ClassNames.OBJECT), Set.of());
+        HierarchyIndex index2 = hierarchy.getHierarchyIndex();
+        assertNotSame(index, index2);
+        assertTrue(index2.covers(s));
+        assertSubclass("S", "T");
+        build(n, null, Set.of(Modifier.INTERFACE));
+        assertNotSame(index2, hierarchy.getHierarchyIndex());
+        assertSubclass("N", "T");
+        assertNotSubclass("N", "S");
+    }
+
+    /**
+     * The index is rebuilt after more than 1/16 of its size of new
+     * classes are added.
+     */
+    @Test
+    void testRebuildThreshold() {
+        HierarchyIndex index = hierarchy.getHierarchyIndex();
+        int size = index.size();
+        JClass c = get("B");
+        for (int n = 0; n < size / 16; ++n) {
+            c = newClass("D" + n, c);
+            assertSame(index, hierarchy.getHierarchyIndex());
+        }
+        assertFalse(index.covers(c));
+        c = newClass("E", c);
+        HierarchyIndex index2 = hierarchy.getHierarchyIndex();
+        assertNotSame(index, index2);
+        assertEquals(size + size / 16 + 1, index2.size());
+        assertTrue(index2.covers(c));
+        assertSubclass("A", "E");
+        assertSubclass("J", "E");
+    }
+
+    private void assertSubclass(String sup, String sub) {
+        assertTrue(hierarchy.isSubclass(get(sup), get(sub)),
+                sub + " should be a subclass of " + sup);
+    }
+
+    private void assertNotSubclass(String sup, String sub) {
+        assertFalse(hierarchy.isSubclass(get(sup), get(sub)),
+                sub + " should not be a subclass of " + sup);
+    }
+
+    private JClass get(String name) {
+        return classes.get(name);
+    }
+
+    private JClass newInterface(String name, JClass... interfaces) {
+        JClass jclass = new JClass(loader, name);
+        build(jclass, null, Set.of(Modifier.PUBLIC, Modifier.INTERFACE,
+                Modifier.ABSTRACT), interfaces);
+        return jclass;
+    }
+
+    private JClass newClass(String name, JClass superClass, JClass... interfaces) {
+        JClass jclass = new JClass(loader, name);
+        build(jclass, superClass, Set.of(Modifier.PUBLIC), interfaces);
+        return jclass;
+    }
+
+    /**
+     * Builds given class and adds it to the hierarchy.
+     */
+    private void build(JClass jclass, JClass superClass,
+                       Set<Modifier> modifiers, JClass... interfaces) {
+        new ClassBuilder(superClass, List.of(interfaces), modifiers)
+                .build(jclass);
+        classes.put(jclass.getName(), jclass);
+        hierarchy.addClass(jclass);
+    }
+
+    private record ClassBuilder(JClass superClass,
+                                Collection<JClass> interfaces,
+                                Set<Modifier> modifiers)
+            implements JClassBuilder {
+
+        @Override
+        public void build(JClass jclass) {
+            jclass.build(this);
+        }
+
+        @Override
+        public Set<Modifier> getModifiers() {
+            return modifiers;
+        }
+
+        @Override
+        public String getSimpleName() {
+            return null;
+        }
+
+        @Override
+        public ClassType getClassType() {
+            return null;
+        }
+
+        @Override
+        public JClass getSuperClass() {
+            return superClass;
+        }
+
+        @Override
+        public Collection<JClass> getInterfaces() {
+            return interfaces;
+        }
+
+        @Override
+        public JClass getOuterClass() {
+            return null;
+        }
+
+        @Override
+        public Collection<JField> getDeclaredFields() {
+            return List.of();
+        }
+
+        @Override
+        public Collection<JMethod> getDeclaredMethods() {
+            return List.of();
+        }
+
+        @Override
+        public AnnotationHolder getAnnotationHolder() {
+            return AnnotationHolder.emptyHolder();
+        }
+
+        @Override
+        public boolean isApplication() {
+            return false;
+        }
+
+        @Override
+        public boolean isPhantom() {
+            return false;
+        }
+
+        @Override
+        public ClassGSignature getGSignature() {
+            return null;
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.junit.platform.suite.api.Suite;
         ArraySetTest.class,
         ArrayMapTest.class,
         HybridHashMapTest.class,
+        HybridBitSetTest.class,
         HybridHashSetTest.class,
         IndexMapTest.class,
         MultiMapTest.class,
@@ -0,0 +1,100 @@
+/*
+ * Tai-e: A Static Analysis Framework for Java
+ *
+ * Copyright (C) 2022 Tian Tan <tiantan@nju.edu.cn>
+ * Copyright (C) 2022 Yue Li <yueli@nju.edu.cn>
+ *
+ * This file is part of Tai-e.
+ *
+ * Tai-e is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License
+ * as published by the Free Software Foundation, either version 3
+ * of the License, or (at your option) any later version.
+ *
+ * Tai-e is distributed in the hope that it will be useful,but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY
+ * or FITNESS FOR A PARTICULAR PURPOSE. See the GNU Lesser General
+ * Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with Tai-e. If not, see <https://www.gnu.org/licenses/>.
+ */
+
+package pascal.taie.util.collection;
+
+import org.junit.jupiter.api.Test;
+import pascal.taie.util.Indexer;
+
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HybridBitSetTest {
+
+    private static final Indexer<Integer> INDEXER = new Indexer<>() {
+
+        @Override
+        public int getIndex(Integer o) {
+            return o;
+        }
+
+        @Override
+        public Integer getObject(int index) {
+            return index;
+        }
+    };
+
+    private static HybridBitSet<Integer> newSet(int... elems) {
+        HybridBitSet<Integer> set = new HybridBitSet<>(INDEXER, true);
+        for (int e : elems) {
+            set.add(e);
+        }
+        return set;
+    }
+
+    private static HybridBitSet<Integer> newLargeSet(int from, int to) {
+        return newSet(IntStream.range(from, to).toArray());
+    }
+
+    @Test
+    void testAddAllLargeToEmpty() {
+        HybridBitSet<Integer> set = newSet();
+        HybridBitSet<Integer> large = newLargeSet(0, 100);
+        assertTrue(set.addAll(large));
+        assertEquals(large, set);
+        // set must not share bits with large
+        set.add(1000);
+        assertFalse(large.contains(1000));
+    }
+
+    @Test
+    void testAddAllLargeToSmall() {
+        HybridBitSet<Integer> singleton = newSet(200);
+        assertTrue(singleton.addAll(newLargeSet(0, 100)));
+        assertEquals(101, singleton.size());
+        assertTrue(singleton.contains(200));
+
+        HybridBitSet<Integer> small = newSet(1, 2, 300);
+        assertTrue(small.addAll(newLargeSet(0, 100)));
+        assertEquals(101, small.size());
+        assertTrue(small.containsAll(Set.of(1, 2, 300)));
+    }
+
+    @Test
+    void testAddAllNothingNew() {
+        // large set which contains only a few elements
+        HybridBitSet<Integer> large = newLargeSet(0, 20);
+        large.removeIf(e -> e > 3);
+        HybridBitSet<Integer> small = newSet(1, 2, 3);
+        assertTrue(small.addAll(large));
+        assertEquals(4, small.size());
+        assertFalse(newSet(0, 1, 2, 3).addAll(large));
+        HybridBitSet<Integer> large2 = newLargeSet(0, 100);
+        assertTrue(large2.addAll(newLargeSet(50, 150)));
+        assertFalse(large2.addAll(newLargeSet(0, 150)));
+        assertEquals(150, large2.size());
+    }
+}
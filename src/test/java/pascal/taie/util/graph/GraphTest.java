@@ -23,16 +23,19 @@
 package pascal.taie.util.graph;
 
 import org.junit.jupiter.api.Test;
+import pascal.taie.util.SimpleIndexer;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -119,6 +122,33 @@ public class GraphTest {
         assertEquals(7, mg.getNumberOfNodes());
     }
 
+    @Test
+    void testSCCWorkList() {
+        Graph<Integer> g = readGraph("src/test/resources/util/graph-scc.txt");
+        SCCWorkList<Integer> workList = new SCCWorkList<>(
+                g, new SimpleIndexer<>(g.getNodes()), false);
+        g.forEach(workList::add);
+        List<Integer> l = new ArrayList<>();
+        while (!workList.isEmpty()) {
+            l.add(workList.poll());
+        }
+        assertEquals(g.getNumberOfNodes(), l.size());
+        assertTrue(l.indexOf(2) < l.indexOf(4));
+        assertTrue(l.indexOf(4) < l.indexOf(6));
+        assertTrue(l.indexOf(10) < l.indexOf(11));
+        assertTrue(l.indexOf(11) < l.indexOf(12));
+        assertTrue(l.indexOf(12) < l.indexOf(13));
+        // nodes are polled in the order of the schedule
+        // regardless of the order in which they are added
+        workList.add(13);
+        workList.add(11);
+        workList.add(10);
+        assertEquals(10, workList.poll());
+        assertEquals(11, workList.poll());
+        assertEquals(13, workList.poll());
+        assertNull(workList.poll());
+    }
+
     @Test
     void testDominator() {
         Graph<Integer> g = readGraph("src/test/resources/util/graph-dominator.txt");
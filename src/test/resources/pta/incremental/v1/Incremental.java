@@ -0,0 +1,35 @@
+class Incremental {
+
+    public static void main(String[] args) {
+        A a = new A();
+        Object o1 = a.get();
+        A b = new B();
+        Object o2 = b.get();
+        C c = new C();
+        Object o3 = c.id(new Object());
+        Object o4 = c.id(o1);
+        A d = new D();
+        Object o5 = d.get();
+    }
+}
+
+class A {
+    Object get() {
+        return new Object();
+    }
+}
+
+class B extends A {
+}
+
+class C {
+    Object id(Object x) {
+        return x;
+    }
+}
+
+class D extends A {
+    Object get() {
+        return new D();
+    }
+}
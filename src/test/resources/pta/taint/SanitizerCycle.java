@@ -0,0 +1,12 @@
+class SanitizerCycle {
+
+    public static void main(String[] args) {
+        String s1 = SourceSink.source();
+        String s2 = Sanitizer.sanitize(s1);
+        // s2 -> sanitize()/input -> s3 -> s2 forms a cycle
+        String s3 = Sanitizer.sanitize(s2);
+        s2 = s3;
+        SourceSink.sink(s2); // no taint flow
+        SourceSink.sink(s1); // taint flow
+    }
+}